@@ -0,0 +1,125 @@
+package com.sales.system;
+
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.Seller;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.dto.ClientDTO;
+import com.sales.system.service.dto.ProductDTO;
+import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SaleTransactionDTO;
+import com.sales.system.service.dto.SellerDTO;
+import com.sales.system.service.dto.TransactionLogDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic sample entities and DTOs for the benchmarks, shaped like the ones the REST endpoints return.
+ */
+public final class BenchmarkData {
+
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private BenchmarkData() {}
+
+    public static Sale sale(long id) {
+        Client client = new Client().id(id % 500).name("Client " + id % 500).lastName("Lastname").mobile("+34600000000");
+        Seller seller = new Seller().id(id % 20).name("Seller " + id % 20).lastName("Lastname").employeeCode("EMP-" + id % 20);
+        return new Sale()
+            .id(id)
+            .creationDate(EPOCH.plusSeconds(id * 37))
+            .total(BigDecimal.valueOf(id * 1999 % 100_000, 2))
+            .client(client)
+            .seller(seller);
+    }
+
+    public static SaleTransaction saleTransaction(long id) {
+        Product product = new Product()
+            .id(id % 2000)
+            .name("Product " + id % 2000)
+            .description("Description of product " + id % 2000)
+            .category("Category " + id % 40)
+            .creationDate(EPOCH);
+        BigDecimal unitPrice = BigDecimal.valueOf(id * 731 % 10_000 + 1, 2);
+        int quantity = (int) (id % 5) + 1;
+        return new SaleTransaction()
+            .id(id)
+            .quantity(quantity)
+            .unitPrice(unitPrice)
+            .subtotal(unitPrice.multiply(BigDecimal.valueOf(quantity)))
+            .product(product)
+            .sale(sale(id / 3));
+    }
+
+    public static TransactionLog transactionLog(long id) {
+        return new TransactionLog()
+            .id(id)
+            .timestamp(EPOCH.plusSeconds(id))
+            .operationType("CREATE")
+            .modifiedBy("admin")
+            .saleTransactionId(id);
+    }
+
+    public static SaleDTO saleDTO(long id) {
+        SaleDTO sale = new SaleDTO();
+        sale.setId(id);
+        sale.setCreationDate(EPOCH.plusSeconds(id * 37));
+        sale.setTotal(BigDecimal.valueOf(id * 1999 % 100_000, 2));
+        ClientDTO client = new ClientDTO();
+        client.setId(id % 500);
+        client.setName("Client " + id % 500);
+        sale.setClient(client);
+        SellerDTO seller = new SellerDTO();
+        seller.setId(id % 20);
+        seller.setEmployeeCode("EMP-" + id % 20);
+        sale.setSeller(seller);
+        return sale;
+    }
+
+    public static SaleTransactionDTO saleTransactionDTO(long id) {
+        SaleTransactionDTO saleTransaction = new SaleTransactionDTO();
+        saleTransaction.setId(id);
+        BigDecimal unitPrice = BigDecimal.valueOf(id * 731 % 10_000 + 1, 2);
+        int quantity = (int) (id % 5) + 1;
+        saleTransaction.setQuantity(quantity);
+        saleTransaction.setUnitPrice(unitPrice);
+        saleTransaction.setSubtotal(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+        ProductDTO product = new ProductDTO();
+        product.setId(id % 2000);
+        product.setName("Product " + id % 2000);
+        saleTransaction.setProduct(product);
+        SaleDTO sale = new SaleDTO();
+        sale.setId(id / 3);
+        saleTransaction.setSale(sale);
+        return saleTransaction;
+    }
+
+    public static TransactionLogDTO transactionLogDTO(long id) {
+        TransactionLogDTO transactionLog = new TransactionLogDTO();
+        transactionLog.setId(id);
+        transactionLog.setTimestamp(EPOCH.plusSeconds(id));
+        transactionLog.setOperationType("CREATE");
+        transactionLog.setSaleTransactionId(id);
+        return transactionLog;
+    }
+
+    public static List<SaleDTO> saleDTOs(int size) {
+        List<SaleDTO> sales = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            sales.add(saleDTO(i));
+        }
+        return sales;
+    }
+
+    public static List<SaleTransactionDTO> saleTransactionDTOs(int size) {
+        List<SaleTransactionDTO> saleTransactions = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            saleTransactions.add(saleTransactionDTO(i));
+        }
+        return saleTransactions;
+    }
+}
@@ -0,0 +1,69 @@
+package com.sales.system.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sales.system.BenchmarkData;
+import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SaleTransactionDTO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the JSON serialization of a page of DTOs, with the modules of {@link JacksonConfiguration} and the
+ * settings Spring Boot applies to its {@link ObjectMapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({ "20", "200", "2000" })
+    private int pageSize;
+
+    private ObjectWriter sales;
+
+    private ObjectWriter saleTransactions;
+
+    private List<SaleDTO> salePage;
+
+    private List<SaleTransactionDTO> saleTransactionPage;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        ObjectMapper objectMapper = JsonMapper.builder()
+            .addModules(configuration.javaTimeModule(), configuration.jdk8TimeModule(), configuration.hibernate6Module())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+        salePage = BenchmarkData.saleDTOs(pageSize);
+        saleTransactionPage = BenchmarkData.saleTransactionDTOs(pageSize);
+        sales = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, SaleDTO.class));
+        saleTransactions = objectMapper.writerFor(
+            objectMapper.getTypeFactory().constructCollectionType(List.class, SaleTransactionDTO.class)
+        );
+    }
+
+    @Benchmark
+    public int salePage() throws IOException {
+        body.reset();
+        sales.writeValue(body, salePage);
+        return body.size();
+    }
+
+    @Benchmark
+    public int saleTransactionPage() throws IOException {
+        body.reset();
+        saleTransactions.writeValue(body, saleTransactionPage);
+        return body.size();
+    }
+}
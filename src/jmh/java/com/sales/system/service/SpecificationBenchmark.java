@@ -0,0 +1,124 @@
+package com.sales.system.service;
+
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.Seller;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.criteria.ClientCriteria;
+import com.sales.system.service.criteria.ProductCriteria;
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.criteria.SellerCriteria;
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Benchmarks of the {@link Specification} construction of the query services, from criteria with every filter set,
+ * as parsed from the query string of a criteria request.
+ * <p>
+ * Only the construction is measured: the repositories, the counts and the caches are not used by {@code createSpecification}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SpecificationBenchmark {
+
+    private static final Instant FROM = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static final Instant TO = Instant.parse("2025-02-01T00:00:00Z");
+
+    private final ClientQueryService clientQueryService = new ClientQueryService(null, null, null, null);
+
+    private final ProductQueryService productQueryService = new ProductQueryService(null, null, null, null);
+
+    private final SaleQueryService saleQueryService = new SaleQueryService(null, null, null, null, null);
+
+    private final SellerQueryService sellerQueryService = new SellerQueryService(null, null, null, null);
+
+    private final TransactionLogQueryService transactionLogQueryService = new TransactionLogQueryService(null, null, null, null);
+
+    private ClientCriteria clientCriteria;
+
+    private ProductCriteria productCriteria;
+
+    private SaleCriteria saleCriteria;
+
+    private SellerCriteria sellerCriteria;
+
+    private TransactionLogCriteria transactionLogCriteria;
+
+    @Setup
+    public void setUp() {
+        clientCriteria = new ClientCriteria();
+        clientCriteria.id().setGreaterThan(100L);
+        clientCriteria.name().setContains("an");
+        clientCriteria.lastName().setEquals("Garcia");
+        clientCriteria.mobile().setSpecified(true);
+        clientCriteria.setDistinct(true);
+
+        productCriteria = new ProductCriteria();
+        productCriteria.id().setIn(List.of(1L, 2L, 3L, 5L, 8L));
+        productCriteria.name().setContains("phone");
+        productCriteria.description().setDoesNotContain("refurbished");
+        productCriteria.category().setEquals("Electronics");
+        productCriteria.creationDate().setGreaterThanOrEqual(FROM);
+        productCriteria.creationDate().setLessThan(TO);
+
+        saleCriteria = new SaleCriteria();
+        saleCriteria.id().setGreaterThan(1000L);
+        saleCriteria.creationDate().setGreaterThanOrEqual(FROM);
+        saleCriteria.creationDate().setLessThan(TO);
+        saleCriteria.total().setGreaterThan(new BigDecimal("100.00"));
+        saleCriteria.transactionsId().setSpecified(true);
+        saleCriteria.clientId().setEquals(7L);
+        saleCriteria.sellerId().setIn(List.of(1L, 2L, 3L));
+        saleCriteria.setDistinct(true);
+
+        sellerCriteria = new SellerCriteria();
+        sellerCriteria.id().setLessThan(50L);
+        sellerCriteria.name().setContains("ar");
+        sellerCriteria.lastName().setNotEquals("Smith");
+        sellerCriteria.employeeCode().setEquals("EMP-7");
+
+        transactionLogCriteria = new TransactionLogCriteria();
+        transactionLogCriteria.id().setGreaterThan(10_000L);
+        transactionLogCriteria.timestamp().setGreaterThanOrEqual(FROM);
+        transactionLogCriteria.timestamp().setLessThan(TO);
+        transactionLogCriteria.operationType().setIn(List.of("CREATE", "PATCH"));
+        transactionLogCriteria.modifiedBy().setEquals("admin");
+        transactionLogCriteria.saleTransactionId().setEquals(42L);
+    }
+
+    @Benchmark
+    public Specification<Client> clientSpecification() {
+        return clientQueryService.createSpecification(clientCriteria);
+    }
+
+    @Benchmark
+    public Specification<Product> productSpecification() {
+        return productQueryService.createSpecification(productCriteria);
+    }
+
+    @Benchmark
+    public Specification<Sale> saleSpecification() {
+        return saleQueryService.createSpecification(saleCriteria);
+    }
+
+    @Benchmark
+    public Specification<Seller> sellerSpecification() {
+        return sellerQueryService.createSpecification(sellerCriteria);
+    }
+
+    @Benchmark
+    public Specification<TransactionLog> transactionLogSpecification() {
+        return transactionLogQueryService.createSpecification(transactionLogCriteria);
+    }
+}
@@ -0,0 +1,84 @@
+package com.sales.system.service.mapper;
+
+import com.sales.system.BenchmarkData;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SaleTransactionDTO;
+import com.sales.system.service.dto.TransactionLogDTO;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the MapStruct mappers used on every read ({@code toDto}) and every PATCH ({@code partialUpdate}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private final SaleMapper saleMapper = new SaleMapperImpl();
+
+    private final SaleTransactionMapper saleTransactionMapper = new SaleTransactionMapperImpl();
+
+    private final TransactionLogMapper transactionLogMapper = new TransactionLogMapperImpl();
+
+    private Sale sale;
+
+    private SaleTransaction saleTransaction;
+
+    private TransactionLog transactionLog;
+
+    private SaleDTO salePatch;
+
+    private SaleTransactionDTO saleTransactionPatch;
+
+    private TransactionLogDTO transactionLogPatch;
+
+    @Setup
+    public void setUp() {
+        sale = BenchmarkData.sale(42);
+        saleTransaction = BenchmarkData.saleTransaction(42);
+        transactionLog = BenchmarkData.transactionLog(42);
+        salePatch = BenchmarkData.saleDTO(43);
+        saleTransactionPatch = BenchmarkData.saleTransactionDTO(43);
+        transactionLogPatch = BenchmarkData.transactionLogDTO(43);
+    }
+
+    @Benchmark
+    public SaleDTO saleToDto() {
+        return saleMapper.toDto(sale);
+    }
+
+    @Benchmark
+    public SaleTransactionDTO saleTransactionToDto() {
+        return saleTransactionMapper.toDto(saleTransaction);
+    }
+
+    @Benchmark
+    public TransactionLogDTO transactionLogToDto() {
+        return transactionLogMapper.toDto(transactionLog);
+    }
+
+    @Benchmark
+    public Sale salePartialUpdate() {
+        saleMapper.partialUpdate(sale, salePatch);
+        return sale;
+    }
+
+    @Benchmark
+    public SaleTransaction saleTransactionPartialUpdate() {
+        saleTransactionMapper.partialUpdate(saleTransaction, saleTransactionPatch);
+        return saleTransaction;
+    }
+
+    @Benchmark
+    public TransactionLog transactionLogPartialUpdate() {
+        transactionLogMapper.partialUpdate(transactionLog, transactionLogPatch);
+        return transactionLog;
+    }
+}
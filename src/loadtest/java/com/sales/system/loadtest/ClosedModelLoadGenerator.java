@@ -0,0 +1,82 @@
+package com.sales.system.loadtest;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-model load generator: a fixed number of clients, each sending its next request as soon as the previous one
+ * completed. The throughput is then bounded by the concurrency the system under test sustains, which is what tells the
+ * platform and the virtual thread modes apart; unlike with the {@link OpenModelLoadGenerator}, the latencies are
+ * measured from the time the request was sent, and do not include any queueing on the client side.
+ */
+public class ClosedModelLoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final SalesWorkload workload;
+
+    private final SalesWorkload.Operation[] weightedOperations;
+
+    public ClosedModelLoadGenerator(SalesWorkload workload, Map<SalesWorkload.Operation, Integer> mix) {
+        this.workload = workload;
+        this.weightedOperations = OpenModelLoadGenerator.weightedOperations(mix);
+    }
+
+    /**
+     * Run concurrent clients for a while, then wait for their last requests.
+     *
+     * @param clients the number of concurrent clients.
+     * @param duration how long the clients send requests.
+     * @return the stats of every operation of the mix.
+     * @throws InterruptedException if interrupted while waiting for the last requests.
+     */
+    public OpenModelLoadGenerator.Run run(int clients, Duration duration) throws InterruptedException {
+        Map<SalesWorkload.Operation, EndpointStats> stats = new EnumMap<>(SalesWorkload.Operation.class);
+        for (SalesWorkload.Operation operation : weightedOperations) {
+            stats.computeIfAbsent(operation, key -> new EndpointStats());
+        }
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        CountDownLatch stopped = new CountDownLatch(clients);
+        for (int client = 0; client < clients; client++) {
+            sendNext(stats, end, stopped);
+        }
+        stopped.await(duration.plus(DRAIN_TIMEOUT).toNanos(), TimeUnit.NANOSECONDS);
+        return new OpenModelLoadGenerator.Run(stats, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void sendNext(Map<SalesWorkload.Operation, EndpointStats> stats, long end, CountDownLatch stopped) {
+        if (System.nanoTime() >= end) {
+            stopped.countDown();
+            return;
+        }
+        SalesWorkload.Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+        EndpointStats endpoint = stats.get(operation);
+        long sent = System.nanoTime();
+        try {
+            workload
+                .send(operation)
+                .whenComplete((response, error) -> {
+                    record(endpoint, sent, response, error);
+                    sendNext(stats, end, stopped);
+                });
+        } catch (RuntimeException e) {
+            // the request could not even be built: this client stops
+            endpoint.recordError();
+            stopped.countDown();
+        }
+    }
+
+    private static void record(EndpointStats endpoint, long sent, HttpResponse<byte[]> response, Throwable error) {
+        if (error == null && response.statusCode() / 100 == 2) {
+            endpoint.recordSuccess(System.nanoTime() - sent);
+        } else {
+            endpoint.recordError();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sales.system.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and failures of one endpoint during one stage.
+ * <p>
+ * Latencies are recorded in microseconds from the time the request was scheduled to start, not from the time it was
+ * sent, so that a saturated client or server does not hide its queueing delay (coordinated omission).
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * @return the latencies recorded since the previous call.
+     */
+    public Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
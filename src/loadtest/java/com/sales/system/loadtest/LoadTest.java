@@ -0,0 +1,101 @@
+package com.sales.system.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sales.system.SalesSystemApp;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test of the REST resources with a sales workload.
+ * <p>
+ * Unless a {@code target} is given, the application is booted in this JVM, with the {@code dev} profile (and its faker
+ * sample data) on an embedded PostgreSQL, with the debug logs turned off. Then, for every rate of {@code rates}, the
+ * {@link SalesWorkload} is replayed by an {@link OpenModelLoadGenerator}, or for every number of {@code clients} by a
+ * {@link ClosedModelLoadGenerator}, first for the warmup, then for the measured duration, and the
+ * {@link LoadTestReport} of the stage is printed. The whole report is written as JSON at the end, so
+ * that runs of different builds can be compared. See {@link LoadTestOptions} for the options.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        EmbeddedPostgres database = null;
+        ConfigurableApplicationContext application = null;
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            String target = options.target();
+            if (target == null) {
+                database = EmbeddedPostgres.builder().start();
+                application = boot(database, options.profiles());
+                target = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            }
+            HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(httpExecutor)
+                .build();
+            SalesWorkload workload = new SalesWorkload(URI.create(target), httpClient, objectMapper);
+            workload.prepare(options.username(), options.password());
+
+            LoadTestReport report = new LoadTestReport(target);
+            if (options.clients().isEmpty()) {
+                OpenModelLoadGenerator generator = new OpenModelLoadGenerator(workload, options.mix(), options.maxInFlight());
+                for (int rate : options.rates()) {
+                    if (!options.warmup().isZero()) {
+                        generator.run(rate, options.warmup());
+                    }
+                    report.print(report.addStage(rate, options.duration(), generator.run(rate, options.duration())), System.out);
+                }
+            } else {
+                ClosedModelLoadGenerator generator = new ClosedModelLoadGenerator(workload, options.mix());
+                for (int clients : options.clients()) {
+                    if (!options.warmup().isZero()) {
+                        generator.run(clients, options.warmup());
+                    }
+                    OpenModelLoadGenerator.Run run = generator.run(clients, options.duration());
+                    report.print(report.addClosedStage(clients, options.duration(), run), System.out);
+                }
+            }
+            report.write(options.report(), objectMapper);
+            System.out.printf("%nReport written to %s%n", options.report().toAbsolutePath());
+        } finally {
+            httpExecutor.shutdownNow();
+            if (application != null) {
+                SpringApplication.exit(application);
+            }
+            if (database != null) {
+                database.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(EmbeddedPostgres database, List<String> profiles) {
+        // command line arguments, as they must override the dev profile configuration; Liquibase runs before the load starts
+        String[] arguments = {
+            "--spring.datasource.url=jdbc:postgresql://localhost:" + database.getPort() + "/postgres?reWriteBatchedInserts=true",
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=",
+            "--server.port=0",
+            "--application.liquibase.async-start=false",
+            "--spring.devtools.restart.enabled=false",
+            "--spring.jackson.serialization.indent-output=false",
+            "--logging.level.ROOT=INFO",
+            "--logging.level.tech.jhipster=INFO",
+            "--logging.level.org.hibernate.SQL=INFO",
+            "--logging.level.com.sales.system=INFO",
+        };
+        return new SpringApplicationBuilder(SalesSystemApp.class).profiles(profiles.toArray(String[]::new)).run(arguments);
+    }
+}
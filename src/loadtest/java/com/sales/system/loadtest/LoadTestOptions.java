@@ -0,0 +1,121 @@
+package com.sales.system.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the {@link LoadTest}, given as {@code key=value} arguments.
+ * <ul>
+ * <li>{@code target}: base URL of a running instance; when missing, the application is booted on an embedded PostgreSQL.</li>
+ * <li>{@code rates}: comma separated arrival rates, in requests per second, one stage per rate (default {@code 50}).</li>
+ * <li>{@code clients}: comma separated numbers of concurrent clients, one closed-model stage per number, instead of the
+ * {@code rates}; for example {@code 1000,5000,10000}, see {@link ClosedModelLoadGenerator}.</li>
+ * <li>{@code duration}: measured duration of every stage, in seconds (default {@code 60}).</li>
+ * <li>{@code warmup}: unmeasured duration before every stage, in seconds (default {@code 10}).</li>
+ * <li>{@code mix}: comma separated {@code operation:weight} pairs, see {@link SalesWorkload.Operation}.</li>
+ * <li>{@code max-in-flight}: requests in flight beyond which arrivals are dropped (default {@code 2000}).</li>
+ * <li>{@code username} / {@code password}: the account the requests are authenticated with (default {@code admin}).</li>
+ * <li>{@code report}: the JSON report file (default {@code loadtest-result.json}).</li>
+ * <li>{@code profiles}: comma separated Spring profiles of the booted application (default {@code dev}); add
+ * {@code virtual-threads} to compare the virtual thread mode with the platform threads.</li>
+ * </ul>
+ */
+public record LoadTestOptions(
+    String target,
+    List<Integer> rates,
+    List<Integer> clients,
+    Duration duration,
+    Duration warmup,
+    Map<SalesWorkload.Operation, Integer> mix,
+    int maxInFlight,
+    String username,
+    String password,
+    Path report,
+    List<String> profiles
+) {
+    public static final Map<SalesWorkload.Operation, Integer> DEFAULT_MIX = Map.of(
+        SalesWorkload.Operation.CHECKOUT,
+        20,
+        SalesWorkload.Operation.SEARCH_SALES,
+        25,
+        SalesWorkload.Operation.SEARCH_PRODUCTS,
+        15,
+        SalesWorkload.Operation.COUNT_SALES,
+        15,
+        SalesWorkload.Operation.AUDIT_LOG,
+        15,
+        SalesWorkload.Operation.UPDATE_SALE_TRANSACTION,
+        10
+    );
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        List<Integer> rates = new ArrayList<>();
+        for (String rate : values.getOrDefault("rates", "50").split(",")) {
+            rates.add(Integer.parseInt(rate.trim()));
+        }
+        List<Integer> clients = new ArrayList<>();
+        if (values.containsKey("clients")) {
+            for (String count : values.get("clients").split(",")) {
+                clients.add(Integer.parseInt(count.trim()));
+            }
+        }
+        List<String> profiles = new ArrayList<>();
+        for (String profile : values.getOrDefault("profiles", "dev").split(",")) {
+            profiles.add(profile.trim());
+        }
+        Map<SalesWorkload.Operation, Integer> mix = DEFAULT_MIX;
+        if (values.containsKey("mix")) {
+            mix = new LinkedHashMap<>();
+            for (String entry : values.get("mix").split(",")) {
+                String[] parts = entry.split(":");
+                mix.put(SalesWorkload.Operation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        LoadTestOptions options = new LoadTestOptions(
+            values.get("target"),
+            List.copyOf(rates),
+            List.copyOf(clients),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+            mix,
+            Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+            values.getOrDefault("username", "admin"),
+            values.getOrDefault("password", "admin"),
+            Path.of(values.getOrDefault("report", "loadtest-result.json")),
+            List.copyOf(profiles)
+        );
+        values
+            .keySet()
+            .removeAll(
+                List.of(
+                    "target",
+                    "rates",
+                    "clients",
+                    "duration",
+                    "warmup",
+                    "mix",
+                    "max-in-flight",
+                    "username",
+                    "password",
+                    "report",
+                    "profiles"
+                )
+            );
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+}
@@ -0,0 +1,180 @@
+package com.sales.system.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Report of a load test: throughput and latency percentiles of every endpoint, for every stage.
+ * <p>
+ * The throughput of a stage is measured until its last request completed. An open-model stage is flagged as saturated
+ * when it is below 95% of the offered load: the requests were queueing, and the latencies of the following stages only
+ * measure the length of the queue. A closed-model stage, with a number of concurrent clients rather than an offered
+ * rate, cannot be saturated: its throughput is the one the system under test sustains at that concurrency.
+ */
+public class LoadTestReport {
+
+    private static final double SATURATION_THRESHOLD = 0.95;
+
+    private static final String ALL_ENDPOINTS = "all";
+
+    public record EndpointResult(
+        long requests,
+        long errors,
+        long dropped,
+        double throughput,
+        double p50Millis,
+        double p95Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+    ) {}
+
+    public record StageResult(
+        int offeredRate,
+        int concurrentClients,
+        long durationSeconds,
+        double throughput,
+        boolean saturated,
+        Map<String, EndpointResult> endpoints
+    ) {}
+
+    private final String target;
+
+    private final Instant startTime = Instant.now();
+
+    private final List<StageResult> stages = new ArrayList<>();
+
+    public LoadTestReport(String target) {
+        this.target = target;
+    }
+
+    public StageResult addStage(int rate, Duration duration, OpenModelLoadGenerator.Run run) {
+        return addStage(rate, 0, duration, run);
+    }
+
+    public StageResult addClosedStage(int clients, Duration duration, OpenModelLoadGenerator.Run run) {
+        return addStage(0, clients, duration, run);
+    }
+
+    private StageResult addStage(int rate, int clients, Duration duration, OpenModelLoadGenerator.Run run) {
+        Map<SalesWorkload.Operation, EndpointStats> stats = run.endpoints();
+        double seconds = run.elapsed().toNanos() / 1e9;
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        Histogram all = null;
+        long allErrors = 0;
+        long allDropped = 0;
+        for (Map.Entry<SalesWorkload.Operation, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            endpoints.put(entry.getKey().endpointName(), result(histogram, entry.getValue().errors(), entry.getValue().dropped(), seconds));
+            if (all == null) {
+                all = histogram.copy();
+            } else {
+                all.add(histogram);
+            }
+            allErrors += entry.getValue().errors();
+            allDropped += entry.getValue().dropped();
+        }
+        EndpointResult total = result(all, allErrors, allDropped, seconds);
+        endpoints.put(ALL_ENDPOINTS, total);
+        StageResult stage = new StageResult(
+            rate,
+            clients,
+            duration.toSeconds(),
+            total.throughput(),
+            rate > 0 && total.throughput() + total.errors() / seconds < rate * SATURATION_THRESHOLD,
+            endpoints
+        );
+        stages.add(stage);
+        return stage;
+    }
+
+    private static EndpointResult result(Histogram histogram, long errors, long dropped, double seconds) {
+        long requests = histogram.getTotalCount();
+        return new EndpointResult(
+            requests,
+            errors,
+            dropped,
+            requests / seconds,
+            millis(histogram, 50),
+            millis(histogram, 95),
+            millis(histogram, 99),
+            millis(histogram, 99.9),
+            histogram.getMaxValue() / 1000.0
+        );
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public void print(StageResult stage, PrintStream out) {
+        if (stage.concurrentClients() > 0) {
+            out.printf(
+                "%nStage: %d concurrent clients for %d s, %.1f req/s completed%n",
+                stage.concurrentClients(),
+                stage.durationSeconds(),
+                stage.throughput()
+            );
+        } else {
+            out.printf(
+                "%nStage: %d req/s offered for %d s, %.1f req/s completed%s%n",
+                stage.offeredRate(),
+                stage.durationSeconds(),
+                stage.throughput(),
+                stage.saturated() ? " (SATURATED)" : ""
+            );
+        }
+        out.printf(
+            "%-26s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+            "endpoint",
+            "requests",
+            "errors",
+            "dropped",
+            "req/s",
+            "p50 ms",
+            "p95 ms",
+            "p99 ms",
+            "p99.9 ms",
+            "max ms"
+        );
+        stage
+            .endpoints()
+            .forEach((name, result) ->
+                out.printf(
+                    "%-26s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name,
+                    result.requests(),
+                    result.errors(),
+                    result.dropped(),
+                    result.throughput(),
+                    result.p50Millis(),
+                    result.p95Millis(),
+                    result.p99Millis(),
+                    result.p999Millis(),
+                    result.maxMillis()
+                )
+            );
+    }
+
+    public void write(Path file, ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", target);
+        report.put("startTime", startTime.toString());
+        report.put("stages", stages);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+}
@@ -0,0 +1,113 @@
+package com.sales.system.loadtest;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Open-model load generator: requests are started at a constant arrival rate, whether or not the previous ones have
+ * completed, as independent users would. When the system under test cannot keep up, the requests in flight pile up
+ * and their latency grows, instead of the load silently decreasing as with a closed model (a fixed pool of users).
+ */
+public class OpenModelLoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final SalesWorkload workload;
+
+    private final SalesWorkload.Operation[] weightedOperations;
+
+    private final int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The stats of a run, and how long it took to complete its requests, including the ones still in flight at the end.
+     */
+    public record Run(Map<SalesWorkload.Operation, EndpointStats> endpoints, Duration elapsed) {}
+
+    public OpenModelLoadGenerator(SalesWorkload workload, Map<SalesWorkload.Operation, Integer> mix, int maxInFlight) {
+        this.workload = workload;
+        this.weightedOperations = weightedOperations(mix);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * The operations of a mix, each repeated as many times as its weight, to be picked uniformly.
+     */
+    static SalesWorkload.Operation[] weightedOperations(Map<SalesWorkload.Operation, Integer> mix) {
+        SalesWorkload.Operation[] operations = mix
+            .entrySet()
+            .stream()
+            .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+            .toArray(SalesWorkload.Operation[]::new);
+        if (operations.length == 0) {
+            throw new IllegalArgumentException("The mix has no operation");
+        }
+        return operations;
+    }
+
+    /**
+     * Start requests at a constant rate for a while, then wait for the requests in flight.
+     *
+     * @param rate the arrival rate, in requests per second.
+     * @param duration how long requests are started.
+     * @return the stats of every operation of the mix.
+     */
+    public Run run(int rate, Duration duration) {
+        Map<SalesWorkload.Operation, EndpointStats> stats = new EnumMap<>(SalesWorkload.Operation.class);
+        for (SalesWorkload.Operation operation : weightedOperations) {
+            stats.computeIfAbsent(operation, key -> new EndpointStats());
+        }
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long arrival = 0;; arrival++) {
+            long scheduled = start + arrival * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            SalesWorkload.Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+            EndpointStats endpoint = stats.get(operation);
+            if (inFlight.get() >= maxInFlight) {
+                endpoint.recordDropped();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            try {
+                workload
+                    .send(operation)
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        record(endpoint, scheduled, response, error);
+                    });
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                endpoint.recordError();
+            }
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return new Run(stats, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static void record(EndpointStats endpoint, long scheduled, HttpResponse<byte[]> response, Throwable error) {
+        if (error == null && response.statusCode() / 100 == 2) {
+            endpoint.recordSuccess(System.nanoTime() - scheduled);
+        } else {
+            endpoint.recordError();
+        }
+    }
+}
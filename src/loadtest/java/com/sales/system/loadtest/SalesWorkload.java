@@ -0,0 +1,264 @@
+package com.sales.system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The sales workload: the requests of every {@link Operation}, built from the clients, sellers, products and
+ * saleTransactions known to exist.
+ */
+public class SalesWorkload {
+
+    /**
+     * The operations of the workload, each reported as one endpoint.
+     */
+    public enum Operation {
+        CHECKOUT,
+        SEARCH_SALES,
+        SEARCH_PRODUCTS,
+        COUNT_SALES,
+        AUDIT_LOG,
+        UPDATE_SALE_TRANSACTION;
+
+        public String endpointName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        public static Operation fromName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int REFERENCE_PAGE_SIZE = 1000;
+
+    private static final int RECENT_SALE_TRANSACTIONS = 4096;
+
+    private final URI baseUri;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private String authorization;
+
+    private long[] clientIds;
+
+    private long[] sellerIds;
+
+    private long[] productIds;
+
+    private String[] categories;
+
+    /**
+     * Ring of the latest saleTransaction ids, to update and to audit.
+     */
+    private final AtomicLongArray recentSaleTransactionIds = new AtomicLongArray(RECENT_SALE_TRANSACTIONS);
+
+    private final AtomicLong recentSaleTransactionCount = new AtomicLong();
+
+    public SalesWorkload(URI baseUri, HttpClient httpClient, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Authenticate, and load the reference data the requests are built from, creating some when there is none.
+     */
+    public void prepare(String username, String password) throws IOException, InterruptedException {
+        JsonNode token = sendSync(
+            HttpRequest.newBuilder(baseUri.resolve("/api/authenticate"))
+                .header("Content-Type", "application/json")
+                .POST(body(Map.of("username", username, "password", password, "rememberMe", false)))
+        );
+        authorization = "Bearer " + token.get("id_token").asText();
+
+        clientIds = ids(referenceData("/api/clients", "client"));
+        sellerIds = ids(referenceData("/api/sellers", "seller"));
+        JsonNode products = referenceData("/api/products", "product");
+        productIds = ids(products);
+        categories = distinctTexts(products, "category");
+        JsonNode saleTransactions = sendSync(authorized("/api/sale-transactions?size=" + REFERENCE_PAGE_SIZE + "&sort=id,desc").GET());
+        for (JsonNode saleTransaction : saleTransactions) {
+            rememberSaleTransaction(saleTransaction.get("id").asLong());
+        }
+    }
+
+    private JsonNode referenceData(String path, String kind) throws IOException, InterruptedException {
+        JsonNode entities = sendSync(authorized(path + "?size=" + REFERENCE_PAGE_SIZE).GET());
+        if (!entities.isEmpty()) {
+            return entities;
+        }
+        List<JsonNode> created = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            created.add(sendSync(authorized(path).header("Content-Type", "application/json").POST(body(referenceEntity(kind, i)))));
+        }
+        return objectMapper.valueToTree(created);
+    }
+
+    private static Map<String, Object> referenceEntity(String kind, int i) {
+        return switch (kind) {
+            case "client" -> Map.of("name", "Client " + i, "lastName", "Load", "mobile", "+3460000" + String.format("%04d", i));
+            case "seller" -> Map.of("name", "Seller " + i, "lastName", "Load", "employeeCode", "LOAD-" + i);
+            default -> Map.of("name", "Product " + i, "category", "Category " + i % 8, "creationDate", Instant.now().toString());
+        };
+    }
+
+    /**
+     * Send the request of an operation.
+     *
+     * @param operation the operation.
+     * @return the response, with the body once the checkout receipts have been read.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> send(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = switch (operation) {
+            case CHECKOUT -> authorized("/api/sales/checkout")
+                .header("Content-Type", "application/json")
+                .POST(body(checkout(random)))
+                .build();
+            case SEARCH_SALES -> authorized(
+                "/api/sales?sellerId.equals=" +
+                pick(sellerIds, random) +
+                "&creationDate.greaterThan=" +
+                Instant.now().minus(random.nextInt(1, 365), ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS) +
+                "&page=0&size=20&sort=id,desc"
+            )
+                .GET()
+                .build();
+            case SEARCH_PRODUCTS -> authorized(
+                "/api/products?category.equals=" +
+                URLEncoder.encode(categories[random.nextInt(categories.length)], StandardCharsets.UTF_8) +
+                "&page=" +
+                random.nextInt(3) +
+                "&size=20&sort=name,asc"
+            )
+                .GET()
+                .build();
+            case COUNT_SALES -> authorized("/api/sales/count?clientId.equals=" + pick(clientIds, random)).GET().build();
+            case AUDIT_LOG -> authorized("/api/transaction-logs?saleTransactionId.equals=" + recentSaleTransaction(random) + "&size=20")
+                .GET()
+                .build();
+            case UPDATE_SALE_TRANSACTION -> {
+                long id = recentSaleTransaction(random);
+                yield authorized("/api/sale-transactions/" + id)
+                    .header("Content-Type", "application/merge-patch+json")
+                    .method("PATCH", body(Map.of("id", id, "quantity", random.nextInt(1, 10))))
+                    .build();
+            }
+        };
+        CompletableFuture<HttpResponse<byte[]>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (operation == Operation.CHECKOUT) {
+            return response.thenApply(this::readReceipt);
+        }
+        return response;
+    }
+
+    private Map<String, Object> checkout(ThreadLocalRandom random) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        int count = random.nextInt(1, 6);
+        for (int i = 0; i < count; i++) {
+            lines.add(
+                Map.of(
+                    "quantity",
+                    random.nextInt(1, 5),
+                    "unitPrice",
+                    random.nextInt(100, 50_000) / 100.0,
+                    "product",
+                    Map.of("id", pick(productIds, random))
+                )
+            );
+        }
+        return Map.of(
+            "client",
+            Map.of("id", pick(clientIds, random)),
+            "seller",
+            Map.of("id", pick(sellerIds, random)),
+            "transactions",
+            lines
+        );
+    }
+
+    private HttpResponse<byte[]> readReceipt(HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 == 2) {
+            try {
+                for (JsonNode saleTransaction : objectMapper.readTree(response.body()).get("transactions")) {
+                    rememberSaleTransaction(saleTransaction.get("id").asLong());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable checkout receipt", e);
+            }
+        }
+        return response;
+    }
+
+    private void rememberSaleTransaction(long id) {
+        long index = recentSaleTransactionCount.getAndIncrement();
+        recentSaleTransactionIds.set((int) (index % RECENT_SALE_TRANSACTIONS), id);
+    }
+
+    private long recentSaleTransaction(ThreadLocalRandom random) {
+        long count = Math.min(recentSaleTransactionCount.get(), RECENT_SALE_TRANSACTIONS);
+        // before the first checkout, audit and update an id that does not exist: the 404 is reported as an error
+        return count == 0 ? 0 : recentSaleTransactionIds.get(random.nextInt((int) count));
+    }
+
+    private static long pick(long[] ids, ThreadLocalRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private HttpRequest.Builder authorized(String pathAndQuery) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(pathAndQuery))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json");
+        return authorization != null ? builder.header("Authorization", authorization) : builder;
+    }
+
+    private HttpRequest.BodyPublisher body(Object value) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode sendSync(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(response.request().uri() + " answered " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static long[] ids(JsonNode entities) {
+        long[] ids = new long[entities.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = entities.get(i).get("id").asLong();
+        }
+        return ids;
+    }
+
+    private static String[] distinctTexts(JsonNode entities, String field) {
+        return entities.findValuesAsText(field).stream().distinct().toArray(String[]::new);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * HTTP load test replaying a sales workload against the REST resources.
+ */
+package com.sales.system.loadtest;
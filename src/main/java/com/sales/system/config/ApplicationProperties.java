@@ -1,5 +1,8 @@
 package com.sales.system.config;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +16,96 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Ingest ingest = new Ingest();
+
+    private final BulkDelete bulkDelete = new BulkDelete();
+
+    private final Audit audit = new Audit();
+
+    private final Count count = new Count();
+
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+    private final QueryCache queryCache = new QueryCache();
+
+    private final Analytics analytics = new Analytics();
+
+    private final DataGenerator dataGenerator = new DataGenerator();
+
+    private final Reconciliation reconciliation = new Reconciliation();
+
+    private final Export export = new Export();
+
+    private final CatalogImport catalogImport = new CatalogImport();
+
+    private final Partitioning partitioning = new Partitioning();
+
+    private final Archive archive = new Archive();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public BulkDelete getBulkDelete() {
+        return bulkDelete;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public Count getCount() {
+        return count;
+    }
+
+    public SecondLevelCache getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public Analytics getAnalytics() {
+        return analytics;
+    }
+
+    public DataGenerator getDataGenerator() {
+        return dataGenerator;
+    }
+
+    public Reconciliation getReconciliation() {
+        return reconciliation;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public CatalogImport getCatalogImport() {
+        return catalogImport;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public Archive getArchive() {
+        return archive;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +120,602 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Ingest {
+
+        /**
+         * Number of sales persisted per database transaction by the bulk ingestion endpoint.
+         */
+        private Integer chunkSize = 500;
+
+        public Integer getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(Integer chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class BulkDelete {
+
+        /**
+         * Number of sales or saleTransactions deleted per database transaction by the bulk delete endpoints.
+         */
+        private Integer chunkSize = 5_000;
+
+        public Integer getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(Integer chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Audit {
+
+        public enum Mode {
+            /**
+             * Audit entries are buffered after commit and written by a background flusher, at most {@code maxLagMs} later.
+             */
+            WRITE_BEHIND,
+            /**
+             * Audit entries are written in the same transaction as the audited mutation.
+             */
+            OUTBOX,
+        }
+
+        private Mode mode = Mode.WRITE_BEHIND;
+
+        private Long maxLagMs = 200L;
+
+        private Integer batchSize = 500;
+
+        private Integer capacity = 100_000;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public Long getMaxLagMs() {
+            return maxLagMs;
+        }
+
+        public void setMaxLagMs(Long maxLagMs) {
+            this.maxLagMs = maxLagMs;
+        }
+
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Integer getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(Integer capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    public static class Count {
+
+        /**
+         * How long a cached total count may be served, after which it is recounted.
+         */
+        private Integer timeToLiveSeconds = 10;
+
+        private Long maxEntries = 1000L;
+
+        public Integer getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(Long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class SecondLevelCache {
+
+        /**
+         * Size and time to live of the Hibernate second-level cache regions, by region key (see {@link CacheConfiguration}).
+         * Regions without an entry use {@code jhipster.cache.ehcache}.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Long maxEntries;
+
+            private Integer timeToLiveSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+    }
+
+    public static class QueryCache {
+
+        /**
+         * Cached criteria query results, by entity key (see {@code QueryResultCache}). Entities without an entry, or with
+         * a time to live of 0, are always queried.
+         */
+        private final Map<String, Entity> entities = new LinkedHashMap<>();
+
+        public Map<String, Entity> getEntities() {
+            return entities;
+        }
+
+        public static class Entity {
+
+            private Long maxEntries = 1000L;
+
+            /**
+             * How long a cached result is served, unless the entity changes first.
+             */
+            private Integer timeToLiveSeconds = 0;
+
+            /**
+             * How long a result older than its time to live is still served while it is refreshed in the background.
+             */
+            private Integer staleWhileRevalidateSeconds = 0;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Integer getStaleWhileRevalidateSeconds() {
+                return staleWhileRevalidateSeconds;
+            }
+
+            public void setStaleWhileRevalidateSeconds(Integer staleWhileRevalidateSeconds) {
+                this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+            }
+        }
+    }
+
+    public static class Analytics {
+
+        private boolean enabled = true;
+
+        /**
+         * Delay between two loads of the new saleTransactions.
+         */
+        private Long refreshIntervalMs = 5_000L;
+
+        /**
+         * Delay between two full reloads, which pick up updates and deletes.
+         */
+        private Long rebuildIntervalMs = 900_000L;
+
+        private Integer fetchSize = 10_000;
+
+        /**
+         * Threads scanning the facts; 0 for one per available processor.
+         */
+        private Integer parallelism = 0;
+
+        /**
+         * Queries producing more groups than this are rejected.
+         */
+        private Integer maxGroups = 1_000_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getRefreshIntervalMs() {
+            return refreshIntervalMs;
+        }
+
+        public void setRefreshIntervalMs(Long refreshIntervalMs) {
+            this.refreshIntervalMs = refreshIntervalMs;
+        }
+
+        public Long getRebuildIntervalMs() {
+            return rebuildIntervalMs;
+        }
+
+        public void setRebuildIntervalMs(Long rebuildIntervalMs) {
+            this.rebuildIntervalMs = rebuildIntervalMs;
+        }
+
+        public Integer getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(Integer fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public Integer getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Integer getMaxGroups() {
+            return maxGroups;
+        }
+
+        public void setMaxGroups(Integer maxGroups) {
+            this.maxGroups = maxGroups;
+        }
+    }
+
+    public static class DataGenerator {
+
+        /**
+         * The same seed and sizes always generate the same data.
+         */
+        private Long seed = 42L;
+
+        private Integer products = 100_000;
+
+        private Integer clients = 1_000_000;
+
+        private Integer sellers = 1_000;
+
+        private Long sales = 10_000_000L;
+
+        /**
+         * Number of days the sales are spread over, ending with {@link #endDate}.
+         */
+        private Integer days = 730;
+
+        /**
+         * Last day of sales (UTC); today if not set.
+         */
+        private LocalDate endDate;
+
+        private Integer maxBasketSize = 50;
+
+        /**
+         * Sales loaded per transaction, with their saleTransactions and transaction logs.
+         */
+        private Integer chunkSize = 50_000;
+
+        /**
+         * Loading connections; 0 for one per available processor, within the connection pool size.
+         */
+        private Integer parallelism = 0;
+
+        private boolean transactionLogs = true;
+
+        /**
+         * Stop the application once the data is generated.
+         */
+        private boolean exitWhenDone = true;
+
+        public Long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(Long seed) {
+            this.seed = seed;
+        }
+
+        public Integer getProducts() {
+            return products;
+        }
+
+        public void setProducts(Integer products) {
+            this.products = products;
+        }
+
+        public Integer getClients() {
+            return clients;
+        }
+
+        public void setClients(Integer clients) {
+            this.clients = clients;
+        }
+
+        public Integer getSellers() {
+            return sellers;
+        }
+
+        public void setSellers(Integer sellers) {
+            this.sellers = sellers;
+        }
+
+        public Long getSales() {
+            return sales;
+        }
+
+        public void setSales(Long sales) {
+            this.sales = sales;
+        }
+
+        public Integer getDays() {
+            return days;
+        }
+
+        public void setDays(Integer days) {
+            this.days = days;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+
+        public Integer getMaxBasketSize() {
+            return maxBasketSize;
+        }
+
+        public void setMaxBasketSize(Integer maxBasketSize) {
+            this.maxBasketSize = maxBasketSize;
+        }
+
+        public Integer getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(Integer chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Integer getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public boolean isTransactionLogs() {
+            return transactionLogs;
+        }
+
+        public void setTransactionLogs(boolean transactionLogs) {
+            this.transactionLogs = transactionLogs;
+        }
+
+        public boolean isExitWhenDone() {
+            return exitWhenDone;
+        }
+
+        public void setExitWhenDone(boolean exitWhenDone) {
+            this.exitWhenDone = exitWhenDone;
+        }
+    }
+
+    public static class Reconciliation {
+
+        /**
+         * Width of the sale id ranges scanned in one transaction; the checkpoint advances range by range.
+         */
+        private Integer chunkSize = 10_000;
+
+        /**
+         * Scanning connections; 0 for one per available processor, within the connection pool size.
+         */
+        private Integer parallelism = 0;
+
+        public Integer getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(Integer chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Integer getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * Rows fetched from the database cursor at a time; the memory used by an export does not grow beyond it.
+         */
+        private Integer fetchSize = 5_000;
+
+        public Integer getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(Integer fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class CatalogImport {
+
+        /**
+         * Rejected rows listed in an import report; the others are only counted.
+         */
+        private Integer maxErrors = 1000;
+
+        public Integer getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(Integer maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+    }
+
+    public static class Partitioning {
+
+        public enum RetentionAction {
+            /**
+             * Keep the expired partitions as standalone tables, out of the queries, to be archived or dropped later.
+             */
+            DETACH,
+            DROP,
+        }
+
+        /**
+         * Monthly partitions created ahead of the current month.
+         */
+        private Integer premakeMonths = 3;
+
+        /**
+         * Months of rows kept in the partitioned tables, before the current one; 0 to keep everything.
+         */
+        private Integer retentionMonths = 0;
+
+        private RetentionAction retentionAction = RetentionAction.DETACH;
+
+        public Integer getPremakeMonths() {
+            return premakeMonths;
+        }
+
+        public void setPremakeMonths(Integer premakeMonths) {
+            this.premakeMonths = premakeMonths;
+        }
+
+        public Integer getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(Integer retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+
+        public RetentionAction getRetentionAction() {
+            return retentionAction;
+        }
+
+        public void setRetentionAction(RetentionAction retentionAction) {
+            this.retentionAction = retentionAction;
+        }
+    }
+    public static class Archive {
+
+        /**
+         * Directory of the transaction log segment files.
+         */
+        private String directory = "archive/transaction-log";
+
+        /**
+         * Age, in days, after which the monthly transaction_log partitions are moved to the archive; 0 to keep everything
+         * in the database.
+         */
+        private Integer afterDays = 90;
+
+        /**
+         * Rows of a segment file; a partition with more rows is split into several segments.
+         */
+        private Integer segmentRows = 1_000_000;
+
+        /**
+         * Rows fetched from the database cursor at a time while archiving.
+         */
+        private Integer fetchSize = 10_000;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Integer getAfterDays() {
+            return afterDays;
+        }
+
+        public void setAfterDays(Integer afterDays) {
+            this.afterDays = afterDays;
+        }
+
+        public Integer getSegmentRows() {
+            return segmentRows;
+        }
+
+        public void setSegmentRows(Integer segmentRows) {
+            this.segmentRows = segmentRows;
+        }
+
+        public Integer getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(Integer fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * With the virtual-threads profile, a virtual thread pinning its carrier for longer than this is counted and
+         * logged, with the stack of the pinning.
+         */
+        private Long pinnedThresholdMs = 20L;
+
+        public Long getPinnedThresholdMs() {
+            return pinnedThresholdMs;
+        }
+
+        public void setPinnedThresholdMs(Long pinnedThresholdMs) {
+            this.pinnedThresholdMs = pinnedThresholdMs;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
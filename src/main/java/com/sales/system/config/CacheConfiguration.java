@@ -1,10 +1,13 @@
 package com.sales.system.config;
 
 import java.time.Duration;
+import java.util.Objects;
 import org.ehcache.config.builders.*;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
@@ -19,45 +22,104 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.SecondLevelCache secondLevelCache;
+    private final ApplicationProperties.QueryCache queryCache;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> countJcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.secondLevelCache = applicationProperties.getSecondLevelCache();
+        this.queryCache = applicationProperties.getQueryCache();
 
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
+        jcacheConfiguration = jcacheConfiguration(ehcache.getMaxEntries(), ehcache.getTimeToLiveSeconds());
+
+        ApplicationProperties.Count count = applicationProperties.getCount();
+        countJcacheConfiguration = jcacheConfiguration(count.getMaxEntries(), count.getTimeToLiveSeconds());
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(long maxEntries, int timeToLiveSeconds) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
                 .build()
         );
     }
 
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
             createCache(cm, com.sales.system.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.sales.system.repository.UserRepository.USERS_BY_EMAIL_CACHE);
             createCache(cm, com.sales.system.domain.Authority.class.getName());
-            createCache(cm, com.sales.system.domain.Product.class.getName());
-            createCache(cm, com.sales.system.domain.Client.class.getName());
-            createCache(cm, com.sales.system.domain.Seller.class.getName());
-            createCache(cm, com.sales.system.domain.Sale.class.getName());
-            createCache(cm, com.sales.system.domain.Sale.class.getName() + ".transactions");
-            createCache(cm, com.sales.system.domain.SaleTransaction.class.getName());
-            createCache(cm, com.sales.system.domain.TransactionLog.class.getName());
+            createRegion(cm, com.sales.system.domain.Product.class.getName(), "product");
+            createRegion(cm, com.sales.system.domain.Client.class.getName(), "client");
+            createRegion(cm, com.sales.system.domain.Seller.class.getName(), "seller");
+            createRegion(cm, com.sales.system.domain.Sale.class.getName() + ".transactions", "sale-transactions");
+            createRegion(cm, com.sales.system.domain.SaleTransaction.class.getName(), "sale-transaction");
             // jhipster-needle-ehcache-add-entry
+            for (Class<?> entityType : com.sales.system.service.CountService.COUNTED_ENTITIES) {
+                createCache(cm, com.sales.system.service.CountService.cacheName(entityType), countJcacheConfiguration);
+            }
+            for (Class<?> entityType : com.sales.system.service.QueryResultCache.CACHED_ENTITIES.keySet()) {
+                createQueryCache(cm, entityType);
+            }
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    /**
+     * Create a Hibernate second-level cache region, sized by {@code application.second-level-cache.regions.<regionKey>},
+     * with statistics enabled so that its hit and miss counts are exported as {@code cache.gets} metrics.
+     */
+    private void createRegion(javax.cache.CacheManager cm, String cacheName, String regionKey) {
+        ApplicationProperties.SecondLevelCache.Region region = secondLevelCache.getRegions().get(regionKey);
+        if (region == null) {
+            createCache(cm, cacheName);
+        } else {
+            long maxEntries = region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries();
+            int timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+            createCache(cm, cacheName, jcacheConfiguration(maxEntries, timeToLiveSeconds));
+        }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Create the query cache of an entity configured by {@code application.query-cache.entities.<entityKey>}, holding its
+     * results until their stale-while-revalidate period is over.
+     */
+    private void createQueryCache(javax.cache.CacheManager cm, Class<?> entityType) {
+        ApplicationProperties.QueryCache.Entity entity = queryCache
+            .getEntities()
+            .get(com.sales.system.service.QueryResultCache.entityKey(entityType));
+        if (entity == null || entity.getTimeToLiveSeconds() == null || entity.getTimeToLiveSeconds() <= 0) {
+            return;
+        }
+        String cacheName = com.sales.system.service.QueryResultCache.cacheName(entityType);
+        int timeToLiveSeconds = entity.getTimeToLiveSeconds() + Objects.requireNonNullElse(entity.getStaleWhileRevalidateSeconds(), 0);
+        createCache(cm, cacheName, jcacheConfiguration(entity.getMaxEntries(), timeToLiveSeconds));
+        cm.enableStatistics(cacheName, true);
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
     }
 
@@ -11,5 +11,11 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Spring profile generating synthetic sales at startup, see SalesDataGenerator
+    public static final String SPRING_PROFILE_DATAGEN = "datagen";
+
+    // Spring profile running the requests and the @Async tasks on virtual threads (Java 21+), see VirtualThreadsConfiguration
+    public static final String SPRING_PROFILE_VIRTUAL_THREADS = "virtual-threads";
+
     private Constants() {}
 }
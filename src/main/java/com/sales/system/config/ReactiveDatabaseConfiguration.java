@@ -0,0 +1,162 @@
+package com.sales.system.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcConnectionDetails;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * R2DBC connection pool of the reactive read API, next to the JDBC one of JPA.
+ * <p>
+ * The connections are those of {@code spring.r2dbc.url} or, when it is not set, of the JDBC connections with the
+ * {@code r2dbc} scheme, so that both pools target the same database, Docker Compose one included. The pool is sized by
+ * {@code spring.r2dbc.pool.*} and measured as {@code r2dbc.pool.*}, with the {@code name=reactive} tag.
+ * <p>
+ * The pool is only reachable through the {@link DatabaseClient}: the DataSource auto-configuration backs off as soon as
+ * there is a {@code ConnectionFactory} bean, which is why the R2DBC auto-configuration is excluded as well. No reactive
+ * transaction manager is declared either: the reads need none, and a second transaction manager would make every
+ * {@code @Transactional} ambiguous.
+ * <p>
+ * The reactive responses are written by the asynchronous request processing of Spring MVC, which holds no thread while
+ * waiting for the rows, and writes them on the task executor; the newline delimited JSON streams are never indented.
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveDatabaseConfiguration implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveDatabaseConfiguration.class);
+
+    private static final String POOL_NAME = "reactive";
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient databaseClient(
+        R2dbcProperties r2dbcProperties,
+        ObjectProvider<R2dbcConnectionDetails> r2dbcConnectionDetails,
+        JdbcConnectionDetails jdbcConnectionDetails,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        ConnectionFactoryOptions options = r2dbcConnectionDetails
+            .stream()
+            .map(R2dbcConnectionDetails::getConnectionFactoryOptions)
+            .findFirst()
+            .orElseGet(() -> options(r2dbcProperties, jdbcConnectionDetails));
+        LOG.debug(
+            "Configuring R2DBC connection pool of {}:{}",
+            options.getValue(ConnectionFactoryOptions.HOST),
+            options.getValue(ConnectionFactoryOptions.PORT)
+        );
+
+        R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options));
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getInitialSize()).to(configuration::initialSize);
+        map.from(pool.getMaxSize()).to(configuration::maxSize);
+        map.from(pool.getMinIdle()).to(configuration::minIdle);
+        map.from(pool.getMaxIdleTime()).to(configuration::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(configuration::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(configuration::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(configuration::maxCreateConnectionTime);
+        map.from(pool.getMaxValidationTime()).to(configuration::maxValidationTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(configuration::validationQuery);
+        map.from(pool.getValidationDepth()).to(configuration::validationDepth);
+        connectionPool = new ConnectionPool(configuration.name(POOL_NAME).build());
+        meterRegistry.ifAvailable(registry -> new ConnectionPoolMetrics(connectionPool, POOL_NAME, Tags.empty()).bindTo(registry));
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public WebMvcConfigurer reactiveResponsesConfigurer(@Qualifier("taskExecutor") ObjectProvider<Executor> taskExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                // rather than a new thread per write
+                if (taskExecutor.getIfAvailable() instanceof AsyncTaskExecutor executor) {
+                    configurer.setTaskExecutor(executor);
+                }
+            }
+
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                for (HttpMessageConverter<?> converter : converters) {
+                    if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+                        // one line per element, even when the JSON responses are indented
+                        ObjectMapper objectMapper = jackson.getObjectMapper();
+                        ObjectMapper ndjson = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+                        List<MediaType> mediaTypes = jackson.getSupportedMediaTypes();
+                        jackson.registerObjectMappersForType(Object.class, mappers -> {
+                            // in the order of preference of the JSON media types
+                            mediaTypes.forEach(mediaType -> mappers.put(mediaType, objectMapper));
+                            mappers.put(MediaType.APPLICATION_NDJSON, ndjson);
+                        });
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    private static ConnectionFactoryOptions options(R2dbcProperties r2dbcProperties, JdbcConnectionDetails jdbcConnectionDetails) {
+        String url = r2dbcProperties.getUrl();
+        String username = r2dbcProperties.getUsername();
+        String password = r2dbcProperties.getPassword();
+        if (!StringUtils.hasText(url)) {
+            url = r2dbcUrl(jdbcConnectionDetails.getJdbcUrl());
+            username = jdbcConnectionDetails.getUsername();
+            password = jdbcConnectionDetails.getPassword();
+        }
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return options.build();
+    }
+
+    /**
+     * The R2DBC URL of a JDBC one, without its query: the options of the JDBC driver are not those of the R2DBC one.
+     */
+    private static String r2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalStateException("Cannot derive spring.r2dbc.url from the JDBC URL " + jdbcUrl);
+        }
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), query < 0 ? jdbcUrl.length() : query);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sales.system.config;
+
+import com.sales.system.management.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Configuration of the {@link Constants#SPRING_PROFILE_VIRTUAL_THREADS virtual-threads} profile.
+ * <p>
+ * Spring Boot switches its own executors to virtual threads, and {@link AsyncConfiguration} the {@code taskExecutor};
+ * Undertow, which Spring Boot leaves on its worker pool, is given a virtual thread per request here. All of it only
+ * applies on Java 21 or later.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_VIRTUAL_THREADS)
+public class VirtualThreadsConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    public VirtualThreadsConfiguration(Environment environment) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            LOG.warn(
+                "The {} profile needs Java 21 or later: running on platform threads with Java {}",
+                Constants.SPRING_PROFILE_VIRTUAL_THREADS,
+                Runtime.version().feature()
+            );
+        }
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public UndertowDeploymentInfoCustomizer virtualThreadsDeploymentInfoCustomizer() {
+        // the IO threads still accept and parse the requests, which are then run by the executor instead of the worker pool
+        return deploymentInfo -> deploymentInfo.setExecutor(new VirtualThreadTaskExecutor("undertow-"));
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        return new VirtualThreadPinningMonitor(applicationProperties.getVirtualThreads(), meterRegistry);
+    }
+}
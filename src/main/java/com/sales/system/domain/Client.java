@@ -3,12 +3,19 @@ package com.sales.system.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 /**
  * A Client.
  */
 @Entity
 @Table(name = "client")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Client implements Serializable {
 
@@ -32,9 +39,13 @@ public class Client implements Serializable {
 
     @NotNull
     @Size(max = 20)
-    @Column(name = "mobile", length = 20, nullable = false)
+    @Column(name = "mobile", length = 20, nullable = false, unique = true)
     private String mobile;
 
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    @Generated(event = EventType.UPDATE)
+    private Long version = 0L;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -89,6 +100,10 @@ public class Client implements Serializable {
         this.mobile = mobile;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
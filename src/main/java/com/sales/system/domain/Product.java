@@ -4,12 +4,19 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.Instant;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 /**
  * A Product.
  */
 @Entity
 @Table(name = "product")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Product implements Serializable {
 
@@ -39,6 +46,10 @@ public class Product implements Serializable {
     @Column(name = "creation_date", nullable = false)
     private Instant creationDate;
 
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    @Generated(event = EventType.UPDATE)
+    private Long version = 0L;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -106,6 +117,10 @@ public class Product implements Serializable {
         this.creationDate = creationDate;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -8,12 +8,18 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 /**
  * A Sale.
  */
 @Entity
 @Table(name = "sale")
+@DynamicUpdate
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Sale implements Serializable {
 
@@ -35,6 +41,7 @@ public class Sale implements Serializable {
     private BigDecimal total;
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "sale")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "product", "sale" }, allowSetters = true)
     private Set<SaleTransaction> transactions = new HashSet<>();
 
@@ -46,6 +53,10 @@ public class Sale implements Serializable {
     @NotNull
     private Seller seller;
 
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    @Generated(event = EventType.UPDATE)
+    private Long version = 0L;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -144,6 +155,10 @@ public class Sale implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -5,12 +5,19 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 /**
  * A SaleTransaction.
  */
 @Entity
 @Table(name = "sale_transaction")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class SaleTransaction implements Serializable {
 
@@ -46,6 +53,10 @@ public class SaleTransaction implements Serializable {
     @JsonIgnoreProperties(value = { "transactions", "client", "seller" }, allowSetters = true)
     private Sale sale;
 
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    @Generated(event = EventType.UPDATE)
+    private Long version = 0L;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -126,6 +137,10 @@ public class SaleTransaction implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
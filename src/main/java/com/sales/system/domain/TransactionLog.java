@@ -1,6 +1,5 @@
 package com.sales.system.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -18,8 +17,9 @@ public class TransactionLog implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactionLogSequenceGenerator")
+    // a sequence of its own, shared with the inserts of the TransactionLogWriter
+    @SequenceGenerator(name = "transactionLogSequenceGenerator", sequenceName = "transaction_log_sequence", allocationSize = 1)
     @Column(name = "id")
     private Long id;
 
@@ -32,11 +32,10 @@ public class TransactionLog implements Serializable {
     @Column(name = "operation_type", length = 50, nullable = false)
     private String operationType;
 
-//    @NotNull
-//    @Size(max = 100)
-//    @Column(name = "field_changed", length = 100, nullable = false)
-//    private String fieldChanged;
-//
+    @Size(max = 100)
+    @Column(name = "field_changed", length = 100)
+    private String fieldChanged;
+
 //    @Size(max = 500)
 //    @Column(name = "old_value", length = 500)
 //    private String oldValue;
@@ -50,17 +49,11 @@ public class TransactionLog implements Serializable {
     @Column(name = "modified_by", length = 100, nullable = false)
     private String modifiedBy;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JsonIgnoreProperties(value = {
-        "product",
-        "sale",
-        "quantity",
-        "unitPrice",
-        "subtotal",
-        "product",
-        "sale"
-    }, allowSetters = true)
-    private SaleTransaction saleTransaction;
+    /**
+     * The id of the audited saleTransaction, without a foreign key: the audit trail of a saleTransaction outlives it.
+     */
+    @Column(name = "sale_transaction_id")
+    private Long saleTransactionId;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
@@ -103,19 +96,19 @@ public class TransactionLog implements Serializable {
         this.operationType = operationType;
     }
 
-//    public String getFieldChanged() {
-//        return this.fieldChanged;
-//    }
+    public String getFieldChanged() {
+        return this.fieldChanged;
+    }
+
+    public TransactionLog fieldChanged(String fieldChanged) {
+        this.setFieldChanged(fieldChanged);
+        return this;
+    }
+
+    public void setFieldChanged(String fieldChanged) {
+        this.fieldChanged = fieldChanged;
+    }
 
-//    public TransactionLog fieldChanged(String fieldChanged) {
-//        this.setFieldChanged(fieldChanged);
-//        return this;
-//    }
-//
-//    public void setFieldChanged(String fieldChanged) {
-//        this.fieldChanged = fieldChanged;
-//    }
-//
 //    public String getOldValue() {
 //        return this.oldValue;
 //    }
@@ -155,17 +148,17 @@ public class TransactionLog implements Serializable {
         this.modifiedBy = modifiedBy;
     }
 
-    public SaleTransaction getSaleTransaction() {
-        return this.saleTransaction;
+    public Long getSaleTransactionId() {
+        return this.saleTransactionId;
     }
 
-    public void setSaleTransaction(SaleTransaction saleTransaction) {
-        this.saleTransaction = saleTransaction;
+    public TransactionLog saleTransactionId(Long saleTransactionId) {
+        this.setSaleTransactionId(saleTransactionId);
+        return this;
     }
 
-    public TransactionLog saleTransaction(SaleTransaction saleTransaction) {
-        this.setSaleTransaction(saleTransaction);
-        return this;
+    public void setSaleTransactionId(Long saleTransactionId) {
+        this.saleTransactionId = saleTransactionId;
     }
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
@@ -194,10 +187,11 @@ public class TransactionLog implements Serializable {
             "id=" + getId() +
             ", timestamp='" + getTimestamp() + "'" +
             ", operationType='" + getOperationType() + "'" +
-//            ", fieldChanged='" + getFieldChanged() + "'" +
+            ", fieldChanged='" + getFieldChanged() + "'" +
 //            ", oldValue='" + getOldValue() + "'" +
 //            ", newValue='" + getNewValue() + "'" +
             ", modifiedBy='" + getModifiedBy() + "'" +
+            ", saleTransactionId=" + getSaleTransactionId() +
             "}";
     }
 }
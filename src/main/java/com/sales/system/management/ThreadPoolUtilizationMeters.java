@@ -0,0 +1,124 @@
+package com.sales.system.management;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * CPU utilization of the threads running the requests and the asynchronous tasks, comparable between the platform and
+ * the virtual thread modes.
+ * <p>
+ * Every 10 seconds, the CPU time of the threads of every pool is sampled: {@value #UTILIZATION_METER_NAME} is the CPU
+ * time they consumed since the previous sample, divided by the elapsed time and by their number, and
+ * {@value #LIVE_METER_NAME} their number. On platform threads, the Undertow workers and the task executor threads are
+ * mostly blocked on the database, hence a low utilization; on virtual threads, the carriers running all of them should
+ * be busy instead, as long as the database keeps up. The carriers are told apart by their name only, shared by the
+ * workers of any other {@code ForkJoinPool} but the common one.
+ */
+@Component
+public class ThreadPoolUtilizationMeters {
+
+    public static final String UTILIZATION_METER_NAME = "threads.pool.utilization";
+
+    public static final String LIVE_METER_NAME = "threads.pool.live";
+
+    private enum Pool {
+        REQUEST_WORKERS("request-workers"),
+        TASK_EXECUTOR("task-executor"),
+        CARRIERS("carriers");
+
+        private final String tag;
+
+        Pool(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final Map<Pool, Predicate<String>> pools = new EnumMap<>(Pool.class);
+
+    private final Map<Pool, Double> utilization = new EnumMap<>(Pool.class);
+
+    private final Map<Pool, Integer> live = new EnumMap<>(Pool.class);
+
+    private Map<Long, Long> previousCpuTimes = new HashMap<>();
+
+    private long previousSample = System.nanoTime();
+
+    public ThreadPoolUtilizationMeters(TaskExecutionProperties taskExecutionProperties, MeterRegistry meterRegistry) {
+        pools.put(Pool.REQUEST_WORKERS, name -> name.startsWith("XNIO-") && name.contains(" task-"));
+        pools.put(Pool.TASK_EXECUTOR, name -> name.startsWith(taskExecutionProperties.getThreadNamePrefix()));
+        pools.put(Pool.CARRIERS, name -> name.startsWith("ForkJoinPool-") && name.contains("-worker-"));
+        for (Pool pool : Pool.values()) {
+            utilization.put(pool, 0.0);
+            live.put(pool, 0);
+            Gauge.builder(UTILIZATION_METER_NAME, this, meters -> meters.getUtilization(pool))
+                .description("CPU time of the threads of the pool, per thread and per second")
+                .tag("pool", pool.tag)
+                .register(meterRegistry);
+            Gauge.builder(LIVE_METER_NAME, this, meters -> meters.getLive(pool))
+                .description("Number of live threads in the pool")
+                .tag("pool", pool.tag)
+                .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedRate = 10_000)
+    public synchronized void sample() {
+        if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Map<Long, Long> cpuTimes = new HashMap<>();
+        Map<Pool, Long> consumed = new EnumMap<>(Pool.class);
+        Map<Pool, Integer> threads = new EnumMap<>(Pool.class);
+        for (ThreadInfo thread : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+            if (thread == null) {
+                continue;
+            }
+            Pool pool = pool(thread.getThreadName());
+            long cpuTime = pool != null ? threadMXBean.getThreadCpuTime(thread.getThreadId()) : -1;
+            if (cpuTime < 0) {
+                continue;
+            }
+            cpuTimes.put(thread.getThreadId(), cpuTime);
+            consumed.merge(pool, cpuTime - previousCpuTimes.getOrDefault(thread.getThreadId(), 0L), Long::sum);
+            threads.merge(pool, 1, Integer::sum);
+        }
+        long elapsed = Math.max(1, now - previousSample);
+        for (Pool pool : Pool.values()) {
+            int count = threads.getOrDefault(pool, 0);
+            live.put(pool, count);
+            utilization.put(pool, count == 0 ? 0.0 : (double) consumed.getOrDefault(pool, 0L) / elapsed / count);
+        }
+        previousCpuTimes = cpuTimes;
+        previousSample = now;
+    }
+
+    private Pool pool(String threadName) {
+        for (Map.Entry<Pool, Predicate<String>> pool : pools.entrySet()) {
+            if (pool.getValue().test(threadName)) {
+                return pool.getKey();
+            }
+        }
+        return null;
+    }
+
+    private synchronized double getUtilization(Pool pool) {
+        return utilization.get(pool);
+    }
+
+    private synchronized int getLive(Pool pool) {
+        return live.get(pool);
+    }
+}
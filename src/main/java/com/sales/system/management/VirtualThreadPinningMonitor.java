@@ -0,0 +1,105 @@
+package com.sales.system.management;
+
+import com.sales.system.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Reports the virtual threads pinning their carrier thread, from the {@code jdk.VirtualThreadPinned} JFR events.
+ * <p>
+ * A virtual thread blocking within a {@code synchronized} section or a native frame cannot unmount: its carrier, one of
+ * the few platform threads running all the virtual ones, is blocked with it. The pinnings longer than
+ * {@code application.virtual-threads.pinned-threshold-ms} are timed in {@value #PINNED_METER_NAME}, tagged with the
+ * library of the innermost frame that is not the JDK's (the JDBC driver, the connection pool, Hibernate...), and the
+ * first pinning of every distinct stack is logged.
+ */
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    public static final String PINNED_METER_NAME = "jvm.threads.virtual.pinned";
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Map<String, String> LIBRARIES = Map.of(
+        "org.postgresql.",
+        "postgresql",
+        "com.zaxxer.hikari.",
+        "hikari",
+        "org.hibernate.",
+        "hibernate",
+        "org.ehcache.",
+        "ehcache",
+        "io.undertow.",
+        "undertow",
+        "org.springframework.",
+        "spring",
+        "com.sales.system.",
+        "application"
+    );
+
+    private static final int LOGGED_FRAMES = 16;
+
+    private static final int MAX_LOGGED_STACKS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+
+    private final RecordingStream recordingStream = new RecordingStream();
+
+    public VirtualThreadPinningMonitor(ApplicationProperties.VirtualThreads properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(properties.getPinnedThresholdMs())).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String library = library(frames);
+        Timer.builder(PINNED_METER_NAME)
+            .description("Virtual threads pinning their carrier thread for longer than the threshold")
+            .tag("library", library)
+            .register(meterRegistry)
+            .record(event.getDuration());
+
+        String stack = frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::frame).collect(Collectors.joining("\n\tat "));
+        if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+            LOG.warn("A virtual thread pinned its carrier for {} ms, in {}:\n\tat {}", event.getDuration().toMillis(), library, stack);
+        }
+    }
+
+    private static String library(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> library : LIBRARIES.entrySet()) {
+                if (type.startsWith(library.getKey())) {
+                    return library.getValue();
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+}
@@ -1,7 +1,9 @@
 package com.sales.system.repository;
 
 import com.sales.system.domain.Client;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client> {}
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client> {
+    /**
+     * The entity tag of a client: its version.
+     */
+    @Query("select str(client.version) from Client client where client.id = :id")
+    Optional<String> findEntityTagById(@Param("id") Long id);
+}
@@ -1,7 +1,9 @@
 package com.sales.system.repository;
 
 import com.sales.system.domain.Product;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {}
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    /**
+     * The entity tag of a product: its version.
+     */
+    @Query("select str(product.version) from Product product where product.id = :id")
+    Optional<String> findEntityTagById(@Param("id") Long id);
+}
@@ -37,4 +37,13 @@ public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificat
 
     @Query("select sale from Sale sale left join fetch sale.client left join fetch sale.seller where sale.id =:id")
     Optional<Sale> findOneWithToOneRelationships(@Param("id") Long id);
+
+    /**
+     * The entity tag of a sale: its version, and those of the client and seller shown with it.
+     */
+    @Query(
+        "select concat(str(sale.version), '-', str(client.version), '-', str(seller.version)) " +
+        "from Sale sale join sale.client client join sale.seller seller where sale.id = :id"
+    )
+    Optional<String> findEntityTagById(@Param("id") Long id);
 }
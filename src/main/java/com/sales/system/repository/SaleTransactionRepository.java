@@ -1,6 +1,8 @@
 package com.sales.system.repository;
 
 import com.sales.system.domain.SaleTransaction;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -39,4 +41,47 @@ public interface SaleTransactionRepository extends JpaRepository<SaleTransaction
         "select saleTransaction from SaleTransaction saleTransaction left join fetch saleTransaction.product where saleTransaction.id =:id"
     )
     Optional<SaleTransaction> findOneWithToOneRelationships(@Param("id") Long id);
+
+    /**
+     * The entity tag of a sale transaction: its version, and that of the product shown with it.
+     */
+    @Query(
+        "select concat(str(saleTransaction.version), '-', str(product.version)) " +
+        "from SaleTransaction saleTransaction join saleTransaction.product product where saleTransaction.id = :id"
+    )
+    Optional<String> findEntityTagById(@Param("id") Long id);
+
+    /**
+     * Find the lines of sales, with the id and name of their product, without loading the entities and their eager
+     * relationships.
+     *
+     * @param saleIds the ids of the sales.
+     * @return the lines, by id.
+     */
+    @Query(
+        "select saleTransaction.id as id, saleTransaction.quantity as quantity, saleTransaction.unitPrice as unitPrice, " +
+        "saleTransaction.subtotal as subtotal, saleTransaction.sale.id as saleId, product.id as productId, product.name as productName " +
+        "from SaleTransaction saleTransaction join saleTransaction.product product " +
+        "where saleTransaction.sale.id in :saleIds order by saleTransaction.id"
+    )
+    List<SaleTransactionLine> findLinesBySaleIdIn(@Param("saleIds") Collection<Long> saleIds);
+
+    /**
+     * A line of a sale, as read by {@link #findLinesBySaleIdIn(Collection)}.
+     */
+    interface SaleTransactionLine {
+        Long getId();
+
+        Integer getQuantity();
+
+        BigDecimal getUnitPrice();
+
+        BigDecimal getSubtotal();
+
+        Long getSaleId();
+
+        Long getProductId();
+
+        String getProductName();
+    }
 }
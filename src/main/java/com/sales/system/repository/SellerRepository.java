@@ -1,7 +1,9 @@
 package com.sales.system.repository;
 
 import com.sales.system.domain.Seller;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SellerRepository extends JpaRepository<Seller, Long>, JpaSpecificationExecutor<Seller> {}
+public interface SellerRepository extends JpaRepository<Seller, Long>, JpaSpecificationExecutor<Seller> {
+    /**
+     * The entity tag of a seller: its version.
+     */
+    @Query("select str(seller.version) from Seller seller where seller.id = :id")
+    Optional<String> findEntityTagById(@Param("id") Long id);
+}
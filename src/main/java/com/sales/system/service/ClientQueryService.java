@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,9 +32,20 @@ public class ClientQueryService extends QueryService<Client> {
 
     private final ClientMapper clientMapper;
 
-    public ClientQueryService(ClientRepository clientRepository, ClientMapper clientMapper) {
+    private final CountService countService;
+
+    private final QueryResultCache queryResultCache;
+
+    public ClientQueryService(
+        ClientRepository clientRepository,
+        ClientMapper clientMapper,
+        CountService countService,
+        QueryResultCache queryResultCache
+    ) {
         this.clientRepository = clientRepository;
         this.clientMapper = clientMapper;
+        this.countService = countService;
+        this.queryResultCache = queryResultCache;
     }
 
     /**
@@ -45,8 +57,24 @@ public class ClientQueryService extends QueryService<Client> {
     @Transactional(readOnly = true)
     public Page<ClientDTO> findByCriteria(ClientCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Client.class, "page", criteria, page, () -> {
+            final Specification<Client> specification = createSpecification(criteria);
+            return clientRepository.findAll(specification, page).map(clientMapper::toDto);
+        });
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link ClientDTO} which matches the criteria from the database, using keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor of the previous page, or an empty value for the first page.
+     * @param page The size and sort of the page; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ClientDTO> findByCriteria(ClientCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("find by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
         final Specification<Client> specification = createSpecification(criteria);
-        return clientRepository.findAll(specification, page).map(clientMapper::toDto);
+        return KeysetPagination.fetch(clientRepository, specification, cursor, page).map(clientMapper::toDto);
     }
 
     /**
@@ -61,6 +89,33 @@ public class ClientQueryService extends QueryService<Client> {
         return clientRepository.count(specification);
     }
 
+    /**
+     * Return a {@link Slice} of {@link ClientDTO} which matches the criteria from the database, without counting all the matches.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ClientDTO> findSliceByCriteria(ClientCriteria criteria, Pageable page) {
+        LOG.debug("find slice by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Client.class, "slice", criteria, page, () -> {
+            final Specification<Client> specification = createSpecification(criteria);
+            return SlicePagination.fetch(clientRepository, specification, page).map(clientMapper::toDto);
+        });
+    }
+
+    /**
+     * Return the number of matching entities, produced in the requested {@link TotalCount.Mode} when possible.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param mode The requested count mode.
+     * @return the number of matching entities, and how it was produced.
+     */
+    @Transactional(readOnly = true)
+    public TotalCount countByCriteria(ClientCriteria criteria, TotalCount.Mode mode) {
+        final ClientCriteria nonNullCriteria = criteria != null ? criteria : new ClientCriteria();
+        return countService.count(Client.class, nonNullCriteria, mode, () -> countByCriteria(nonNullCriteria));
+    }
+
     /**
      * Function to convert {@link ClientCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -1,5 +1,6 @@
 package com.sales.system.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.service.dto.ClientDTO;
 import java.util.Optional;
 
@@ -16,21 +17,30 @@ public interface ClientService {
     ClientDTO save(ClientDTO clientDTO);
 
     /**
-     * Updates a client.
+     * Updates a client, at the version of the DTO if it has one.
      *
      * @param clientDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
-    ClientDTO update(ClientDTO clientDTO);
+    Optional<ClientDTO> update(ClientDTO clientDTO);
 
     /**
-     * Partially updates a client.
+     * Partially updates a client, at the version of the DTO if it has one.
      *
      * @param clientDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
     Optional<ClientDTO> partialUpdate(ClientDTO clientDTO);
 
+    /**
+     * Applies a JSON merge patch to a client, updating its changed columns only.
+     *
+     * @param id the id of the entity.
+     * @param patch the merge patch.
+     * @return the patched entity, or empty if it does not exist.
+     */
+    Optional<ClientDTO> mergePatch(Long id, JsonNode patch);
+
     /**
      * Get the "id" client.
      *
@@ -0,0 +1,144 @@
+package com.sales.system.service;
+
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.Seller;
+import com.sales.system.domain.TransactionLog;
+import jakarta.persistence.Table;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.jhipster.service.Criteria;
+
+/**
+ * Service producing the total counts of the criteria queries, in one of the {@link TotalCount.Mode modes}.
+ * <p>
+ * Cached counts are stored per entity in the {@link #cacheName(Class) counts cache} of that entity, keyed by the
+ * criteria (whose {@code equals} ignores the order of the request parameters), and evicted when an
+ * {@link EntityChangedEvent} for the entity, or for an entity it is filtered by, is committed.
+ */
+@Service
+public class CountService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CountService.class);
+
+    public static final List<Class<?>> COUNTED_ENTITIES = List.of(
+        Product.class,
+        Client.class,
+        Seller.class,
+        Sale.class,
+        TransactionLog.class
+    );
+
+    /**
+     * Entities whose counts also depend on the rows of another entity, through a criteria join.
+     */
+    private static final Map<Class<?>, List<Class<?>>> DEPENDENT_COUNTS = Map.of(
+        SaleTransaction.class,
+        List.of(Sale.class, TransactionLog.class)
+    );
+
+    /**
+     * The statistics of a partitioned table are those of its partitions: sum them, unless none was analyzed yet.
+     */
+    private static final String ESTIMATE_SQL =
+        "select case when bool_and(c.reltuples < 0) then -1 else sum(greatest(c.reltuples, 0)) end::bigint " +
+        "from pg_class c where (c.oid = to_regclass(?) and c.relkind <> 'p') " +
+        "or c.oid in (select i.inhrelid from pg_inherits i where i.inhparent = to_regclass(?))";
+
+    private final CacheManager cacheManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Class<?>, Criteria> emptyCriteria = new ConcurrentHashMap<>();
+
+    public CountService(CacheManager cacheManager, JdbcTemplate jdbcTemplate) {
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String cacheName(Class<?> entityType) {
+        return CountService.class.getName() + "." + entityType.getSimpleName();
+    }
+
+    /**
+     * Count the entities matching the criteria.
+     *
+     * @param entityType the counted entity.
+     * @param criteria the criteria the entities should match, not {@code null}.
+     * @param mode the requested mode; {@link TotalCount.Mode#ESTIMATED} falls back to {@link TotalCount.Mode#CACHED}
+     * when the criteria has filters, and {@link TotalCount.Mode#NONE} is counted exactly.
+     * @param exactCount the exact count query.
+     * @return the count, with the mode that actually produced it.
+     */
+    public TotalCount count(Class<?> entityType, Criteria criteria, TotalCount.Mode mode, Supplier<Long> exactCount) {
+        if (mode == TotalCount.Mode.ESTIMATED) {
+            if (isUnfiltered(criteria)) {
+                Long estimate = estimate(entityType);
+                if (estimate != null) {
+                    return new TotalCount(estimate, TotalCount.Mode.ESTIMATED);
+                }
+            }
+            mode = TotalCount.Mode.CACHED;
+        }
+        if (mode == TotalCount.Mode.CACHED) {
+            Cache cache = cacheManager.getCache(cacheName(entityType));
+            if (cache != null) {
+                Cache.ValueWrapper cached = cache.get(criteria);
+                if (cached != null) {
+                    return new TotalCount((Long) cached.get(), TotalCount.Mode.CACHED);
+                }
+                long value = exactCount.get();
+                cache.put(criteria, value);
+                return new TotalCount(value, TotalCount.Mode.EXACT);
+            }
+        }
+        return new TotalCount(exactCount.get(), TotalCount.Mode.EXACT);
+    }
+
+    private boolean isUnfiltered(Criteria criteria) {
+        Criteria empty = emptyCriteria.computeIfAbsent(criteria.getClass(), type -> (Criteria) BeanUtils.instantiateClass(type));
+        return criteria.equals(empty);
+    }
+
+    /**
+     * Estimate the number of rows of the entity table from the planner statistics, maintained by (auto)vacuum and analyze.
+     */
+    private Long estimate(Class<?> entityType) {
+        Table table = entityType.getAnnotation(Table.class);
+        if (table == null) {
+            return null;
+        }
+        List<Long> estimates = jdbcTemplate.queryForList(ESTIMATE_SQL, Long.class, table.name(), table.name());
+        if (estimates.isEmpty() || estimates.get(0) == null || estimates.get(0) < 0) {
+            // never analyzed
+            return null;
+        }
+        return estimates.get(0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        evict(event.entityType());
+        DEPENDENT_COUNTS.getOrDefault(event.entityType(), List.of()).forEach(this::evict);
+    }
+
+    private void evict(Class<?> entityType) {
+        Cache cache = cacheManager.getCache(cacheName(entityType));
+        if (cache != null) {
+            LOG.trace("Evicting counts of {}", entityType.getSimpleName());
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.sales.system.service;
+
+/**
+ * Published by the services whenever rows of an entity are created, updated or deleted.
+ *
+ * @param entityType the changed entity.
+ */
+public record EntityChangedEvent(Class<?> entityType) {}
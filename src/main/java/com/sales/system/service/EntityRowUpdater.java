@@ -0,0 +1,162 @@
+package com.sales.system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.query.NativeQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service updating the row of an entity in a single statement, for the {@code PUT} and {@code PATCH} requests.
+ * <p>
+ * Only the given columns are set, and the updated row is returned by the {@code update} itself, as the entity, so that
+ * neither the existence check nor the select of a merge is needed: no updated row means the entity does not exist or,
+ * when the request carries the version it was read at, that it was changed since, which is only told apart on that
+ * failure. The {@code version} column is incremented by the database, by the {@code increment_version()} triggers.
+ * <p>
+ * The statement goes around the dirty checking: the persistence context must not hold the entity beforehand, and its
+ * second-level cache entry is evicted once updated, and again once committed, so that a concurrent read cannot put the
+ * previous state back.
+ */
+@Service
+public class EntityRowUpdater {
+
+    private static final String VERSION_COLUMN = "version";
+
+    private final EntityManager entityManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Validator validator;
+
+    public EntityRowUpdater(EntityManager entityManager, EntityManagerFactory entityManagerFactory, Validator validator) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.validator = validator;
+    }
+
+    /**
+     * The columns to update, from pairs of column names and values.
+     */
+    public static Map<String, Object> columns(Object... namesAndValues) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            columns.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return columns;
+    }
+
+    /**
+     * Update every given column of the row of an entity.
+     *
+     * @param entityType the entity.
+     * @param id the id of the entity.
+     * @param version the version the entity was read at, or {@code null} to update it whatever its version.
+     * @param columns the columns, with their values.
+     * @param <E> the type of the entity.
+     * @return the updated entity, or empty if it does not exist.
+     * @throws ObjectOptimisticLockingFailureException if the entity is not at the given version.
+     */
+    public <E> Optional<E> update(Class<E> entityType, Long id, Long version, Map<String, Object> columns) {
+        String table = entityType.getAnnotation(Table.class).name();
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
+        if (columns.isEmpty()) {
+            sql.append("select * from ").append(table);
+        } else {
+            sql.append("update ").append(table).append(" set ");
+            for (Map.Entry<String, Object> column : columns.entrySet()) {
+                parameters.add(parameter(column.getValue()));
+                sql.append(parameters.size() > 1 ? ", " : "").append(column.getKey()).append(" = ?").append(parameters.size());
+            }
+        }
+        parameters.add(id);
+        sql.append(" where id = ?").append(parameters.size());
+        if (version != null) {
+            parameters.add(version);
+            sql.append(" and ").append(VERSION_COLUMN).append(" = ?").append(parameters.size());
+        }
+        if (!columns.isEmpty()) {
+            sql.append(" returning *");
+        }
+        NativeQuery<E> query = entityManager.createNativeQuery(sql.toString(), entityType).unwrap(NativeQuery.class);
+        // so that only the pending changes of the table are flushed beforehand
+        query.addSynchronizedEntityClass(entityType);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        List<E> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            if (version != null && exists(table, id)) {
+                throw new ObjectOptimisticLockingFailureException(entityType, id);
+            }
+            return Optional.empty();
+        }
+        if (!columns.isEmpty()) {
+            evict(entityType, id);
+        }
+        return Optional.of(rows.get(0));
+    }
+
+    /**
+     * Update the columns of the row of an entity whose values are given, the {@code null} ones being left as they are.
+     * <p>
+     * The given values are validated against the constraints of the DTO, as the entity would be when flushed.
+     *
+     * @param dto the DTO holding the values.
+     * @throws ConstraintViolationException if a given value is not valid.
+     * @see #update(Class, Long, Long, Map)
+     */
+    public <E> Optional<E> partialUpdate(Class<E> entityType, Object dto, Long id, Long version, Map<String, Object> columns) {
+        Set<ConstraintViolation<Object>> violations = validator
+            .validate(dto)
+            .stream()
+            .filter(violation -> violation.getInvalidValue() != null)
+            .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        columns.values().removeIf(value -> value == null);
+        return update(entityType, id, version, columns);
+    }
+
+    private boolean exists(String table, Long id) {
+        String sql = "select exists (select 1 from " + table + " where id = ?1)";
+        return Boolean.TRUE.equals(entityManager.createNativeQuery(sql, Boolean.class).setParameter(1, id).getSingleResult());
+    }
+
+    private void evict(Class<?> entityType, Long id) {
+        entityManagerFactory.getCache().evict(entityType, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        entityManagerFactory.getCache().evict(entityType, id);
+                    }
+                }
+            );
+        }
+    }
+
+    private static Object parameter(Object value) {
+        // the timestamp columns hold UTC date-times
+        return value instanceof Instant instant ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : value;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sales.system.service;
+
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.Seller;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service producing the entity tags of the entity collections, for the conditional requests of their resources.
+ * <p>
+ * The tag of a collection is made of the {@link TableChangeService generations} of the tables of the entities shown in
+ * its responses: it changes with every committed change of these tables, whichever instance, or tool, made it. As the
+ * generations are counted by each instance, the tag starts with the tag of the instance, so that a tag of another
+ * instance, or of a previous run, never matches. The generations are read before the collection: a response read
+ * concurrently with a change gets the tag of the previous generation, which no longer matches once the change is
+ * notified.
+ */
+@Service
+public class EntityTagService {
+
+    /**
+     * The entities shown in the responses of each collection: the criteria joins and the DTO relationships.
+     */
+    private static final Map<Class<?>, List<Class<?>>> SHOWN_ENTITIES = Map.of(
+        Sale.class,
+        List.of(Sale.class, SaleTransaction.class, Client.class, Seller.class, Product.class),
+        SaleTransaction.class,
+        List.of(SaleTransaction.class, Product.class)
+    );
+
+    private final TableChangeService tableChangeService;
+
+    public EntityTagService(TableChangeService tableChangeService) {
+        this.tableChangeService = tableChangeService;
+    }
+
+    /**
+     * Return the entity tag of the collection of an entity, unquoted.
+     *
+     * @param entityType the entity.
+     * @return the entity tag.
+     */
+    public String collectionTag(Class<?> entityType) {
+        long[] generations = tableChangeService.generations(SHOWN_ENTITIES.getOrDefault(entityType, List.of(entityType)));
+        return Arrays.stream(generations)
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining("-", "g" + tableChangeService.instanceTag() + "-", ""));
+    }
+}
@@ -0,0 +1,13 @@
+package com.sales.system.service;
+
+/**
+ * Thrown when a keyset pagination cursor cannot be used with the requested sort.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
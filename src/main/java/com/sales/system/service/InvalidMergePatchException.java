@@ -0,0 +1,13 @@
+package com.sales.system.service;
+
+/**
+ * Thrown when a JSON merge patch is not an object, or patches an entity into an invalid one.
+ */
+public class InvalidMergePatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidMergePatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,190 @@
+package com.sales.system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service applying JSON merge patches (RFC 7396) to managed entities, for the {@code application/merge-patch+json}
+ * {@code PATCH} requests.
+ * <p>
+ * The patch is merged into the JSON of the DTO of the entity: a member replaces the field of the same name, a
+ * {@code null} member removes it, and an object member is merged into the object it replaces. The patched DTO is
+ * validated, then only the fields whose value actually changed are set on the entity, the relationships as references
+ * to their new ids. As the patched entities are {@code @DynamicUpdate}, Hibernate dirty checking then updates these
+ * columns only, and nothing at all when the patch changes nothing.
+ * <p>
+ * The {@code id} member is never applied, and a {@code version} member is the version of the entity the patch was
+ * written against.
+ */
+@Service
+public class JsonMergePatcher {
+
+    private static final String ID = "id";
+
+    private static final String VERSION = "version";
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public JsonMergePatcher(EntityManager entityManager, ObjectMapper objectMapper, Validator validator) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Apply a merge patch to a managed entity.
+     *
+     * @param entity the managed entity.
+     * @param patch the merge patch, an object.
+     * @param dtoType the type of the DTO of the entity.
+     * @param toDto the mapper of the entity to its DTO.
+     * @param <E> the type of the entity.
+     * @param <D> the type of the DTO.
+     * @return the names of the changed fields, in the order of the patch.
+     * @throws InvalidMergePatchException if the patch is not an object, or the patched DTO is not valid.
+     * @throws ObjectOptimisticLockingFailureException if the patch has a version, which is not the one of the entity.
+     */
+    public <E, D> List<String> patch(E entity, JsonNode patch, Class<D> dtoType, Function<E, D> toDto) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidMergePatchException("A merge patch of " + dtoType.getSimpleName() + " must be a JSON object");
+        }
+        BeanWrapper target = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        Object id = target.getPropertyValue(ID);
+        JsonNode version = patch.get(VERSION);
+        if (version != null && !version.isNull() && !Objects.equals(version.asLong(), target.getPropertyValue(VERSION))) {
+            throw new ObjectOptimisticLockingFailureException(entity.getClass(), id);
+        }
+
+        D patched = patched(toDto.apply(entity), patch, dtoType);
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(patched);
+        EntityType<?> metamodel = entityManager.getMetamodel().entity(entity.getClass());
+        List<String> changed = new ArrayList<>();
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext();) {
+            String name = names.next();
+            if (ID.equals(name) || VERSION.equals(name) || !source.isReadableProperty(name) || !target.isWritableProperty(name)) {
+                continue;
+            }
+            Attribute<?, ?> attribute = metamodel.getAttributes().stream().filter(a -> a.getName().equals(name)).findFirst().orElse(null);
+            if (!(attribute instanceof SingularAttribute<?, ?> singular) || singular.isId() || singular.isVersion()) {
+                continue;
+            }
+            Object value = source.getPropertyValue(name);
+            Object current = target.getPropertyValue(name);
+            if (attribute.isAssociation()) {
+                Object valueId = value != null ? PropertyAccessorFactory.forBeanPropertyAccess(value).getPropertyValue(ID) : null;
+                if (Objects.equals(valueId, identifier(current))) {
+                    continue;
+                }
+                value = valueId != null ? entityManager.getReference(attribute.getJavaType(), valueId) : null;
+            } else if (same(current, value)) {
+                continue;
+            }
+            target.setPropertyValue(name, value);
+            changed.add(name);
+        }
+        return changed;
+    }
+
+    /**
+     * The merge patch setting the non-null fields of a DTO, as the {@code application/json} {@code PATCH} requests do.
+     *
+     * @param dto the DTO.
+     * @return the merge patch.
+     */
+    public JsonNode toPatch(Object dto) {
+        ObjectNode patch = objectMapper.valueToTree(dto);
+        removeNulls(patch);
+        return patch;
+    }
+
+    private <D> D patched(D dto, JsonNode patch, Class<D> dtoType) {
+        D patched;
+        try {
+            patched = objectMapper.treeToValue(merge(objectMapper.valueToTree(dto), patch), dtoType);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new InvalidMergePatchException("Invalid merge patch of " + dtoType.getSimpleName() + ": " + e.getMessage());
+        }
+        Set<ConstraintViolation<D>> violations = validator.validate(patched);
+        if (!violations.isEmpty()) {
+            throw new InvalidMergePatchException(
+                violations
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ", "Invalid patched " + dtoType.getSimpleName() + ": ", ""))
+            );
+        }
+        return patched;
+    }
+
+    private JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode merged = target != null && target.isObject() ? (ObjectNode) target : objectMapper.createObjectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> members = patch.fields(); members.hasNext();) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (member.getValue().isNull()) {
+                merged.remove(member.getKey());
+            } else {
+                merged.set(member.getKey(), merge(merged.get(member.getKey()), member.getValue()));
+            }
+        }
+        return merged;
+    }
+
+    private static void removeNulls(JsonNode node) {
+        for (Iterator<JsonNode> values = node.elements(); values.hasNext();) {
+            JsonNode value = values.next();
+            if (value.isNull()) {
+                values.remove();
+            } else if (value.isObject()) {
+                removeNulls(value);
+            }
+        }
+    }
+
+    private Object identifier(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        return persistenceUnitUtil.getIdentifier(entity);
+    }
+
+    /**
+     * As Hibernate dirty checking compares them: the decimals by value, whatever their scale.
+     */
+    private static boolean same(Object current, Object value) {
+        if (current instanceof BigDecimal decimal && value instanceof BigDecimal other) {
+            return decimal.compareTo(other) == 0;
+        }
+        return Objects.equals(current, value);
+    }
+}
@@ -0,0 +1,19 @@
+package com.sales.system.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page fetched with keyset pagination: its content and the cursor of the next page, {@code null} on the last page.
+ *
+ * @param <T> the type of the content.
+ */
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <U> KeysetPage<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetPage<>(content.stream().<U>map(converter).toList(), nextCursor);
+    }
+}
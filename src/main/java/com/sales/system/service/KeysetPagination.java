@@ -0,0 +1,188 @@
+package com.sales.system.service;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+/**
+ * Keyset (a.k.a. cursor or seek) pagination on top of a {@link Specification}.
+ * <p>
+ * Instead of an offset, a page starts right after the last row of the previous page, identified by an opaque cursor
+ * holding that row's sort key values and its id. The database seeks directly to that position through the index of
+ * the sort keys, so a deep page costs the same as the first one, and no count query is needed.
+ * <p>
+ * The id is always appended as the last sort key so that the order is total. Sort keys must be non-null attributes.
+ */
+public final class KeysetPagination {
+
+    private static final String ID = "id";
+
+    private static final String SEPARATOR = ".";
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private KeysetPagination() {}
+
+    /**
+     * Fetch the page following {@code cursor}.
+     *
+     * @param repository the repository to query.
+     * @param specification the filters the entities should match.
+     * @param cursor the cursor returned with the previous page, or an empty value for the first page.
+     * @param pageable the page size and sort; the page number is ignored.
+     * @param <E> the entity type.
+     * @return the matching entities, and the cursor of the next page if there is one.
+     */
+    public static <E> KeysetPage<E> fetch(
+        JpaSpecificationExecutor<E> repository,
+        Specification<E> specification,
+        String cursor,
+        Pageable pageable
+    ) {
+        Sort sort = withIdTiebreaker(pageable.getSort());
+        int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_PAGE_SIZE;
+        Specification<E> keyset = specification;
+        if (cursor != null && !cursor.isEmpty()) {
+            keyset = specification.and(after(sort, decode(cursor, sort)));
+        }
+        // one extra row tells whether there is a next page
+        List<E> rows = repository.findBy(keyset, query -> query.sortBy(sort).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<E> content = rows.subList(0, size);
+        return new KeysetPage<>(content, encode(content.get(size - 1), sort));
+    }
+
+    static Sort withIdTiebreaker(Sort sort) {
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().reduce((first, second) -> second).map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID));
+    }
+
+    /**
+     * Build {@code (k1 > v1) or (k1 = v1 and k2 > v2) or ...}, flipping the comparison for descending keys.
+     * A redundant {@code k1 >= v1} is added so that the database can range-scan the index of the first key.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <E> Specification<E> after(Sort sort, List<String> values) {
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalPrefix = new ArrayList<>();
+            Predicate seek = null;
+            int i = 0;
+            for (Sort.Order order : sort) {
+                Expression<Comparable> path = (Expression<Comparable>) path(root, order.getProperty());
+                Comparable value = convert(values.get(i++), path.getJavaType(), order.getProperty());
+                List<Predicate> alternative = new ArrayList<>(equalPrefix);
+                alternative.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+                alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+                equalPrefix.add(cb.equal(path, value));
+                if (seek == null) {
+                    seek = order.isAscending() ? cb.greaterThanOrEqualTo(path, value) : cb.lessThanOrEqualTo(path, value);
+                }
+            }
+            return cb.and(seek, cb.or(alternatives.toArray(Predicate[]::new)));
+        };
+    }
+
+    private static Path<?> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        if (!Comparable.class.isAssignableFrom(path.getJavaType())) {
+            throw new InvalidCursorException("Cannot use keyset pagination when sorting on '" + property + "'");
+        }
+        return path;
+    }
+
+    private static Comparable<?> convert(String value, Class<?> type, String property) {
+        try {
+            if (Instant.class.equals(type)) {
+                return Instant.parse(value);
+            }
+            return (Comparable<?>) CONVERSION_SERVICE.convert(value, type);
+        } catch (DateTimeParseException | ConversionException e) {
+            throw new InvalidCursorException("Invalid cursor value for '" + property + "'");
+        }
+    }
+
+    static String encode(Object entity, Sort sort) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        return sort
+            .stream()
+            .map(order -> {
+                Object value = wrapper.getPropertyValue(order.getProperty());
+                if (value == null) {
+                    throw new InvalidCursorException("Cannot use keyset pagination when sorting on nullable '" + order.getProperty() + "'");
+                }
+                String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+            })
+            .collect(Collectors.joining(SEPARATOR));
+    }
+
+    /**
+     * Decode the values of a cursor, converted to the types of the sort properties of an entity.
+     *
+     * @param cursor the cursor.
+     * @param sort the sort, with the id tiebreaker.
+     * @param entityType the entity type.
+     * @return the values, by sort key.
+     */
+    static List<Object> decode(String cursor, Sort sort, Class<?> entityType) {
+        BeanWrapper wrapper = new BeanWrapperImpl(entityType);
+        wrapper.setAutoGrowNestedPaths(true);
+        List<String> values = decode(cursor, sort);
+        List<Object> converted = new ArrayList<>(values.size());
+        int i = 0;
+        for (Sort.Order order : sort) {
+            Class<?> type = wrapper.getPropertyType(order.getProperty());
+            if (type == null) {
+                throw new InvalidCursorException("Cannot use keyset pagination when sorting on '" + order.getProperty() + "'");
+            }
+            converted.add(convert(values.get(i++), type, order.getProperty()));
+        }
+        return converted;
+    }
+
+    private static List<String> decode(String cursor, Sort sort) {
+        String[] parts = cursor.split("\\" + SEPARATOR, -1);
+        if (parts.length != sort.stream().count()) {
+            throw new InvalidCursorException("The cursor does not match the requested sort");
+        }
+        List<String> values = new ArrayList<>(parts.length);
+        try {
+            for (String part : parts) {
+                values.add(new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        return values;
+    }
+}
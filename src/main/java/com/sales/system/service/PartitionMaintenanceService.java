@@ -0,0 +1,238 @@
+package com.sales.system.service;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.TransactionLog;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the monthly partitions of the tables partitioned by date: {@code transaction_log}, by its
+ * timestamp.
+ * <p>
+ * The partitions are named {@code <table>_pYYYYMM} and cover one UTC month each. Every day, and at startup, the
+ * partitions of the current month and of the {@code application.partitioning.premake-months} next ones are created,
+ * and the partitions older than {@code application.partitioning.retention-months} are detached, or dropped. A detached
+ * partition keeps no foreign key: it would otherwise keep blocking the deletes of the rows it references. A row
+ * whose month has no partition cannot be inserted: the bulk loads of old rows create theirs with
+ * {@link #createPartitions(Class, LocalDate, LocalDate)}.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private record PartitionedTable(String name, Class<?> entityType) {}
+
+    private static final List<PartitionedTable> PARTITIONED_TABLES = List.of(new PartitionedTable("transaction_log", TransactionLog.class));
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * The partitions of a table, empty when it is not partitioned (yet, when the migrations are still running).
+     */
+    private static final String PARTITIONS_SQL =
+        "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent " +
+        "where p.oid = to_regclass(?) and p.relkind = 'p'";
+
+    /**
+     * The tables of the current schema which may be monthly partitions of a table, attached or not.
+     */
+    private static final String MONTHLY_TABLES_SQL =
+        "select c.relname from pg_class c " +
+        "where c.relkind = 'r' and c.relnamespace = to_regnamespace(current_schema()) and c.relname like ?";
+
+    private static final String FOREIGN_KEYS_SQL = "select conname from pg_constraint where conrelid = to_regclass(?) and contype = 'f'";
+
+    private static final String IS_PARTITIONED_SQL = "select count(*) from pg_class where oid = to_regclass(?) and relkind = 'p'";
+
+    /**
+     * Creating, detaching or dropping a partition locks the whole table: rather give up until the next run than queue
+     * the writes behind a long transaction.
+     */
+    private static final String LOCK_TIMEOUT_SQL = "set local lock_timeout = '10s'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ApplicationProperties.Partitioning properties;
+
+    public PartitionMaintenanceService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = applicationProperties.getPartitioning();
+    }
+
+    /**
+     * Create the partitions of the coming months and expire the old ones.
+     * <p>
+     * This is scheduled to get fired every day, at 00:30 (am), and once at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 0 * * ?")
+    public void maintain() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (PartitionedTable table : PARTITIONED_TABLES) {
+            try {
+                createPartitions(table, current, current.plusMonths(properties.getPremakeMonths()));
+                if (properties.getRetentionMonths() > 0) {
+                    expirePartitions(table, current.minusMonths(properties.getRetentionMonths()));
+                }
+            } catch (DataAccessException e) {
+                LOG.error("Could not maintain the partitions of {}", table.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Create the missing partitions of an entity table for a range of days.
+     *
+     * @param entityType the entity, ignored if its table is not partitioned.
+     * @param from the first day.
+     * @param to the last day, included.
+     */
+    public void createPartitions(Class<?> entityType, LocalDate from, LocalDate to) {
+        for (PartitionedTable table : PARTITIONED_TABLES) {
+            if (table.entityType().equals(entityType)) {
+                createPartitions(table, YearMonth.from(from), YearMonth.from(to));
+            }
+        }
+    }
+
+    /**
+     * List the monthly partitions of an entity table covering the months before a given one, including the detached
+     * ones.
+     *
+     * @param entityType the entity.
+     * @param month the first month excluded.
+     * @return the names of the partitions, oldest first; empty if the table is not partitioned.
+     */
+    public List<String> partitionsBefore(Class<?> entityType, YearMonth month) {
+        List<String> partitions = new ArrayList<>();
+        for (PartitionedTable table : PARTITIONED_TABLES) {
+            if (table.entityType().equals(entityType)) {
+                transactionTemplate
+                    .execute(status -> jdbcTemplate.queryForList(MONTHLY_TABLES_SQL, String.class, table.name() + "_p%"))
+                    .stream()
+                    .filter(partition -> {
+                        YearMonth partitionMonth = monthOf(table, partition);
+                        return partitionMonth != null && partitionMonth.isBefore(month);
+                    })
+                    .sorted()
+                    .forEach(partitions::add);
+            }
+        }
+        return partitions;
+    }
+
+    private void createPartitions(PartitionedTable table, YearMonth from, YearMonth to) {
+        Long partitioned = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Long.class, table.name()));
+        if (partitioned == null || partitioned == 0) {
+            LOG.debug("{} is not partitioned", table.name());
+            return;
+        }
+        Set<String> existing = partitions(table);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String partition = partitionName(table, month);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            String sql =
+                "create table if not exists " +
+                partition +
+                " partition of " +
+                table.name() +
+                " for values from ('" +
+                month.atDay(1) +
+                "') to ('" +
+                month.plusMonths(1).atDay(1) +
+                "')";
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(LOCK_TIMEOUT_SQL);
+                jdbcTemplate.execute(sql);
+            });
+            LOG.info("Created the partition {}", partition);
+        }
+    }
+
+    private void expirePartitions(PartitionedTable table, YearMonth oldestKept) {
+        boolean expired = false;
+        for (String partition : partitions(table)) {
+            YearMonth month = monthOf(table, partition);
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            boolean drop = properties.getRetentionAction() == ApplicationProperties.Partitioning.RetentionAction.DROP;
+            String sql = drop ? "drop table " + partition : "alter table " + table.name() + " detach partition " + partition;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(LOCK_TIMEOUT_SQL);
+                jdbcTemplate.execute(sql);
+                if (!drop) {
+                    for (String foreignKey : jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, String.class, partition)) {
+                        jdbcTemplate.execute("alter table " + partition + " drop constraint " + foreignKey);
+                    }
+                }
+            });
+            LOG.info("Expired the partition {}: {}", partition, sql);
+            expired = true;
+        }
+        if (expired) {
+            entityManagerFactory.getCache().evict(table.entityType());
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(table.entityType()));
+        }
+    }
+
+    private Set<String> partitions(PartitionedTable table) {
+        return transactionTemplate.execute(status -> new HashSet<>(jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table.name())));
+    }
+
+    private static String partitionName(PartitionedTable table, YearMonth month) {
+        return table.name() + "_p" + MONTH_SUFFIX.format(month);
+    }
+
+    /**
+     * @return the month of a partition, {@code null} if it was not created by this service.
+     */
+    private static YearMonth monthOf(PartitionedTable table, String partition) {
+        String prefix = table.name() + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), MONTH_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,9 +32,20 @@ public class ProductQueryService extends QueryService<Product> {
 
     private final ProductMapper productMapper;
 
-    public ProductQueryService(ProductRepository productRepository, ProductMapper productMapper) {
+    private final CountService countService;
+
+    private final QueryResultCache queryResultCache;
+
+    public ProductQueryService(
+        ProductRepository productRepository,
+        ProductMapper productMapper,
+        CountService countService,
+        QueryResultCache queryResultCache
+    ) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.countService = countService;
+        this.queryResultCache = queryResultCache;
     }
 
     /**
@@ -45,8 +57,24 @@ public class ProductQueryService extends QueryService<Product> {
     @Transactional(readOnly = true)
     public Page<ProductDTO> findByCriteria(ProductCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Product.class, "page", criteria, page, () -> {
+            final Specification<Product> specification = createSpecification(criteria);
+            return productRepository.findAll(specification, page).map(productMapper::toDto);
+        });
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link ProductDTO} which matches the criteria from the database, using keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor of the previous page, or an empty value for the first page.
+     * @param page The size and sort of the page; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ProductDTO> findByCriteria(ProductCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("find by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
         final Specification<Product> specification = createSpecification(criteria);
-        return productRepository.findAll(specification, page).map(productMapper::toDto);
+        return KeysetPagination.fetch(productRepository, specification, cursor, page).map(productMapper::toDto);
     }
 
     /**
@@ -61,6 +89,33 @@ public class ProductQueryService extends QueryService<Product> {
         return productRepository.count(specification);
     }
 
+    /**
+     * Return a {@link Slice} of {@link ProductDTO} which matches the criteria from the database, without counting all the matches.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findSliceByCriteria(ProductCriteria criteria, Pageable page) {
+        LOG.debug("find slice by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Product.class, "slice", criteria, page, () -> {
+            final Specification<Product> specification = createSpecification(criteria);
+            return SlicePagination.fetch(productRepository, specification, page).map(productMapper::toDto);
+        });
+    }
+
+    /**
+     * Return the number of matching entities, produced in the requested {@link TotalCount.Mode} when possible.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param mode The requested count mode.
+     * @return the number of matching entities, and how it was produced.
+     */
+    @Transactional(readOnly = true)
+    public TotalCount countByCriteria(ProductCriteria criteria, TotalCount.Mode mode) {
+        final ProductCriteria nonNullCriteria = criteria != null ? criteria : new ProductCriteria();
+        return countService.count(Product.class, nonNullCriteria, mode, () -> countByCriteria(nonNullCriteria));
+    }
+
     /**
      * Function to convert {@link ProductCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
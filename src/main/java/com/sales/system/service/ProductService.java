@@ -1,5 +1,6 @@
 package com.sales.system.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.service.dto.ProductDTO;
 import java.util.Optional;
 
@@ -16,21 +17,30 @@ public interface ProductService {
     ProductDTO save(ProductDTO productDTO);
 
     /**
-     * Updates a product.
+     * Updates a product, at the version of the DTO if it has one.
      *
      * @param productDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
-    ProductDTO update(ProductDTO productDTO);
+    Optional<ProductDTO> update(ProductDTO productDTO);
 
     /**
-     * Partially updates a product.
+     * Partially updates a product, at the version of the DTO if it has one.
      *
      * @param productDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
     Optional<ProductDTO> partialUpdate(ProductDTO productDTO);
 
+    /**
+     * Applies a JSON merge patch to a product, updating its changed columns only.
+     *
+     * @param id the id of the entity.
+     * @param patch the merge patch.
+     * @return the patched entity, or empty if it does not exist.
+     */
+    Optional<ProductDTO> mergePatch(Long id, JsonNode patch);
+
     /**
      * Get the "id" product.
      *
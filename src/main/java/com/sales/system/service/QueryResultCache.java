@@ -0,0 +1,287 @@
+package com.sales.system.service;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.Seller;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+
+/**
+ * Service caching the results of the criteria queries, per entity, as configured by {@code application.query-cache}.
+ * <p>
+ * A result is stored in the {@link #cacheName(Class) query cache} of its entity, keyed by the query, the canonical form
+ * of the criteria (whose {@code in} lists are sorted) and the pageable. It is tagged with the entities it was read from,
+ * those of {@link #CACHED_ENTITIES}, through the {@link TableChangeService generations} of their tables, kept in memory
+ * and incremented by the notifications of the committed changes: a result tagged with an older generation is never
+ * served again, whichever instance, or tool, changed the table. A change committed by another instance is seen once it
+ * is notified, a few milliseconds later. As the generations are read before the query, a result read concurrently with
+ * a change is discarded as well.
+ * <p>
+ * A result older than the time to live of its entity is still served during its stale-while-revalidate period, while
+ * it is queried again on the task executor; a result invalidated by a change is not.
+ * <p>
+ * The outcomes of the lookups are counted as {@value #REQUESTS_METER_NAME}, with their ratio of hits as
+ * {@value #HIT_RATIO_METER_NAME}, and the invalidations by the changes made by this instance as
+ * {@value #INVALIDATIONS_METER_NAME}.
+ */
+@Service
+public class QueryResultCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryResultCache.class);
+
+    public static final String REQUESTS_METER_NAME = "query.cache.requests";
+
+    public static final String HIT_RATIO_METER_NAME = "query.cache.hit.ratio";
+
+    public static final String INVALIDATIONS_METER_NAME = "query.cache.invalidations";
+
+    /**
+     * The cached entities, with the entities their results are read from: the criteria joins and the DTO relationships.
+     */
+    public static final Map<Class<?>, List<Class<?>>> CACHED_ENTITIES = Map.of(
+        Product.class,
+        List.of(Product.class),
+        Client.class,
+        List.of(Client.class),
+        Seller.class,
+        List.of(Seller.class),
+        Sale.class,
+        List.of(Sale.class, SaleTransaction.class, Client.class, Seller.class)
+    );
+
+    private final CacheManager cacheManager;
+
+    private final TableChangeService tableChangeService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.QueryCache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Class<?>> tags = new HashSet<>();
+
+    private final Map<Class<?>, Meters> meters = new HashMap<>();
+
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+
+    public QueryResultCache(
+        CacheManager cacheManager,
+        TableChangeService tableChangeService,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.cacheManager = cacheManager;
+        this.tableChangeService = tableChangeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.properties = applicationProperties.getQueryCache();
+        this.meterRegistry = meterRegistry;
+        CACHED_ENTITIES.forEach((entityType, tags) -> {
+            this.tags.addAll(tags);
+            if (settings(entityType) != null) {
+                meters.put(entityType, new Meters(entityType));
+            }
+        });
+    }
+
+    public static String cacheName(Class<?> entityType) {
+        return QueryResultCache.class.getName() + "." + entityType.getSimpleName();
+    }
+
+    /**
+     * The key of the entity in {@code application.query-cache.entities}.
+     */
+    public static String entityKey(Class<?> entityType) {
+        return entityType.getSimpleName().replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase();
+    }
+
+    /**
+     * Return the cached result of a criteria query, or run the query and cache its result.
+     * <p>
+     * The results are shared between the callers, and should not be modified.
+     *
+     * @param entityType the queried entity.
+     * @param query the name of the query, telling apart the queries sharing the same criteria and pageable.
+     * @param criteria the criteria of the query.
+     * @param pageable the pageable of the query.
+     * @param supplier the query, run in a read-only transaction.
+     * @param <T> the type of the result.
+     * @return the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<?> entityType, String query, Criteria criteria, Pageable pageable, Supplier<T> supplier) {
+        ApplicationProperties.QueryCache.Entity settings = settings(entityType);
+        Cache cache = settings != null ? cacheManager.getCache(cacheName(entityType)) : null;
+        if (cache == null) {
+            return supplier.get();
+        }
+        Meters entityMeters = meters.get(entityType);
+        Key key = new Key(query, canonical(criteria), pageable);
+        long[] current = generations(entityType);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null && cached.get() instanceof Entry entry && Arrays.equals(entry.generations(), current)) {
+            long age = System.currentTimeMillis() - entry.created();
+            if (age < settings.getTimeToLiveSeconds() * 1000L) {
+                entityMeters.hits.increment();
+                return (T) entry.value();
+            }
+            int staleWhileRevalidateSeconds = Objects.requireNonNullElse(settings.getStaleWhileRevalidateSeconds(), 0);
+            if (age < (settings.getTimeToLiveSeconds() + staleWhileRevalidateSeconds) * 1000L) {
+                entityMeters.staleHits.increment();
+                refresh(entityType, cache, key, supplier);
+                return (T) entry.value();
+            }
+        }
+        entityMeters.misses.increment();
+        T value = supplier.get();
+        cache.put(key, new Entry(value, System.currentTimeMillis(), current));
+        return value;
+    }
+
+    private void refresh(Class<?> entityType, Cache cache, Key key, Supplier<?> supplier) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    long[] current = generations(entityType);
+                    Object value = transactionTemplate.execute(status -> supplier.get());
+                    cache.put(key, new Entry(value, System.currentTimeMillis(), current));
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not refresh the cached {} query {}", entityType.getSimpleName(), key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // served stale once more, and refreshed by a later request
+            refreshing.remove(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (tags.contains(event.entityType())) {
+            LOG.trace("Invalidated the cached queries reading {}", event.entityType().getSimpleName());
+            meterRegistry.counter(INVALIDATIONS_METER_NAME, "entity", entityKey(event.entityType())).increment();
+        }
+    }
+
+    private ApplicationProperties.QueryCache.Entity settings(Class<?> entityType) {
+        ApplicationProperties.QueryCache.Entity settings = properties.getEntities().get(entityKey(entityType));
+        return settings != null && settings.getTimeToLiveSeconds() != null && settings.getTimeToLiveSeconds() > 0 ? settings : null;
+    }
+
+    private long[] generations(Class<?> entityType) {
+        return tableChangeService.generations(CACHED_ENTITIES.get(entityType));
+    }
+
+    /**
+     * A copy of the criteria with sorted {@code in} and {@code not in} lists, and no {@code distinct=false}, so that the
+     * equivalent criteria are equal.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Criteria canonical(Criteria criteria) {
+        if (criteria == null) {
+            return null;
+        }
+        Criteria canonical = criteria.copy();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(canonical.getClass())) {
+            if (property.getReadMethod() == null || property.getWriteMethod() == null) {
+                continue;
+            }
+            try {
+                Object value = property.getReadMethod().invoke(canonical);
+                if (value instanceof Filter filter) {
+                    if (filter.getIn() != null) {
+                        filter.setIn(sorted(filter.getIn()));
+                    }
+                    if (filter.getNotIn() != null) {
+                        filter.setNotIn(sorted(filter.getNotIn()));
+                    }
+                } else if (Boolean.FALSE.equals(value) && "distinct".equals(property.getName())) {
+                    property.getWriteMethod().invoke(canonical, (Object) null);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read the criteria property " + property.getName(), e);
+            }
+        }
+        return canonical;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static List sorted(List<?> values) {
+        return values.stream().distinct().sorted((Comparator) Comparator.naturalOrder()).toList();
+    }
+
+    private record Key(String query, Criteria criteria, Pageable pageable) {}
+
+    private record Entry(Object value, long created, long[] generations) {}
+
+    private final class Meters {
+
+        private final Counter hits;
+
+        private final Counter staleHits;
+
+        private final Counter misses;
+
+        private Meters(Class<?> entityType) {
+            String entity = entityKey(entityType);
+            hits = Counter.builder(REQUESTS_METER_NAME).tag("entity", entity).tag("result", "hit").register(meterRegistry);
+            staleHits = Counter.builder(REQUESTS_METER_NAME).tag("entity", entity).tag("result", "stale").register(meterRegistry);
+            misses = Counter.builder(REQUESTS_METER_NAME).tag("entity", entity).tag("result", "miss").register(meterRegistry);
+            Counter.builder(INVALIDATIONS_METER_NAME)
+                .description("Changes invalidating the cached query results reading the entity")
+                .tag("entity", entity)
+                .register(meterRegistry);
+            Gauge.builder(HIT_RATIO_METER_NAME, this, Meters::hitRatio)
+                .description("Ratio of the criteria queries served from the query cache, stale ones included")
+                .tag("entity", entity)
+                .register(meterRegistry);
+        }
+
+        private double hitRatio() {
+            double served = hits.count() + staleHits.count();
+            double total = served + misses.count();
+            return total == 0 ? 0 : served / total;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.sales.system.service;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.dto.SaleBulkDeleteResultDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for deleting large batches of {@link Sale} and {@link SaleTransaction} entities.
+ * <p>
+ * The entities are deleted in chunks of {@code application.bulk-delete.chunk-size}, one transaction per chunk, by
+ * set-based statements on the ids of the chunk: the saleTransactions are subtracted from the rollups, then they are
+ * deleted, with their sales, and one {@code DELETE} audit entry per deleted saleTransaction, carrying its id, is written
+ * by a single multi-row insert. Their earlier audit entries are left as they are, as {@code sale_transaction_id} is not
+ * a foreign key. None of the entities is loaded, so the second-level cache regions they may be held in are evicted as a
+ * whole, once the chunk is deleted and again once it is committed.
+ * <p>
+ * A failing chunk is rolled back on its own: the chunks before it stay deleted.
+ */
+@Service
+public class SaleBulkDeleteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SaleBulkDeleteService.class);
+
+    private static final String DELETE_OPERATION = "DELETE";
+
+    private static final String DELETE_SALES_SALE_TRANSACTIONS_SQL = "delete from sale_transaction where sale_id = any(?) returning id";
+
+    private static final String DELETE_SALE_TRANSACTIONS_SQL = "delete from sale_transaction where id = any(?) returning id";
+
+    private static final String DELETE_SALES_SQL = "delete from sale where id = any(?)";
+
+    private static final String SALE_TRANSACTIONS_ROLE = Sale.class.getName() + ".transactions";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SaleQueryService saleQueryService;
+
+    private final SalesRollupService salesRollupService;
+
+    private final TransactionLogWriter transactionLogWriter;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final int chunkSize;
+
+    public SaleBulkDeleteService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        SaleQueryService saleQueryService,
+        SalesRollupService salesRollupService,
+        TransactionLogWriter transactionLogWriter,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.saleQueryService = saleQueryService;
+        this.salesRollupService = salesRollupService;
+        this.transactionLogWriter = transactionLogWriter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.chunkSize = Math.max(1, applicationProperties.getBulkDelete().getChunkSize());
+    }
+
+    /**
+     * Delete sales, with their saleTransactions.
+     *
+     * @param ids the ids of the sales; the unknown ones are ignored.
+     * @return the summary of the delete.
+     */
+    public SaleBulkDeleteResultDTO deleteSales(Collection<Long> ids) {
+        LOG.debug("Request to bulk delete {} Sales", ids.size());
+        long start = System.nanoTime();
+        SaleBulkDeleteResultDTO result = new SaleBulkDeleteResultDTO();
+        result.setRequested(ids.size());
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            transactionTemplate.executeWithoutResult(status -> deleteSalesChunk(chunk, result));
+        }
+        return finish(result, start);
+    }
+
+    /**
+     * Delete the sales matching a criteria, with their saleTransactions.
+     *
+     * @param criteria the criteria, which should not be empty.
+     * @return the summary of the delete.
+     */
+    public SaleBulkDeleteResultDTO deleteSales(SaleCriteria criteria) {
+        LOG.debug("Request to bulk delete Sales by criteria : {}", criteria);
+        long start = System.nanoTime();
+        SaleBulkDeleteResultDTO result = new SaleBulkDeleteResultDTO();
+        Long afterId = null;
+        while (true) {
+            Long after = afterId;
+            List<Long> chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = saleQueryService.findIdsByCriteria(criteria, after, chunkSize);
+                deleteSalesChunk(ids, result);
+                return ids;
+            });
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        return finish(result, start);
+    }
+
+    /**
+     * Delete saleTransactions.
+     *
+     * @param ids the ids of the saleTransactions; the unknown ones are ignored.
+     * @return the summary of the delete.
+     */
+    public SaleBulkDeleteResultDTO deleteSaleTransactions(Collection<Long> ids) {
+        LOG.debug("Request to bulk delete {} SaleTransactions", ids.size());
+        long start = System.nanoTime();
+        SaleBulkDeleteResultDTO result = new SaleBulkDeleteResultDTO();
+        result.setRequested(ids.size());
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            transactionTemplate.executeWithoutResult(status -> deleteSaleTransactionsChunk(chunk, result));
+        }
+        return finish(result, start);
+    }
+
+    private void deleteSalesChunk(List<Long> ids, SaleBulkDeleteResultDTO result) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Long[] array = ids.toArray(Long[]::new);
+        salesRollupService.subtractSales(ids);
+        List<Long> saleTransactionIds = delete(DELETE_SALES_SALE_TRANSACTIONS_SQL, array);
+        transactionLogWriter.recordDeleted(DELETE_OPERATION, saleTransactionIds);
+        int sales = update(DELETE_SALES_SQL, array);
+        evictAfterChunk();
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+        result.setSales(result.getSales() + sales);
+        result.setSaleTransactions(result.getSaleTransactions() + saleTransactionIds.size());
+        result.setChunks(result.getChunks() + 1);
+    }
+
+    private void deleteSaleTransactionsChunk(List<Long> ids, SaleBulkDeleteResultDTO result) {
+        Long[] array = ids.toArray(Long[]::new);
+        salesRollupService.subtractSaleTransactions(ids);
+        List<Long> saleTransactionIds = delete(DELETE_SALE_TRANSACTIONS_SQL, array);
+        transactionLogWriter.recordDeleted(DELETE_OPERATION, saleTransactionIds);
+        evictAfterChunk();
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+        result.setSaleTransactions(result.getSaleTransactions() + saleTransactionIds.size());
+        result.setChunks(result.getChunks() + 1);
+    }
+
+    private int update(String sql, Long[] ids) {
+        return jdbcTemplate.update(sql, statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint", ids)));
+    }
+
+    private List<Long> delete(String sql, Long[] ids) {
+        return jdbcTemplate.query(
+            sql,
+            statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint", ids)),
+            (resultSet, row) -> resultSet.getLong(1)
+        );
+    }
+
+    private void evictAfterChunk() {
+        evict();
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            }
+        );
+    }
+
+    /**
+     * The sales cached with their saleTransactions, the saleTransactions, and the sales they were removed from.
+     */
+    private void evict() {
+        entityManagerFactory.getCache().evict(Sale.class);
+        entityManagerFactory.getCache().evict(SaleTransaction.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictCollectionData(SALE_TRANSACTIONS_ROLE);
+    }
+
+    private static SaleBulkDeleteResultDTO finish(SaleBulkDeleteResultDTO result, long start) {
+        result.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.debug(
+            "Bulk deleted {} Sales and {} SaleTransactions in {} chunks",
+            result.getSales(),
+            result.getSaleTransactions(),
+            result.getChunks()
+        );
+        return result;
+    }
+}
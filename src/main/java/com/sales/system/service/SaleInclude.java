@@ -0,0 +1,16 @@
+package com.sales.system.service;
+
+/**
+ * The relationships added to the sales returned by the sales resource, requested with its {@code include} parameter.
+ */
+public enum SaleInclude {
+    /**
+     * The lines of the sales, with the id and name of their product.
+     */
+    TRANSACTIONS,
+
+    /**
+     * The whole product of each line; implies {@link #TRANSACTIONS}.
+     */
+    PRODUCT,
+}
@@ -0,0 +1,233 @@
+package com.sales.system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.repository.SaleRepository;
+import com.sales.system.repository.SaleTransactionRepository;
+import com.sales.system.service.dto.SaleIngestDTO;
+import com.sales.system.service.dto.SaleIngestLineDTO;
+import com.sales.system.service.dto.SaleIngestResultDTO;
+import com.sales.system.service.mapper.ProductMapper;
+import com.sales.system.service.mapper.SaleMapper;
+import com.sales.system.service.pricing.PricingEngine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for ingesting large batches of {@link Sale} entities, with their {@link SaleTransaction} lines.
+ * <p>
+ * The input is an NDJSON stream (one {@link SaleIngestDTO} per line) which is parsed incrementally, so the
+ * request body is never buffered as a whole. Valid records are persisted in chunks of
+ * {@code application.ingest.chunk-size}, one transaction per chunk, so that Hibernate can group the inserts
+ * into JDBC batches ({@code hibernate.jdbc.batch_size} / {@code hibernate.order_inserts}).
+ * A {@link SaleIngestResultDTO} is emitted for every input line.
+ */
+@Service
+public class SaleIngestService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SaleIngestService.class);
+
+    private final SaleRepository saleRepository;
+
+    private final SaleTransactionRepository saleTransactionRepository;
+
+    private final TransactionLogWriter transactionLogWriter;
+
+    private final SaleMapper saleMapper;
+
+    private final ProductMapper productMapper;
+
+    private final Validator validator;
+
+    private final ObjectReader reader;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SalesRollupService salesRollupService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final int chunkSize;
+
+    public SaleIngestService(
+        SaleRepository saleRepository,
+        SaleTransactionRepository saleTransactionRepository,
+        TransactionLogWriter transactionLogWriter,
+        SaleMapper saleMapper,
+        ProductMapper productMapper,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        SalesRollupService salesRollupService,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.saleRepository = saleRepository;
+        this.saleTransactionRepository = saleTransactionRepository;
+        this.transactionLogWriter = transactionLogWriter;
+        this.saleMapper = saleMapper;
+        this.productMapper = productMapper;
+        this.validator = validator;
+        this.reader = objectMapper.readerFor(SaleIngestDTO.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.salesRollupService = salesRollupService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.chunkSize = Math.max(1, applicationProperties.getIngest().getChunkSize());
+    }
+
+    /**
+     * Ingest an NDJSON stream of sales.
+     *
+     * @param input the NDJSON stream, already decompressed.
+     * @param results receives one result per non-blank input line, in input order.
+     * @return the number of created sales.
+     * @throws IOException if the input stream cannot be read.
+     */
+    public long ingest(InputStream input, Consumer<SaleIngestResultDTO> results) throws IOException {
+        LOG.debug("Request to ingest a stream of Sales");
+        long created = 0;
+        long lineNumber = 0;
+        List<PendingSale> chunk = new ArrayList<>(chunkSize);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            SaleIngestDTO saleIngestDTO;
+            try {
+                saleIngestDTO = reader.readValue(line);
+            } catch (JsonProcessingException e) {
+                results.accept(SaleIngestResultDTO.rejected(lineNumber, "malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            String violations = validate(saleIngestDTO);
+            if (violations != null) {
+                results.accept(SaleIngestResultDTO.rejected(lineNumber, violations));
+                continue;
+            }
+            chunk.add(new PendingSale(lineNumber, saleIngestDTO));
+            if (chunk.size() >= chunkSize) {
+                created += flush(chunk, results);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += flush(chunk, results);
+        }
+        LOG.debug("Ingested {} Sales from {} lines", created, lineNumber);
+        return created;
+    }
+
+    private String validate(SaleIngestDTO saleIngestDTO) {
+        if (saleIngestDTO.getId() != null) {
+            return "a new sale cannot already have an ID";
+        }
+        Set<ConstraintViolation<SaleIngestDTO>> violations = validator.validate(saleIngestDTO);
+        if (violations.isEmpty()) {
+            return checkAmounts(saleIngestDTO);
+        }
+        return violations.stream().map(v -> v.getPropertyPath() + " " + v.getMessage()).sorted().collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Unlike a checkout, an ingested sale brings its own subtotals and total: they must add up.
+     */
+    private static String checkAmounts(SaleIngestDTO saleIngestDTO) {
+        try {
+            long totalCents = 0;
+            List<SaleIngestLineDTO> lines = saleIngestDTO.getTransactions();
+            for (int i = 0; i < lines.size(); i++) {
+                SaleIngestLineDTO line = lines.get(i);
+                long subtotalCents = PricingEngine.subtotal(PricingEngine.toCents(line.getUnitPrice()), line.getQuantity());
+                if (subtotalCents != PricingEngine.toCents(line.getSubtotal())) {
+                    return "transactions[" + i + "].subtotal does not match unitPrice x quantity";
+                }
+                totalCents = PricingEngine.addLine(totalCents, subtotalCents);
+            }
+            if (totalCents != PricingEngine.toCents(saleIngestDTO.getTotal())) {
+                return "total does not match the sum of the subtotals";
+            }
+            return null;
+        } catch (ArithmeticException e) {
+            return "amounts out of range";
+        }
+    }
+
+    /**
+     * Persist a chunk in a single transaction. If the chunk fails as a whole, its records are retried one by one
+     * so that a single bad reference only fails its own record.
+     */
+    private long flush(List<PendingSale> chunk, Consumer<SaleIngestResultDTO> results) {
+        List<Sale> sales;
+        try {
+            sales = transactionTemplate.execute(status -> persist(chunk));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                LOG.debug("Sale on line {} could not be ingested: {}", chunk.get(0).line(), e.getMessage());
+                results.accept(SaleIngestResultDTO.failed(chunk.get(0).line(), NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                return 0;
+            }
+            LOG.debug("Chunk of {} Sales failed, retrying record by record: {}", chunk.size(), e.getMessage());
+            long created = 0;
+            for (PendingSale pendingSale : chunk) {
+                created += flush(List.of(pendingSale), results);
+            }
+            return created;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            results.accept(SaleIngestResultDTO.created(chunk.get(i).line(), sales.get(i).getId()));
+        }
+        return chunk.size();
+    }
+
+    private List<Sale> persist(List<PendingSale> chunk) {
+        List<Sale> sales = new ArrayList<>(chunk.size());
+        List<SaleTransaction> saleTransactions = new ArrayList<>();
+        for (PendingSale pendingSale : chunk) {
+            Sale sale = saleMapper.toEntity(pendingSale.sale());
+            sales.add(sale);
+            for (SaleIngestLineDTO line : pendingSale.sale().getTransactions()) {
+                SaleTransaction saleTransaction = new SaleTransaction()
+                    .quantity(line.getQuantity())
+                    .unitPrice(line.getUnitPrice())
+                    .subtotal(line.getSubtotal())
+                    .product(productMapper.toEntity(line.getProduct()))
+                    .sale(sale);
+                saleTransactions.add(saleTransaction);
+            }
+        }
+        saleRepository.saveAll(sales);
+        saleTransactionRepository.saveAll(saleTransactions);
+        saleTransactionRepository.flush();
+        salesRollupService.addSales(sales.stream().map(Sale::getId).toList());
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+        transactionLogWriter.recordAll("CREATE", saleTransactions);
+        return sales;
+    }
+
+    private record PendingSale(long line, SaleIngestDTO sale) {}
+}
@@ -6,11 +6,17 @@ import com.sales.system.repository.SaleRepository;
 import com.sales.system.service.criteria.SaleCriteria;
 import com.sales.system.service.dto.SaleDTO;
 import com.sales.system.service.mapper.SaleMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,9 +38,24 @@ public class SaleQueryService extends QueryService<Sale> {
 
     private final SaleMapper saleMapper;
 
-    public SaleQueryService(SaleRepository saleRepository, SaleMapper saleMapper) {
+    private final CountService countService;
+
+    private final QueryResultCache queryResultCache;
+
+    private final EntityManager entityManager;
+
+    public SaleQueryService(
+        SaleRepository saleRepository,
+        SaleMapper saleMapper,
+        CountService countService,
+        QueryResultCache queryResultCache,
+        EntityManager entityManager
+    ) {
         this.saleRepository = saleRepository;
         this.saleMapper = saleMapper;
+        this.countService = countService;
+        this.queryResultCache = queryResultCache;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -46,8 +67,24 @@ public class SaleQueryService extends QueryService<Sale> {
     @Transactional(readOnly = true)
     public Page<SaleDTO> findByCriteria(SaleCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Sale.class, "page", criteria, page, () -> {
+            final Specification<Sale> specification = createSpecification(criteria);
+            return saleRepository.findAll(specification, page).map(saleMapper::toDto);
+        });
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link SaleDTO} which matches the criteria from the database, using keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor of the previous page, or an empty value for the first page.
+     * @param page The size and sort of the page; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SaleDTO> findByCriteria(SaleCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("find by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
         final Specification<Sale> specification = createSpecification(criteria);
-        return saleRepository.findAll(specification, page).map(saleMapper::toDto);
+        return KeysetPagination.fetch(saleRepository, specification, cursor, page).map(saleMapper::toDto);
     }
 
     /**
@@ -62,6 +99,56 @@ public class SaleQueryService extends QueryService<Sale> {
         return saleRepository.count(specification);
     }
 
+    /**
+     * Return a {@link Slice} of {@link SaleDTO} which matches the criteria from the database, without counting all the matches.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<SaleDTO> findSliceByCriteria(SaleCriteria criteria, Pageable page) {
+        LOG.debug("find slice by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Sale.class, "slice", criteria, page, () -> {
+            final Specification<Sale> specification = createSpecification(criteria);
+            return SlicePagination.fetch(saleRepository, specification, page).map(saleMapper::toDto);
+        });
+    }
+
+    /**
+     * Return the number of matching entities, produced in the requested {@link TotalCount.Mode} when possible.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param mode The requested count mode.
+     * @return the number of matching entities, and how it was produced.
+     */
+    @Transactional(readOnly = true)
+    public TotalCount countByCriteria(SaleCriteria criteria, TotalCount.Mode mode) {
+        final SaleCriteria nonNullCriteria = criteria != null ? criteria : new SaleCriteria();
+        return countService.count(Sale.class, nonNullCriteria, mode, () -> countByCriteria(nonNullCriteria));
+    }
+
+    /**
+     * Return the ids of the matching entities, in ascending order, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id the returned ids follow, or {@code null} for the first ones.
+     * @param limit The maximum number of ids.
+     * @return the ids of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findIdsByCriteria(SaleCriteria criteria, Long afterId, int limit) {
+        LOG.debug("find ids by criteria : {}, after: {}, limit: {}", criteria, afterId, limit);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Sale> root = query.from(Sale.class);
+        Specification<Sale> specification = createSpecification(criteria);
+        if (afterId != null) {
+            specification = specification.and((sale, q, b) -> b.greaterThan(sale.get(Sale_.id), afterId));
+        }
+        query.select(root.get(Sale_.id)).where(specification.toPredicate(root, query, builder)).orderBy(builder.asc(root.get(Sale_.id)));
+        // the transactions join of the criteria yields a row per matching saleTransaction
+        query.distinct(true);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
     /**
      * Function to convert {@link SaleCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
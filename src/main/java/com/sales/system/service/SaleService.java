@@ -1,7 +1,12 @@
 package com.sales.system.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sales.system.service.dto.CheckoutDTO;
 import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SaleReceiptDTO;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -18,21 +23,39 @@ public interface SaleService {
     SaleDTO save(SaleDTO saleDTO);
 
     /**
-     * Updates a sale.
+     * Create a sale together with all its transactions, in a single transaction.
+     * The transaction subtotals and the sale total are computed from the quantities and unit prices.
+     *
+     * @param checkoutDTO the sale header and its lines.
+     * @return the persisted sale and transactions.
+     */
+    SaleReceiptDTO checkout(CheckoutDTO checkoutDTO);
+
+    /**
+     * Updates a sale, at the version of the DTO if it has one.
      *
      * @param saleDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
-    SaleDTO update(SaleDTO saleDTO);
+    Optional<SaleDTO> update(SaleDTO saleDTO);
 
     /**
-     * Partially updates a sale.
+     * Partially updates a sale, at the version of the DTO if it has one.
      *
      * @param saleDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
     Optional<SaleDTO> partialUpdate(SaleDTO saleDTO);
 
+    /**
+     * Applies a JSON merge patch to a sale, updating its changed columns only.
+     *
+     * @param id the id of the entity.
+     * @param patch the merge patch.
+     * @return the patched entity, or empty if it does not exist.
+     */
+    Optional<SaleDTO> mergePatch(Long id, JsonNode patch);
+
     /**
      * Get all the sales with eager load of many-to-many relationships.
      *
@@ -49,6 +72,15 @@ public interface SaleService {
      */
     Optional<SaleDTO> findOne(Long id);
 
+    /**
+     * Add relationships to sales, with a single query per relationship for all of them.
+     *
+     * @param sales the sales.
+     * @param includes the relationships to add.
+     * @return the sales, as {@link com.sales.system.service.dto.SaleWithTransactionsDTO} when their transactions are included.
+     */
+    List<SaleDTO> include(List<SaleDTO> sales, Set<SaleInclude> includes);
+
     /**
      * Delete the "id" sale.
      *
@@ -1,5 +1,6 @@
 package com.sales.system.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.service.dto.SaleTransactionDTO;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -18,12 +19,12 @@ public interface SaleTransactionService {
     SaleTransactionDTO save(SaleTransactionDTO saleTransactionDTO);
 
     /**
-     * Updates a saleTransaction.
+     * Updates a saleTransaction, at the version of the DTO if it has one.
      *
      * @param saleTransactionDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
-    SaleTransactionDTO update(SaleTransactionDTO saleTransactionDTO);
+    Optional<SaleTransactionDTO> update(SaleTransactionDTO saleTransactionDTO);
 
     /**
      * Partially updates a saleTransaction.
@@ -33,6 +34,15 @@ public interface SaleTransactionService {
      */
     Optional<SaleTransactionDTO> partialUpdate(SaleTransactionDTO saleTransactionDTO);
 
+    /**
+     * Applies a JSON merge patch to a saleTransaction, updating its changed columns only.
+     *
+     * @param id the id of the entity.
+     * @param patch the merge patch.
+     * @return the patched entity, or empty if it does not exist.
+     */
+    Optional<SaleTransactionDTO> mergePatch(Long id, JsonNode patch);
+
     /**
      * Get all the saleTransactions.
      *
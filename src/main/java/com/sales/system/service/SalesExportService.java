@@ -0,0 +1,334 @@
+package com.sales.system.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.*; // for static metamodels
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.SetJoin;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting all the {@link Sale sales}, with their lines, or all the {@link TransactionLog transaction logs}
+ * matching a criteria, as CSV or NDJSON.
+ * <p>
+ * The rows are selected as plain values rather than entities, so nothing accumulates in the persistence context, and
+ * streamed from a server-side cursor: inside the read-only transaction the PostgreSQL driver fetches
+ * {@code application.export.fetch-size} rows at a time. Each row is written to the output as soon as it is read, so
+ * the heap used does not depend on the number of rows exported.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SalesExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesExportService.class);
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final String[] SALE_COLUMNS = {
+        "saleId",
+        "creationDate",
+        "total",
+        "clientId",
+        "sellerId",
+        "saleTransactionId",
+        "productId",
+        "quantity",
+        "unitPrice",
+        "subtotal",
+    };
+
+    private static final String[] TRANSACTION_LOG_COLUMNS = {
+        "id",
+        "timestamp",
+        "operationType",
+        "modifiedBy",
+        "saleTransactionId",
+        "fieldChanged",
+    };
+
+    private final EntityManager entityManager;
+
+    private final SaleQueryService saleQueryService;
+
+    private final TransactionLogQueryService transactionLogQueryService;
+
+    private final JsonFactory jsonFactory;
+
+    private final int fetchSize;
+
+    public SalesExportService(
+        EntityManager entityManager,
+        SaleQueryService saleQueryService,
+        TransactionLogQueryService transactionLogQueryService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.saleQueryService = saleQueryService;
+        this.transactionLogQueryService = transactionLogQueryService;
+        this.jsonFactory = objectMapper.getFactory();
+        this.fetchSize = applicationProperties.getExport().getFetchSize();
+    }
+
+    /**
+     * Export the sales matching the criteria, ordered by id, with their lines.
+     * <p>
+     * In CSV, there is one row per line, repeating the columns of its sale; a sale without lines has one row with empty
+     * line columns. In NDJSON, there is one object per sale, with its lines in a {@code transactions} array.
+     *
+     * @param criteria the filters the sales should match.
+     * @param format the format of the export.
+     * @param output the stream to write to; it is flushed but not closed.
+     * @return the number of exported sales.
+     * @throws IOException if the output cannot be written.
+     */
+    public long exportSales(SaleCriteria criteria, Format format, OutputStream output) throws IOException {
+        LOG.debug("Request to export Sales by criteria : {}", criteria);
+        Specification<Sale> specification = saleQueryService.createSpecification(criteria);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Sale> sale = query.from(Sale.class);
+        SetJoin<Sale, SaleTransaction> line = sale.join(Sale_.transactions, JoinType.LEFT);
+        query.multiselect(
+            sale.get(Sale_.id),
+            sale.get(Sale_.creationDate),
+            sale.get(Sale_.total),
+            sale.get(Sale_.client).get(Client_.id),
+            sale.get(Sale_.seller).get(Seller_.id),
+            line.get(SaleTransaction_.id),
+            line.get(SaleTransaction_.product).get(Product_.id),
+            line.get(SaleTransaction_.quantity),
+            line.get(SaleTransaction_.unitPrice),
+            line.get(SaleTransaction_.subtotal)
+        );
+        where(query, specification.toPredicate(sale, query, cb));
+        query.orderBy(cb.asc(sale.get(Sale_.id)), cb.asc(line.get(SaleTransaction_.id)));
+
+        try (Stream<Tuple> rows = stream(query)) {
+            return format == Format.CSV
+                ? writeCsv(rows.iterator(), SALE_COLUMNS, output, true)
+                : writeSalesNdjson(rows.iterator(), output);
+        }
+    }
+
+    /**
+     * Export the transaction logs matching the criteria, ordered by id.
+     *
+     * @param criteria the filters the transaction logs should match.
+     * @param format the format of the export.
+     * @param output the stream to write to; it is flushed but not closed.
+     * @return the number of exported transaction logs.
+     * @throws IOException if the output cannot be written.
+     */
+    public long exportTransactionLogs(TransactionLogCriteria criteria, Format format, OutputStream output) throws IOException {
+        LOG.debug("Request to export TransactionLogs by criteria : {}", criteria);
+        Specification<TransactionLog> specification = transactionLogQueryService.createSpecification(criteria);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TransactionLog> transactionLog = query.from(TransactionLog.class);
+        query.multiselect(
+            transactionLog.get(TransactionLog_.id),
+            transactionLog.get(TransactionLog_.timestamp),
+            transactionLog.get(TransactionLog_.operationType),
+            transactionLog.get(TransactionLog_.modifiedBy),
+            transactionLog.get(TransactionLog_.saleTransactionId),
+            transactionLog.get(TransactionLog_.fieldChanged)
+        );
+        where(query, specification.toPredicate(transactionLog, query, cb));
+        query.orderBy(cb.asc(transactionLog.get(TransactionLog_.id)));
+
+        try (Stream<Tuple> rows = stream(query)) {
+            return format == Format.CSV
+                ? writeCsv(rows.iterator(), TRANSACTION_LOG_COLUMNS, output, false)
+                : writeNdjson(rows.iterator(), TRANSACTION_LOG_COLUMNS, output);
+        }
+    }
+
+    private static void where(CriteriaQuery<Tuple> query, Predicate predicate) {
+        // an empty criteria has no predicate
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private Stream<Tuple> stream(CriteriaQuery<Tuple> query) {
+        return entityManager
+            .createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(HibernateHints.HINT_CACHEABLE, false)
+            .getResultStream();
+    }
+
+    /**
+     * @param countSales whether the rows are sale lines, counted by sale.
+     */
+    private static long writeCsv(Iterator<Tuple> rows, String[] columns, OutputStream output, boolean countSales) throws IOException {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        long count = 0;
+        Object previousId = null;
+        while (rows.hasNext()) {
+            Tuple row = rows.next();
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, row.get(i));
+            }
+            writer.write("\r\n");
+            Object id = row.get(0);
+            if (!countSales || !id.equals(previousId)) {
+                count++;
+            }
+            previousId = id;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String text) {
+            // RFC 4180: quote the fields holding a separator, a quote or a line break, doubling the quotes
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        } else if (value instanceof BigDecimal amount) {
+            writer.write(amount.toPlainString());
+        } else {
+            writer.write(value.toString());
+        }
+    }
+
+    private long writeNdjson(Iterator<Tuple> rows, String[] columns, OutputStream output) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = ndjsonGenerator(output)) {
+            while (rows.hasNext()) {
+                Tuple row = rows.next();
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    writeJsonField(generator, columns[i], row.get(i));
+                }
+                generator.writeEndObject();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeSalesNdjson(Iterator<Tuple> rows, OutputStream output) throws IOException {
+        long count = 0;
+        Object saleId = null;
+        try (JsonGenerator generator = ndjsonGenerator(output)) {
+            while (rows.hasNext()) {
+                Tuple row = rows.next();
+                if (!row.get(0).equals(saleId)) {
+                    if (saleId != null) {
+                        generator.writeEndArray();
+                        generator.writeEndObject();
+                    }
+                    saleId = row.get(0);
+                    generator.writeStartObject();
+                    writeJsonField(generator, "id", saleId);
+                    for (int i = 1; i < 5; i++) {
+                        writeJsonField(generator, SALE_COLUMNS[i], row.get(i));
+                    }
+                    generator.writeArrayFieldStart("transactions");
+                    count++;
+                }
+                if (row.get(5) != null) {
+                    generator.writeStartObject();
+                    writeJsonField(generator, "id", row.get(5));
+                    for (int i = 6; i < SALE_COLUMNS.length; i++) {
+                        writeJsonField(generator, SALE_COLUMNS[i], row.get(i));
+                    }
+                    generator.writeEndObject();
+                }
+            }
+            if (saleId != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+        return count;
+    }
+
+    private JsonGenerator ndjsonGenerator(OutputStream output) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8);
+        // one object per line, and the output is left open for the caller
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeJsonField(JsonGenerator generator, String name, Object value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof BigDecimal number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Instant instant) {
+            generator.writeString(instant.toString());
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.sales.system.service;
+
+import com.sales.system.service.dto.SalesRollupDTO;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the daily sales rollups: one row per day and seller, product or client, with the number of
+ * saleTransaction lines, their quantity and their revenue.
+ * <p>
+ * The rollups are maintained by delta upserts in the transaction that changes the saleTransactions: the lines are
+ * subtracted from the rollups before they are changed or deleted, and added back once the change has been flushed.
+ * The upserts lock the rollup rows they touch in key order, so that concurrent writers cannot deadlock on them.
+ * Days are UTC days, as creation dates are stored in UTC.
+ * <p>
+ * A delta is only right if the lines it reads do not change before the transaction commits: two concurrent updates of
+ * a line would otherwise both subtract its old values, and one of the deltas would be lost. Every delta first locks the
+ * sales of its lines, in id order, until the end of the transaction; the sale rather than the line, as a sale update
+ * moves the deltas of all its lines, and a line moved to another sale is added to the new one.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class SalesRollupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesRollupService.class);
+
+    /**
+     * A daily rollup table, with the column it is keyed by and the expression of that column over a saleTransaction
+     * {@code st} joined to its sale {@code s}.
+     */
+    public enum Rollup {
+        SELLER("sales_rollup_day_seller", "seller_id", "s.seller_id"),
+        PRODUCT("sales_rollup_day_product", "product_id", "st.product_id"),
+        CLIENT("sales_rollup_day_client", "client_id", "s.client_id");
+
+        private final String table;
+
+        private final String key;
+
+        private final String expression;
+
+        Rollup(String table, String key, String expression) {
+            this.table = table;
+            this.key = key;
+            this.expression = expression;
+        }
+    }
+
+    /**
+     * The period the rollups are reported by.
+     */
+    public enum Granularity {
+        DAY("day"),
+        MONTH("cast(date_trunc('month', day) as date)");
+
+        private final String expression;
+
+        Granularity(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    private static final String SALE_TRANSACTION_SALES = "s.id in (select st.sale_id from sale_transaction st where st.id = ?)";
+
+    private static final String SALE_TRANSACTIONS_SALES = "s.id in (select st.sale_id from sale_transaction st where st.id = any(?))";
+
+    /**
+     * The columns of a sale its saleTransactions are rolled up by, locked as the deltas lock the sales.
+     */
+    private static final String SALE_ROLLUP_KEYS_SQL =
+        "select cast(creation_date as date) as day, client_id, seller_id from sale where id = ? for no key update";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add a saleTransaction to the rollups. It must have been flushed.
+     *
+     * @param saleTransactionId the id of the saleTransaction.
+     */
+    public void addSaleTransaction(Long saleTransactionId) {
+        applyDelta(1, "st.id = ?", SALE_TRANSACTION_SALES, saleTransactionId);
+    }
+
+    /**
+     * Subtract a saleTransaction from the rollups, before it is changed or deleted.
+     *
+     * @param saleTransactionId the id of the saleTransaction.
+     */
+    public void subtractSaleTransaction(Long saleTransactionId) {
+        applyDelta(-1, "st.id = ?", SALE_TRANSACTION_SALES, saleTransactionId);
+    }
+
+    /**
+     * Add the saleTransactions of a sale to the rollups. They must have been flushed.
+     *
+     * @param saleId the id of the sale.
+     */
+    public void addSale(Long saleId) {
+        applyDelta(1, "st.sale_id = ?", "s.id = ?", saleId);
+    }
+
+    /**
+     * Subtract the saleTransactions of a sale from the rollups, before the sale is changed or deleted.
+     *
+     * @param saleId the id of the sale.
+     */
+    public void subtractSale(Long saleId) {
+        applyDelta(-1, "st.sale_id = ?", "s.id = ?", saleId);
+    }
+
+    /**
+     * Lock a sale, and tell whether an update of its creation date, client or seller moves its saleTransactions to
+     * other rollup rows, in which case they must be subtracted before the update and added back after it. A creation
+     * date on the same UTC day moves none.
+     *
+     * @param saleId the id of the sale.
+     * @param creationDate the new creation date, or {@code null} if it is not updated.
+     * @param clientId the id of the new client, or {@code null} if it is not updated.
+     * @param sellerId the id of the new seller, or {@code null} if it is not updated.
+     * @return {@code true} if the sale exists and the update moves its saleTransactions.
+     */
+    public boolean movesSale(Long saleId, Instant creationDate, Long clientId, Long sellerId) {
+        if (creationDate == null && clientId == null && sellerId == null) {
+            return false;
+        }
+        List<Boolean> moves = jdbcTemplate.query(
+            SALE_ROLLUP_KEYS_SQL,
+            (resultSet, rowNum) ->
+                (creationDate != null &&
+                    !LocalDate.ofInstant(creationDate, ZoneOffset.UTC).equals(resultSet.getObject("day", LocalDate.class))) ||
+                (clientId != null && clientId != resultSet.getLong("client_id")) ||
+                (sellerId != null && sellerId != resultSet.getLong("seller_id")),
+            saleId
+        );
+        return !moves.isEmpty() && moves.get(0);
+    }
+
+    /**
+     * Add the saleTransactions of several sales to the rollups. They must have been flushed.
+     *
+     * @param saleIds the ids of the sales.
+     */
+    public void addSales(Collection<Long> saleIds) {
+        applyDelta(1, "st.sale_id = any(?)", "s.id = any(?)", saleIds);
+    }
+
+    /**
+     * Subtract the saleTransactions of several sales from the rollups, before the sales are deleted.
+     *
+     * @param saleIds the ids of the sales.
+     */
+    public void subtractSales(Collection<Long> saleIds) {
+        applyDelta(-1, "st.sale_id = any(?)", "s.id = any(?)", saleIds);
+    }
+
+    /**
+     * Subtract several saleTransactions from the rollups, before they are deleted.
+     *
+     * @param saleTransactionIds the ids of the saleTransactions.
+     */
+    public void subtractSaleTransactions(Collection<Long> saleTransactionIds) {
+        applyDelta(-1, "st.id = any(?)", SALE_TRANSACTIONS_SALES, saleTransactionIds);
+    }
+
+    private void applyDelta(int sign, String filter, String saleFilter, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Long[] array = ids.toArray(Long[]::new);
+        jdbcTemplate.query(
+            lockSql(saleFilter),
+            statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint", array)),
+            resultSet -> {}
+        );
+        for (Rollup rollup : Rollup.values()) {
+            jdbcTemplate.update(upsertSql(rollup, filter), statement -> {
+                setDelta(statement, sign);
+                statement.setArray(4, statement.getConnection().createArrayOf("bigint", array));
+            });
+        }
+    }
+
+    private void applyDelta(int sign, String filter, String saleFilter, Long id) {
+        if (id == null) {
+            return;
+        }
+        jdbcTemplate.query(lockSql(saleFilter), statement -> statement.setLong(1, id), resultSet -> {});
+        for (Rollup rollup : Rollup.values()) {
+            jdbcTemplate.update(upsertSql(rollup, filter), statement -> {
+                setDelta(statement, sign);
+                statement.setLong(4, id);
+            });
+        }
+    }
+
+    private static String lockSql(String saleFilter) {
+        return "select s.id from sale s where " + saleFilter + " order by s.id for no key update of s";
+    }
+
+    private static void setDelta(PreparedStatement statement, int sign) throws SQLException {
+        statement.setInt(1, sign);
+        statement.setInt(2, sign);
+        statement.setInt(3, sign);
+    }
+
+    private static String upsertSql(Rollup rollup, String filter) {
+        return (
+            "insert into " +
+            rollup.table +
+            " (day, " +
+            rollup.key +
+            ", line_count, quantity, revenue) " +
+            "select cast(s.creation_date as date), " +
+            rollup.expression +
+            ", ? * count(*), ? * sum(st.quantity), ? * sum(st.subtotal) " +
+            "from sale_transaction st join sale s on s.id = st.sale_id where " +
+            filter +
+            " group by 1, 2 order by 1, 2 " +
+            "on conflict (day, " +
+            rollup.key +
+            ") do update set line_count = " +
+            rollup.table +
+            ".line_count + excluded.line_count, quantity = " +
+            rollup.table +
+            ".quantity + excluded.quantity, revenue = " +
+            rollup.table +
+            ".revenue + excluded.revenue"
+        );
+    }
+
+    /**
+     * Report the sales of a rollup.
+     *
+     * @param rollup the rollup to report.
+     * @param granularity the period the rows are summed by.
+     * @param from the first day to report.
+     * @param to the last day to report.
+     * @param id the seller, product or client to report, all if {@code null}.
+     * @return the rows, ordered by period and id.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesRollupDTO> report(Rollup rollup, Granularity granularity, LocalDate from, LocalDate to, Long id) {
+        LOG.debug("Request to report the sales by {} and {} from {} to {}", rollup, granularity, from, to);
+        List<Object> args = new ArrayList<>(List.of(from, to));
+        String sql =
+            "select " +
+            granularity.expression +
+            " as period, " +
+            rollup.key +
+            ", sum(line_count) as line_count, sum(quantity) as quantity, sum(revenue) as revenue from " +
+            rollup.table +
+            " where day >= ? and day <= ?";
+        if (id != null) {
+            sql += " and " + rollup.key + " = ?";
+            args.add(id);
+        }
+        sql += " group by 1, 2 having sum(line_count) <> 0 order by 1, 2";
+        return jdbcTemplate.query(
+            sql,
+            (resultSet, rowNum) -> {
+                SalesRollupDTO row = new SalesRollupDTO();
+                row.setPeriod(resultSet.getObject("period", LocalDate.class));
+                long key = resultSet.getLong(rollup.key);
+                switch (rollup) {
+                    case SELLER -> row.setSellerId(key);
+                    case PRODUCT -> row.setProductId(key);
+                    case CLIENT -> row.setClientId(key);
+                }
+                row.setLines(resultSet.getLong("line_count"));
+                row.setQuantity(resultSet.getLong("quantity"));
+                row.setRevenue(resultSet.getBigDecimal("revenue"));
+                return row;
+            },
+            args.toArray()
+        );
+    }
+
+    /**
+     * Rebuild the rollups of a range of days from the sale and saleTransaction tables, to backfill them or to repair
+     * them. The rollup tables are locked until the end of the transaction, so saleTransactions can still be written
+     * meanwhile but their delta upserts wait for the rebuild.
+     *
+     * @param from the first day to rebuild, from the first sale if {@code null}.
+     * @param to the last day to rebuild, until the last sale if {@code null}.
+     * @return the number of rows written to each rollup.
+     */
+    @Transactional
+    public Map<Rollup, Integer> rebuild(LocalDate from, LocalDate to) {
+        LOG.debug("Request to rebuild the sales rollups from {} to {}", from, to);
+        Map<Rollup, Integer> rebuilt = new EnumMap<>(Rollup.class);
+        for (Rollup rollup : Rollup.values()) {
+            jdbcTemplate.execute("lock table " + rollup.table + " in exclusive mode");
+            List<Object> args = new ArrayList<>();
+            jdbcTemplate.update("delete from " + rollup.table + " where true" + dayRange("day", from, to, args), args.toArray());
+            args.clear();
+            String insert = "insert into " + rollup.table + " (day, " + rollup.key + ", line_count, quantity, revenue) ";
+            int rows = jdbcTemplate.update(insert + aggregateSql(rollup, from, to, args), args.toArray());
+            rebuilt.put(rollup, rows);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Compare the rollups of a range of days with the sale and saleTransaction tables.
+     *
+     * @param from the first day to compare, from the first sale if {@code null}.
+     * @param to the last day to compare, until the last sale if {@code null}.
+     * @return the number of rows of each rollup that are missing, extra or wrong; zero when the rollup is consistent.
+     */
+    @Transactional(readOnly = true)
+    public Map<Rollup, Long> reconcile(LocalDate from, LocalDate to) {
+        LOG.debug("Request to reconcile the sales rollups from {} to {}", from, to);
+        Map<Rollup, Long> mismatches = new EnumMap<>(Rollup.class);
+        for (Rollup rollup : Rollup.values()) {
+            List<Object> range = new ArrayList<>();
+            String actual =
+                "select day, " +
+                rollup.key +
+                ", line_count, quantity, revenue from " +
+                rollup.table +
+                " where line_count <> 0" +
+                dayRange("day", from, to, range);
+            // both sides are bound to the same range
+            String expected = aggregateSql(rollup, from, to, new ArrayList<>());
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                args.addAll(range);
+            }
+            Long count = jdbcTemplate.queryForObject(
+                "select count(*) from ((" +
+                actual +
+                " except " +
+                expected +
+                ") union all (" +
+                expected +
+                " except " +
+                actual +
+                ")) mismatch",
+                Long.class,
+                args.toArray()
+            );
+            mismatches.put(rollup, count);
+        }
+        return mismatches;
+    }
+
+    private static String aggregateSql(Rollup rollup, LocalDate from, LocalDate to, List<Object> args) {
+        return (
+            "select cast(s.creation_date as date), " +
+            rollup.expression +
+            ", count(*), sum(st.quantity), sum(st.subtotal) " +
+            "from sale_transaction st join sale s on s.id = st.sale_id where true" +
+            dayRange("s.creation_date", from, to, args) +
+            " group by 1, 2"
+        );
+    }
+
+    private static String dayRange(String column, LocalDate from, LocalDate to, List<Object> args) {
+        StringBuilder range = new StringBuilder();
+        if (from != null) {
+            range.append(" and ").append(column).append(" >= ?");
+            args.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            range.append(" and ").append(column).append(" < ?");
+            args.add(to.plusDays(1).atStartOfDay());
+        }
+        return range.toString();
+    }
+}
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,9 +32,20 @@ public class SellerQueryService extends QueryService<Seller> {
 
     private final SellerMapper sellerMapper;
 
-    public SellerQueryService(SellerRepository sellerRepository, SellerMapper sellerMapper) {
+    private final CountService countService;
+
+    private final QueryResultCache queryResultCache;
+
+    public SellerQueryService(
+        SellerRepository sellerRepository,
+        SellerMapper sellerMapper,
+        CountService countService,
+        QueryResultCache queryResultCache
+    ) {
         this.sellerRepository = sellerRepository;
         this.sellerMapper = sellerMapper;
+        this.countService = countService;
+        this.queryResultCache = queryResultCache;
     }
 
     /**
@@ -45,8 +57,24 @@ public class SellerQueryService extends QueryService<Seller> {
     @Transactional(readOnly = true)
     public Page<SellerDTO> findByCriteria(SellerCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Seller.class, "page", criteria, page, () -> {
+            final Specification<Seller> specification = createSpecification(criteria);
+            return sellerRepository.findAll(specification, page).map(sellerMapper::toDto);
+        });
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link SellerDTO} which matches the criteria from the database, using keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor of the previous page, or an empty value for the first page.
+     * @param page The size and sort of the page; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SellerDTO> findByCriteria(SellerCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("find by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
         final Specification<Seller> specification = createSpecification(criteria);
-        return sellerRepository.findAll(specification, page).map(sellerMapper::toDto);
+        return KeysetPagination.fetch(sellerRepository, specification, cursor, page).map(sellerMapper::toDto);
     }
 
     /**
@@ -61,6 +89,33 @@ public class SellerQueryService extends QueryService<Seller> {
         return sellerRepository.count(specification);
     }
 
+    /**
+     * Return a {@link Slice} of {@link SellerDTO} which matches the criteria from the database, without counting all the matches.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<SellerDTO> findSliceByCriteria(SellerCriteria criteria, Pageable page) {
+        LOG.debug("find slice by criteria : {}, page: {}", criteria, page);
+        return queryResultCache.get(Seller.class, "slice", criteria, page, () -> {
+            final Specification<Seller> specification = createSpecification(criteria);
+            return SlicePagination.fetch(sellerRepository, specification, page).map(sellerMapper::toDto);
+        });
+    }
+
+    /**
+     * Return the number of matching entities, produced in the requested {@link TotalCount.Mode} when possible.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param mode The requested count mode.
+     * @return the number of matching entities, and how it was produced.
+     */
+    @Transactional(readOnly = true)
+    public TotalCount countByCriteria(SellerCriteria criteria, TotalCount.Mode mode) {
+        final SellerCriteria nonNullCriteria = criteria != null ? criteria : new SellerCriteria();
+        return countService.count(Seller.class, nonNullCriteria, mode, () -> countByCriteria(nonNullCriteria));
+    }
+
     /**
      * Function to convert {@link SellerCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -1,5 +1,6 @@
 package com.sales.system.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.service.dto.SellerDTO;
 import java.util.Optional;
 
@@ -16,21 +17,30 @@ public interface SellerService {
     SellerDTO save(SellerDTO sellerDTO);
 
     /**
-     * Updates a seller.
+     * Updates a seller, at the version of the DTO if it has one.
      *
      * @param sellerDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
-    SellerDTO update(SellerDTO sellerDTO);
+    Optional<SellerDTO> update(SellerDTO sellerDTO);
 
     /**
-     * Partially updates a seller.
+     * Partially updates a seller, at the version of the DTO if it has one.
      *
      * @param sellerDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
     Optional<SellerDTO> partialUpdate(SellerDTO sellerDTO);
 
+    /**
+     * Applies a JSON merge patch to a seller, updating its changed columns only.
+     *
+     * @param id the id of the entity.
+     * @param patch the merge patch.
+     * @return the patched entity, or empty if it does not exist.
+     */
+    Optional<SellerDTO> mergePatch(Long id, JsonNode patch);
+
     /**
      * Get the "id" seller.
      *
@@ -0,0 +1,40 @@
+package com.sales.system.service;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+/**
+ * Offset pagination on top of a {@link Specification}, without the {@code count(*)} query of a {@link org.springframework.data.domain.Page}.
+ */
+public final class SlicePagination {
+
+    private SlicePagination() {}
+
+    /**
+     * Fetch a page as a {@link Slice}: one extra row is read to know whether there is a next page.
+     *
+     * @param repository the repository to query.
+     * @param specification the filters the entities should match.
+     * @param pageable the page to fetch.
+     * @param <E> the entity type.
+     * @return the matching entities.
+     */
+    public static <E> Slice<E> fetch(JpaSpecificationExecutor<E> repository, Specification<E> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<E> content = repository.findAll(specification, pageable.getSort());
+            return new SliceImpl<>(content, pageable, false);
+        }
+        // an offset position designates the last element already read
+        ScrollPosition position = pageable.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(pageable.getOffset() - 1);
+        Window<E> window = repository.findBy(specification, query ->
+            query.sortBy(pageable.getSort()).limit(pageable.getPageSize()).scroll(position)
+        );
+        return new SliceImpl<>(window.getContent(), pageable, window.hasNext());
+    }
+}
@@ -0,0 +1,164 @@
+package com.sales.system.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service keeping the generations of the entity tables, in memory, up to date with the changes of all the instances of
+ * the application.
+ * <p>
+ * Every statement writing an entity table sends a {@code table_change} notification, by a trigger, with the name of the
+ * table: PostgreSQL delivers it once the transaction commits, whichever instance, or tool, made the change. A
+ * connection of its own, outside of the pool, listens to the notifications, and each of them increments the generation
+ * of its table, so that reading the generations costs no query. The changes committed by this instance increment them
+ * as well, as soon as their {@link EntityChangedEvent} is committed, without waiting for the notification.
+ * <p>
+ * The notifications sent while the listening connection is down are lost: every generation is incremented once it is
+ * back. The generations are counted from the start of the instance, so that the ones of different instances are told
+ * apart by the {@link #instanceTag() instance tag}.
+ */
+@Service
+public class TableChangeService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableChangeService.class);
+
+    private static final String CHANNEL = "table_change";
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final JdbcConnectionDetails connectionDetails;
+
+    private final String instanceTag = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Times the notifications were lost, added to every generation.
+     */
+    private final AtomicLong losses = new AtomicLong();
+
+    private final ExecutorService listener;
+
+    private volatile boolean running = true;
+
+    public TableChangeService(JdbcConnectionDetails connectionDetails) {
+        this.connectionDetails = connectionDetails;
+        this.listener = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "table-change-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.listener.execute(this::listen);
+    }
+
+    /**
+     * The table of an entity.
+     */
+    public static String tableName(Class<?> entityType) {
+        return entityType.getSimpleName().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    /**
+     * Return the current generations of the tables of some entities.
+     *
+     * @param entityTypes the entities.
+     * @return the generations, in the order of the entities, counted from the start of the instance.
+     */
+    public long[] generations(List<Class<?>> entityTypes) {
+        long lost = losses.get();
+        long[] current = new long[entityTypes.size()];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = generation(tableName(entityTypes.get(i))).get() + lost;
+        }
+        return current;
+    }
+
+    /**
+     * Tag of this instance, which its generations are counted by.
+     */
+    public String instanceTag() {
+        return instanceTag;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        generation(tableName(event.entityType())).incrementAndGet();
+    }
+
+    private AtomicLong generation(String tableName) {
+        return generations.computeIfAbsent(tableName, name -> new AtomicLong());
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    connectionDetails.getJdbcUrl(),
+                    connectionDetails.getUsername(),
+                    connectionDetails.getPassword()
+                )) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + CHANNEL);
+                }
+                // the changes made while no connection was listening are unknown
+                losses.incrementAndGet();
+                LOG.debug("Listening to the {} notifications", CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            generation(notification.getParameter()).incrementAndGet();
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    LOG.warn("Lost the {} notifications, listening again in {} ms: {}", CHANNEL, RECONNECT_DELAY_MS, e.getMessage());
+                    losses.incrementAndGet();
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        listener.shutdownNow();
+        try {
+            listener.awaitTermination(POLL_TIMEOUT_MS * 2L, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
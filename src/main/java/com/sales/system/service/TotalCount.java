@@ -0,0 +1,28 @@
+package com.sales.system.service;
+
+/**
+ * The number of entities matching some criteria, and how it was obtained.
+ *
+ * @param value the number of entities.
+ * @param mode how {@code value} was produced.
+ */
+public record TotalCount(long value, Mode mode) {
+    public enum Mode {
+        /**
+         * No total: the page is fetched as a slice and no count query runs.
+         */
+        NONE,
+        /**
+         * A {@code count(*)} query.
+         */
+        EXACT,
+        /**
+         * A recent exact count, invalidated when the entity changes.
+         */
+        CACHED,
+        /**
+         * The PostgreSQL planner statistics of the table; only used for unfiltered criteria.
+         */
+        ESTIMATED,
+    }
+}
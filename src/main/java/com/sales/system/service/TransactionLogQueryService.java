@@ -3,14 +3,22 @@ package com.sales.system.service;
 import com.sales.system.domain.*; // for static metamodels
 import com.sales.system.domain.TransactionLog;
 import com.sales.system.repository.TransactionLogRepository;
+import com.sales.system.service.archive.TransactionLogArchive;
 import com.sales.system.service.criteria.TransactionLogCriteria;
 import com.sales.system.service.dto.TransactionLogDTO;
 import com.sales.system.service.mapper.TransactionLogMapper;
-import jakarta.persistence.criteria.JoinType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +29,9 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link TransactionLogCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link Page} of {@link TransactionLogDTO} which fulfills the criteria.
+ * <p>
+ * When the timestamp range of the criteria reaches into the {@link TransactionLogArchive}, the archived transaction
+ * logs are queried too: the first rows of the page are read from both sources, in the same order, and merged.
  */
 @Service
 @Transactional(readOnly = true)
@@ -32,9 +43,20 @@ public class TransactionLogQueryService extends QueryService<TransactionLog> {
 
     private final TransactionLogMapper transactionLogMapper;
 
-    public TransactionLogQueryService(TransactionLogRepository transactionLogRepository, TransactionLogMapper transactionLogMapper) {
+    private final CountService countService;
+
+    private final TransactionLogArchive transactionLogArchive;
+
+    public TransactionLogQueryService(
+        TransactionLogRepository transactionLogRepository,
+        TransactionLogMapper transactionLogMapper,
+        CountService countService,
+        TransactionLogArchive transactionLogArchive
+    ) {
         this.transactionLogRepository = transactionLogRepository;
         this.transactionLogMapper = transactionLogMapper;
+        this.countService = countService;
+        this.transactionLogArchive = transactionLogArchive;
     }
 
     /**
@@ -47,7 +69,43 @@ public class TransactionLogQueryService extends QueryService<TransactionLog> {
     public Page<TransactionLogDTO> findByCriteria(TransactionLogCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<TransactionLog> specification = createSpecification(criteria);
-        return transactionLogRepository.findAll(specification, page).map(transactionLogMapper::toDto);
+        if (!transactionLogArchive.reaches(criteria)) {
+            return transactionLogRepository.findAll(specification, page).map(transactionLogMapper::toDto);
+        }
+        int limit = page.isPaged() ? Math.toIntExact(page.getOffset() + page.getPageSize()) : Integer.MAX_VALUE;
+        List<TransactionLog> rows = findWithArchive(criteria, specification, page.getSort(), limit);
+        List<TransactionLog> content = rows.subList((int) Math.min(page.getOffset(), rows.size()), rows.size());
+        return new PageImpl<>(content, page, countByCriteria(criteria)).map(transactionLogMapper::toDto);
+    }
+
+    /**
+     * Return a {@link KeysetPage} of {@link TransactionLogDTO} which matches the criteria from the database, using keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The cursor of the previous page, or an empty value for the first page.
+     * @param page The size and sort of the page; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TransactionLogDTO> findByCriteria(TransactionLogCriteria criteria, String cursor, Pageable page) {
+        LOG.debug("find by criteria : {}, cursor: {}, page: {}", criteria, cursor, page);
+        final Specification<TransactionLog> specification = createSpecification(criteria);
+        KeysetPage<TransactionLog> keysetPage = KeysetPagination.fetch(transactionLogRepository, specification, cursor, page);
+        if (!transactionLogArchive.reaches(criteria)) {
+            return keysetPage.map(transactionLogMapper::toDto);
+        }
+        Sort sort = KeysetPagination.withIdTiebreaker(page.getSort());
+        int size = page.isPaged() ? page.getPageSize() : KeysetPagination.DEFAULT_PAGE_SIZE;
+        Predicate<TransactionLog> after = cursor == null || cursor.isEmpty()
+            ? row -> true
+            : TransactionLogArchive.after(sort, KeysetPagination.decode(cursor, sort, TransactionLog.class));
+        Comparator<TransactionLog> order = TransactionLogArchive.comparator(sort);
+        List<TransactionLog> archivedRows = transactionLogArchive.find(criteria, after, order, size + 1);
+        List<TransactionLog> rows = merge(keysetPage.content(), archivedRows, order, size + 1);
+        if (rows.size() <= size && !keysetPage.hasNext()) {
+            return new KeysetPage<>(rows, null).map(transactionLogMapper::toDto);
+        }
+        List<TransactionLog> content = rows.subList(0, Math.min(size, rows.size()));
+        return new KeysetPage<>(content, KeysetPagination.encode(content.get(content.size() - 1), sort)).map(transactionLogMapper::toDto);
     }
 
     /**
@@ -59,7 +117,77 @@ public class TransactionLogQueryService extends QueryService<TransactionLog> {
     public long countByCriteria(TransactionLogCriteria criteria) {
         LOG.debug("count by criteria : {}", criteria);
         final Specification<TransactionLog> specification = createSpecification(criteria);
-        return transactionLogRepository.count(specification);
+        long count = transactionLogRepository.count(specification);
+        if (transactionLogArchive.reaches(criteria)) {
+            count += transactionLogArchive.count(criteria);
+        }
+        return count;
+    }
+
+    /**
+     * Return a {@link Slice} of {@link TransactionLogDTO} which matches the criteria from the database, without counting all the matches.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TransactionLogDTO> findSliceByCriteria(TransactionLogCriteria criteria, Pageable page) {
+        LOG.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<TransactionLog> specification = createSpecification(criteria);
+        if (!transactionLogArchive.reaches(criteria)) {
+            return SlicePagination.fetch(transactionLogRepository, specification, page).map(transactionLogMapper::toDto);
+        }
+        if (page.isUnpaged()) {
+            return new SliceImpl<>(findWithArchive(criteria, specification, page.getSort(), Integer.MAX_VALUE), page, false).map(
+                transactionLogMapper::toDto
+            );
+        }
+        // one extra row tells whether there is a next page
+        int limit = Math.toIntExact(page.getOffset() + page.getPageSize());
+        List<TransactionLog> rows = findWithArchive(criteria, specification, page.getSort(), limit + 1);
+        List<TransactionLog> content = rows.subList((int) Math.min(page.getOffset(), rows.size()), Math.min(limit, rows.size()));
+        return new SliceImpl<>(content, page, rows.size() > limit).map(transactionLogMapper::toDto);
+    }
+
+    /**
+     * The first matching transaction logs of the database and of the archive, merged.
+     */
+    private List<TransactionLog> findWithArchive(
+        TransactionLogCriteria criteria,
+        Specification<TransactionLog> specification,
+        Sort sort,
+        int limit
+    ) {
+        // the id makes the order total, so that both sources agree on it
+        Sort totalSort = KeysetPagination.withIdTiebreaker(sort);
+        Comparator<TransactionLog> order = TransactionLogArchive.comparator(totalSort);
+        List<TransactionLog> rows = transactionLogRepository.findBy(specification, query -> query.sortBy(totalSort).limit(limit).all());
+        return merge(rows, transactionLogArchive.find(criteria, row -> true, order, limit), order, limit);
+    }
+
+    private static List<TransactionLog> merge(
+        List<TransactionLog> rows,
+        List<TransactionLog> archivedRows,
+        Comparator<TransactionLog> order,
+        int limit
+    ) {
+        List<TransactionLog> merged = new ArrayList<>(rows.size() + archivedRows.size());
+        merged.addAll(rows);
+        merged.addAll(archivedRows);
+        merged.sort(order);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * Return the number of matching entities, produced in the requested {@link TotalCount.Mode} when possible.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param mode The requested count mode.
+     * @return the number of matching entities, and how it was produced.
+     */
+    @Transactional(readOnly = true)
+    public TotalCount countByCriteria(TransactionLogCriteria criteria, TotalCount.Mode mode) {
+        final TransactionLogCriteria nonNullCriteria = criteria != null ? criteria : new TransactionLogCriteria();
+        return countService.count(TransactionLog.class, nonNullCriteria, mode, () -> countByCriteria(nonNullCriteria));
     }
 
     /**
@@ -76,13 +204,11 @@ public class TransactionLogQueryService extends QueryService<TransactionLog> {
                 buildRangeSpecification(criteria.getId(), TransactionLog_.id),
                 buildRangeSpecification(criteria.getTimestamp(), TransactionLog_.timestamp),
                 buildStringSpecification(criteria.getOperationType(), TransactionLog_.operationType),
-//                buildStringSpecification(criteria.getFieldChanged(), TransactionLog_.fieldChanged),
+                buildStringSpecification(criteria.getFieldChanged(), TransactionLog_.fieldChanged),
 //                buildStringSpecification(criteria.getOldValue(), TransactionLog_.oldValue),
 //                buildStringSpecification(criteria.getNewValue(), TransactionLog_.newValue),
                 buildStringSpecification(criteria.getModifiedBy(), TransactionLog_.modifiedBy),
-                buildSpecification(criteria.getSaleTransactionId(), root ->
-                    root.join(TransactionLog_.saleTransaction, JoinType.LEFT).get(SaleTransaction_.id)
-                )
+                buildRangeSpecification(criteria.getSaleTransactionId(), TransactionLog_.saleTransactionId)
             );
         }
         return specification;
@@ -0,0 +1,356 @@
+package com.sales.system.service;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.repository.TransactionLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes {@link TransactionLog} audit entries for {@link SaleTransaction} mutations.
+ * <p>
+ * An entry keeps the id of its saleTransaction, which is not a foreign key: the entries of a deleted saleTransaction,
+ * its {@code DELETE} entry included, still tell which saleTransaction they were about. The ids of the entries are taken
+ * by the inserts themselves, with {@code nextval} on {@code transaction_log_sequence}, the sequence of {@link TransactionLog}.
+ * <p>
+ * In {@link ApplicationProperties.Audit.Mode#WRITE_BEHIND} mode (the default) entries are queued once the
+ * audited transaction commits, and a background flusher drains the queue every {@code application.audit.max-lag-ms}
+ * with multi-row inserts, so audit writes are not part of the request latency. The queue is a lock-free linked queue
+ * bounded by {@code application.audit.capacity}: when it is full the writing thread drains it itself, which slows
+ * producers down to the speed of the database instead of dropping entries.
+ * <p>
+ * In {@link ApplicationProperties.Audit.Mode#OUTBOX} mode entries are persisted in the audited transaction, and are
+ * inserted with the rest of its JDBC batch at flush time.
+ */
+@Service
+public class TransactionLogWriter implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionLogWriter.class);
+
+    public static final String MODIFIED_BY = "system";
+
+    private static final String INSERT_SQL =
+        "insert into transaction_log (id, timestamp, operation_type, field_changed, modified_by, sale_transaction_id) " +
+        "values (nextval('transaction_log_sequence'), ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_DELETED_SQL =
+        "insert into transaction_log (id, timestamp, operation_type, modified_by, sale_transaction_id) " +
+        "select nextval('transaction_log_sequence'), ?, ?, ?, sale_transaction_id from unnest(?) as sale_transaction_id";
+
+    private final TransactionLogRepository transactionLogRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ApplicationProperties.Audit properties;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ScheduledExecutorService flusher;
+
+    private final Timer flushTimer;
+
+    private final Counter writtenCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter backPressureCounter;
+
+    public TransactionLogWriter(
+        TransactionLogRepository transactionLogRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.transactionLogRepository = transactionLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // back-pressure flushes run from afterCommit, where the committed transaction is still bound to the thread
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = applicationProperties.getAudit();
+
+        Gauge.builder("audit.queue.depth", queueDepth, AtomicInteger::get)
+            .description("Audit entries waiting to be written to transaction_log")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush.latency")
+            .description("Time taken to write a batch of audit entries")
+            .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.entries").tag("outcome", "written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.entries").tag("outcome", "dropped").register(meterRegistry);
+        this.backPressureCounter = Counter.builder("audit.back-pressure")
+            .description("Number of times a writer had to flush the full audit queue itself")
+            .register(meterRegistry);
+
+        if (properties.getMode() == ApplicationProperties.Audit.Mode.WRITE_BEHIND) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "audit-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(
+                this::flushQuietly,
+                properties.getMaxLagMs(),
+                properties.getMaxLagMs(),
+                TimeUnit.MILLISECONDS
+            );
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Record an audit entry for a saleTransaction.
+     *
+     * @param operationType the audited operation.
+     * @param saleTransaction the audited saleTransaction, which must already have an id.
+     */
+    public void record(String operationType, SaleTransaction saleTransaction) {
+        record(operationType, saleTransaction, null);
+    }
+
+    /**
+     * Record the audit entry of a deleted saleTransaction.
+     *
+     * @param operationType the audited operation.
+     * @param saleTransactionId the id of the deleted saleTransaction.
+     */
+    public void recordDeleted(String operationType, Long saleTransactionId) {
+        recordAll(operationType, Collections.singletonList(saleTransactionId), null);
+    }
+
+    /**
+     * Record an audit entry for a saleTransaction, with the fields the operation changed.
+     *
+     * @param operationType the audited operation.
+     * @param saleTransaction the audited saleTransaction, which must already have an id.
+     * @param fieldChanged the names of the changed fields, comma separated, or {@code null}.
+     */
+    public void record(String operationType, SaleTransaction saleTransaction, String fieldChanged) {
+        recordAll(operationType, Collections.singletonList(saleTransaction.getId()), fieldChanged);
+    }
+
+    /**
+     * Record one audit entry per saleTransaction.
+     *
+     * @param operationType the audited operation.
+     * @param saleTransactions the audited saleTransactions, which must already have an id.
+     */
+    public void recordAll(String operationType, Collection<SaleTransaction> saleTransactions) {
+        recordAll(operationType, saleTransactions.stream().map(SaleTransaction::getId).toList(), null);
+    }
+
+    /**
+     * Record one audit entry per deleted saleTransaction, in the current transaction and whatever the mode, with a
+     * single multi-row insert: a bulk delete would otherwise fill the write-behind queue on its own.
+     *
+     * @param operationType the audited operation.
+     * @param saleTransactionIds the ids of the deleted saleTransactions.
+     */
+    public void recordDeleted(String operationType, List<Long> saleTransactionIds) {
+        if (saleTransactionIds.isEmpty()) {
+            return;
+        }
+        Long[] deletedIds = saleTransactionIds.toArray(Long[]::new);
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+        jdbcTemplate.update(INSERT_DELETED_SQL, statement -> {
+            statement.setObject(1, now);
+            statement.setString(2, operationType);
+            statement.setString(3, MODIFIED_BY);
+            statement.setArray(4, statement.getConnection().createArrayOf("bigint", deletedIds));
+        });
+        writtenCounter.increment(saleTransactionIds.size());
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
+    }
+
+    private void recordAll(String operationType, List<Long> saleTransactionIds, String fieldChanged) {
+        Instant now = Instant.now();
+        if (properties.getMode() == ApplicationProperties.Audit.Mode.OUTBOX) {
+            List<TransactionLog> transactionLogs = new ArrayList<>(saleTransactionIds.size());
+            for (Long saleTransactionId : saleTransactionIds) {
+                transactionLogs.add(
+                    new TransactionLog()
+                        .timestamp(now)
+                        .operationType(operationType)
+                        .fieldChanged(fieldChanged)
+                        .modifiedBy(MODIFIED_BY)
+                        .saleTransactionId(saleTransactionId)
+                );
+            }
+            transactionLogRepository.saveAll(transactionLogs);
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(saleTransactionIds.size());
+        for (Long saleTransactionId : saleTransactionIds) {
+            entries.add(new Entry(now, operationType, fieldChanged, saleTransactionId));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enqueue(entries);
+                    }
+                }
+            );
+        } else {
+            enqueue(entries);
+        }
+    }
+
+    private void enqueue(List<Entry> entries) {
+        for (Entry entry : entries) {
+            while (!tryReserve()) {
+                backPressureCounter.increment();
+                flush();
+            }
+            queue.offer(entry);
+        }
+    }
+
+    private boolean tryReserve() {
+        int depth;
+        do {
+            depth = queueDepth.get();
+            if (depth >= properties.getCapacity()) {
+                return false;
+            }
+        } while (!queueDepth.compareAndSet(depth, depth + 1));
+        return true;
+    }
+
+    /**
+     * Write every queued entry to the database.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+            boolean written = false;
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                written = true;
+                queueDepth.decrementAndGet();
+                batch.add(entry);
+                if (batch.size() >= properties.getBatchSize()) {
+                    write(batch);
+                    batch = new ArrayList<>(properties.getBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            if (written) {
+                applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.error("Could not flush audit entries", e);
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        flushTimer.record(() -> {
+            try {
+                insert(batch);
+                writtenCounter.increment(batch.size());
+            } catch (DataAccessException e) {
+                LOG.warn("Batch of {} audit entries failed, retrying entry by entry: {}", batch.size(), e.getMessage());
+                for (Entry entry : batch) {
+                    try {
+                        insert(List.of(entry));
+                        writtenCounter.increment();
+                    } catch (DataAccessException entryException) {
+                        LOG.error("Dropping audit entry {}: {}", entry, entryException.getMessage());
+                        droppedCounter.increment();
+                    }
+                }
+            }
+        });
+    }
+
+    private void insert(List<Entry> batch) {
+        transactionTemplate.executeWithoutResult(status -> insertRows(batch));
+    }
+
+    private void insertRows(List<Entry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            rows.add(
+                new Object[] {
+                    LocalDateTime.ofInstant(entry.timestamp(), ZoneOffset.UTC),
+                    entry.operationType(),
+                    entry.fieldChanged(),
+                    MODIFIED_BY,
+                    entry.saleTransactionId(),
+                }
+            );
+        }
+        jdbcTemplate.batchUpdate(
+            INSERT_SQL,
+            rows,
+            new int[] { Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT }
+        );
+    }
+
+    @Override
+    public void destroy() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(properties.getMaxLagMs() * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    private record Entry(Instant timestamp, String operationType, String fieldChanged, Long saleTransactionId) {}
+}
@@ -0,0 +1,13 @@
+package com.sales.system.service.analytics;
+
+/**
+ * Thrown when the sales facts have not been loaded yet.
+ */
+public class AnalyticsNotReadyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AnalyticsNotReadyException() {
+        super("The sales analytics are still loading");
+    }
+}
@@ -0,0 +1,49 @@
+package com.sales.system.service.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary encoding values (entity ids, categories) as dense {@code int} codes.
+ * <p>
+ * Codes are assigned by the loader thread only; readers may look codes up concurrently, and must ignore the codes
+ * that are not yet part of their {@link SalesFacts} snapshot.
+ *
+ * @param <V> the type of the encoded values.
+ */
+final class Dictionary<V> {
+
+    private final Map<V, Integer> codes = new ConcurrentHashMap<>();
+
+    private final List<V> values = new ArrayList<>();
+
+    int encode(V value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * @return the code of the value, or {@code -1} if it is unknown.
+     */
+    int codeOf(V value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * Copy the values, indexed by their code, for a snapshot.
+     */
+    Object[] values() {
+        return values.toArray();
+    }
+}
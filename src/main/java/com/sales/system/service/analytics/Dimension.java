@@ -0,0 +1,12 @@
+package com.sales.system.service.analytics;
+
+/**
+ * The dimensions the sales facts can be grouped by.
+ */
+public enum Dimension {
+    SELLER,
+    CLIENT,
+    PRODUCT,
+    CATEGORY,
+    DAY,
+}
@@ -0,0 +1,185 @@
+package com.sales.system.service.analytics;
+
+/**
+ * Open-addressing hash table of the aggregates of each group, keyed by a 128-bit packed group key.
+ * <p>
+ * Keys and aggregates live in primitive arrays, so that adding a line allocates nothing. Keys of at most
+ * {@link #DIRECT_KEY_BITS} bits are used as the slot index directly, without hashing.
+ */
+final class GroupAggregator {
+
+    static final int DIRECT_KEY_BITS = 14;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final boolean direct;
+
+    private final int maxGroups;
+
+    private long[] keys1;
+
+    private long[] keys2;
+
+    private boolean[] used;
+
+    private int[] lastSale;
+
+    private long[] revenue;
+
+    private long[] quantity;
+
+    private long[] lines;
+
+    private long[] sales;
+
+    private int size;
+
+    private long lastKey1;
+
+    private long lastKey2;
+
+    private int lastSlot = -1;
+
+    /**
+     * @param keyBits the number of bits used by the keys, or a negative value if the keys are spread over 128 bits.
+     * @param maxGroups the maximum number of groups.
+     */
+    GroupAggregator(int keyBits, int maxGroups) {
+        this.direct = keyBits >= 0 && keyBits <= DIRECT_KEY_BITS;
+        this.maxGroups = maxGroups;
+        allocate(direct ? 1 << keyBits : INITIAL_CAPACITY);
+    }
+
+    /**
+     * Add a line to its group. A sale is counted once per group as long as its lines are added one after the other.
+     */
+    void add(long key1, long key2, int sale, int lineQuantity, long lineRevenue) {
+        int slot;
+        if (key1 == lastKey1 && key2 == lastKey2 && lastSlot >= 0) {
+            // consecutive lines of a sale usually fall in the same group
+            slot = lastSlot;
+        } else {
+            slot = slot(key1, key2);
+            lastKey1 = key1;
+            lastKey2 = key2;
+            lastSlot = slot;
+        }
+        revenue[slot] += lineRevenue;
+        quantity[slot] += lineQuantity;
+        lines[slot]++;
+        if (lastSale[slot] != sale) {
+            lastSale[slot] = sale;
+            sales[slot]++;
+        }
+    }
+
+    /**
+     * Merge the groups of another aggregator, which must not have seen any of the sales seen by this one.
+     */
+    GroupAggregator merge(GroupAggregator other) {
+        if (other.size > size) {
+            return other.merge(this);
+        }
+        for (int i = 0; i < other.used.length; i++) {
+            if (other.used[i]) {
+                int slot = slot(other.keys1[i], other.keys2[i]);
+                revenue[slot] += other.revenue[i];
+                quantity[slot] += other.quantity[i];
+                lines[slot] += other.lines[i];
+                sales[slot] += other.sales[i];
+            }
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(GroupConsumer consumer) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys1[i], keys2[i], revenue[i], quantity[i], lines[i], sales[i]);
+            }
+        }
+    }
+
+    private int slot(long key1, long key2) {
+        if (direct) {
+            int slot = (int) key1;
+            if (!used[slot]) {
+                used[slot] = true;
+                keys1[slot] = key1;
+                lastSale[slot] = -1;
+                size++;
+            }
+            return slot;
+        }
+        int mask = used.length - 1;
+        int slot = hash(key1, key2) & mask;
+        while (used[slot]) {
+            if (keys1[slot] == key1 && keys2[slot] == key2) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= maxGroups) {
+            throw new InvalidAnalyticsQueryException("The query has more than " + maxGroups + " groups, add filters or group by less");
+        }
+        if ((size + 1) * 2 > used.length) {
+            grow();
+            return slot(key1, key2);
+        }
+        used[slot] = true;
+        keys1[slot] = key1;
+        keys2[slot] = key2;
+        lastSale[slot] = -1;
+        size++;
+        return slot;
+    }
+
+    private static int hash(long key1, long key2) {
+        long h = key1 * 0x9E3779B97F4A7C15L + key2 * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void grow() {
+        long[] oldKeys1 = keys1;
+        long[] oldKeys2 = keys2;
+        boolean[] oldUsed = used;
+        int[] oldLastSale = lastSale;
+        long[] oldRevenue = revenue;
+        long[] oldQuantity = quantity;
+        long[] oldLines = lines;
+        long[] oldSales = sales;
+        allocate(oldUsed.length * 2);
+        lastSlot = -1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slot(oldKeys1[i], oldKeys2[i]);
+                lastSale[slot] = oldLastSale[i];
+                revenue[slot] = oldRevenue[i];
+                quantity[slot] = oldQuantity[i];
+                lines[slot] = oldLines[i];
+                sales[slot] = oldSales[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys1 = new long[capacity];
+        keys2 = new long[capacity];
+        used = new boolean[capacity];
+        lastSale = new int[capacity];
+        revenue = new long[capacity];
+        quantity = new long[capacity];
+        lines = new long[capacity];
+        sales = new long[capacity];
+        size = 0;
+    }
+
+    @FunctionalInterface
+    interface GroupConsumer {
+        void accept(long key1, long key2, long revenue, long quantity, long lines, long sales);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sales.system.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Append-only column of {@code int} values, stored in fixed-size chunks so that growing it never copies the values.
+ * <p>
+ * Only the loader thread writes to a column; readers go through the chunks captured in a {@link SalesFacts} snapshot.
+ */
+final class IntColumn {
+
+    static final int CHUNK_SHIFT = 16;
+
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private int[][] chunks = new int[0][];
+
+    private int size;
+
+    void append(int value) {
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = new int[CHUNK_SIZE];
+        }
+        chunks[chunk][size & CHUNK_MASK] = value;
+        size++;
+    }
+
+    void set(int index, int value) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[][] chunks() {
+        return chunks;
+    }
+
+    static int get(int[][] chunks, int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+}
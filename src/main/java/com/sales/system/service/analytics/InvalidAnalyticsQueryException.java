@@ -0,0 +1,13 @@
+package com.sales.system.service.analytics;
+
+/**
+ * Thrown when a {@link SalesAnalyticsQuery} cannot be answered.
+ */
+public class InvalidAnalyticsQueryException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidAnalyticsQueryException(String message) {
+        super(message);
+    }
+}
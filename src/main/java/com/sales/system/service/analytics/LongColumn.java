@@ -0,0 +1,35 @@
+package com.sales.system.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Append-only column of {@code long} values, see {@link IntColumn}.
+ */
+final class LongColumn {
+
+    private long[][] chunks = new long[0][];
+
+    private int size;
+
+    void append(long value) {
+        int chunk = size >>> IntColumn.CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = new long[IntColumn.CHUNK_SIZE];
+        }
+        chunks[chunk][size & IntColumn.CHUNK_MASK] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[][] chunks() {
+        return chunks;
+    }
+
+    static long get(long[][] chunks, int index) {
+        return chunks[index >>> IntColumn.CHUNK_SHIFT][index & IntColumn.CHUNK_MASK];
+    }
+}
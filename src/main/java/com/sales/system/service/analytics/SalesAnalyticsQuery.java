@@ -0,0 +1,28 @@
+package com.sales.system.service.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A group-by query over the sales facts. Empty filters match everything.
+ *
+ * @param groupBy the dimensions to group by, in the order of the group keys; empty for a grand total.
+ * @param sellerIds the sellers to keep.
+ * @param clientIds the clients to keep.
+ * @param productIds the products to keep.
+ * @param categories the product categories to keep.
+ * @param from the first day to keep (UTC), or {@code null}.
+ * @param to the last day to keep (UTC), or {@code null}.
+ * @param limit the maximum number of groups returned, by descending revenue.
+ */
+public record SalesAnalyticsQuery(
+    List<Dimension> groupBy,
+    Set<Long> sellerIds,
+    Set<Long> clientIds,
+    Set<Long> productIds,
+    Set<String> categories,
+    LocalDate from,
+    LocalDate to,
+    int limit
+) {}
@@ -0,0 +1,317 @@
+package com.sales.system.service.analytics;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.service.dto.SalesAnalyticsResultDTO;
+import com.sales.system.service.dto.SalesAnalyticsRowDTO;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service answering group-by queries over the {@link SalesFacts} held by {@link SalesFactStore}.
+ * <p>
+ * The lines are split into partitions, aligned on sale boundaries, which are scanned in parallel on a dedicated
+ * fork/join pool of {@code application.analytics.parallelism} threads. Each partition aggregates into its own
+ * {@link GroupAggregator}; partial results are merged at the end.
+ */
+@Service
+public class SalesAnalyticsService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private static final int MIN_PARTITION_LINES = 1 << 16;
+
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private final SalesFactStore salesFactStore;
+
+    private final ForkJoinPool pool;
+
+    private final int maxGroups;
+
+    public SalesAnalyticsService(SalesFactStore salesFactStore, ApplicationProperties applicationProperties) {
+        this.salesFactStore = salesFactStore;
+        this.maxGroups = applicationProperties.getAnalytics().getMaxGroups();
+        int parallelism = applicationProperties.getAnalytics().getParallelism();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Aggregate the revenue, quantity, lines, sales and basket size of the facts matching the query, by group.
+     *
+     * @param query the query.
+     * @return the groups with the highest revenue first, up to the query limit.
+     * @throws AnalyticsNotReadyException if the facts have not been loaded yet.
+     * @throws InvalidAnalyticsQueryException if the group keys do not fit in 128 bits, or if there are too many groups.
+     */
+    public SalesAnalyticsResultDTO aggregate(SalesAnalyticsQuery query) {
+        LOG.debug("Request to aggregate sales : {}", query);
+        long start = System.nanoTime();
+        SalesFacts facts = salesFactStore.facts();
+        Plan plan = new Plan(facts, query);
+        int[] bounds = partitions(facts);
+        GroupAggregator groups = pool
+            .submit(() ->
+                IntStream.range(0, bounds.length - 1)
+                    .parallel()
+                    .mapToObj(partition -> {
+                        GroupAggregator partial = new GroupAggregator(plan.keyBits(), maxGroups);
+                        return scan(facts, plan, partial, bounds[partition], bounds[partition + 1]);
+                    })
+                    .reduce(GroupAggregator::merge)
+                    .orElseThrow()
+            )
+            .join();
+
+        List<SalesAnalyticsRowDTO> rows = new ArrayList<>(groups.size());
+        groups.forEach((key1, key2, revenue, quantity, lines, sales) -> rows.add(plan.row(key1, key2, revenue, quantity, lines, sales)));
+        rows.sort(Comparator.comparing(SalesAnalyticsRowDTO::getRevenue).reversed());
+
+        SalesAnalyticsResultDTO result = new SalesAnalyticsResultDTO();
+        result.setRows(new ArrayList<>(rows.subList(0, Math.min(rows.size(), Math.max(0, query.limit())))));
+        result.setGroups(rows.size());
+        result.setScannedLines(facts.lines());
+        result.setSnapshotTime(facts.loadedAt());
+        result.setTookMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Split the lines in about {@link #PARTITIONS_PER_THREAD} partitions per thread, moving each boundary forward to
+     * the next sale so that the distinct sales of the partitions can simply be added up.
+     */
+    private int[] partitions(SalesFacts facts) {
+        int lines = facts.lines();
+        int count = Math.max(1, Math.min(pool.getParallelism() * PARTITIONS_PER_THREAD, lines / MIN_PARTITION_LINES));
+        int[] bounds = new int[count + 1];
+        for (int partition = 1; partition < count; partition++) {
+            int bound = Math.max(bounds[partition - 1], (int) ((long) lines * partition / count));
+            while (
+                bound > 0 && bound < lines && IntColumn.get(facts.lineSale(), bound) == IntColumn.get(facts.lineSale(), bound - 1)
+            ) {
+                bound++;
+            }
+            bounds[partition] = bound;
+        }
+        bounds[count] = lines;
+        return bounds;
+    }
+
+    /**
+     * Aggregate the lines {@code [from, to)}, one column chunk at a time.
+     */
+    private static GroupAggregator scan(SalesFacts facts, Plan plan, GroupAggregator groups, int from, int to) {
+        int currentSale = -1;
+        boolean saleKept = false;
+        long saleKey1 = 0;
+        long saleKey2 = 0;
+        int line = from;
+        while (line < to) {
+            int chunk = line >>> IntColumn.CHUNK_SHIFT;
+            int offset = line & IntColumn.CHUNK_MASK;
+            int end = Math.min(IntColumn.CHUNK_SIZE, offset + (to - line));
+            int[] lineSale = facts.lineSale()[chunk];
+            int[] lineProduct = facts.lineProduct()[chunk];
+            int[] lineQuantity = facts.lineQuantity()[chunk];
+            long[] lineRevenue = facts.lineRevenue()[chunk];
+            for (int i = offset; i < end; i++) {
+                int sale = lineSale[i];
+                if (sale != currentSale) {
+                    currentSale = sale;
+                    int seller = IntColumn.get(facts.saleSeller(), sale);
+                    int client = IntColumn.get(facts.saleClient(), sale);
+                    int day = IntColumn.get(facts.saleDay(), sale);
+                    saleKept = plan.keepSale(seller, client, day);
+                    if (saleKept) {
+                        saleKey1 = plan.saleKey(0, seller, client, day);
+                        saleKey2 = plan.saleKey(1, seller, client, day);
+                    }
+                }
+                if (!saleKept) {
+                    continue;
+                }
+                int product = lineProduct[i];
+                int category = IntColumn.get(facts.productCategory(), product);
+                if (!plan.keepLine(product, category)) {
+                    continue;
+                }
+                groups.add(
+                    saleKey1 | plan.lineKey(0, product, category),
+                    saleKey2 | plan.lineKey(1, product, category),
+                    sale,
+                    lineQuantity[i],
+                    lineRevenue[i]
+                );
+            }
+            line += end - offset;
+        }
+        return groups;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The filters of a query, translated to dictionary codes, and the layout of its group keys: each grouped dimension
+     * gets just enough bits for its cardinality in one of the two 64-bit words of the key.
+     */
+    private static final class Plan {
+
+        private final SalesFacts facts;
+
+        private final boolean[] sellers;
+
+        private final boolean[] clients;
+
+        private final boolean[] products;
+
+        private final boolean[] categories;
+
+        private final int fromDay;
+
+        private final int toDay;
+
+        private final int dayOffset;
+
+        private final boolean[] grouped = new boolean[Dimension.values().length];
+
+        private final int[] word = new int[Dimension.values().length];
+
+        private final int[] shift = new int[Dimension.values().length];
+
+        private final long[] mask = new long[Dimension.values().length];
+
+        private final int keyBits;
+
+        Plan(SalesFacts facts, SalesAnalyticsQuery query) {
+            this.facts = facts;
+            this.sellers = filter(facts.sellers(), facts.sellerIds().length, query.sellerIds());
+            this.clients = filter(facts.clients(), facts.clientIds().length, query.clientIds());
+            this.products = filter(facts.products(), facts.productIds().length, query.productIds());
+            this.categories = filter(facts.categoryDictionary(), facts.categories().length, query.categories());
+            this.fromDay = query.from() != null ? (int) query.from().toEpochDay() : Integer.MIN_VALUE;
+            this.toDay = query.to() != null ? (int) query.to().toEpochDay() : Integer.MAX_VALUE;
+            this.dayOffset = facts.minDay() <= facts.maxDay() ? facts.minDay() : 0;
+
+            int[] used = new int[2];
+            for (Dimension dimension : query.groupBy()) {
+                int i = dimension.ordinal();
+                int bits = Math.max(1, 64 - Long.numberOfLeadingZeros(cardinality(dimension) - 1L));
+                if (used[0] + bits <= Long.SIZE) {
+                    word[i] = 0;
+                } else if (used[1] + bits <= Long.SIZE) {
+                    word[i] = 1;
+                } else {
+                    throw new InvalidAnalyticsQueryException("Too many distinct values to group by " + query.groupBy());
+                }
+                grouped[i] = true;
+                shift[i] = used[word[i]];
+                mask[i] = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+                used[word[i]] += bits;
+            }
+            this.keyBits = used[1] == 0 ? used[0] : -1;
+        }
+
+        /**
+         * @return the number of bits of the group keys, or {@code -1} if they use both words.
+         */
+        int keyBits() {
+            return keyBits;
+        }
+
+        private static <V> boolean[] filter(Dictionary<V> dictionary, int size, Collection<V> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            boolean[] kept = new boolean[size];
+            for (V value : values) {
+                int code = dictionary.codeOf(value);
+                if (code >= 0 && code < size) {
+                    kept[code] = true;
+                }
+            }
+            return kept;
+        }
+
+        private int cardinality(Dimension dimension) {
+            return switch (dimension) {
+                case SELLER -> facts.sellerIds().length;
+                case CLIENT -> facts.clientIds().length;
+                case PRODUCT -> facts.productIds().length;
+                case CATEGORY -> facts.categories().length;
+                case DAY -> facts.minDay() <= facts.maxDay() ? facts.maxDay() - facts.minDay() + 1 : 1;
+            };
+        }
+
+        boolean keepSale(int seller, int client, int day) {
+            return (
+                (sellers == null || sellers[seller]) && (clients == null || clients[client]) && day >= fromDay && day <= toDay
+            );
+        }
+
+        boolean keepLine(int product, int category) {
+            return (products == null || products[product]) && (categories == null || categories[category]);
+        }
+
+        long saleKey(int keyWord, int seller, int client, int day) {
+            return (
+                part(Dimension.SELLER, keyWord, seller) |
+                part(Dimension.CLIENT, keyWord, client) |
+                part(Dimension.DAY, keyWord, day - dayOffset)
+            );
+        }
+
+        long lineKey(int keyWord, int product, int category) {
+            return part(Dimension.PRODUCT, keyWord, product) | part(Dimension.CATEGORY, keyWord, category);
+        }
+
+        private long part(Dimension dimension, int keyWord, int value) {
+            int i = dimension.ordinal();
+            return grouped[i] && word[i] == keyWord ? (long) value << shift[i] : 0L;
+        }
+
+        private int value(Dimension dimension, long key1, long key2) {
+            int i = dimension.ordinal();
+            return (int) (((word[i] == 0 ? key1 : key2) >>> shift[i]) & mask[i]);
+        }
+
+        SalesAnalyticsRowDTO row(long key1, long key2, long revenue, long quantity, long lines, long sales) {
+            SalesAnalyticsRowDTO row = new SalesAnalyticsRowDTO();
+            if (grouped[Dimension.SELLER.ordinal()]) {
+                row.setSellerId((Long) facts.sellerIds()[value(Dimension.SELLER, key1, key2)]);
+            }
+            if (grouped[Dimension.CLIENT.ordinal()]) {
+                row.setClientId((Long) facts.clientIds()[value(Dimension.CLIENT, key1, key2)]);
+            }
+            if (grouped[Dimension.PRODUCT.ordinal()]) {
+                row.setProductId((Long) facts.productIds()[value(Dimension.PRODUCT, key1, key2)]);
+            }
+            if (grouped[Dimension.CATEGORY.ordinal()]) {
+                row.setCategory((String) facts.categories()[value(Dimension.CATEGORY, key1, key2)]);
+            }
+            if (grouped[Dimension.DAY.ordinal()]) {
+                row.setDay(LocalDate.ofEpochDay((long) dayOffset + value(Dimension.DAY, key1, key2)));
+            }
+            row.setRevenue(BigDecimal.valueOf(revenue, 2));
+            row.setQuantity(quantity);
+            row.setLines(lines);
+            row.setSales(sales);
+            row.setBasketSize(
+                sales == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(quantity).divide(BigDecimal.valueOf(sales), 2, RoundingMode.HALF_UP)
+            );
+            return row;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.sales.system.service.analytics;
+
+import com.sales.system.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holds a columnar, in-memory copy of the sales facts for {@link SalesAnalyticsService}.
+ * <p>
+ * A background loader appends the saleTransactions created since the previous load every
+ * {@code application.analytics.refresh-interval-ms}, and rebuilds the whole copy every
+ * {@code application.analytics.rebuild-interval-ms}. The rebuild also picks up updated and deleted rows, and rows whose
+ * ids were allocated before the last load but committed after it, so answers can be stale for at most that long.
+ * <p>
+ * The lines of a sale must be stored next to each other, for its sale to be stored and counted once: a load finding new
+ * lines of a sale already loaded is not published, and the whole copy is rebuilt at once instead.
+ */
+@Service
+public class SalesFactStore implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesFactStore.class);
+
+    /**
+     * Rows are ordered by sale so that the lines of a sale are stored next to each other.
+     * Days are UTC days, as creation dates are stored in UTC.
+     */
+    static final String LOAD_SQL =
+        "select st.id, st.sale_id, st.product_id, st.quantity, round(st.subtotal * 100) as revenue_cents, " +
+        "s.seller_id, s.client_id, cast(s.creation_date as date) - date '1970-01-01' as epoch_day, p.category " +
+        "from sale_transaction st join sale s on s.id = st.sale_id join product p on p.id = st.product_id " +
+        "where st.id > ? order by st.sale_id, st.id";
+
+    /**
+     * {@link #LOAD_SQL}, telling apart the rows of the sales which already had lines up to the watermark.
+     */
+    static final String APPEND_SQL =
+        "select st.id, st.sale_id, st.product_id, st.quantity, round(st.subtotal * 100) as revenue_cents, " +
+        "s.seller_id, s.client_id, cast(s.creation_date as date) - date '1970-01-01' as epoch_day, p.category, " +
+        "exists (select 1 from sale_transaction l where l.sale_id = st.sale_id and l.id <= ?) as loaded_sale " +
+        "from sale_transaction st join sale s on s.id = st.sale_id join product p on p.id = st.product_id " +
+        "where st.id > ? order by st.sale_id, st.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Analytics properties;
+
+    private final ScheduledExecutorService loader;
+
+    private SalesFactTables tables;
+
+    private long lastRebuild;
+
+    private volatile SalesFacts facts;
+
+    public SalesFactStore(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getAnalytics();
+        // a fetch size inside a transaction makes the PostgreSQL driver stream the rows through a cursor
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        Gauge.builder("analytics.facts.lines", this, store -> store.facts != null ? store.facts.lines() : 0)
+            .description("Sale transaction lines held by the analytics store")
+            .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            this.loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "analytics-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.loader.scheduleWithFixedDelay(
+                this::refreshQuietly,
+                properties.getRefreshIntervalMs(),
+                properties.getRefreshIntervalMs(),
+                TimeUnit.MILLISECONDS
+            );
+        } else {
+            this.loader = null;
+        }
+    }
+
+    /**
+     * @return the latest snapshot of the sales facts.
+     * @throws AnalyticsNotReadyException if the first load has not completed yet.
+     */
+    public SalesFacts facts() {
+        SalesFacts current = facts;
+        if (current == null) {
+            throw new AnalyticsNotReadyException();
+        }
+        return current;
+    }
+
+    /**
+     * Load the saleTransactions created since the previous load, or rebuild everything when it is due.
+     */
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        if (tables != null && now - lastRebuild < properties.getRebuildIntervalMs()) {
+            if (append(tables)) {
+                return;
+            }
+            LOG.debug("Loaded new lines of already loaded sales, rebuilding the sales analytics facts");
+        }
+        // the appended tables are not published, but must not be appended to again if the rebuild fails
+        tables = null;
+        SalesFactTables rebuilt = new SalesFactTables();
+        long start = System.nanoTime();
+        rebuilt.startLoad(false);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL, rebuilt, rebuilt.watermark()));
+        facts = rebuilt.publish();
+        tables = rebuilt;
+        lastRebuild = now;
+        LOG.debug("Loaded {} sale transaction lines in {} ms", rebuilt.lines(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return whether the new lines could be appended, which they cannot when some belong to sales loaded before.
+     */
+    private boolean append(SalesFactTables target) {
+        long start = System.nanoTime();
+        int before = target.lines();
+        long watermark = target.watermark();
+        target.startLoad(true);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(APPEND_SQL, target, watermark, watermark));
+        if (target.loadedSaleAppended()) {
+            return false;
+        }
+        if (target.lines() != before) {
+            facts = target.publish();
+        }
+        LOG.debug("Loaded {} sale transaction lines in {} ms", target.lines() - before, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.error("Could not refresh the sales analytics facts", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.sales.system.service.analytics;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * The mutable columns behind the {@link SalesFacts} snapshots, appended to by the loader thread only.
+ */
+final class SalesFactTables implements RowCallbackHandler {
+
+    private final IntColumn lineSale = new IntColumn();
+
+    private final IntColumn lineProduct = new IntColumn();
+
+    private final IntColumn lineQuantity = new IntColumn();
+
+    private final LongColumn lineRevenue = new LongColumn();
+
+    private final IntColumn saleSeller = new IntColumn();
+
+    private final IntColumn saleClient = new IntColumn();
+
+    private final IntColumn saleDay = new IntColumn();
+
+    private final IntColumn productCategory = new IntColumn();
+
+    private final Dictionary<Long> sellers = new Dictionary<>();
+
+    private final Dictionary<Long> clients = new Dictionary<>();
+
+    private final Dictionary<Long> products = new Dictionary<>();
+
+    private final Dictionary<String> categories = new Dictionary<>();
+
+    private long watermark;
+
+    private long lastSaleId = -1;
+
+    private boolean appending;
+
+    private boolean loadedSaleAppended;
+
+    private int minDay = Integer.MAX_VALUE;
+
+    private int maxDay = Integer.MIN_VALUE;
+
+    /**
+     * @return the highest saleTransaction id loaded so far.
+     */
+    long watermark() {
+        return watermark;
+    }
+
+    int lines() {
+        return lineSale.size();
+    }
+
+    /**
+     * @return whether the current load appended lines of a sale loaded before, whose lines are then no longer stored
+     * next to each other.
+     */
+    boolean loadedSaleAppended() {
+        return loadedSaleAppended;
+    }
+
+    /**
+     * Append one row of {@link SalesFactStore#LOAD_SQL} or {@link SalesFactStore#APPEND_SQL}. Rows are ordered by sale,
+     * so a sale is appended once, on its first row.
+     */
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        long saleId = rs.getLong("sale_id");
+        if (appending && rs.getBoolean("loaded_sale")) {
+            loadedSaleAppended = true;
+        }
+        if (saleId != lastSaleId) {
+            lastSaleId = saleId;
+            int day = rs.getInt("epoch_day");
+            saleSeller.append(sellers.encode(rs.getLong("seller_id")));
+            saleClient.append(clients.encode(rs.getLong("client_id")));
+            saleDay.append(day);
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+        int product = products.encode(rs.getLong("product_id"));
+        int category = categories.encode(rs.getString("category"));
+        if (product == productCategory.size()) {
+            productCategory.append(category);
+        } else {
+            // latest category wins
+            productCategory.set(product, category);
+        }
+        lineSale.append(saleSeller.size() - 1);
+        lineProduct.append(product);
+        lineQuantity.append(rs.getInt("quantity"));
+        lineRevenue.append(rs.getLong("revenue_cents"));
+        watermark = Math.max(watermark, id);
+    }
+
+    /**
+     * Start a new load: its first row starts a new sale, the rows of the sales of the previous loads being told apart
+     * by {@link #loadedSaleAppended()} when appending.
+     *
+     * @param appending whether the rows are those of {@link SalesFactStore#APPEND_SQL}.
+     */
+    void startLoad(boolean appending) {
+        this.appending = appending;
+        this.loadedSaleAppended = false;
+        lastSaleId = -1;
+    }
+
+    SalesFacts publish() {
+        return new SalesFacts(
+            lineSale.size(),
+            saleSeller.size(),
+            lineSale.chunks(),
+            lineProduct.chunks(),
+            lineQuantity.chunks(),
+            lineRevenue.chunks(),
+            saleSeller.chunks(),
+            saleClient.chunks(),
+            saleDay.chunks(),
+            productCategory.chunks(),
+            sellers,
+            sellers.values(),
+            clients,
+            clients.values(),
+            products,
+            products.values(),
+            categories,
+            categories.values(),
+            minDay,
+            maxDay,
+            Instant.now()
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.sales.system.service.analytics;
+
+import java.time.Instant;
+
+/**
+ * Immutable snapshot of the sales facts, as published by {@link SalesFactStore}.
+ * <p>
+ * Lines are the {@link com.sales.system.domain.SaleTransaction} facts; each line points to its sale in the sale
+ * columns, whose lines are stored next to each other. All the columns are chunked, see {@link IntColumn}.
+ *
+ * @param lines the number of lines.
+ * @param sales the number of sales.
+ * @param lineSale the sale code of each line.
+ * @param lineProduct the product code of each line.
+ * @param lineQuantity the quantity of each line.
+ * @param lineRevenue the subtotal of each line, in cents.
+ * @param saleSeller the seller code of each sale.
+ * @param saleClient the client code of each sale.
+ * @param saleDay the UTC epoch day of each sale.
+ * @param productCategory the category code of each product code.
+ * @param sellers the seller dictionary.
+ * @param sellerIds the seller ids, by code.
+ * @param clients the client dictionary.
+ * @param clientIds the client ids, by code.
+ * @param products the product dictionary.
+ * @param productIds the product ids, by code.
+ * @param categoryDictionary the category dictionary.
+ * @param categories the categories, by code.
+ * @param minDay the first day of the sales, or {@link Integer#MAX_VALUE} without sales.
+ * @param maxDay the last day of the sales, or {@link Integer#MIN_VALUE} without sales.
+ * @param loadedAt when the snapshot was published.
+ */
+record SalesFacts(
+    int lines,
+    int sales,
+    int[][] lineSale,
+    int[][] lineProduct,
+    int[][] lineQuantity,
+    long[][] lineRevenue,
+    int[][] saleSeller,
+    int[][] saleClient,
+    int[][] saleDay,
+    int[][] productCategory,
+    Dictionary<Long> sellers,
+    Object[] sellerIds,
+    Dictionary<Long> clients,
+    Object[] clientIds,
+    Dictionary<Long> products,
+    Object[] productIds,
+    Dictionary<String> categoryDictionary,
+    Object[] categories,
+    int minDay,
+    int maxDay,
+    Instant loadedAt
+) {}
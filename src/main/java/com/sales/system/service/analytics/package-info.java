@@ -0,0 +1,4 @@
+/**
+ * In-memory columnar analytics over the sales facts.
+ */
+package com.sales.system.service.analytics;
@@ -0,0 +1,389 @@
+package com.sales.system.service.archive;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import tech.jhipster.service.filter.InstantFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * The archived {@link TransactionLog transaction logs}: the {@link TransactionLogSegment segment files} of
+ * {@code application.archive.directory}, mapped in memory, and the queries on them.
+ * <p>
+ * The archive is only read for the criteria with a timestamp filter whose range overlaps the archived one, so the
+ * listings of the recent transaction logs never touch it. The criteria are evaluated like the
+ * {@link com.sales.system.service.TransactionLogQueryService} specifications do in the database; the segments and
+ * their blocks outside of the timestamp and id ranges of the criteria are skipped.
+ */
+@Service
+public class TransactionLogArchive {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionLogArchive.class);
+
+    static final String SEGMENT_EXTENSION = ".seg";
+
+    private final Path directory;
+
+    /**
+     * Replaced, never modified, when segments are added.
+     */
+    private volatile List<TransactionLogSegment> segments;
+
+    public TransactionLogArchive(ApplicationProperties applicationProperties) {
+        this.directory = Paths.get(applicationProperties.getArchive().getDirectory());
+        this.segments = load(directory);
+    }
+
+    private static List<TransactionLogSegment> load(Path directory) {
+        List<TransactionLogSegment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(SEGMENT_EXTENSION))::iterator) {
+                try {
+                    segments.add(TransactionLogSegment.open(file));
+                } catch (IOException | RuntimeException e) {
+                    LOG.error("Could not open the transaction log segment {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the transaction log archive " + directory, e);
+        }
+        segments.sort(Comparator.comparing(TransactionLogSegment::getMinTimestamp));
+        LOG.info("Opened {} transaction log segments in {}", segments.size(), directory);
+        return segments;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public List<TransactionLogSegment> getSegments() {
+        return segments;
+    }
+
+    synchronized void add(Collection<TransactionLogSegment> added) {
+        List<TransactionLogSegment> all = new ArrayList<>(segments);
+        all.addAll(added);
+        all.sort(Comparator.comparing(TransactionLogSegment::getMinTimestamp));
+        segments = List.copyOf(all);
+    }
+
+    /**
+     * Whether the criteria could match archived transaction logs: it has a timestamp filter, whose range overlaps the
+     * archived one.
+     *
+     * @param criteria the criteria.
+     * @return {@code true} if the archive should be queried along with the database.
+     */
+    public boolean reaches(TransactionLogCriteria criteria) {
+        if (criteria == null || criteria.getTimestamp() == null) {
+            return false;
+        }
+        long[] range = timestampRange(criteria.getTimestamp());
+        return segments
+            .stream()
+            .anyMatch(
+                segment ->
+                    range[0] <= TransactionLogSegment.micros(segment.getMaxTimestamp()) &&
+                    range[1] >= TransactionLogSegment.micros(segment.getMinTimestamp())
+            );
+    }
+
+    /**
+     * Count the archived transaction logs matching the criteria.
+     *
+     * @param criteria the criteria.
+     * @return the number of matching archived transaction logs.
+     */
+    public long count(TransactionLogCriteria criteria) {
+        InstantFilter timestamp = criteria.getTimestamp();
+        boolean timestampRangeOnly =
+            criteria.getId() == null &&
+            criteria.getOperationType() == null &&
+            criteria.getFieldChanged() == null &&
+            criteria.getModifiedBy() == null &&
+            criteria.getSaleTransactionId() == null &&
+            (timestamp == null || (timestamp.getNotEquals() == null && timestamp.getNotIn() == null && timestamp.getIn() == null));
+        if (timestampRangeOnly) {
+            // answered from the sparse indexes, but for the blocks at the bounds of the range
+            long[] range = timestamp == null ? new long[] { Long.MIN_VALUE, Long.MAX_VALUE } : timestampRange(timestamp);
+            return segments.stream().mapToLong(segment -> segment.count(range[0], range[1])).sum();
+        }
+        Predicate<TransactionLog> matches = predicate(criteria);
+        long[] count = { 0 };
+        scan(criteria, row -> {
+            if (matches.test(row)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Find the first archived transaction logs matching the criteria, in a given order.
+     *
+     * @param criteria the criteria.
+     * @param filter an additional filter.
+     * @param order the order, from {@link #comparator(Sort)}.
+     * @param limit the maximum number of transaction logs.
+     * @return the transaction logs, as detached entities, in order.
+     */
+    public List<TransactionLog> find(
+        TransactionLogCriteria criteria,
+        Predicate<TransactionLog> filter,
+        Comparator<TransactionLog> order,
+        int limit
+    ) {
+        Predicate<TransactionLog> matches = predicate(criteria).and(filter);
+        // the heap keeps the first rows seen so far, the last one on top
+        PriorityQueue<TransactionLog> first = new PriorityQueue<>(order.reversed());
+        scan(criteria, row -> {
+            if (!matches.test(row)) {
+                return;
+            }
+            if (first.size() < limit) {
+                first.add(row);
+            } else if (order.compare(row, first.peek()) < 0) {
+                first.poll();
+                first.add(row);
+            }
+        });
+        List<TransactionLog> rows = new ArrayList<>(first);
+        rows.sort(order);
+        return rows;
+    }
+
+    private void scan(TransactionLogCriteria criteria, Consumer<TransactionLog> consumer) {
+        long[] timestamps = criteria.getTimestamp() == null
+            ? new long[] { Long.MIN_VALUE, Long.MAX_VALUE }
+            : timestampRange(criteria.getTimestamp());
+        long[] ids = criteria.getId() == null ? new long[] { Long.MIN_VALUE, Long.MAX_VALUE } : idRange(criteria.getId());
+        if (timestamps[0] > timestamps[1] || ids[0] > ids[1]) {
+            return;
+        }
+        for (TransactionLogSegment segment : segments) {
+            segment.scan(timestamps[0], timestamps[1], ids[0], ids[1], consumer);
+        }
+    }
+
+    /**
+     * The order of a {@link Sort} on the {@link TransactionLog} properties, the nulls being the largest values, as
+     * they are in PostgreSQL.
+     *
+     * @param sort the sort.
+     * @return the comparator.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Comparator<TransactionLog> comparator(Sort sort) {
+        Comparator<TransactionLog> comparator = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Comparator<TransactionLog> key = Comparator.comparing(
+                row -> (Comparable) sortKey(row, property),
+                Comparator.nullsLast(Comparator.naturalOrder())
+            );
+            comparator = comparator.thenComparing(order.isAscending() ? key : key.reversed());
+        }
+        return comparator;
+    }
+
+    /**
+     * The transaction logs after a keyset pagination cursor.
+     *
+     * @param sort the sort, with the id as last key.
+     * @param values the values of the sort keys of the cursor.
+     * @return the predicate matching the transaction logs after the cursor.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Predicate<TransactionLog> after(Sort sort, List<?> values) {
+        return row -> {
+            int i = 0;
+            for (Sort.Order order : sort) {
+                Comparable key = (Comparable) sortKey(row, order.getProperty());
+                Object value = values.get(i++);
+                int comparison = key == null ? 1 : key.compareTo(value);
+                if (comparison != 0) {
+                    return order.isAscending() ? comparison > 0 : comparison < 0;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static Object sortKey(TransactionLog row, String property) {
+        return switch (property) {
+            case "id" -> row.getId();
+            case "timestamp" -> row.getTimestamp();
+            case "operationType" -> row.getOperationType();
+            case "fieldChanged" -> row.getFieldChanged();
+            case "modifiedBy" -> row.getModifiedBy();
+            case "saleTransaction", "saleTransaction.id", "saleTransactionId" -> row.getSaleTransactionId();
+            default -> throw new IllegalArgumentException("Cannot sort the archived transaction logs on '" + property + "'");
+        };
+    }
+
+    private static Predicate<TransactionLog> predicate(TransactionLogCriteria criteria) {
+        return row ->
+            matches(criteria.getId(), row.getId()) &&
+            matches(criteria.getTimestamp(), row.getTimestamp()) &&
+            matches(criteria.getOperationType(), row.getOperationType()) &&
+            matches(criteria.getFieldChanged(), row.getFieldChanged()) &&
+            matches(criteria.getModifiedBy(), row.getModifiedBy()) &&
+            matches(criteria.getSaleTransactionId(), row.getSaleTransactionId());
+    }
+
+    /**
+     * Same semantics as the range specifications of {@link tech.jhipster.service.QueryService}: {@code equals}, then
+     * {@code in}, take precedence over the other conditions, and a {@code null} value only matches
+     * {@code specified=false}, or an empty filter.
+     */
+    private static <T extends Comparable<? super T>> boolean matches(RangeFilter<T> filter, T value) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            return value != null && value.compareTo(filter.getEquals()) == 0;
+        }
+        if (filter.getIn() != null) {
+            return value != null && filter.getIn().contains(value);
+        }
+        if (filter.getSpecified() != null && filter.getSpecified() != (value != null)) {
+            return false;
+        }
+        if (value == null) {
+            return filter.getNotEquals() == null && filter.getNotIn() == null && !isBounded(filter);
+        }
+        return (
+            (filter.getNotEquals() == null || value.compareTo(filter.getNotEquals()) != 0) &&
+            (filter.getNotIn() == null || !filter.getNotIn().contains(value)) &&
+            (filter.getGreaterThan() == null || value.compareTo(filter.getGreaterThan()) > 0) &&
+            (filter.getGreaterThanOrEqual() == null || value.compareTo(filter.getGreaterThanOrEqual()) >= 0) &&
+            (filter.getLessThan() == null || value.compareTo(filter.getLessThan()) < 0) &&
+            (filter.getLessThanOrEqual() == null || value.compareTo(filter.getLessThanOrEqual()) <= 0)
+        );
+    }
+
+    private static boolean isBounded(RangeFilter<?> filter) {
+        return (
+            filter.getGreaterThan() != null ||
+            filter.getGreaterThanOrEqual() != null ||
+            filter.getLessThan() != null ||
+            filter.getLessThanOrEqual() != null
+        );
+    }
+
+    /**
+     * Same semantics as the string specifications of {@link tech.jhipster.service.QueryService}, {@code contains} being
+     * case-insensitive.
+     */
+    private static boolean matches(StringFilter filter, String value) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            return filter.getEquals().equals(value);
+        }
+        if (filter.getIn() != null) {
+            return value != null && filter.getIn().contains(value);
+        }
+        if (filter.getSpecified() != null && filter.getSpecified() != (value != null)) {
+            return false;
+        }
+        String upper = value == null ? null : value.toUpperCase(Locale.ROOT);
+        return (
+            (filter.getContains() == null || (upper != null && upper.contains(filter.getContains().toUpperCase(Locale.ROOT)))) &&
+            (filter.getDoesNotContain() == null ||
+                (upper != null && !upper.contains(filter.getDoesNotContain().toUpperCase(Locale.ROOT)))) &&
+            (filter.getNotEquals() == null || (value != null && !value.equals(filter.getNotEquals()))) &&
+            (filter.getNotIn() == null || (value != null && !filter.getNotIn().contains(value)))
+        );
+    }
+
+    /**
+     * @return the smallest range, in microseconds and inclusive, holding the timestamps matching the filter.
+     */
+    private static long[] timestampRange(InstantFilter filter) {
+        if (filter.getEquals() != null) {
+            return new long[] { ceilMicros(filter.getEquals()), TransactionLogSegment.micros(filter.getEquals()) };
+        }
+        if (filter.getIn() != null) {
+            long from = filter.getIn().stream().mapToLong(TransactionLogSegment::micros).min().orElse(Long.MAX_VALUE);
+            long to = filter.getIn().stream().mapToLong(TransactionLogSegment::micros).max().orElse(Long.MIN_VALUE);
+            return new long[] { from, to };
+        }
+        if (Boolean.FALSE.equals(filter.getSpecified())) {
+            return new long[] { Long.MAX_VALUE, Long.MIN_VALUE };
+        }
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        if (filter.getGreaterThan() != null) {
+            from = Math.max(from, TransactionLogSegment.micros(filter.getGreaterThan()) + 1);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            from = Math.max(from, ceilMicros(filter.getGreaterThanOrEqual()));
+        }
+        if (filter.getLessThan() != null) {
+            to = Math.min(to, ceilMicros(filter.getLessThan()) - 1);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            to = Math.min(to, TransactionLogSegment.micros(filter.getLessThanOrEqual()));
+        }
+        return new long[] { from, to };
+    }
+
+    private static long ceilMicros(Instant instant) {
+        return TransactionLogSegment.micros(instant) + (instant.getNano() % 1_000 == 0 ? 0 : 1);
+    }
+
+    /**
+     * @return the smallest inclusive range holding the ids matching the filter.
+     */
+    private static long[] idRange(LongFilter filter) {
+        if (filter.getEquals() != null) {
+            return new long[] { filter.getEquals(), filter.getEquals() };
+        }
+        if (filter.getIn() != null) {
+            long from = filter.getIn().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+            long to = filter.getIn().stream().mapToLong(Long::longValue).max().orElse(Long.MIN_VALUE);
+            return new long[] { from, to };
+        }
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        if (filter.getGreaterThan() != null) {
+            from = Math.max(from, filter.getGreaterThan() + 1);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            from = Math.max(from, filter.getGreaterThanOrEqual());
+        }
+        if (filter.getLessThan() != null) {
+            to = Math.min(to, filter.getLessThan() - 1);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            to = Math.min(to, filter.getLessThanOrEqual());
+        }
+        return new long[] { from, to };
+    }
+}
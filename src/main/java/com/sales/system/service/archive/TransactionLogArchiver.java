@@ -0,0 +1,307 @@
+package com.sales.system.service.archive;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.PartitionMaintenanceService;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the old {@link TransactionLog transaction logs} from the database to the {@link TransactionLogArchive}.
+ * <p>
+ * The unit of archiving is a monthly {@code transaction_log} partition: the attached ones whose month ended more than
+ * {@code application.archive.after-days} ago, and the ones detached by the partition retention. In a single
+ * transaction, a partition is locked against writes, its rows are written to new segment files, ordered by timestamp,
+ * and it is dropped. The segment files are created with a {@code .pending} suffix and only renamed once that transaction
+ * commits; the pending files left by a crash are renamed or deleted at startup depending on whether their partition
+ * still exists, so a transaction log is never in both places nor lost.
+ */
+@Service
+public class TransactionLogArchiver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionLogArchiver.class);
+
+    private static final String PENDING_EXTENSION = TransactionLogArchive.SEGMENT_EXTENSION + ".pending";
+
+    private static final String SELECT_SQL =
+        "select id, timestamp, operation_type, modified_by, sale_transaction_id, field_changed from %s order by timestamp, id";
+
+    private static final String TABLE_EXISTS_SQL = "select count(*) from pg_class where oid = to_regclass(?)";
+
+    /**
+     * Dropping a partition locks the whole table: rather give up until the next run than queue the writes behind a long
+     * transaction.
+     */
+    private static final String LOCK_TIMEOUT_SQL = "set local lock_timeout = '10s'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    private final TransactionLogArchive transactionLogArchive;
+
+    private final ApplicationProperties.Archive properties;
+
+    public TransactionLogArchiver(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher,
+        PartitionMaintenanceService partitionMaintenanceService,
+        TransactionLogArchive transactionLogArchive,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.partitionMaintenanceService = partitionMaintenanceService;
+        this.transactionLogArchive = transactionLogArchive;
+        this.properties = applicationProperties.getArchive();
+    }
+
+    /**
+     * Complete, or discard, the segment files of an archiving interrupted before it could rename them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        Path directory = transactionLogArchive.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> pending;
+        try (Stream<Path> files = Files.list(directory)) {
+            pending = files.filter(path -> path.toString().endsWith(PENDING_EXTENSION)).sorted().toList();
+        } catch (IOException e) {
+            LOG.error("Could not list the transaction log archive {}", directory, e);
+            return;
+        }
+        List<Path> completed = new ArrayList<>();
+        try {
+            for (Path file : pending) {
+                String table = file.getFileName().toString().substring(0, file.getFileName().toString().indexOf('.'));
+                Long exists = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(TABLE_EXISTS_SQL, Long.class, table));
+                if (exists != null && exists > 0) {
+                    // the partition was not dropped: its rows are still in the database
+                    Files.delete(file);
+                    LOG.info("Deleted the incomplete transaction log segment {}", file);
+                } else {
+                    completed.add(file);
+                }
+            }
+            register(completed);
+        } catch (IOException | DataAccessException e) {
+            LOG.error("Could not recover the pending transaction log segments of {}", directory, e);
+        }
+    }
+
+    /**
+     * Archive the old transaction logs.
+     * <p>
+     * This is scheduled to get fired every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void archive() {
+        if (properties.getAfterDays() <= 0) {
+            return;
+        }
+        archive(Instant.now().minus(properties.getAfterDays(), ChronoUnit.DAYS));
+    }
+
+    /**
+     * Archive the transaction logs of the partitions of the months ended before a given instant.
+     *
+     * @param before the instant.
+     * @return the number of archived transaction logs.
+     */
+    public synchronized long archive(Instant before) {
+        List<String> partitions = partitionMaintenanceService.partitionsBefore(
+            TransactionLog.class,
+            YearMonth.from(before.atZone(ZoneOffset.UTC))
+        );
+        long archived = 0;
+        for (String partition : partitions) {
+            try {
+                archived += archive(partition);
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Could not archive the partition {}", partition, e);
+            }
+        }
+        if (archived > 0) {
+            entityManagerFactory.getCache().evict(TransactionLog.class);
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
+        }
+        return archived;
+    }
+
+    private long archive(String partition) throws IOException {
+        Files.createDirectories(transactionLogArchive.getDirectory());
+        SegmentFiles segmentFiles = new SegmentFiles(partition + "." + System.currentTimeMillis());
+        long start = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(LOCK_TIMEOUT_SQL);
+                // nothing can be written to the partition until it is dropped
+                jdbcTemplate.execute("lock table " + partition + " in share mode");
+                jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement(String.format(SELECT_SQL, partition));
+                        statement.setFetchSize(properties.getFetchSize());
+                        return statement;
+                    },
+                    (RowCallbackHandler) segmentFiles::append
+                );
+                segmentFiles.finish();
+                jdbcTemplate.execute("drop table " + partition);
+            });
+        } catch (UncheckedIOException e) {
+            segmentFiles.delete();
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            segmentFiles.delete();
+            throw e;
+        }
+        register(segmentFiles.files);
+        LOG.info(
+            "Archived the {} transaction logs of {} in {} segments, in {} ms",
+            segmentFiles.rows,
+            partition,
+            segmentFiles.files.size(),
+            System.currentTimeMillis() - start
+        );
+        return segmentFiles.rows;
+    }
+
+    /**
+     * Rename the pending segment files, which makes them part of the archive.
+     */
+    private void register(List<Path> pending) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<TransactionLogSegment> segments = new ArrayList<>();
+        for (Path file : pending) {
+            String name = file.getFileName().toString();
+            Path segment = file.resolveSibling(name.substring(0, name.length() - ".pending".length()));
+            Files.move(file, segment, StandardCopyOption.ATOMIC_MOVE);
+            segments.add(TransactionLogSegment.open(segment));
+        }
+        syncDirectory(transactionLogArchive.getDirectory());
+        transactionLogArchive.add(segments);
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on every platform: the renames are then only as durable as the file system makes them
+            LOG.debug("Could not sync the directory {}", directory, e);
+        }
+    }
+
+    /**
+     * The pending segment files of a partition, a new one being started every {@code application.archive.segment-rows}
+     * rows.
+     */
+    private final class SegmentFiles {
+
+        private final String prefix;
+
+        private final List<Path> files = new ArrayList<>();
+
+        private TransactionLogSegmentWriter writer;
+
+        private long rows;
+
+        private SegmentFiles(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private void append(ResultSet resultSet) throws SQLException {
+            try {
+                if (writer != null && writer.getRows() == properties.getSegmentRows()) {
+                    finish();
+                }
+                if (writer == null) {
+                    Path file = transactionLogArchive.getDirectory().resolve(prefix + "." + files.size() + PENDING_EXTENSION);
+                    files.add(file);
+                    writer = new TransactionLogSegmentWriter(file);
+                }
+                long saleTransactionId = resultSet.getLong(5);
+                Long link = resultSet.wasNull() ? null : saleTransactionId;
+                writer.append(
+                    resultSet.getLong(1),
+                    resultSet.getObject(2, LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                    resultSet.getString(3),
+                    resultSet.getString(4),
+                    link,
+                    resultSet.getString(6)
+                );
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void finish() {
+            if (writer == null) {
+                return;
+            }
+            try (TransactionLogSegmentWriter finished = writer) {
+                writer = null;
+                finished.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void delete() {
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                LOG.error("Could not delete the incomplete transaction log segments {}", files, e);
+            }
+        }
+    }
+}
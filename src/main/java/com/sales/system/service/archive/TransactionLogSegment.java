@@ -0,0 +1,310 @@
+package com.sales.system.service.archive;
+
+import com.sales.system.domain.TransactionLog;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable segment file of archived {@link TransactionLog transaction logs}, read through a memory mapping.
+ * <p>
+ * The file is laid out, big-endian, as:
+ * <pre>
+ * header      magic, version, rows, min and max timestamp, min and max id, dictionary offset, index offset, blocks
+ * blocks      deflate-compressed blocks of up to {@link #BLOCK_ROWS} rows
+ * dictionary  the distinct operation types, modifiers and fields changed
+ * index       for each block: min and max timestamp, min and max id, offset, rows, compressed and raw lengths
+ * </pre>
+ * A block stores its rows column by column: the lengths of the six columns, then the timestamps (in microseconds)
+ * and the ids as zigzag varint deltas, the operation types and the modifiers as varint dictionary codes, the sale
+ * transaction ids as zigzag varint deltas between the non-null ones, shifted by one so that 0 stands for null, and the
+ * fields changed as varint dictionary codes, shifted by one as well. The segments of version 1 have no fields changed
+ * column, and are still read.
+ * <p>
+ * The header and the sparse index are read when the segment is opened; a scan only decompresses the blocks whose
+ * timestamp and id ranges overlap the requested ones.
+ */
+public final class TransactionLogSegment {
+
+    static final int MAGIC = 0x544c5347;
+
+    static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 68;
+
+    static final int INDEX_ENTRY_SIZE = 52;
+
+    static final int COLUMNS = 6;
+
+    static final int BLOCK_ROWS = 4096;
+
+    private final Path file;
+
+    private final MappedByteBuffer buffer;
+
+    private final int columns;
+
+    private final long rows;
+
+    private final long minTimestamp;
+
+    private final long maxTimestamp;
+
+    private final long minId;
+
+    private final long maxId;
+
+    private final String[] dictionary;
+
+    private final long[] blockMinTimestamp;
+
+    private final long[] blockMaxTimestamp;
+
+    private final long[] blockMinId;
+
+    private final long[] blockMaxId;
+
+    private final int[] blockOffset;
+
+    private final int[] blockRows;
+
+    private final int[] blockLength;
+
+    private final int[] blockRawLength;
+
+    private TransactionLogSegment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        int version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || version < 1 || version > VERSION) {
+            throw new IOException("Not a transaction log segment: " + file);
+        }
+        columns = version == 1 ? COLUMNS - 1 : COLUMNS;
+        rows = buffer.getLong(8);
+        minTimestamp = buffer.getLong(16);
+        maxTimestamp = buffer.getLong(24);
+        minId = buffer.getLong(32);
+        maxId = buffer.getLong(40);
+        int dictionaryOffset = Math.toIntExact(buffer.getLong(48));
+        int indexOffset = Math.toIntExact(buffer.getLong(56));
+        int blocks = buffer.getInt(64);
+        if (indexOffset + (long) blocks * INDEX_ENTRY_SIZE != buffer.capacity()) {
+            throw new IOException("Truncated transaction log segment: " + file);
+        }
+
+        ByteBuffer entries = buffer.slice(dictionaryOffset, indexOffset - dictionaryOffset);
+        dictionary = new String[entries.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[entries.getInt()];
+            entries.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        blockMinTimestamp = new long[blocks];
+        blockMaxTimestamp = new long[blocks];
+        blockMinId = new long[blocks];
+        blockMaxId = new long[blocks];
+        blockOffset = new int[blocks];
+        blockRows = new int[blocks];
+        blockLength = new int[blocks];
+        blockRawLength = new int[blocks];
+        ByteBuffer index = buffer.slice(indexOffset, blocks * INDEX_ENTRY_SIZE);
+        for (int i = 0; i < blocks; i++) {
+            blockMinTimestamp[i] = index.getLong();
+            blockMaxTimestamp[i] = index.getLong();
+            blockMinId[i] = index.getLong();
+            blockMaxId[i] = index.getLong();
+            blockOffset[i] = Math.toIntExact(index.getLong());
+            blockRows[i] = index.getInt();
+            blockLength[i] = index.getInt();
+            blockRawLength[i] = index.getInt();
+        }
+    }
+
+    /**
+     * Map a segment file and read its header and index.
+     *
+     * @param file the segment file.
+     * @return the segment.
+     * @throws IOException if the file cannot be read, or is not a complete segment.
+     */
+    public static TransactionLogSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid transaction log segment size " + size + ": " + file);
+            }
+            // the mapping stays valid once the channel is closed
+            return new TransactionLogSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public Instant getMinTimestamp() {
+        return instant(minTimestamp);
+    }
+
+    public Instant getMaxTimestamp() {
+        return instant(maxTimestamp);
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * Pass the rows within the timestamp and id ranges to the consumer, block by block.
+     *
+     * @param fromTimestamp the lowest timestamp, in microseconds since the epoch, included.
+     * @param toTimestamp the highest timestamp, in microseconds since the epoch, included.
+     * @param fromId the lowest id, included.
+     * @param toId the highest id, included.
+     * @param consumer the consumer of the rows, detached entities.
+     */
+    public void scan(long fromTimestamp, long toTimestamp, long fromId, long toId, Consumer<TransactionLog> consumer) {
+        if (fromTimestamp > maxTimestamp || toTimestamp < minTimestamp || fromId > maxId || toId < minId) {
+            return;
+        }
+        for (int block = 0; block < blockRows.length; block++) {
+            if (
+                fromTimestamp <= blockMaxTimestamp[block] &&
+                toTimestamp >= blockMinTimestamp[block] &&
+                fromId <= blockMaxId[block] &&
+                toId >= blockMinId[block]
+            ) {
+                readBlock(block, fromTimestamp, toTimestamp, fromId, toId, consumer);
+            }
+        }
+    }
+
+    /**
+     * Count the rows within a timestamp range; the blocks entirely within the range are counted from the index alone.
+     *
+     * @param fromTimestamp the lowest timestamp, in microseconds since the epoch, included.
+     * @param toTimestamp the highest timestamp, in microseconds since the epoch, included.
+     * @return the number of rows.
+     */
+    public long count(long fromTimestamp, long toTimestamp) {
+        if (fromTimestamp <= minTimestamp && toTimestamp >= maxTimestamp) {
+            return rows;
+        }
+        long[] count = { 0 };
+        for (int block = 0; block < blockRows.length; block++) {
+            if (fromTimestamp <= blockMinTimestamp[block] && toTimestamp >= blockMaxTimestamp[block]) {
+                count[0] += blockRows[block];
+            } else if (fromTimestamp <= blockMaxTimestamp[block] && toTimestamp >= blockMinTimestamp[block]) {
+                readBlock(block, fromTimestamp, toTimestamp, Long.MIN_VALUE, Long.MAX_VALUE, row -> count[0]++);
+            }
+        }
+        return count[0];
+    }
+
+    private void readBlock(int block, long fromTimestamp, long toTimestamp, long fromId, long toId, Consumer<TransactionLog> consumer) {
+        byte[] raw = inflate(block);
+        ByteBuffer lengths = ByteBuffer.wrap(raw, 0, this.columns * Integer.BYTES);
+        ByteBuffer[] columns = new ByteBuffer[this.columns];
+        int position = this.columns * Integer.BYTES;
+        for (int i = 0; i < this.columns; i++) {
+            int length = lengths.getInt();
+            columns[i] = ByteBuffer.wrap(raw, position, length);
+            position += length;
+        }
+
+        long timestamp = 0;
+        long id = 0;
+        long saleTransactionId = 0;
+        for (int row = 0; row < blockRows[block]; row++) {
+            timestamp += unzigzag(readVarint(columns[0]));
+            id += unzigzag(readVarint(columns[1]));
+            int operationType = (int) readVarint(columns[2]);
+            int modifiedBy = (int) readVarint(columns[3]);
+            long link = readVarint(columns[4]);
+            if (link != 0) {
+                saleTransactionId += unzigzag(link - 1);
+            }
+            int fieldChanged = columns.length > 5 ? (int) readVarint(columns[5]) : 0;
+            if (timestamp < fromTimestamp || timestamp > toTimestamp || id < fromId || id > toId) {
+                continue;
+            }
+            consumer.accept(
+                new TransactionLog()
+                    .id(id)
+                    .timestamp(instant(timestamp))
+                    .operationType(dictionary[operationType])
+                    .modifiedBy(dictionary[modifiedBy])
+                    .fieldChanged(fieldChanged == 0 ? null : dictionary[fieldChanged - 1])
+                    .saleTransactionId(link == 0 ? null : saleTransactionId)
+            );
+        }
+    }
+
+    private byte[] inflate(int block) {
+        byte[] raw = new byte[blockRawLength[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(blockOffset[block], blockLength[block]));
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IllegalStateException("Truncated block " + block + " of " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted block " + block + " of " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static long micros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static Instant instant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(ByteBuffer column) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = column.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
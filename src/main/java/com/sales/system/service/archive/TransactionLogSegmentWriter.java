@@ -0,0 +1,276 @@
+package com.sales.system.service.archive;
+
+import static com.sales.system.service.archive.TransactionLogSegment.BLOCK_ROWS;
+import static com.sales.system.service.archive.TransactionLogSegment.COLUMNS;
+import static com.sales.system.service.archive.TransactionLogSegment.HEADER_SIZE;
+import static com.sales.system.service.archive.TransactionLogSegment.INDEX_ENTRY_SIZE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a new {@link TransactionLogSegment}, one row at a time.
+ * <p>
+ * The rows should be appended by timestamp, so that the blocks cover narrow timestamp ranges. The file is only
+ * complete, and synced to disk, once {@link #finish()} returns; a writer closed before that leaves an incomplete file
+ * that the caller should delete.
+ */
+class TransactionLogSegmentWriter implements Closeable {
+
+    private final FileChannel channel;
+
+    private final Deflater deflater = new Deflater();
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final Column[] columns = new Column[COLUMNS];
+
+    private final List<ByteBuffer> index = new ArrayList<>();
+
+    private byte[] compressed = new byte[64 * 1024];
+
+    private long position = HEADER_SIZE;
+
+    private long rows;
+
+    private long minTimestamp = Long.MAX_VALUE;
+
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    private long minId = Long.MAX_VALUE;
+
+    private long maxId = Long.MIN_VALUE;
+
+    private int blockRows;
+
+    private long blockMinTimestamp;
+
+    private long blockMaxTimestamp;
+
+    private long blockMinId;
+
+    private long blockMaxId;
+
+    private long previousTimestamp;
+
+    private long previousId;
+
+    private long previousSaleTransactionId;
+
+    private boolean finished;
+
+    TransactionLogSegmentWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = new Column();
+        }
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    void append(
+        long id,
+        Instant timestamp,
+        String operationType,
+        String modifiedBy,
+        Long saleTransactionId,
+        String fieldChanged
+    ) throws IOException {
+        long micros = TransactionLogSegment.micros(timestamp);
+        if (blockRows == 0) {
+            blockMinTimestamp = micros;
+            blockMaxTimestamp = micros;
+            blockMinId = id;
+            blockMaxId = id;
+            // the deltas restart with each block, which can be decompressed alone
+            previousTimestamp = 0;
+            previousId = 0;
+            previousSaleTransactionId = 0;
+        }
+        columns[0].writeVarint(TransactionLogSegment.zigzag(micros - previousTimestamp));
+        columns[1].writeVarint(TransactionLogSegment.zigzag(id - previousId));
+        columns[2].writeVarint(code(operationType));
+        columns[3].writeVarint(code(modifiedBy));
+        if (saleTransactionId == null) {
+            columns[4].writeVarint(0);
+        } else {
+            columns[4].writeVarint(TransactionLogSegment.zigzag(saleTransactionId - previousSaleTransactionId) + 1);
+            previousSaleTransactionId = saleTransactionId;
+        }
+        columns[5].writeVarint(fieldChanged == null ? 0 : code(fieldChanged) + 1);
+        previousTimestamp = micros;
+        previousId = id;
+        blockMinTimestamp = Math.min(blockMinTimestamp, micros);
+        blockMaxTimestamp = Math.max(blockMaxTimestamp, micros);
+        blockMinId = Math.min(blockMinId, id);
+        blockMaxId = Math.max(blockMaxId, id);
+        rows++;
+        if (++blockRows == BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Write the dictionary, the index and the header, and sync the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    void finish() throws IOException {
+        if (blockRows > 0) {
+            writeBlock();
+        }
+
+        long dictionaryOffset = position;
+        Column entries = new Column();
+        entries.writeInt(dictionary.size());
+        for (String entry : dictionary) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            entries.writeInt(bytes.length);
+            entries.write(bytes, bytes.length);
+        }
+        write(ByteBuffer.wrap(entries.bytes, 0, entries.size));
+
+        long indexOffset = position;
+        for (ByteBuffer entry : index) {
+            write(entry.flip());
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(TransactionLogSegment.MAGIC)
+            .putInt(TransactionLogSegment.VERSION)
+            .putLong(rows)
+            .putLong(minTimestamp)
+            .putLong(maxTimestamp)
+            .putLong(minId)
+            .putLong(maxId)
+            .putLong(dictionaryOffset)
+            .putLong(indexOffset)
+            .putInt(index.size())
+            .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        channel.close();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            channel.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        Column raw = new Column();
+        for (Column column : columns) {
+            raw.writeInt(column.size);
+        }
+        for (Column column : columns) {
+            raw.write(column.bytes, column.size);
+        }
+
+        deflater.reset();
+        deflater.setInput(raw.bytes, 0, raw.size);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        long offset = position;
+        write(ByteBuffer.wrap(compressed, 0, length));
+
+        index.add(
+            ByteBuffer.allocate(INDEX_ENTRY_SIZE)
+                .putLong(blockMinTimestamp)
+                .putLong(blockMaxTimestamp)
+                .putLong(blockMinId)
+                .putLong(blockMaxId)
+                .putLong(offset)
+                .putInt(blockRows)
+                .putInt(length)
+                .putInt(raw.size)
+        );
+        minTimestamp = Math.min(minTimestamp, blockMinTimestamp);
+        maxTimestamp = Math.max(maxTimestamp, blockMaxTimestamp);
+        minId = Math.min(minId, blockMinId);
+        maxId = Math.max(maxId, blockMaxId);
+        for (Column column : columns) {
+            column.size = 0;
+        }
+        blockRows = 0;
+    }
+
+    private int code(String value) {
+        return codes.computeIfAbsent(value, key -> {
+            dictionary.add(key);
+            return dictionary.size() - 1;
+        });
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    /**
+     * A growable byte array.
+     */
+    private static final class Column {
+
+        private byte[] bytes = new byte[1024];
+
+        private int size;
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7fL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(Integer.BYTES);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        void write(byte[] source, int length) {
+            ensure(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+}
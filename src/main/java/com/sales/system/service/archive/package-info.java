@@ -0,0 +1,4 @@
+/**
+ * Cold storage of the old transaction logs in compressed, read-only segment files.
+ */
+package com.sales.system.service.archive;
@@ -0,0 +1,498 @@
+package com.sales.system.service.catalog;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Seller;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.dto.CatalogImportErrorDTO;
+import com.sales.system.service.dto.CatalogImportReportDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.util.PSQLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service importing products, clients or sellers from a CSV file, in one transaction.
+ * <p>
+ * The file is streamed into a temporary staging table with PostgreSQL {@code COPY}, then every step works on the whole
+ * table with a single statement:
+ * <ol>
+ * <li>the rows are validated, each rejected row getting one error per broken rule;</li>
+ * <li>the valid rows are matched with the existing ones on their natural key: the employee code of the sellers, the
+ * mobile of the clients, and the id of the products, which have none (a product row without id is a new product);</li>
+ * <li>the matched rows whose values changed are updated, the others are inserted with ids reserved from
+ * {@code sequence_generator} by blocks, and an {@code ON CONFLICT} clause turns an insert into an update when the same
+ * key was inserted concurrently.</li>
+ * </ol>
+ * The second-level cache region of the entity is evicted once, after the commit, rather than row by row.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogImportService.class);
+
+    /**
+     * Must match the {@code incrementBy} of {@code sequence_generator}: each {@code nextval} reserves this many ids,
+     * exactly like Hibernate's pooled optimizer does for the entities.
+     */
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private static final int MAX_HEADER_LENGTH = 4096;
+
+    private static final String NEXT_IDS_SQL = "select nextval('sequence_generator') from generate_series(1, ?)";
+
+    private static final String CREATE_ERRORS_SQL =
+        "create temporary table catalog_import_error (row_number bigint not null, message text not null) on commit drop";
+
+    private static final String REJECT_SQL =
+        "update catalog_import_stage s set rejected = true " +
+        "where exists (select 1 from catalog_import_error e where e.row_number = s.row_number)";
+
+    private static final String COUNT_NEW_SQL = "select count(*) from catalog_import_stage where not rejected and target_id is null";
+
+    private static final String ASSIGN_IDS_SQL =
+        "update catalog_import_stage s " +
+        "set target_id = (cast(? as bigint[]))[n.k / " +
+        SEQUENCE_INCREMENT +
+        " + 1] - " +
+        (SEQUENCE_INCREMENT - 1) +
+        " + n.k % " +
+        SEQUENCE_INCREMENT +
+        ", is_new = true " +
+        "from (select row_number, row_number() over (order by row_number) - 1 as k " +
+        "from catalog_import_stage where not rejected and target_id is null) n " +
+        "where s.row_number = n.row_number";
+
+    private static final String COUNT_REJECTED_SQL = "select count(*) from catalog_import_stage where rejected";
+
+    private static final String ERRORS_SQL = "select row_number, message from catalog_import_error order by row_number, message limit ?";
+
+    /**
+     * The line reported by PostgreSQL when {@code COPY} fails, counted from the first line after the header.
+     */
+    private static final Pattern COPY_LINE = Pattern.compile("COPY catalog_import_stage, line (\\d+)");
+
+    private record Field(String header, String column, int maxLength, boolean required) {}
+
+    public enum Catalog {
+        PRODUCTS(
+            Product.class,
+            "product",
+            "id",
+            false,
+            List.of(
+                new Field("id", "id", 0, false),
+                new Field("name", "name", 100, true),
+                new Field("description", "description", 500, false),
+                new Field("category", "category", 50, true)
+            )
+        ),
+        CLIENTS(
+            Client.class,
+            "client",
+            "mobile",
+            true,
+            List.of(
+                new Field("name", "name", 100, true),
+                new Field("lastName", "last_name", 100, true),
+                new Field("mobile", "mobile", 20, true)
+            )
+        ),
+        SELLERS(
+            Seller.class,
+            "seller",
+            "employee_code",
+            true,
+            List.of(
+                new Field("name", "name", 100, true),
+                new Field("lastName", "last_name", 100, true),
+                new Field("employeeCode", "employee_code", 50, true)
+            )
+        );
+
+        private final Class<?> entityType;
+
+        private final String table;
+
+        private final String key;
+
+        /**
+         * Whether the key is a unique business column; otherwise it is the id, and rows without it are new rows.
+         */
+        private final boolean naturalKey;
+
+        private final List<Field> fields;
+
+        Catalog(Class<?> entityType, String table, String key, boolean naturalKey, List<Field> fields) {
+            this.entityType = entityType;
+            this.table = table;
+            this.key = key;
+            this.naturalKey = naturalKey;
+            this.fields = fields;
+        }
+
+        public String headers() {
+            return fields.stream().map(Field::header).collect(Collectors.joining(","));
+        }
+
+        private Field keyField() {
+            return fields.stream().filter(field -> field.column().equals(key)).findFirst().orElseThrow();
+        }
+    }
+
+    private final DataSource dataSource;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ApplicationProperties.CatalogImport properties;
+
+    public CatalogImportService(
+        DataSource dataSource,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = applicationProperties.getCatalogImport();
+    }
+
+    /**
+     * Import a CSV file. Its first line is the header, naming the columns in any order; the optional columns may be
+     * left out, and are then left unchanged on the existing rows.
+     *
+     * @param catalog the entity to import.
+     * @param csv the file, in UTF-8.
+     * @param dryRun whether to roll everything back, only reporting what the import would do.
+     * @return the report of the import.
+     * @throws InvalidCatalogImportException if the header or the CSV syntax is invalid; nothing is imported.
+     */
+    public CatalogImportReportDTO importCsv(Catalog catalog, InputStream csv, boolean dryRun) throws IOException, SQLException {
+        LOG.debug("Request to import {} from CSV, dry run: {}", catalog, dryRun);
+        long start = System.currentTimeMillis();
+        InputStream input = new BufferedInputStream(csv, 64 * 1024);
+        List<Field> fields = readHeader(catalog, input);
+        CatalogImportReportDTO report;
+        try (Connection connection = dataSource.getConnection()) {
+            try {
+                report = load(catalog, fields, input, connection);
+                if (dryRun) {
+                    connection.rollback();
+                } else {
+                    connection.commit();
+                }
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        report.setCatalog(catalog.name().toLowerCase(Locale.ROOT));
+        report.setDryRun(dryRun);
+        if (!dryRun && report.getInserted() + report.getUpdated() > 0) {
+            entityManagerFactory.getCache().evict(catalog.entityType);
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(catalog.entityType));
+        }
+        LOG.info("Imported {} in {} ms: {}", catalog, System.currentTimeMillis() - start, report);
+        return report;
+    }
+
+    private CatalogImportReportDTO load(Catalog catalog, List<Field> fields, InputStream csv, Connection connection)
+        throws IOException, SQLException {
+        execute(connection, createStageSql(catalog));
+        execute(connection, CREATE_ERRORS_SQL);
+        long rows = copy(connection, fields, csv);
+        execute(connection, "analyze catalog_import_stage");
+
+        execute(connection, validateSql(catalog, fields));
+        execute(connection, REJECT_SQL);
+        execute(connection, resolveSql(catalog));
+        long newRows = queryLong(connection, COUNT_NEW_SQL);
+        if (newRows > 0) {
+            assignIds(connection, newRows);
+        }
+
+        CatalogImportReportDTO report = new CatalogImportReportDTO();
+        report.setRows(rows);
+        report.setUpdated(execute(connection, updateSql(catalog, fields)));
+        if (catalog.naturalKey) {
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(upsertSql(catalog))) {
+                resultSet.next();
+                report.setInserted(resultSet.getLong(1));
+                // rows inserted by someone else since they were matched
+                report.setUpdated(report.getUpdated() + resultSet.getLong(2));
+            }
+        } else {
+            report.setInserted(execute(connection, insertSql(catalog)));
+        }
+        report.setRejected(queryLong(connection, COUNT_REJECTED_SQL));
+        report.setUnchanged(rows - report.getRejected() - report.getInserted() - report.getUpdated());
+
+        int maxErrors = properties.getMaxErrors();
+        List<CatalogImportErrorDTO> errors = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(ERRORS_SQL)) {
+            statement.setInt(1, maxErrors + 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    errors.add(new CatalogImportErrorDTO(resultSet.getLong(1), resultSet.getString(2)));
+                }
+            }
+        }
+        report.setErrorsTruncated(errors.size() > maxErrors);
+        report.setErrors(errors.size() > maxErrors ? new ArrayList<>(errors.subList(0, maxErrors)) : errors);
+        return report;
+    }
+
+    /**
+     * Read the header, leaving the stream at the first row.
+     */
+    private static List<Field> readHeader(Catalog catalog, InputStream csv) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int read;
+        while ((read = csv.read()) != -1 && read != '\n') {
+            if (bytes.size() == MAX_HEADER_LENGTH) {
+                throw new InvalidCatalogImportException("The header is longer than " + MAX_HEADER_LENGTH + " bytes");
+            }
+            bytes.write(read);
+        }
+        String header = bytes.toString(StandardCharsets.UTF_8);
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        if (header.isBlank()) {
+            throw new InvalidCatalogImportException("The file has no header, expected " + catalog.headers());
+        }
+        List<Field> fields = new ArrayList<>();
+        for (String column : header.strip().split(",", -1)) {
+            String name = column.strip().replace("\"", "");
+            Field field = catalog.fields
+                .stream()
+                .filter(candidate -> candidate.header().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new InvalidCatalogImportException("Unknown column '" + name + "', expected " + catalog.headers()));
+            if (fields.contains(field)) {
+                throw new InvalidCatalogImportException("Duplicate column '" + name + "'");
+            }
+            fields.add(field);
+        }
+        for (Field field : catalog.fields) {
+            if (field.required() && !fields.contains(field)) {
+                throw new InvalidCatalogImportException("Missing column '" + field.header() + "', expected " + catalog.headers());
+            }
+        }
+        return fields;
+    }
+
+    private static long copy(Connection connection, List<Field> fields, InputStream csv) throws IOException, SQLException {
+        String columns = fields.stream().map(Field::column).collect(Collectors.joining(", "));
+        try {
+            return connection
+                .unwrap(PGConnection.class)
+                .getCopyAPI()
+                .copyIn("COPY catalog_import_stage (" + columns + ") FROM STDIN WITH (FORMAT csv, ENCODING 'UTF8')", csv);
+        } catch (PSQLException e) {
+            // data exceptions are syntax errors of the file, the others are database errors
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("22") || e.getServerErrorMessage() == null) {
+                throw e;
+            }
+            String where = e.getServerErrorMessage().getWhere();
+            Matcher line = COPY_LINE.matcher(where == null ? "" : where);
+            throw new InvalidCatalogImportException(
+                "Malformed CSV" + (line.find() ? " at row " + line.group(1) : "") + ": " + e.getServerErrorMessage().getMessage()
+            );
+        }
+    }
+
+    private static void assignIds(Connection connection, long newRows) throws SQLException {
+        long blocks = (newRows + SEQUENCE_INCREMENT - 1) / SEQUENCE_INCREMENT;
+        List<Long> hiValues = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(NEXT_IDS_SQL)) {
+            statement.setLong(1, blocks);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    hiValues.add(resultSet.getLong(1));
+                }
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(ASSIGN_IDS_SQL)) {
+            statement.setArray(1, connection.createArrayOf("bigint", hiValues.toArray(Long[]::new)));
+            statement.executeUpdate();
+        }
+    }
+
+    private static String createStageSql(Catalog catalog) {
+        return (
+            "create temporary table catalog_import_stage (row_number bigint generated always as identity, " +
+            catalog.fields.stream().map(field -> field.column() + " text, ").collect(Collectors.joining()) +
+            "target_id bigint, is_new boolean not null default false, rejected boolean not null default false) on commit drop"
+        );
+    }
+
+    /**
+     * One pass over the staging table, with one candidate message per rule and row.
+     */
+    private static String validateSql(Catalog catalog, List<Field> fields) {
+        List<String> rules = new ArrayList<>();
+        for (Field field : fields) {
+            String value = "s." + field.column();
+            if (field.required()) {
+                rules.add("case when " + value + " is null or btrim(" + value + ") = '' then '" + field.header() + " is required' end");
+            }
+            if (field.maxLength() > 0) {
+                rules.add(
+                    "case when length(" +
+                    value +
+                    ") > " +
+                    field.maxLength() +
+                    " then '" +
+                    field.header() +
+                    " is longer than " +
+                    field.maxLength() +
+                    " characters' end"
+                );
+            }
+        }
+        Field keyField = catalog.keyField();
+        String key = "s." + catalog.key;
+        if (!catalog.naturalKey && fields.contains(keyField)) {
+            rules.add(
+                "case when " +
+                key +
+                " is null then null when " +
+                key +
+                " !~ '^[0-9]{1,18}$' then '" +
+                keyField.header() +
+                " is not a valid id' when not exists (select 1 from " +
+                catalog.table +
+                " t where t.id = cast(" +
+                key +
+                " as bigint)) then 'no " +
+                catalog.table +
+                " with this id' end"
+            );
+        }
+        rules.add(
+            "case when " +
+            key +
+            " is not null and s.first_row <> s.row_number then 'duplicate " +
+            keyField.header() +
+            ", first on row ' || s.first_row end"
+        );
+        return (
+            "insert into catalog_import_error (row_number, message) select s.row_number, v.message from (select *, " +
+            "first_value(row_number) over (partition by " +
+            catalog.key +
+            " order by row_number) as first_row from catalog_import_stage) s " +
+            "cross join lateral (values (" +
+            String.join("), (", rules) +
+            ")) v(message) where v.message is not null"
+        );
+    }
+
+    private static String resolveSql(Catalog catalog) {
+        if (!catalog.naturalKey) {
+            return "update catalog_import_stage s set target_id = cast(s.id as bigint) where s.id is not null and not s.rejected";
+        }
+        return (
+            "update catalog_import_stage s set target_id = t.id from " +
+            catalog.table +
+            " t where t." +
+            catalog.key +
+            " = s." +
+            catalog.key +
+            " and not s.rejected"
+        );
+    }
+
+    /**
+     * Update the matched rows, only setting the columns of the file, and skipping the rows which would not change.
+     */
+    private static String updateSql(Catalog catalog, List<Field> fields) {
+        List<String> columns = fields.stream().map(Field::column).filter(column -> !column.equals(catalog.key)).toList();
+        return (
+            "update " +
+            catalog.table +
+            " t set " +
+            columns.stream().map(column -> column + " = s." + column).collect(Collectors.joining(", ")) +
+            " from catalog_import_stage s where not s.rejected and not s.is_new and t.id = s.target_id and (" +
+            columns.stream().map(column -> "t." + column).collect(Collectors.joining(", ")) +
+            ") is distinct from (" +
+            columns.stream().map(column -> "s." + column).collect(Collectors.joining(", ")) +
+            ")"
+        );
+    }
+
+    /**
+     * Insert the new rows of a catalog with a natural key, counting the inserted rows and the updated ones.
+     */
+    private static String upsertSql(Catalog catalog) {
+        List<String> columns = catalog.fields.stream().map(Field::column).toList();
+        return (
+            "with merged as (insert into " +
+            catalog.table +
+            " (id, " +
+            String.join(", ", columns) +
+            ") select s.target_id, " +
+            columns.stream().map(column -> "s." + column).collect(Collectors.joining(", ")) +
+            " from catalog_import_stage s where s.is_new order by s.row_number on conflict (" +
+            catalog.key +
+            ") do update set " +
+            columns.stream().map(column -> column + " = excluded." + column).collect(Collectors.joining(", ")) +
+            " returning (xmax = 0) as inserted) " +
+            "select count(*) filter (where inserted), count(*) filter (where not inserted) from merged"
+        );
+    }
+
+    /**
+     * Insert the new products, created now.
+     */
+    private static String insertSql(Catalog catalog) {
+        List<String> columns = catalog.fields.stream().map(Field::column).filter(column -> !column.equals(catalog.key)).toList();
+        return (
+            "insert into " +
+            catalog.table +
+            " (id, " +
+            String.join(", ", columns) +
+            ", creation_date) select s.target_id, " +
+            columns.stream().map(column -> "s." + column).collect(Collectors.joining(", ")) +
+            ", now() at time zone 'utc' from catalog_import_stage s where s.is_new order by s.row_number"
+        );
+    }
+
+    private static int execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+            return Math.max(0, statement.getUpdateCount());
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
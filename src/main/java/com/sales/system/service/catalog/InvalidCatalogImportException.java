@@ -0,0 +1,15 @@
+package com.sales.system.service.catalog;
+
+/**
+ * Thrown when a catalog import cannot be read at all: a bad header or a malformed CSV file.
+ * <p>
+ * The rows that can be read but are not valid do not fail the import; they are listed in its report.
+ */
+public class InvalidCatalogImportException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCatalogImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Bulk imports of the product, client and seller catalogs from CSV files.
+ */
+package com.sales.system.service.catalog;
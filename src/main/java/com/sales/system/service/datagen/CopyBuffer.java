@@ -0,0 +1,104 @@
+package com.sales.system.service.datagen;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Buffer of rows in the PostgreSQL {@code COPY} text format, streamed to a {@link CopyIn} whenever it fills up.
+ * The values written must not contain tabs, newlines or backslashes, which are not escaped.
+ */
+class CopyBuffer {
+
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
+    private final CopyIn copyIn;
+
+    private final StringBuilder rows = new StringBuilder(FLUSH_THRESHOLD + 4096);
+
+    private boolean firstColumn = true;
+
+    private long rowCount;
+
+    CopyBuffer(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    CopyBuffer column(long value) {
+        separate().append(value);
+        return this;
+    }
+
+    CopyBuffer column(String value) {
+        separate().append(value);
+        return this;
+    }
+
+    /**
+     * A decimal with 2 fraction digits.
+     */
+    CopyBuffer cents(long cents) {
+        separate().append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            rows.append('0');
+        }
+        rows.append(fraction);
+        return this;
+    }
+
+    /**
+     * A timestamp, as a day and a number of seconds into that day.
+     */
+    CopyBuffer timestamp(LocalDate day, int secondOfDay) {
+        separate().append(day).append(' ');
+        twoDigits(secondOfDay / 3600).append(':');
+        twoDigits(secondOfDay / 60 % 60).append(':');
+        twoDigits(secondOfDay % 60);
+        return this;
+    }
+
+    private StringBuilder twoDigits(int value) {
+        if (value < 10) {
+            rows.append('0');
+        }
+        return rows.append(value);
+    }
+
+    private StringBuilder separate() {
+        if (!firstColumn) {
+            rows.append('\t');
+        }
+        firstColumn = false;
+        return rows;
+    }
+
+    void endRow() throws SQLException {
+        rows.append('\n');
+        firstColumn = true;
+        rowCount++;
+        if (rows.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Send the buffered rows and end the copy.
+     *
+     * @return the number of rows copied.
+     */
+    long finish() throws SQLException {
+        flush();
+        copyIn.endCopy();
+        return rowCount;
+    }
+
+    private void flush() throws SQLException {
+        if (!rows.isEmpty()) {
+            byte[] bytes = rows.toString().getBytes(StandardCharsets.US_ASCII);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            rows.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sales.system.service.datagen;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.config.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generate the synthetic sales once the application is started with the {@code datagen} profile, then stop it unless
+ * {@code application.data-generator.exit-when-done} is false.
+ */
+@Component
+@Profile(Constants.SPRING_PROFILE_DATAGEN)
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataGeneratorRunner.class);
+
+    private final SalesDataGenerator salesDataGenerator;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    public DataGeneratorRunner(
+        SalesDataGenerator salesDataGenerator,
+        ApplicationProperties applicationProperties,
+        ConfigurableApplicationContext applicationContext
+    ) {
+        this.salesDataGenerator = salesDataGenerator;
+        this.applicationProperties = applicationProperties;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ApplicationProperties.DataGenerator properties = applicationProperties.getDataGenerator();
+        SalesDataGenerator.Result result = salesDataGenerator.generate(properties);
+        long rows =
+            result.products() +
+            result.clients() +
+            result.sellers() +
+            result.sales() +
+            result.saleTransactions() +
+            result.transactionLogs();
+        LOG.info(
+            "Generated {} sales, {} saleTransactions and {} transaction logs in {} s ({} rows/s)",
+            result.sales(),
+            result.saleTransactions(),
+            result.transactionLogs(),
+            result.millis() / 1000,
+            rows * 1000 / Math.max(1, result.millis())
+        );
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
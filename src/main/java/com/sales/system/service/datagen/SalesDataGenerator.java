@@ -0,0 +1,552 @@
+package com.sales.system.service.datagen;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.Client;
+import com.sales.system.domain.Product;
+import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.domain.Seller;
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.PartitionMaintenanceService;
+import com.sales.system.service.SalesRollupService;
+import com.sales.system.service.TransactionLogWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service generating a large, reproducible set of synthetic sales, loaded with PostgreSQL {@code COPY} rather than JPA.
+ * <p>
+ * The data follows the skews that matter to the query plans and caches:
+ * <ul>
+ * <li>product popularity and client loyalty follow Zipf distributions, scattered over the ids;</li>
+ * <li>the daily volume follows the weekdays, a yearly season peaking in December and a steady growth;</li>
+ * <li>basket sizes follow a Zipf distribution too, so most sales have one or two lines and a few have dozens.</li>
+ * </ul>
+ * Every sale is generated from its own random generator, derived from the seed and its index, so the sales can be
+ * loaded by several connections in parallel, in chunks of one transaction each, and still be the same for the same
+ * seed and sizes. The ids are allocated from {@code sequence_generator}, and from {@code transaction_log_sequence} for
+ * the transaction logs, which are moved past them at the end, so the data is added to the existing one.
+ */
+@Service
+public class SalesDataGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesDataGenerator.class);
+
+    private static final List<Class<?>> GENERATED_ENTITIES = List.of(
+        Product.class,
+        Client.class,
+        Seller.class,
+        Sale.class,
+        SaleTransaction.class,
+        TransactionLog.class
+    );
+
+    private static final long PRODUCT_SALT = 0x5DEECE66DL;
+
+    private static final double PRODUCT_POPULARITY_EXPONENT = 1.1;
+
+    private static final double CLIENT_LOYALTY_EXPONENT = 0.8;
+
+    private static final double BASKET_SIZE_EXPONENT = 2.0;
+
+    private static final int CATEGORIES = 40;
+
+    private static final double[] WEEKDAY_FACTORS = { 0.9, 0.9, 0.95, 1.0, 1.15, 1.3, 0.8 };
+
+    private static final String[] FIRST_NAMES = {
+        "Ana",
+        "Luis",
+        "Maria",
+        "Jose",
+        "Carmen",
+        "Juan",
+        "Lucia",
+        "Pedro",
+        "Elena",
+        "Pablo",
+        "Sara",
+        "Diego",
+        "Laura",
+        "Jorge",
+        "Paula",
+        "Mario",
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Garcia",
+        "Martinez",
+        "Lopez",
+        "Sanchez",
+        "Perez",
+        "Gomez",
+        "Martin",
+        "Jimenez",
+        "Ruiz",
+        "Hernandez",
+        "Diaz",
+        "Moreno",
+        "Alvarez",
+        "Romero",
+        "Navarro",
+        "Torres",
+    };
+
+    /**
+     * Summary of a generation.
+     */
+    public record Result(long products, long clients, long sellers, long sales, long saleTransactions, long transactionLogs, long millis) {}
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SalesRollupService salesRollupService;
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public SalesDataGenerator(
+        DataSource dataSource,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        SalesRollupService salesRollupService,
+        PartitionMaintenanceService partitionMaintenanceService,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.salesRollupService = salesRollupService;
+        this.partitionMaintenanceService = partitionMaintenanceService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Generate and load the data.
+     *
+     * @param properties the sizes and the seed of the data.
+     * @return the numbers of rows loaded.
+     */
+    public Result generate(ApplicationProperties.DataGenerator properties) throws SQLException, InterruptedException {
+        long start = System.currentTimeMillis();
+        Plan plan = new Plan(properties);
+        int parallelism = parallelism(properties.getParallelism());
+        long firstId = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject("select nextval('sequence_generator')", Long.class)
+        );
+        long firstTransactionLogId = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject("select nextval('transaction_log_sequence')", Long.class)
+        );
+        plan.allocateIds(firstId + 1, firstTransactionLogId);
+        LOG.info(
+            "Generating {} products, {} clients, {} sellers and {} sales ({} saleTransactions) from {} to {}",
+            plan.products,
+            plan.clients,
+            plan.sellers,
+            plan.sales,
+            plan.saleTransactions,
+            plan.firstDay,
+            plan.firstDay.plusDays(plan.days - 1L)
+        );
+
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyProducts(plan, copyManager);
+            copyClients(plan, copyManager);
+            copySellers(plan, copyManager);
+            connection.commit();
+        }
+        // the ids are in use from now on, even if a chunk fails
+        Long lastId = plan.saleTransactionBase + plan.saleTransactions;
+        Long lastTransactionLogId = plan.transactionLogBase + (properties.isTransactionLogs() ? plan.saleTransactions : 0);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("select setval('sequence_generator', ?)", Long.class, lastId);
+            jdbcTemplate.queryForObject("select setval('transaction_log_sequence', ?)", Long.class, lastTransactionLogId);
+        });
+
+        if (properties.isTransactionLogs()) {
+            partitionMaintenanceService.createPartitions(TransactionLog.class, plan.firstDay, plan.firstDay.plusDays(plan.days - 1L));
+        }
+
+        AtomicLong loadedSales = new AtomicLong();
+        ExecutorService loaders = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int chunk = 0; chunk < plan.chunkCount; chunk++) {
+                int index = chunk;
+                chunks.add(
+                    loaders.submit(() -> {
+                        copyChunk(plan, index, properties.isTransactionLogs());
+                        long loaded = loadedSales.addAndGet(plan.chunkEnd(index) - plan.chunkStart(index));
+                        LOG.info("Loaded {} / {} sales", loaded, plan.sales);
+                        return null;
+                    })
+                );
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load the generated sales", e.getCause());
+        } finally {
+            loaders.shutdownNow();
+        }
+
+        LOG.info("Rebuilding the sales rollups and analyzing the tables");
+        salesRollupService.rebuild(plan.firstDay, plan.firstDay.plusDays(plan.days - 1L));
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.execute("analyze product, client, seller, sale, sale_transaction, transaction_log")
+        );
+        entityManagerFactory.getCache().evictAll();
+        for (Class<?> entityType : GENERATED_ENTITIES) {
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(entityType));
+        }
+        return new Result(
+            plan.products,
+            plan.clients,
+            plan.sellers,
+            plan.sales,
+            plan.saleTransactions,
+            properties.isTransactionLogs() ? plan.saleTransactions : 0,
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * The loading connections, keeping two of the pool for the rest of the application.
+     */
+    private int parallelism(int configured) {
+        int parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            parallelism = Math.min(parallelism, Math.max(1, hikariDataSource.getMaximumPoolSize() - 2));
+        }
+        return parallelism;
+    }
+
+    private void copyProducts(Plan plan, CopyManager copyManager) throws SQLException {
+        CopyBuffer rows = new CopyBuffer(copyManager.copyIn("COPY product (id, name, description, category, creation_date) FROM STDIN"));
+        for (int i = 0; i < plan.products; i++) {
+            rows
+                .column(plan.productBase + i)
+                .column("Product " + (i + 1))
+                .column("Synthetic product " + (i + 1) + " of category " + plan.productCategory[i])
+                .column("Category " + plan.productCategory[i])
+                .timestamp(plan.firstDay.minusDays(1L + i % 365), (int) (i * 7919L % 86_400))
+                .endRow();
+        }
+        rows.finish();
+    }
+
+    private void copyClients(Plan plan, CopyManager copyManager) throws SQLException {
+        CopyBuffer rows = new CopyBuffer(copyManager.copyIn("COPY client (id, name, last_name, mobile) FROM STDIN"));
+        for (int i = 0; i < plan.clients; i++) {
+            rows
+                .column(plan.clientBase + i)
+                .column(FIRST_NAMES[i % FIRST_NAMES.length])
+                .column(LAST_NAMES[i / FIRST_NAMES.length % LAST_NAMES.length])
+                .column("+34" + (600_000_000L + plan.clientBase + i))
+                .endRow();
+        }
+        rows.finish();
+    }
+
+    private void copySellers(Plan plan, CopyManager copyManager) throws SQLException {
+        CopyBuffer rows = new CopyBuffer(copyManager.copyIn("COPY seller (id, name, last_name, employee_code) FROM STDIN"));
+        for (int i = 0; i < plan.sellers; i++) {
+            rows
+                .column(plan.sellerBase + i)
+                .column(FIRST_NAMES[(i + 3) % FIRST_NAMES.length])
+                .column(LAST_NAMES[(i + 5) / FIRST_NAMES.length % LAST_NAMES.length])
+                .column("GEN-" + (plan.sellerBase + i))
+                .endRow();
+        }
+        rows.finish();
+    }
+
+    /**
+     * Load the sales of a chunk, with their saleTransactions and transaction logs, in one transaction.
+     */
+    private void copyChunk(Plan plan, int chunk, boolean transactionLogs) throws SQLException {
+        long first = plan.chunkStart(chunk);
+        int count = (int) (plan.chunkEnd(chunk) - first);
+        int lineCount = (int) (plan.chunkLineStart[chunk + 1] - plan.chunkLineStart[chunk]);
+        int[] lineSale = new int[lineCount];
+        int[] lineProduct = new int[lineCount];
+        int[] lineQuantity = new int[lineCount];
+        long[] lineUnitPrice = new long[lineCount];
+        LocalDate[] saleDay = new LocalDate[count];
+        int[] saleSecond = new int[count];
+
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            CopyBuffer sales = new CopyBuffer(copyManager.copyIn("COPY sale (id, creation_date, total, client_id, seller_id) FROM STDIN"));
+            int day = plan.dayOf(first);
+            int line = 0;
+            for (int i = 0; i < count; i++) {
+                long sale = first + i;
+                while (sale >= plan.dayStart[day + 1]) {
+                    day++;
+                }
+                SplittableRandom random = plan.saleRandom(sale);
+                int basketSize = plan.basketSize(random);
+                long total = 0;
+                for (int j = 0; j < basketSize; j++, line++) {
+                    int product = plan.productIndex[plan.productPopularity.sample(random) - 1];
+                    int quantity = 1;
+                    while (quantity < 20 && random.nextDouble() < 0.35) {
+                        quantity++;
+                    }
+                    long unitPrice = plan.productPrice[product];
+                    if (random.nextDouble() < 0.1) {
+                        // a discounted line
+                        unitPrice = unitPrice * 9 / 10;
+                    }
+                    lineSale[line] = i;
+                    lineProduct[line] = product;
+                    lineQuantity[line] = quantity;
+                    lineUnitPrice[line] = unitPrice;
+                    total += unitPrice * quantity;
+                }
+                long salesOfDay = plan.dayStart[day + 1] - plan.dayStart[day];
+                saleDay[i] = plan.firstDay.plusDays(day);
+                saleSecond[i] = (int) Math.min(86_399, ((sale - plan.dayStart[day]) + random.nextDouble()) * 86_400 / salesOfDay);
+                sales
+                    .column(plan.saleBase + sale)
+                    .timestamp(saleDay[i], saleSecond[i])
+                    .cents(total)
+                    .column(plan.clientBase + plan.clientIndex[plan.clientLoyalty.sample(random) - 1])
+                    .column(plan.sellerBase + random.nextInt(plan.sellers))
+                    .endRow();
+            }
+            sales.finish();
+
+            long lineBase = plan.saleTransactionBase + plan.chunkLineStart[chunk];
+            CopyBuffer saleTransactions = new CopyBuffer(
+                copyManager.copyIn("COPY sale_transaction (id, quantity, unit_price, subtotal, product_id, sale_id) FROM STDIN")
+            );
+            for (int j = 0; j < lineCount; j++) {
+                saleTransactions
+                    .column(lineBase + j)
+                    .column(lineQuantity[j])
+                    .cents(lineUnitPrice[j])
+                    .cents(lineUnitPrice[j] * lineQuantity[j])
+                    .column(plan.productBase + lineProduct[j])
+                    .column(plan.saleBase + first + lineSale[j])
+                    .endRow();
+            }
+            saleTransactions.finish();
+
+            if (transactionLogs) {
+                long logBase = plan.transactionLogBase + plan.chunkLineStart[chunk];
+                CopyBuffer logs = new CopyBuffer(
+                    copyManager.copyIn("COPY transaction_log (id, timestamp, operation_type, modified_by, sale_transaction_id) FROM STDIN")
+                );
+                for (int j = 0; j < lineCount; j++) {
+                    logs
+                        .column(logBase + j)
+                        .timestamp(saleDay[lineSale[j]], saleSecond[lineSale[j]])
+                        .column("CREATE")
+                        .column(TransactionLogWriter.MODIFIED_BY)
+                        .column(lineBase + j)
+                        .endRow();
+                }
+                logs.finish();
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * The shape of the data: sizes, distributions, calendar and id ranges.
+     */
+    private static final class Plan {
+
+        final long seed;
+
+        final int products;
+
+        final int clients;
+
+        final int sellers;
+
+        final long sales;
+
+        final int days;
+
+        final int maxBasketSize;
+
+        final int chunkSize;
+
+        final int chunkCount;
+
+        final LocalDate firstDay;
+
+        /**
+         * Index of the first sale of every day, and the number of sales at the end.
+         */
+        final long[] dayStart;
+
+        final int[] productCategory;
+
+        final long[] productPrice;
+
+        final int[] productIndex;
+
+        final int[] clientIndex;
+
+        final ZipfDistribution productPopularity;
+
+        final ZipfDistribution clientLoyalty;
+
+        final ZipfDistribution basketSizes;
+
+        /**
+         * Index of the first saleTransaction of every chunk, and the number of saleTransactions at the end.
+         */
+        final long[] chunkLineStart;
+
+        final long saleTransactions;
+
+        long productBase;
+
+        long clientBase;
+
+        long sellerBase;
+
+        long saleBase;
+
+        long saleTransactionBase;
+
+        long transactionLogBase;
+
+        Plan(ApplicationProperties.DataGenerator properties) {
+            seed = properties.getSeed();
+            products = properties.getProducts();
+            clients = properties.getClients();
+            sellers = properties.getSellers();
+            sales = properties.getSales();
+            days = properties.getDays();
+            maxBasketSize = properties.getMaxBasketSize();
+            chunkSize = properties.getChunkSize();
+            if (products < 1 || clients < 1 || sellers < 1 || sales < 0 || days < 1 || maxBasketSize < 1 || chunkSize < 1) {
+                throw new IllegalArgumentException("The data generator sizes must be positive");
+            }
+            chunkCount = (int) ((sales + chunkSize - 1) / chunkSize);
+            LocalDate endDate = properties.getEndDate() != null ? properties.getEndDate() : LocalDate.now(ZoneOffset.UTC);
+            firstDay = endDate.minusDays(days - 1L);
+            dayStart = calendar();
+
+            productCategory = new int[products];
+            productPrice = new long[products];
+            ZipfDistribution categories = new ZipfDistribution(CATEGORIES, 1.0);
+            SplittableRandom productRandom = new SplittableRandom(seed ^ PRODUCT_SALT);
+            for (int i = 0; i < products; i++) {
+                productCategory[i] = categories.sample(productRandom);
+                // log-normal prices, with a median of 20.00
+                long cents = Math.round(Math.exp(Math.log(2_000) + productRandom.nextGaussian()));
+                productPrice[i] = Math.max(50, Math.min(500_000, cents));
+            }
+            productIndex = ZipfDistribution.scatter(products);
+            clientIndex = ZipfDistribution.scatter(clients);
+            productPopularity = new ZipfDistribution(products, PRODUCT_POPULARITY_EXPONENT);
+            clientLoyalty = new ZipfDistribution(clients, CLIENT_LOYALTY_EXPONENT);
+            basketSizes = new ZipfDistribution(maxBasketSize, BASKET_SIZE_EXPONENT);
+
+            // the basket size is the first draw of every sale, so the saleTransaction ids of every chunk are known upfront
+            chunkLineStart = new long[chunkCount + 1];
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                long lines = 0;
+                for (long sale = chunkStart(chunk); sale < chunkEnd(chunk); sale++) {
+                    lines += basketSize(saleRandom(sale));
+                }
+                chunkLineStart[chunk + 1] = chunkLineStart[chunk] + lines;
+            }
+            saleTransactions = chunkLineStart[chunkCount];
+        }
+
+        private long[] calendar() {
+            double[] cumulative = new double[days + 1];
+            for (int day = 0; day < days; day++) {
+                LocalDate date = firstDay.plusDays(day);
+                double season = 1 + 0.25 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 350) / 365.25);
+                double weekday = WEEKDAY_FACTORS[date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()];
+                double growth = 1 + 0.3 * day / 365.0;
+                cumulative[day + 1] = cumulative[day] + season * weekday * growth;
+            }
+            long[] starts = new long[days + 1];
+            for (int day = 0; day <= days; day++) {
+                starts[day] = Math.round(sales * cumulative[day] / cumulative[days]);
+            }
+            return starts;
+        }
+
+        void allocateIds(long firstId, long firstTransactionLogId) {
+            productBase = firstId;
+            clientBase = productBase + products;
+            sellerBase = clientBase + clients;
+            saleBase = sellerBase + sellers;
+            saleTransactionBase = saleBase + sales;
+            transactionLogBase = firstTransactionLogId;
+        }
+
+        long chunkStart(int chunk) {
+            return (long) chunk * chunkSize;
+        }
+
+        long chunkEnd(int chunk) {
+            return Math.min(sales, chunkStart(chunk) + chunkSize);
+        }
+
+        int dayOf(long sale) {
+            int index = Arrays.binarySearch(dayStart, sale);
+            if (index < 0) {
+                return -index - 2;
+            }
+            // skip the days without sales
+            while (index < days && dayStart[index + 1] == sale) {
+                index++;
+            }
+            return index;
+        }
+
+        SplittableRandom saleRandom(long sale) {
+            return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + sale);
+        }
+
+        int basketSize(SplittableRandom random) {
+            return basketSizes.sample(random);
+        }
+    }
+}
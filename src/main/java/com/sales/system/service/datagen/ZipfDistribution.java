@@ -0,0 +1,59 @@
+package com.sales.system.service.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over the ranks {@code 1..n}: rank {@code k} is drawn with a probability proportional to
+ * {@code 1 / k^exponent}, so a few ranks take most of the draws and the others form a long tail.
+ * <p>
+ * Sampling is a binary search in the precomputed cumulative distribution, which takes {@code 8 * n} bytes.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("A Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        cumulative[n - 1] = 1;
+    }
+
+    /**
+     * @return a rank, from 1 to n.
+     */
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    /**
+     * Map the ranks to the indexes {@code 0..n-1} through a fixed permutation, so that the most drawn items are spread
+     * over the table instead of being its first rows.
+     */
+    static int[] scatter(int n) {
+        long stride = Math.max(1, (long) (n * 0.6180339887));
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        int[] indexes = new int[n];
+        for (int rank = 0; rank < n; rank++) {
+            indexes[rank] = (int) ((rank * stride) % n);
+        }
+        return indexes;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
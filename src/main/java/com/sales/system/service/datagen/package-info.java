@@ -0,0 +1,4 @@
+/**
+ * Synthetic sales data generator, for performance work on realistic volumes.
+ */
+package com.sales.system.service.datagen;
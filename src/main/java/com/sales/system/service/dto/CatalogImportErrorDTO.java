@@ -0,0 +1,48 @@
+package com.sales.system.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A row of a catalog import that was rejected, and why. A row rejected for several reasons has one error per reason.
+ */
+public class CatalogImportErrorDTO implements Serializable {
+
+    /**
+     * Number of the row in the file, from 1 for the first row after the header.
+     */
+    private long row;
+
+    private String message;
+
+    public CatalogImportErrorDTO() {}
+
+    public CatalogImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogImportErrorDTO{" +
+            "row=" + getRow() +
+            ", message='" + getMessage() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,130 @@
+package com.sales.system.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a product, client or seller CSV import.
+ */
+public class CatalogImportReportDTO implements Serializable {
+
+    /**
+     * {@code products}, {@code clients} or {@code sellers}.
+     */
+    private String catalog;
+
+    /**
+     * Whether the import was rolled back, the counts being those it would have had.
+     */
+    private boolean dryRun;
+
+    private long rows;
+
+    private long inserted;
+
+    private long updated;
+
+    /**
+     * Valid rows matching an existing row with the same values, which was left untouched.
+     */
+    private long unchanged;
+
+    private long rejected;
+
+    /**
+     * Errors of the rejected rows, by row, up to {@code application.catalog-import.max-errors}.
+     */
+    private List<CatalogImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * Whether there are more errors than listed.
+     */
+    private boolean errorsTruncated;
+
+    public String getCatalog() {
+        return catalog;
+    }
+
+    public void setCatalog(String catalog) {
+        this.catalog = catalog;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<CatalogImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<CatalogImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogImportReportDTO{" +
+            "catalog='" + getCatalog() + "'" +
+            ", dryRun=" + isDryRun() +
+            ", rows=" + getRows() +
+            ", inserted=" + getInserted() +
+            ", updated=" + getUpdated() +
+            ", unchanged=" + getUnchanged() +
+            ", rejected=" + getRejected() +
+            "}";
+    }
+}
@@ -0,0 +1,73 @@
+package com.sales.system.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A checkout request: the header of a {@link com.sales.system.domain.Sale} together with all its lines.
+ * The line subtotals and the sale total are computed by the server.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CheckoutDTO implements Serializable {
+
+    /**
+     * Defaults to the time the checkout is processed.
+     */
+    private Instant creationDate;
+
+    @NotNull
+    private ClientDTO client;
+
+    @NotNull
+    private SellerDTO seller;
+
+    @NotEmpty
+    private List<@Valid @NotNull CheckoutLineDTO> transactions = new ArrayList<>();
+
+    public Instant getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(Instant creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public ClientDTO getClient() {
+        return client;
+    }
+
+    public void setClient(ClientDTO client) {
+        this.client = client;
+    }
+
+    public SellerDTO getSeller() {
+        return seller;
+    }
+
+    public void setSeller(SellerDTO seller) {
+        this.seller = seller;
+    }
+
+    public List<CheckoutLineDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<CheckoutLineDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CheckoutDTO{" +
+            "creationDate='" + getCreationDate() + "'" +
+            ", client=" + getClient() +
+            ", seller=" + getSeller() +
+            ", transactions=" + getTransactions() +
+            "}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.sales.system.service.dto;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A line of a {@link CheckoutDTO}. The subtotal is computed by the server.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CheckoutLineDTO implements Serializable {
+
+    @NotNull
+    @Min(value = 1)
+    private Integer quantity;
+
+    @NotNull
+    @DecimalMin(value = "0")
+    @Digits(integer = 19, fraction = 2)
+    private BigDecimal unitPrice;
+
+    @NotNull
+    private ProductDTO product;
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductDTO product) {
+        this.product = product;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CheckoutLineDTO{" +
+            "quantity=" + getQuantity() +
+            ", unitPrice=" + getUnitPrice() +
+            ", product=" + getProduct() +
+            "}";
+    }
+}
@@ -24,6 +24,8 @@ public class ClientDTO implements Serializable {
     @Size(max = 20)
     private String mobile;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -56,6 +58,14 @@ public class ClientDTO implements Serializable {
         this.mobile = mobile;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -85,6 +95,7 @@ public class ClientDTO implements Serializable {
             ", name='" + getName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", mobile='" + getMobile() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
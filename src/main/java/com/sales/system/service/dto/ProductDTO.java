@@ -27,6 +27,8 @@ public class ProductDTO implements Serializable {
     @NotNull
     private Instant creationDate;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -67,6 +69,14 @@ public class ProductDTO implements Serializable {
         this.creationDate = creationDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -97,6 +107,7 @@ public class ProductDTO implements Serializable {
             ", description='" + getDescription() + "'" +
             ", category='" + getCategory() + "'" +
             ", creationDate='" + getCreationDate() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
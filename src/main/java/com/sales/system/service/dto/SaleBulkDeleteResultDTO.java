@@ -0,0 +1,73 @@
+package com.sales.system.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+/**
+ * Summary of a bulk delete of sales or saleTransactions, returned by the bulk delete endpoints.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SaleBulkDeleteResultDTO implements Serializable {
+
+    private Integer requested;
+
+    private long sales;
+
+    private long saleTransactions;
+
+    private int chunks;
+
+    private long durationMs;
+
+    public Integer getRequested() {
+        return requested;
+    }
+
+    public void setRequested(Integer requested) {
+        this.requested = requested;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    public void setSales(long sales) {
+        this.sales = sales;
+    }
+
+    public long getSaleTransactions() {
+        return saleTransactions;
+    }
+
+    public void setSaleTransactions(long saleTransactions) {
+        this.saleTransactions = saleTransactions;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleBulkDeleteResultDTO{" +
+            "requested=" + getRequested() +
+            ", sales=" + getSales() +
+            ", saleTransactions=" + getSaleTransactions() +
+            ", chunks=" + getChunks() +
+            ", durationMs=" + getDurationMs() +
+            "}";
+    }
+}
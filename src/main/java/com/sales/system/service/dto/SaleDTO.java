@@ -19,6 +19,7 @@ public class SaleDTO implements Serializable {
 
     @NotNull
     @DecimalMin(value = "0")
+    @Digits(integer = 19, fraction = 2)
     private BigDecimal total;
 
     @NotNull
@@ -27,6 +28,8 @@ public class SaleDTO implements Serializable {
     @NotNull
     private SellerDTO seller;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -67,6 +70,14 @@ public class SaleDTO implements Serializable {
         this.seller = seller;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -97,6 +108,7 @@ public class SaleDTO implements Serializable {
             ", total=" + getTotal() +
             ", client=" + getClient() +
             ", seller=" + getSeller() +
+            ", version=" + getVersion() +
             "}";
     }
 }
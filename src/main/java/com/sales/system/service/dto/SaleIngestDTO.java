@@ -0,0 +1,47 @@
+package com.sales.system.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One record of the NDJSON stream accepted by {@code POST /api/sales/bulk}: a {@link SaleDTO} header
+ * together with its {@link SaleIngestLineDTO lines}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SaleIngestDTO extends SaleDTO {
+
+    @NotEmpty
+    private List<@Valid @NotNull SaleIngestLineDTO> transactions = new ArrayList<>();
+
+    public List<SaleIngestLineDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<SaleIngestLineDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleIngestDTO{" +
+            "creationDate='" + getCreationDate() + "'" +
+            ", total=" + getTotal() +
+            ", client=" + getClient() +
+            ", seller=" + getSeller() +
+            ", transactions=" + getTransactions() +
+            "}";
+    }
+}
@@ -0,0 +1,72 @@
+package com.sales.system.service.dto;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A line of a {@link SaleIngestDTO}, mapped to a {@link com.sales.system.domain.SaleTransaction}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SaleIngestLineDTO implements Serializable {
+
+    @NotNull
+    @Min(value = 1)
+    private Integer quantity;
+
+    @NotNull
+    @DecimalMin(value = "0")
+    @Digits(integer = 19, fraction = 2)
+    private BigDecimal unitPrice;
+
+    @NotNull
+    @DecimalMin(value = "0")
+    @Digits(integer = 19, fraction = 2)
+    private BigDecimal subtotal;
+
+    @NotNull
+    private ProductDTO product;
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductDTO product) {
+        this.product = product;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleIngestLineDTO{" +
+            "quantity=" + getQuantity() +
+            ", unitPrice=" + getUnitPrice() +
+            ", subtotal=" + getSubtotal() +
+            ", product=" + getProduct() +
+            "}";
+    }
+}
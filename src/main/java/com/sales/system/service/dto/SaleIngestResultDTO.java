@@ -0,0 +1,89 @@
+package com.sales.system.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+/**
+ * Outcome of a single {@link SaleIngestDTO} record, streamed back by {@code POST /api/sales/bulk}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SaleIngestResultDTO implements Serializable {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED,
+    }
+
+    private long line;
+
+    private Status status;
+
+    private Long id;
+
+    private String message;
+
+    public SaleIngestResultDTO() {}
+
+    public SaleIngestResultDTO(long line, Status status, Long id, String message) {
+        this.line = line;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    public static SaleIngestResultDTO created(long line, Long id) {
+        return new SaleIngestResultDTO(line, Status.CREATED, id, null);
+    }
+
+    public static SaleIngestResultDTO rejected(long line, String message) {
+        return new SaleIngestResultDTO(line, Status.REJECTED, null, message);
+    }
+
+    public static SaleIngestResultDTO failed(long line, String message) {
+        return new SaleIngestResultDTO(line, Status.FAILED, null, message);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleIngestResultDTO{" +
+            "line=" + getLine() +
+            ", status=" + getStatus() +
+            ", id=" + getId() +
+            ", message='" + getMessage() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.sales.system.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a checkout: the persisted {@link SaleDTO} and its {@link SaleTransactionDTO lines}.
+ */
+public class SaleReceiptDTO implements Serializable {
+
+    private SaleDTO sale;
+
+    private List<SaleTransactionDTO> transactions = new ArrayList<>();
+
+    public SaleReceiptDTO() {}
+
+    public SaleReceiptDTO(SaleDTO sale, List<SaleTransactionDTO> transactions) {
+        this.sale = sale;
+        this.transactions = transactions;
+    }
+
+    public SaleDTO getSale() {
+        return sale;
+    }
+
+    public void setSale(SaleDTO sale) {
+        this.sale = sale;
+    }
+
+    public List<SaleTransactionDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<SaleTransactionDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleReceiptDTO{" +
+            "sale=" + getSale() +
+            ", transactions=" + getTransactions() +
+            "}";
+    }
+}
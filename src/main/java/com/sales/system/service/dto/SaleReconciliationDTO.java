@@ -0,0 +1,192 @@
+package com.sales.system.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A run of the sale total reconciliation, and its progress.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SaleReconciliationDTO implements Serializable {
+
+    public enum Mode {
+        /**
+         * Only record the sales whose total does not match their lines.
+         */
+        REPORT,
+        /**
+         * Also set their total to the sum of their lines.
+         */
+        REPAIR,
+    }
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        /**
+         * Stopped by a shutdown of the application; can be resumed.
+         */
+        INTERRUPTED,
+    }
+
+    private Long id;
+
+    private Mode mode;
+
+    private Status status;
+
+    /**
+     * The sales with an id in {@code (fromId, toId]} are scanned.
+     */
+    private long fromId;
+
+    private long toId;
+
+    /**
+     * All the sales with an id up to this one are done; a resumed run starts after it.
+     */
+    private long checkpointId;
+
+    private long scanned;
+
+    private long mismatched;
+
+    private long repaired;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getFromId() {
+        return fromId;
+    }
+
+    public void setFromId(long fromId) {
+        this.fromId = fromId;
+    }
+
+    public long getToId() {
+        return toId;
+    }
+
+    public void setToId(long toId) {
+        this.toId = toId;
+    }
+
+    public long getCheckpointId() {
+        return checkpointId;
+    }
+
+    public void setCheckpointId(long checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(long scanned) {
+        this.scanned = scanned;
+    }
+
+    public long getMismatched() {
+        return mismatched;
+    }
+
+    public void setMismatched(long mismatched) {
+        this.mismatched = mismatched;
+    }
+
+    public long getRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(long repaired) {
+        this.repaired = repaired;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Share of the id range done, between 0 and 1.
+     */
+    public double getProgress() {
+        return toId > fromId ? (double) (checkpointId - fromId) / (toId - fromId) : 1;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleReconciliationDTO{" +
+            "id=" + getId() +
+            ", mode=" + getMode() +
+            ", status=" + getStatus() +
+            ", fromId=" + getFromId() +
+            ", toId=" + getToId() +
+            ", checkpointId=" + getCheckpointId() +
+            ", scanned=" + getScanned() +
+            ", mismatched=" + getMismatched() +
+            ", repaired=" + getRepaired() +
+            "}";
+    }
+}
@@ -0,0 +1,70 @@
+package com.sales.system.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A sale found by a reconciliation with a total not matching the sum of its lines.
+ */
+public class SaleReconciliationMismatchDTO implements Serializable {
+
+    private Long saleId;
+
+    /**
+     * Total of the sale when it was scanned.
+     */
+    private BigDecimal recordedTotal;
+
+    /**
+     * Sum of the subtotals of its lines.
+     */
+    private BigDecimal computedTotal;
+
+    /**
+     * Whether the total of the sale was set to the computed one.
+     */
+    private boolean repaired;
+
+    public Long getSaleId() {
+        return saleId;
+    }
+
+    public void setSaleId(Long saleId) {
+        this.saleId = saleId;
+    }
+
+    public BigDecimal getRecordedTotal() {
+        return recordedTotal;
+    }
+
+    public void setRecordedTotal(BigDecimal recordedTotal) {
+        this.recordedTotal = recordedTotal;
+    }
+
+    public BigDecimal getComputedTotal() {
+        return computedTotal;
+    }
+
+    public void setComputedTotal(BigDecimal computedTotal) {
+        this.computedTotal = computedTotal;
+    }
+
+    public boolean isRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(boolean repaired) {
+        this.repaired = repaired;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleReconciliationMismatchDTO{" +
+            "saleId=" + getSaleId() +
+            ", recordedTotal=" + getRecordedTotal() +
+            ", computedTotal=" + getComputedTotal() +
+            ", repaired=" + isRepaired() +
+            "}";
+    }
+}
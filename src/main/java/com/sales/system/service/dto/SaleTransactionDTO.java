@@ -19,10 +19,12 @@ public class SaleTransactionDTO implements Serializable {
 
     @NotNull
     @DecimalMin(value = "0")
+    @Digits(integer = 19, fraction = 2)
     private BigDecimal unitPrice;
 
     @NotNull
     @DecimalMin(value = "0")
+    @Digits(integer = 19, fraction = 2)
     private BigDecimal subtotal;
 
     @NotNull
@@ -31,6 +33,8 @@ public class SaleTransactionDTO implements Serializable {
     @NotNull
     private SaleDTO sale;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -79,6 +83,14 @@ public class SaleTransactionDTO implements Serializable {
         this.sale = sale;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -110,6 +122,7 @@ public class SaleTransactionDTO implements Serializable {
             ", subtotal=" + getSubtotal() +
             ", product=" + getProduct() +
             ", sale=" + getSale() +
+            ", version=" + getVersion() +
             "}";
     }
 }
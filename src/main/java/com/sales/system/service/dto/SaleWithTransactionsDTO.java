@@ -0,0 +1,57 @@
+package com.sales.system.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link SaleDTO} together with its {@link SaleTransactionDTO lines}, returned by {@code GET /api/sales} and
+ * {@code GET /api/sales/:id} with {@code include=transactions}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SaleWithTransactionsDTO extends SaleDTO {
+
+    private List<SaleTransactionDTO> transactions = new ArrayList<>();
+
+    public SaleWithTransactionsDTO() {}
+
+    public SaleWithTransactionsDTO(SaleDTO sale) {
+        setId(sale.getId());
+        setCreationDate(sale.getCreationDate());
+        setTotal(sale.getTotal());
+        setClient(sale.getClient());
+        setSeller(sale.getSeller());
+        setVersion(sale.getVersion());
+    }
+
+    public List<SaleTransactionDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<SaleTransactionDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleWithTransactionsDTO{" +
+            "id=" + getId() +
+            ", creationDate='" + getCreationDate() + "'" +
+            ", total=" + getTotal() +
+            ", client=" + getClient() +
+            ", seller=" + getSeller() +
+            ", version=" + getVersion() +
+            ", transactions=" + getTransactions() +
+            "}";
+    }
+}
@@ -0,0 +1,74 @@
+package com.sales.system.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a sales analytics query, with the snapshot it was computed on.
+ */
+public class SalesAnalyticsResultDTO implements Serializable {
+
+    private List<SalesAnalyticsRowDTO> rows = new ArrayList<>();
+
+    private int groups;
+
+    private long scannedLines;
+
+    private Instant snapshotTime;
+
+    private long tookMillis;
+
+    public List<SalesAnalyticsRowDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<SalesAnalyticsRowDTO> rows) {
+        this.rows = rows;
+    }
+
+    public int getGroups() {
+        return groups;
+    }
+
+    public void setGroups(int groups) {
+        this.groups = groups;
+    }
+
+    public long getScannedLines() {
+        return scannedLines;
+    }
+
+    public void setScannedLines(long scannedLines) {
+        this.scannedLines = scannedLines;
+    }
+
+    public Instant getSnapshotTime() {
+        return snapshotTime;
+    }
+
+    public void setSnapshotTime(Instant snapshotTime) {
+        this.snapshotTime = snapshotTime;
+    }
+
+    public long getTookMillis() {
+        return tookMillis;
+    }
+
+    public void setTookMillis(long tookMillis) {
+        this.tookMillis = tookMillis;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SalesAnalyticsResultDTO{" +
+            "rows=" + getRows() +
+            ", groups=" + getGroups() +
+            ", scannedLines=" + getScannedLines() +
+            ", snapshotTime=" + getSnapshotTime() +
+            ", tookMillis=" + getTookMillis() +
+            "}";
+    }
+}
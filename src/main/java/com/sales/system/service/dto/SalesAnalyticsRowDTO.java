@@ -0,0 +1,139 @@
+package com.sales.system.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One group of a sales analytics query. Only the grouped dimensions are set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesAnalyticsRowDTO implements Serializable {
+
+    private Long sellerId;
+
+    private Long clientId;
+
+    private Long productId;
+
+    private String category;
+
+    private LocalDate day;
+
+    /**
+     * Sum of the subtotals.
+     */
+    private BigDecimal revenue;
+
+    private long quantity;
+
+    private long lines;
+
+    /**
+     * Number of distinct sales.
+     */
+    private long sales;
+
+    /**
+     * Average quantity per sale.
+     */
+    private BigDecimal basketSize;
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    public void setSales(long sales) {
+        this.sales = sales;
+    }
+
+    public BigDecimal getBasketSize() {
+        return basketSize;
+    }
+
+    public void setBasketSize(BigDecimal basketSize) {
+        this.basketSize = basketSize;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SalesAnalyticsRowDTO{" +
+            "sellerId=" + getSellerId() +
+            ", clientId=" + getClientId() +
+            ", productId=" + getProductId() +
+            ", category='" + getCategory() + "'" +
+            ", day=" + getDay() +
+            ", revenue=" + getRevenue() +
+            ", quantity=" + getQuantity() +
+            ", lines=" + getLines() +
+            ", sales=" + getSales() +
+            ", basketSize=" + getBasketSize() +
+            "}";
+    }
+}
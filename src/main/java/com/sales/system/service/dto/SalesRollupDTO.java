@@ -0,0 +1,106 @@
+package com.sales.system.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of a sales rollup report. Only the id of the reported dimension is set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesRollupDTO implements Serializable {
+
+    /**
+     * First day of the period.
+     */
+    private LocalDate period;
+
+    private Long sellerId;
+
+    private Long productId;
+
+    private Long clientId;
+
+    /**
+     * Number of saleTransaction lines.
+     */
+    private long lines;
+
+    private long quantity;
+
+    /**
+     * Sum of the subtotals.
+     */
+    private BigDecimal revenue;
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(LocalDate period) {
+        this.period = period;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SalesRollupDTO{" +
+            "period=" + getPeriod() +
+            ", sellerId=" + getSellerId() +
+            ", productId=" + getProductId() +
+            ", clientId=" + getClientId() +
+            ", lines=" + getLines() +
+            ", quantity=" + getQuantity() +
+            ", revenue=" + getRevenue() +
+            "}";
+    }
+}
@@ -24,6 +24,8 @@ public class SellerDTO implements Serializable {
     @Size(max = 50)
     private String employeeCode;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -56,6 +58,14 @@ public class SellerDTO implements Serializable {
         this.employeeCode = employeeCode;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -85,6 +95,7 @@ public class SellerDTO implements Serializable {
             ", name='" + getName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", employeeCode='" + getEmployeeCode() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
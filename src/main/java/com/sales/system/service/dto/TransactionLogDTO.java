@@ -21,10 +21,9 @@ public class TransactionLogDTO implements Serializable {
     @Size(max = 50)
     private String operationType;
 
-//    @NotNull
-//    @Size(max = 100)
-//    private String fieldChanged;
-//
+    @Size(max = 100)
+    private String fieldChanged;
+
 //    @Size(max = 500)
 //    private String oldValue;
 //
@@ -70,13 +69,13 @@ public class TransactionLogDTO implements Serializable {
         this.operationType = operationType;
     }
 
-//    public String getFieldChanged() {
-//        return fieldChanged;
-//    }
+    public String getFieldChanged() {
+        return fieldChanged;
+    }
 
-//    public void setFieldChanged(String fieldChanged) {
-//        this.fieldChanged = fieldChanged;
-//    }
+    public void setFieldChanged(String fieldChanged) {
+        this.fieldChanged = fieldChanged;
+    }
 
 //    public String getOldValue() {
 //        return oldValue;
@@ -138,7 +137,7 @@ public class TransactionLogDTO implements Serializable {
             "id=" + getId() +
             ", timestamp='" + getTimestamp() + "'" +
             ", operationType='" + getOperationType() + "'" +
-//            ", fieldChanged='" + getFieldChanged() + "'" +
+            ", fieldChanged='" + getFieldChanged() + "'" +
 //            ", oldValue='" + getOldValue() + "'" +
 //            ", newValue='" + getNewValue() + "'" +
 //            ", modifiedBy='" + getModifiedBy() + "'" +
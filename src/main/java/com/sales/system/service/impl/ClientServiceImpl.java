@@ -1,13 +1,19 @@
 package com.sales.system.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.domain.Client;
 import com.sales.system.repository.ClientRepository;
 import com.sales.system.service.ClientService;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.EntityRowUpdater;
+import com.sales.system.service.JsonMergePatcher;
 import com.sales.system.service.dto.ClientDTO;
 import com.sales.system.service.mapper.ClientMapper;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +30,24 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientMapper clientMapper;
 
-    public ClientServiceImpl(ClientRepository clientRepository, ClientMapper clientMapper) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityRowUpdater entityRowUpdater;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    public ClientServiceImpl(
+        ClientRepository clientRepository,
+        ClientMapper clientMapper,
+        ApplicationEventPublisher applicationEventPublisher,
+        EntityRowUpdater entityRowUpdater,
+        JsonMergePatcher jsonMergePatcher
+    ) {
         this.clientRepository = clientRepository;
         this.clientMapper = clientMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.entityRowUpdater = entityRowUpdater;
+        this.jsonMergePatcher = jsonMergePatcher;
     }
 
     @Override
@@ -34,30 +55,42 @@ public class ClientServiceImpl implements ClientService {
         LOG.debug("Request to save Client : {}", clientDTO);
         Client client = clientMapper.toEntity(clientDTO);
         client = clientRepository.save(client);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Client.class));
         return clientMapper.toDto(client);
     }
 
     @Override
-    public ClientDTO update(ClientDTO clientDTO) {
+    public Optional<ClientDTO> update(ClientDTO clientDTO) {
         LOG.debug("Request to update Client : {}", clientDTO);
-        Client client = clientMapper.toEntity(clientDTO);
-        client = clientRepository.save(client);
-        return clientMapper.toDto(client);
+        Optional<ClientDTO> result = entityRowUpdater
+            .update(Client.class, clientDTO.getId(), clientDTO.getVersion(), columns(clientDTO))
+            .map(clientMapper::toDto);
+        result.ifPresent(updated -> applicationEventPublisher.publishEvent(new EntityChangedEvent(Client.class)));
+        return result;
     }
 
     @Override
     public Optional<ClientDTO> partialUpdate(ClientDTO clientDTO) {
         LOG.debug("Request to partially update Client : {}", clientDTO);
+        Optional<ClientDTO> result = entityRowUpdater
+            .partialUpdate(Client.class, clientDTO, clientDTO.getId(), clientDTO.getVersion(), columns(clientDTO))
+            .map(clientMapper::toDto);
+        result.ifPresent(updated -> applicationEventPublisher.publishEvent(new EntityChangedEvent(Client.class)));
+        return result;
+    }
 
+    @Override
+    public Optional<ClientDTO> mergePatch(Long id, JsonNode patch) {
+        LOG.debug("Request to merge patch Client {} : {}", id, patch);
         return clientRepository
-            .findById(clientDTO.getId())
-            .map(existingClient -> {
-                clientMapper.partialUpdate(existingClient, clientDTO);
-
-                return existingClient;
-            })
-            .map(clientRepository::save)
-            .map(clientMapper::toDto);
+            .findById(id)
+            .map(client -> {
+                if (!jsonMergePatcher.patch(client, patch, ClientDTO.class, clientMapper::toDto).isEmpty()) {
+                    clientRepository.flush();
+                    applicationEventPublisher.publishEvent(new EntityChangedEvent(Client.class));
+                }
+                return clientMapper.toDto(client);
+            });
     }
 
     @Override
@@ -71,5 +104,10 @@ public class ClientServiceImpl implements ClientService {
     public void delete(Long id) {
         LOG.debug("Request to delete Client : {}", id);
         clientRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Client.class));
+    }
+
+    private static Map<String, Object> columns(ClientDTO clientDTO) {
+        return EntityRowUpdater.columns("name", clientDTO.getName(), "last_name", clientDTO.getLastName(), "mobile", clientDTO.getMobile());
     }
 }
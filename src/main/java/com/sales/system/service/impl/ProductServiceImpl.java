@@ -1,13 +1,19 @@
 package com.sales.system.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.domain.Product;
 import com.sales.system.repository.ProductRepository;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.EntityRowUpdater;
+import com.sales.system.service.JsonMergePatcher;
 import com.sales.system.service.ProductService;
 import com.sales.system.service.dto.ProductDTO;
 import com.sales.system.service.mapper.ProductMapper;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +30,24 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductMapper productMapper;
 
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityRowUpdater entityRowUpdater;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    public ProductServiceImpl(
+        ProductRepository productRepository,
+        ProductMapper productMapper,
+        ApplicationEventPublisher applicationEventPublisher,
+        EntityRowUpdater entityRowUpdater,
+        JsonMergePatcher jsonMergePatcher
+    ) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.entityRowUpdater = entityRowUpdater;
+        this.jsonMergePatcher = jsonMergePatcher;
     }
 
     @Override
@@ -34,30 +55,42 @@ public class ProductServiceImpl implements ProductService {
         LOG.debug("Request to save Product : {}", productDTO);
         Product product = productMapper.toEntity(productDTO);
         product = productRepository.save(product);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Product.class));
         return productMapper.toDto(product);
     }
 
     @Override
-    public ProductDTO update(ProductDTO productDTO) {
+    public Optional<ProductDTO> update(ProductDTO productDTO) {
         LOG.debug("Request to update Product : {}", productDTO);
-        Product product = productMapper.toEntity(productDTO);
-        product = productRepository.save(product);
-        return productMapper.toDto(product);
+        Optional<ProductDTO> result = entityRowUpdater
+            .update(Product.class, productDTO.getId(), productDTO.getVersion(), columns(productDTO))
+            .map(productMapper::toDto);
+        result.ifPresent(updated -> applicationEventPublisher.publishEvent(new EntityChangedEvent(Product.class)));
+        return result;
     }
 
     @Override
     public Optional<ProductDTO> partialUpdate(ProductDTO productDTO) {
         LOG.debug("Request to partially update Product : {}", productDTO);
+        Optional<ProductDTO> result = entityRowUpdater
+            .partialUpdate(Product.class, productDTO, productDTO.getId(), productDTO.getVersion(), columns(productDTO))
+            .map(productMapper::toDto);
+        result.ifPresent(updated -> applicationEventPublisher.publishEvent(new EntityChangedEvent(Product.class)));
+        return result;
+    }
 
+    @Override
+    public Optional<ProductDTO> mergePatch(Long id, JsonNode patch) {
+        LOG.debug("Request to merge patch Product {} : {}", id, patch);
         return productRepository
-            .findById(productDTO.getId())
-            .map(existingProduct -> {
-                productMapper.partialUpdate(existingProduct, productDTO);
-
-                return existingProduct;
-            })
-            .map(productRepository::save)
-            .map(productMapper::toDto);
+            .findById(id)
+            .map(product -> {
+                if (!jsonMergePatcher.patch(product, patch, ProductDTO.class, productMapper::toDto).isEmpty()) {
+                    productRepository.flush();
+                    applicationEventPublisher.publishEvent(new EntityChangedEvent(Product.class));
+                }
+                return productMapper.toDto(product);
+            });
     }
 
     @Override
@@ -71,5 +104,19 @@ public class ProductServiceImpl implements ProductService {
     public void delete(Long id) {
         LOG.debug("Request to delete Product : {}", id);
         productRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Product.class));
+    }
+
+    private static Map<String, Object> columns(ProductDTO productDTO) {
+        return EntityRowUpdater.columns(
+            "name",
+            productDTO.getName(),
+            "description",
+            productDTO.getDescription(),
+            "category",
+            productDTO.getCategory(),
+            "creation_date",
+            productDTO.getCreationDate()
+        );
     }
 }
@@ -1,13 +1,43 @@
 package com.sales.system.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.domain.Sale;
+import com.sales.system.domain.SaleTransaction;
+import com.sales.system.repository.ProductRepository;
 import com.sales.system.repository.SaleRepository;
+import com.sales.system.repository.SaleTransactionRepository;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.EntityRowUpdater;
+import com.sales.system.service.JsonMergePatcher;
+import com.sales.system.service.SaleInclude;
 import com.sales.system.service.SaleService;
+import com.sales.system.service.SalesRollupService;
+import com.sales.system.service.TransactionLogWriter;
+import com.sales.system.service.dto.CheckoutDTO;
+import com.sales.system.service.dto.CheckoutLineDTO;
+import com.sales.system.service.dto.ProductDTO;
 import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SaleReceiptDTO;
+import com.sales.system.service.dto.SaleTransactionDTO;
+import com.sales.system.service.dto.SaleWithTransactionsDTO;
+import com.sales.system.service.mapper.ClientMapper;
+import com.sales.system.service.mapper.ProductMapper;
 import com.sales.system.service.mapper.SaleMapper;
+import com.sales.system.service.mapper.SaleTransactionMapper;
+import com.sales.system.service.mapper.SellerMapper;
+import com.sales.system.service.pricing.PricingEngine;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,13 +52,62 @@ public class SaleServiceImpl implements SaleService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SaleServiceImpl.class);
 
+    private static final List<String> ROLLED_UP_FIELDS = List.of("creationDate", "client", "seller");
+
     private final SaleRepository saleRepository;
 
+    private final SaleTransactionRepository saleTransactionRepository;
+
+    private final ProductRepository productRepository;
+
+    private final TransactionLogWriter transactionLogWriter;
+
     private final SaleMapper saleMapper;
 
-    public SaleServiceImpl(SaleRepository saleRepository, SaleMapper saleMapper) {
+    private final SaleTransactionMapper saleTransactionMapper;
+
+    private final ClientMapper clientMapper;
+
+    private final SellerMapper sellerMapper;
+
+    private final ProductMapper productMapper;
+
+    private final SalesRollupService salesRollupService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityRowUpdater entityRowUpdater;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    public SaleServiceImpl(
+        SaleRepository saleRepository,
+        SaleTransactionRepository saleTransactionRepository,
+        ProductRepository productRepository,
+        TransactionLogWriter transactionLogWriter,
+        SaleMapper saleMapper,
+        SaleTransactionMapper saleTransactionMapper,
+        ClientMapper clientMapper,
+        SellerMapper sellerMapper,
+        ProductMapper productMapper,
+        SalesRollupService salesRollupService,
+        ApplicationEventPublisher applicationEventPublisher,
+        EntityRowUpdater entityRowUpdater,
+        JsonMergePatcher jsonMergePatcher
+    ) {
         this.saleRepository = saleRepository;
+        this.saleTransactionRepository = saleTransactionRepository;
+        this.productRepository = productRepository;
+        this.transactionLogWriter = transactionLogWriter;
         this.saleMapper = saleMapper;
+        this.saleTransactionMapper = saleTransactionMapper;
+        this.clientMapper = clientMapper;
+        this.sellerMapper = sellerMapper;
+        this.productMapper = productMapper;
+        this.salesRollupService = salesRollupService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.entityRowUpdater = entityRowUpdater;
+        this.jsonMergePatcher = jsonMergePatcher;
     }
 
     @Override
@@ -36,30 +115,101 @@ public class SaleServiceImpl implements SaleService {
         LOG.debug("Request to save Sale : {}", saleDTO);
         Sale sale = saleMapper.toEntity(saleDTO);
         sale = saleRepository.save(sale);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
         return saleMapper.toDto(sale);
     }
 
     @Override
-    public SaleDTO update(SaleDTO saleDTO) {
-        LOG.debug("Request to update Sale : {}", saleDTO);
-        Sale sale = saleMapper.toEntity(saleDTO);
+    public SaleReceiptDTO checkout(CheckoutDTO checkoutDTO) {
+        LOG.debug("Request to checkout Sale : {}", checkoutDTO);
+        Instant now = Instant.now();
+        Sale sale = new Sale()
+            .creationDate(checkoutDTO.getCreationDate() != null ? checkoutDTO.getCreationDate() : now)
+            .client(clientMapper.toEntity(checkoutDTO.getClient()))
+            .seller(sellerMapper.toEntity(checkoutDTO.getSeller()));
+        long totalCents = 0;
+        List<SaleTransaction> saleTransactions = new ArrayList<>(checkoutDTO.getTransactions().size());
+        for (CheckoutLineDTO line : checkoutDTO.getTransactions()) {
+            long subtotalCents = PricingEngine.subtotal(PricingEngine.toCents(line.getUnitPrice()), line.getQuantity());
+            totalCents = PricingEngine.addLine(totalCents, subtotalCents);
+            SaleTransaction saleTransaction = new SaleTransaction()
+                .quantity(line.getQuantity())
+                .unitPrice(line.getUnitPrice())
+                .subtotal(PricingEngine.toAmount(subtotalCents))
+                .product(productMapper.toEntity(line.getProduct()))
+                .sale(sale);
+            saleTransactions.add(saleTransaction);
+        }
+        sale.setTotal(PricingEngine.toAmount(totalCents));
+        // saving new entities only queues the inserts: they are flushed together in JDBC batches, before updating the rollups
         sale = saleRepository.save(sale);
-        return saleMapper.toDto(sale);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+        saleTransactionRepository.saveAll(saleTransactions);
+        saleTransactionRepository.flush();
+        salesRollupService.addSale(sale.getId());
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+        transactionLogWriter.recordAll("CREATE", saleTransactions);
+        return new SaleReceiptDTO(saleMapper.toDto(sale), saleTransactionMapper.toDto(saleTransactions));
+    }
+
+    @Override
+    public Optional<SaleDTO> update(SaleDTO saleDTO) {
+        LOG.debug("Request to update Sale : {}", saleDTO);
+        return update(saleDTO, columns(saleDTO), false);
     }
 
     @Override
     public Optional<SaleDTO> partialUpdate(SaleDTO saleDTO) {
         LOG.debug("Request to partially update Sale : {}", saleDTO);
+        return update(saleDTO, columns(saleDTO), true);
+    }
+
+    private Optional<SaleDTO> update(SaleDTO saleDTO, Map<String, Object> columns, boolean partial) {
+        // the creation date, client and seller of a sale are rolled up with its saleTransactions
+        boolean rolledUp = salesRollupService.movesSale(
+            saleDTO.getId(),
+            (Instant) columns.get("creation_date"),
+            (Long) columns.get("client_id"),
+            (Long) columns.get("seller_id")
+        );
+        if (rolledUp) {
+            salesRollupService.subtractSale(saleDTO.getId());
+        }
+        Long id = saleDTO.getId();
+        Optional<SaleDTO> result = (
+            partial
+                ? entityRowUpdater.partialUpdate(Sale.class, saleDTO, id, saleDTO.getVersion(), columns)
+                : entityRowUpdater.update(Sale.class, id, saleDTO.getVersion(), columns)
+        ).map(saleMapper::toDto);
+        result.ifPresent(updated -> {
+            if (rolledUp) {
+                salesRollupService.addSale(updated.getId());
+            }
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+        });
+        return result;
+    }
 
+    @Override
+    public Optional<SaleDTO> mergePatch(Long id, JsonNode patch) {
+        LOG.debug("Request to merge patch Sale {} : {}", id, patch);
         return saleRepository
-            .findById(saleDTO.getId())
-            .map(existingSale -> {
-                saleMapper.partialUpdate(existingSale, saleDTO);
-
-                return existingSale;
-            })
-            .map(saleRepository::save)
-            .map(saleMapper::toDto);
+            .findById(id)
+            .map(sale -> {
+                List<String> changed = jsonMergePatcher.patch(sale, patch, SaleDTO.class, saleMapper::toDto);
+                if (!changed.isEmpty()) {
+                    boolean rolledUp = changed.stream().anyMatch(ROLLED_UP_FIELDS::contains);
+                    if (rolledUp) {
+                        salesRollupService.subtractSale(id);
+                    }
+                    saleRepository.flush();
+                    if (rolledUp) {
+                        salesRollupService.addSale(id);
+                    }
+                    applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+                }
+                return saleMapper.toDto(sale);
+            });
     }
 
     public Page<SaleDTO> findAllWithEagerRelationships(Pageable pageable) {
@@ -73,9 +223,72 @@ public class SaleServiceImpl implements SaleService {
         return saleRepository.findOneWithEagerRelationships(id).map(saleMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaleDTO> include(List<SaleDTO> sales, Set<SaleInclude> includes) {
+        if (includes.isEmpty() || sales.isEmpty()) {
+            return sales;
+        }
+        LOG.debug("Request to include {} in {} Sales", includes, sales.size());
+        Map<Long, SaleWithTransactionsDTO> salesById = new LinkedHashMap<>();
+        List<SaleDTO> result = new ArrayList<>(sales.size());
+        for (SaleDTO sale : sales) {
+            result.add(salesById.computeIfAbsent(sale.getId(), id -> new SaleWithTransactionsDTO(sale)));
+        }
+
+        List<SaleTransactionRepository.SaleTransactionLine> lines = saleTransactionRepository.findLinesBySaleIdIn(salesById.keySet());
+        Map<Long, ProductDTO> products = Map.of();
+        if (includes.contains(SaleInclude.PRODUCT) && !lines.isEmpty()) {
+            Set<Long> productIds = lines
+                .stream()
+                .map(SaleTransactionRepository.SaleTransactionLine::getProductId)
+                .collect(Collectors.toSet());
+            products = productRepository
+                .findAllById(productIds)
+                .stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+        }
+        for (SaleTransactionRepository.SaleTransactionLine line : lines) {
+            SaleTransactionDTO saleTransaction = new SaleTransactionDTO();
+            saleTransaction.setId(line.getId());
+            saleTransaction.setQuantity(line.getQuantity());
+            saleTransaction.setUnitPrice(line.getUnitPrice());
+            saleTransaction.setSubtotal(line.getSubtotal());
+            ProductDTO product = products.get(line.getProductId());
+            if (product == null) {
+                // as in the sale transactions resource
+                product = new ProductDTO();
+                product.setId(line.getProductId());
+                product.setName(line.getProductName());
+            }
+            saleTransaction.setProduct(product);
+            SaleDTO sale = new SaleDTO();
+            sale.setId(line.getSaleId());
+            saleTransaction.setSale(sale);
+            salesById.get(line.getSaleId()).getTransactions().add(saleTransaction);
+        }
+        return result;
+    }
+
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Sale : {}", id);
+        salesRollupService.subtractSale(id);
         saleRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+    }
+
+    private static Map<String, Object> columns(SaleDTO saleDTO) {
+        return EntityRowUpdater.columns(
+            "creation_date",
+            saleDTO.getCreationDate(),
+            "total",
+            saleDTO.getTotal(),
+            "client_id",
+            saleDTO.getClient() != null ? saleDTO.getClient().getId() : null,
+            "seller_id",
+            saleDTO.getSeller() != null ? saleDTO.getSeller().getId() : null
+        );
     }
 }
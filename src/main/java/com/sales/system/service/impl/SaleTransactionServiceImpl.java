@@ -1,20 +1,28 @@
 package com.sales.system.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.domain.SaleTransaction;
-import com.sales.system.domain.TransactionLog;
 import com.sales.system.repository.SaleTransactionRepository;
-import com.sales.system.repository.TransactionLogRepository;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.EntityRowUpdater;
+import com.sales.system.service.JsonMergePatcher;
 import com.sales.system.service.SaleTransactionService;
+import com.sales.system.service.SalesRollupService;
+import com.sales.system.service.TransactionLogWriter;
 import com.sales.system.service.dto.SaleTransactionDTO;
 import com.sales.system.service.mapper.SaleTransactionMapper;
+import com.sales.system.service.pricing.PricingEngine;
 
-import java.time.Instant;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,54 +35,111 @@ public class SaleTransactionServiceImpl implements SaleTransactionService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SaleTransactionServiceImpl.class);
 
+    private static final List<String> ROLLED_UP_FIELDS = List.of("quantity", "subtotal", "product", "sale");
+
     private final SaleTransactionRepository saleTransactionRepository;
 
-    private final TransactionLogRepository transactionLogRepository;
+    private final TransactionLogWriter transactionLogWriter;
 
     private final SaleTransactionMapper saleTransactionMapper;
 
-    public SaleTransactionServiceImpl(SaleTransactionRepository saleTransactionRepository, SaleTransactionMapper saleTransactionMapper, TransactionLogRepository transactionLogRepository) {
+    private final SalesRollupService salesRollupService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    private final EntityRowUpdater entityRowUpdater;
+
+    public SaleTransactionServiceImpl(
+        SaleTransactionRepository saleTransactionRepository,
+        SaleTransactionMapper saleTransactionMapper,
+        TransactionLogWriter transactionLogWriter,
+        SalesRollupService salesRollupService,
+        ApplicationEventPublisher applicationEventPublisher,
+        JsonMergePatcher jsonMergePatcher,
+        EntityRowUpdater entityRowUpdater
+    ) {
         this.saleTransactionRepository = saleTransactionRepository;
-        this.transactionLogRepository = transactionLogRepository;
+        this.transactionLogWriter = transactionLogWriter;
         this.saleTransactionMapper = saleTransactionMapper;
+        this.salesRollupService = salesRollupService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.jsonMergePatcher = jsonMergePatcher;
+        this.entityRowUpdater = entityRowUpdater;
     }
 
     @Override
     public SaleTransactionDTO save(SaleTransactionDTO saleTransactionDTO) {
         LOG.debug("Request to save SaleTransaction : {}", saleTransactionDTO);
         SaleTransaction saleTransaction = saleTransactionMapper.toEntity(saleTransactionDTO);
-        saleTransaction = saleTransactionRepository.save(saleTransaction);
+        price(saleTransaction);
+        saleTransaction = saleTransactionRepository.saveAndFlush(saleTransaction);
+        salesRollupService.addSaleTransaction(saleTransaction.getId());
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
         saveTransactionLog("CREATE", saleTransaction);
         return saleTransactionMapper.toDto(saleTransaction);
     }
 
     @Override
-    public SaleTransactionDTO update(SaleTransactionDTO saleTransactionDTO) {
+    public Optional<SaleTransactionDTO> update(SaleTransactionDTO saleTransactionDTO) {
         LOG.debug("Request to update SaleTransaction : {}", saleTransactionDTO);
-        SaleTransaction saleTransaction = saleTransactionMapper.toEntity(saleTransactionDTO);
-        saleTransaction = saleTransactionRepository.save(saleTransaction);
-        saveTransactionLog("PUT", saleTransaction);
-        return saleTransactionMapper.toDto(saleTransaction);
+        Long id = saleTransactionDTO.getId();
+        // the subtraction is rolled back with the update if the saleTransaction is not at the version of the DTO
+        salesRollupService.subtractSaleTransaction(id);
+        Optional<SaleTransaction> result = entityRowUpdater.update(
+            SaleTransaction.class,
+            id,
+            saleTransactionDTO.getVersion(),
+            columns(saleTransactionDTO)
+        );
+        result.ifPresent(saleTransaction -> {
+            salesRollupService.addSaleTransaction(id);
+            applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+            saveTransactionLog("PUT", saleTransaction);
+        });
+        return result.map(saleTransactionMapper::toDto);
     }
 
     @Override
     public Optional<SaleTransactionDTO> partialUpdate(SaleTransactionDTO saleTransactionDTO) {
         LOG.debug("Request to partially update SaleTransaction : {}", saleTransactionDTO);
+        return mergePatch(saleTransactionDTO.getId(), jsonMergePatcher.toPatch(saleTransactionDTO));
+    }
 
+    @Override
+    public Optional<SaleTransactionDTO> mergePatch(Long id, JsonNode patch) {
+        LOG.debug("Request to merge patch SaleTransaction {} : {}", id, patch);
         return saleTransactionRepository
-            .findById(saleTransactionDTO.getId())
-            .map(existingSaleTransaction -> {
-                saleTransactionMapper.partialUpdate(existingSaleTransaction, saleTransactionDTO);
-                Optional<SaleTransaction> saleTransactionOpt = saleTransactionRepository.findById(saleTransactionDTO.getId());
-                if (saleTransactionOpt.isPresent()) {
-                    SaleTransaction saleTransaction = saleTransactionOpt.get();
-                    saleTransactionRepository.deleteById(saleTransactionDTO.getId());
-                    saveTransactionLog("PATCH", saleTransaction);
+            .findById(id)
+            .map(saleTransaction -> {
+                BigDecimal subtotal = saleTransaction.getSubtotal();
+                List<String> changed = jsonMergePatcher.patch(
+                    saleTransaction,
+                    patch,
+                    SaleTransactionDTO.class,
+                    saleTransactionMapper::toDto
+                );
+                // the subtotal follows the unit price and quantity, whatever the patch says
+                changed.remove("subtotal");
+                price(saleTransaction);
+                if (saleTransaction.getSubtotal().compareTo(subtotal) != 0) {
+                    changed.add("subtotal");
                 }
-                return existingSaleTransaction;
-            })
-            .map(saleTransactionRepository::save)
-            .map(saleTransactionMapper::toDto);
+                if (!changed.isEmpty()) {
+                    boolean rolledUp = changed.stream().anyMatch(ROLLED_UP_FIELDS::contains);
+                    if (rolledUp) {
+                        salesRollupService.subtractSaleTransaction(id);
+                    }
+                    saleTransactionRepository.flush();
+                    if (rolledUp) {
+                        salesRollupService.addSaleTransaction(id);
+                    }
+                    applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+                    transactionLogWriter.record("PATCH", saleTransaction, String.join(",", changed));
+                }
+                return saleTransactionMapper.toDto(saleTransaction);
+            });
     }
 
     @Override
@@ -98,18 +163,43 @@ public class SaleTransactionServiceImpl implements SaleTransactionService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete SaleTransaction : {}", id);
-        SaleTransaction saleTransaction = saleTransactionRepository.getReferenceById(id);
-        saveTransactionLog("DELETE", saleTransaction);
+        transactionLogWriter.recordDeleted("DELETE", id);
+        salesRollupService.subtractSaleTransaction(id);
         saleTransactionRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(SaleTransaction.class));
+    }
+
+    /**
+     * The subtotal is not taken from the client: it is always the unit price times the quantity.
+     */
+    private static void price(SaleTransaction saleTransaction) {
+        if (saleTransaction.getUnitPrice() != null && saleTransaction.getQuantity() != null) {
+            saleTransaction.setSubtotal(PricingEngine.subtotal(saleTransaction.getUnitPrice(), saleTransaction.getQuantity()));
+        }
+    }
+
+    /**
+     * The columns of a saleTransaction, its subtotal being the unit price times the quantity.
+     */
+    private static Map<String, Object> columns(SaleTransactionDTO saleTransactionDTO) {
+        BigDecimal unitPrice = saleTransactionDTO.getUnitPrice();
+        Integer quantity = saleTransactionDTO.getQuantity();
+        return EntityRowUpdater.columns(
+            "quantity",
+            quantity,
+            "unit_price",
+            unitPrice,
+            "subtotal",
+            unitPrice != null && quantity != null ? PricingEngine.subtotal(unitPrice, quantity) : null,
+            "product_id",
+            saleTransactionDTO.getProduct() != null ? saleTransactionDTO.getProduct().getId() : null,
+            "sale_id",
+            saleTransactionDTO.getSale() != null ? saleTransactionDTO.getSale().getId() : null
+        );
     }
 
     public void saveTransactionLog(String operationType, SaleTransaction saleTransaction) {
-        TransactionLog log = new TransactionLog();
-        log.setTimestamp(Instant.now());
-        log.setOperationType(operationType);
-        log.setModifiedBy("system");
-        log.setSaleTransaction(saleTransaction);
-        transactionLogRepository.save(log);
+        transactionLogWriter.record(operationType, saleTransaction);
     }
 
 }
@@ -1,13 +1,19 @@
 package com.sales.system.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sales.system.domain.Seller;
 import com.sales.system.repository.SellerRepository;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.EntityRowUpdater;
+import com.sales.system.service.JsonMergePatcher;
 import com.sales.system.service.SellerService;
 import com.sales.system.service.dto.SellerDTO;
 import com.sales.system.service.mapper.SellerMapper;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +30,24 @@ public class SellerServiceImpl implements SellerService {
 
     private final SellerMapper sellerMapper;
 
-    public SellerServiceImpl(SellerRepository sellerRepository, SellerMapper sellerMapper) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityRowUpdater entityRowUpdater;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    public SellerServiceImpl(
+        SellerRepository sellerRepository,
+        SellerMapper sellerMapper,
+        ApplicationEventPublisher applicationEventPublisher,
+        EntityRowUpdater entityRowUpdater,
+        JsonMergePatcher jsonMergePatcher
+    ) {
         this.sellerRepository = sellerRepository;
         this.sellerMapper = sellerMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.entityRowUpdater = entityRowUpdater;
+        this.jsonMergePatcher = jsonMergePatcher;
     }
 
     @Override
@@ -34,30 +55,42 @@ public class SellerServiceImpl implements SellerService {
         LOG.debug("Request to save Seller : {}", sellerDTO);
         Seller seller = sellerMapper.toEntity(sellerDTO);
         seller = sellerRepository.save(seller);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Seller.class));
         return sellerMapper.toDto(seller);
     }
 
     @Override
-    public SellerDTO update(SellerDTO sellerDTO) {
+    public Optional<SellerDTO> update(SellerDTO sellerDTO) {
         LOG.debug("Request to update Seller : {}", sellerDTO);
-        Seller seller = sellerMapper.toEntity(sellerDTO);
-        seller = sellerRepository.save(seller);
-        return sellerMapper.toDto(seller);
+        Optional<SellerDTO> result = entityRowUpdater
+            .update(Seller.class, sellerDTO.getId(), sellerDTO.getVersion(), columns(sellerDTO))
+            .map(sellerMapper::toDto);
+        result.ifPresent(updated -> applicationEventPublisher.publishEvent(new EntityChangedEvent(Seller.class)));
+        return result;
     }
 
     @Override
     public Optional<SellerDTO> partialUpdate(SellerDTO sellerDTO) {
         LOG.debug("Request to partially update Seller : {}", sellerDTO);
+        Optional<SellerDTO> result = entityRowUpdater
+            .partialUpdate(Seller.class, sellerDTO, sellerDTO.getId(), sellerDTO.getVersion(), columns(sellerDTO))
+            .map(sellerMapper::toDto);
+        result.ifPresent(updated -> applicationEventPublisher.publishEvent(new EntityChangedEvent(Seller.class)));
+        return result;
+    }
 
+    @Override
+    public Optional<SellerDTO> mergePatch(Long id, JsonNode patch) {
+        LOG.debug("Request to merge patch Seller {} : {}", id, patch);
         return sellerRepository
-            .findById(sellerDTO.getId())
-            .map(existingSeller -> {
-                sellerMapper.partialUpdate(existingSeller, sellerDTO);
-
-                return existingSeller;
-            })
-            .map(sellerRepository::save)
-            .map(sellerMapper::toDto);
+            .findById(id)
+            .map(seller -> {
+                if (!jsonMergePatcher.patch(seller, patch, SellerDTO.class, sellerMapper::toDto).isEmpty()) {
+                    sellerRepository.flush();
+                    applicationEventPublisher.publishEvent(new EntityChangedEvent(Seller.class));
+                }
+                return sellerMapper.toDto(seller);
+            });
     }
 
     @Override
@@ -71,5 +104,17 @@ public class SellerServiceImpl implements SellerService {
     public void delete(Long id) {
         LOG.debug("Request to delete Seller : {}", id);
         sellerRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(Seller.class));
+    }
+
+    private static Map<String, Object> columns(SellerDTO sellerDTO) {
+        return EntityRowUpdater.columns(
+            "name",
+            sellerDTO.getName(),
+            "last_name",
+            sellerDTO.getLastName(),
+            "employee_code",
+            sellerDTO.getEmployeeCode()
+        );
     }
 }
@@ -2,12 +2,14 @@ package com.sales.system.service.impl;
 
 import com.sales.system.domain.TransactionLog;
 import com.sales.system.repository.TransactionLogRepository;
+import com.sales.system.service.EntityChangedEvent;
 import com.sales.system.service.TransactionLogService;
 import com.sales.system.service.dto.TransactionLogDTO;
 import com.sales.system.service.mapper.TransactionLogMapper;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +26,16 @@ public class TransactionLogServiceImpl implements TransactionLogService {
 
     private final TransactionLogMapper transactionLogMapper;
 
-    public TransactionLogServiceImpl(TransactionLogRepository transactionLogRepository, TransactionLogMapper transactionLogMapper) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public TransactionLogServiceImpl(
+        TransactionLogRepository transactionLogRepository,
+        TransactionLogMapper transactionLogMapper,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.transactionLogRepository = transactionLogRepository;
         this.transactionLogMapper = transactionLogMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -34,6 +43,7 @@ public class TransactionLogServiceImpl implements TransactionLogService {
         LOG.debug("Request to save TransactionLog : {}", transactionLogDTO);
         TransactionLog transactionLog = transactionLogMapper.toEntity(transactionLogDTO);
         transactionLog = transactionLogRepository.save(transactionLog);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
         return transactionLogMapper.toDto(transactionLog);
     }
 
@@ -42,6 +52,7 @@ public class TransactionLogServiceImpl implements TransactionLogService {
         LOG.debug("Request to update TransactionLog : {}", transactionLogDTO);
         TransactionLog transactionLog = transactionLogMapper.toEntity(transactionLogDTO);
         transactionLog = transactionLogRepository.save(transactionLog);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
         return transactionLogMapper.toDto(transactionLog);
     }
 
@@ -53,6 +64,7 @@ public class TransactionLogServiceImpl implements TransactionLogService {
             .findById(transactionLogDTO.getId())
             .map(existingTransactionLog -> {
                 transactionLogMapper.partialUpdate(existingTransactionLog, transactionLogDTO);
+                applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
 
                 return existingTransactionLog;
             })
@@ -71,5 +83,6 @@ public class TransactionLogServiceImpl implements TransactionLogService {
     public void delete(Long id) {
         LOG.debug("Request to delete TransactionLog : {}", id);
         transactionLogRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new EntityChangedEvent(TransactionLog.class));
     }
 }
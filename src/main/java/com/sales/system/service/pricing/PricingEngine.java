@@ -0,0 +1,93 @@
+package com.sales.system.service.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices of sale lines and totals of sales, computed on amounts held as {@code long} numbers of cents.
+ * <p>
+ * Amounts are stored as {@code decimal(21,2)}, so a number of cents represents them exactly. The rules are:
+ * <ul>
+ * <li>an amount with more than 2 fraction digits is rounded half up to the cent, once, when it enters the engine;</li>
+ * <li>the subtotal of a line is its unit price times its quantity, which is exact in cents;</li>
+ * <li>the total of a sale is the sum of the subtotals of its lines.</li>
+ * </ul>
+ * Nothing is allocated between {@link #toCents(BigDecimal)} and {@link #toAmount(long)}, and any overflow of a
+ * {@code long} throws an {@link ArithmeticException} instead of wrapping around.
+ */
+public final class PricingEngine {
+
+    private static final int SCALE = 2;
+
+    private PricingEngine() {}
+
+    /**
+     * Convert an amount to cents.
+     *
+     * @param amount the amount.
+     * @return the amount in cents, rounded half up.
+     * @throws ArithmeticException if the amount does not fit in a {@code long} number of cents.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert cents to an amount with 2 fraction digits.
+     *
+     * @param cents the number of cents.
+     * @return the amount.
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Compute the subtotal of a line.
+     *
+     * @param unitPriceCents the unit price, in cents.
+     * @param quantity the quantity.
+     * @return the subtotal, in cents.
+     */
+    public static long subtotal(long unitPriceCents, int quantity) {
+        return Math.multiplyExact(unitPriceCents, quantity);
+    }
+
+    /**
+     * Add the subtotal of a line to the running total of a sale.
+     *
+     * @param totalCents the total of the previous lines, in cents.
+     * @param subtotalCents the subtotal of the line, in cents.
+     * @return the new total, in cents.
+     */
+    public static long addLine(long totalCents, long subtotalCents) {
+        return Math.addExact(totalCents, subtotalCents);
+    }
+
+    /**
+     * Compute the total of a sale.
+     *
+     * @param subtotalCents the subtotals of the lines, in cents.
+     * @param from the index of the first line.
+     * @param to the index after the last line.
+     * @return the total, in cents.
+     */
+    public static long total(long[] subtotalCents, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, subtotalCents[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Compute the subtotal of a line given as amounts.
+     *
+     * @param unitPrice the unit price.
+     * @param quantity the quantity.
+     * @return the subtotal, with 2 fraction digits.
+     */
+    public static BigDecimal subtotal(BigDecimal unitPrice, int quantity) {
+        return toAmount(subtotal(toCents(unitPrice), quantity));
+    }
+}
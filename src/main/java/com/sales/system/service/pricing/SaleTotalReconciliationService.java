@@ -0,0 +1,570 @@
+package com.sales.system.service.pricing;
+
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.domain.Sale;
+import com.sales.system.service.EntityChangedEvent;
+import com.sales.system.service.dto.SaleReconciliationDTO;
+import com.sales.system.service.dto.SaleReconciliationMismatchDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service comparing the total of every sale with the sum of the subtotals of its lines, and optionally repairing it.
+ * <p>
+ * A run scans the sales by ranges of {@code application.reconciliation.chunk-size} ids, in parallel, one transaction
+ * per range. The amounts are read as cents and added with {@link PricingEngine}, so the scan allocates nothing per
+ * line. The sales found are recorded in {@code sale_reconciliation_mismatch}; in {@link SaleReconciliationDTO.Mode#REPAIR
+ * REPAIR} mode the sales of a range are locked while their totals are set to the sum of their lines.
+ * <p>
+ * The ranges complete out of order: the checkpoint of the run only advances over the ranges completed without a gap,
+ * and is saved with the counters after every advance. A run stopped by a shutdown or a failure can then be resumed
+ * from its checkpoint; the ranges after it are scanned again, which is harmless since recording a mismatch is
+ * idempotent and a repaired sale no longer mismatches. Runs are coordinated within one instance of the application.
+ */
+@Service
+public class SaleTotalReconciliationService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SaleTotalReconciliationService.class);
+
+    private static final String SCAN_SQL =
+        "select s.id, cast(s.total * 100 as bigint), cast(st.subtotal * 100 as bigint) " +
+        "from sale s left join sale_transaction st on st.sale_id = s.id where s.id > ? and s.id <= ? order by s.id";
+
+    private static final String LOCKING_SCAN_SQL = SCAN_SQL + " for update of s";
+
+    private static final String REPAIR_SQL =
+        "update sale s set total = cast(m.cents as numeric) / 100 " +
+        "from unnest(cast(? as bigint[]), cast(? as bigint[])) as m(id, cents) where s.id = m.id";
+
+    private static final String MISMATCH_SQL =
+        "insert into sale_reconciliation_mismatch (reconciliation_id, sale_id, recorded_total, computed_total, repaired) " +
+        "select ?, m.id, cast(m.recorded as numeric) / 100, cast(m.computed as numeric) / 100, ? " +
+        "from unnest(cast(? as bigint[]), cast(? as bigint[]), cast(? as bigint[])) as m(id, recorded, computed) " +
+        "on conflict do nothing";
+
+    private static final String SELECT_SQL =
+        "select id, mode, status, from_id, to_id, checkpoint_id, scanned, mismatched, repaired, started_at, updated_at, " +
+        "finished_at, error from sale_reconciliation";
+
+    private static final String CHECKPOINT_SQL =
+        "update sale_reconciliation set checkpoint_id = ?, scanned = ?, mismatched = ?, repaired = ?, updated_at = ? where id = ?";
+
+    private static final String STATUS_SQL =
+        "update sale_reconciliation set status = ?, error = ?, updated_at = ?, finished_at = ? where id = ?";
+
+    /**
+     * The mismatches recorded after the checkpoint by an interrupted run are not in its counters yet.
+     */
+    private static final String RECOUNT_SQL =
+        "update sale_reconciliation r set mismatched = m.mismatched, repaired = m.repaired, status = ?, error = null, updated_at = ? " +
+        "from (select count(*) as mismatched, count(*) filter (where repaired) as repaired " +
+        "from sale_reconciliation_mismatch where reconciliation_id = ?) m where r.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ApplicationProperties.Reconciliation properties;
+
+    private final int parallelism;
+
+    private final ExecutorService coordinator;
+
+    private final AtomicReference<SaleReconciliationDTO> current = new AtomicReference<>();
+
+    private final Counter scannedCounter;
+
+    private final Counter mismatchedCounter;
+
+    private final Counter repairedCounter;
+
+    public SaleTotalReconciliationService(
+        DataSource dataSource,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = applicationProperties.getReconciliation();
+        this.parallelism = parallelism(dataSource, properties.getParallelism());
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sale-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scannedCounter = Counter.builder("sales.reconciliation.sales").tag("outcome", "scanned").register(meterRegistry);
+        this.mismatchedCounter = Counter.builder("sales.reconciliation.sales").tag("outcome", "mismatched").register(meterRegistry);
+        this.repairedCounter = Counter.builder("sales.reconciliation.sales").tag("outcome", "repaired").register(meterRegistry);
+        Gauge.builder("sales.reconciliation.progress", current, run -> run.get() != null ? run.get().getProgress() : 0)
+            .description("Share of the sale ids done by the running reconciliation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The scanning connections, keeping two of the pool for the rest of the application.
+     */
+    private static int parallelism(DataSource dataSource, int configured) {
+        int parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            parallelism = Math.min(parallelism, Math.max(1, hikariDataSource.getMaximumPoolSize() - 2));
+        }
+        return parallelism;
+    }
+
+    /**
+     * Start a reconciliation of all the existing sales, in the background.
+     *
+     * @param mode whether to repair the totals.
+     * @return the started run, or empty if a run is already in progress.
+     */
+    public Optional<SaleReconciliationDTO> start(SaleReconciliationDTO.Mode mode) {
+        LOG.debug("Request to start a {} reconciliation of the Sale totals", mode);
+        SaleReconciliationDTO run = new SaleReconciliationDTO();
+        run.setMode(mode);
+        run.setStatus(SaleReconciliationDTO.Status.RUNNING);
+        if (!current.compareAndSet(null, run)) {
+            return Optional.empty();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                run.setId(jdbcTemplate.queryForObject("select nextval('sequence_generator')", Long.class));
+                jdbcTemplate.query("select coalesce(min(id), 1) - 1, coalesce(max(id), 0) from sale", (ResultSet rs) -> {
+                    run.setFromId(rs.getLong(1));
+                    run.setToId(rs.getLong(2));
+                });
+                run.setCheckpointId(run.getFromId());
+                run.setStartedAt(Instant.now());
+                run.setUpdatedAt(run.getStartedAt());
+                jdbcTemplate.update(
+                    "insert into sale_reconciliation (id, mode, status, from_id, to_id, checkpoint_id, scanned, mismatched, repaired, " +
+                    "started_at, updated_at) values (?, ?, ?, ?, ?, ?, 0, 0, 0, ?, ?)",
+                    run.getId(),
+                    run.getMode().name(),
+                    run.getStatus().name(),
+                    run.getFromId(),
+                    run.getToId(),
+                    run.getCheckpointId(),
+                    utc(run.getStartedAt()),
+                    utc(run.getUpdatedAt())
+                );
+            });
+        } catch (RuntimeException e) {
+            current.set(null);
+            throw e;
+        }
+        coordinator.execute(() -> execute(run));
+        return Optional.of(copy(run));
+    }
+
+    /**
+     * Resume an unfinished reconciliation from its checkpoint, in the background.
+     *
+     * @param id the id of the run.
+     * @return the resumed run, or empty if a run is already in progress.
+     */
+    public Optional<SaleReconciliationDTO> resume(Long id) {
+        LOG.debug("Request to resume the reconciliation of the Sale totals : {}", id);
+        SaleReconciliationDTO placeholder = new SaleReconciliationDTO();
+        if (!current.compareAndSet(null, placeholder)) {
+            return Optional.empty();
+        }
+        SaleReconciliationDTO run;
+        try {
+            run = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(
+                    RECOUNT_SQL,
+                    SaleReconciliationDTO.Status.RUNNING.name(),
+                    utc(Instant.now()),
+                    id,
+                    id
+                );
+                return findOne(id).orElseThrow();
+            });
+        } catch (RuntimeException e) {
+            current.set(null);
+            throw e;
+        }
+        current.set(run);
+        coordinator.execute(() -> execute(run));
+        return Optional.of(copy(run));
+    }
+
+    /**
+     * Get a run, with its progress.
+     *
+     * @param id the id of the run.
+     * @return the run.
+     */
+    public Optional<SaleReconciliationDTO> findOne(Long id) {
+        SaleReconciliationDTO running = current.get();
+        if (running != null && id.equals(running.getId())) {
+            return Optional.of(copy(running));
+        }
+        return jdbcTemplate.query(SELECT_SQL + " where id = ?", this::toDto, id).stream().findFirst();
+    }
+
+    /**
+     * Get the latest runs.
+     *
+     * @param size the number of runs.
+     * @return the runs, the latest first.
+     */
+    public List<SaleReconciliationDTO> findLatest(int size) {
+        return jdbcTemplate.query(SELECT_SQL + " order by id desc limit ?", this::toDto, size);
+    }
+
+    /**
+     * Get the sales found by a run, by increasing id.
+     *
+     * @param id the id of the run.
+     * @param afterSaleId the last sale id of the previous page, or {@code null} for the first page.
+     * @param size the number of sales.
+     * @return the sales.
+     */
+    public List<SaleReconciliationMismatchDTO> findMismatches(Long id, Long afterSaleId, int size) {
+        return jdbcTemplate.query(
+            "select sale_id, recorded_total, computed_total, repaired from sale_reconciliation_mismatch " +
+            "where reconciliation_id = ? and sale_id > ? order by sale_id limit ?",
+            (rs, rowNum) -> {
+                SaleReconciliationMismatchDTO mismatch = new SaleReconciliationMismatchDTO();
+                mismatch.setSaleId(rs.getLong(1));
+                mismatch.setRecordedTotal(rs.getBigDecimal(2));
+                mismatch.setComputedTotal(rs.getBigDecimal(3));
+                mismatch.setRepaired(rs.getBoolean(4));
+                return mismatch;
+            },
+            id,
+            afterSaleId != null ? afterSaleId : Long.MIN_VALUE,
+            size
+        );
+    }
+
+    /**
+     * Scan the ranges after the checkpoint, keeping at most two ranges per connection in flight.
+     */
+    private void execute(SaleReconciliationDTO run) {
+        LOG.info("Reconciling the Sale totals in {} mode from id {} to {}", run.getMode(), run.getCheckpointId(), run.getToId());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService scanners = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "sale-reconciliation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<RangeResult> completions = new ExecutorCompletionService<>(scanners);
+        long chunkSize = Math.max(1, properties.getChunkSize());
+        TreeMap<Long, RangeResult> completed = new TreeMap<>();
+        long next = run.getCheckpointId();
+        int inFlight = 0;
+        try {
+            while (next < run.getToId() || inFlight > 0) {
+                while (next < run.getToId() && inFlight < 2 * parallelism) {
+                    long from = next;
+                    long to = Math.min(run.getToId(), from + chunkSize);
+                    completions.submit(() -> scan(run, from, to));
+                    next = to;
+                    inFlight++;
+                }
+                RangeResult result = completions.take().get();
+                inFlight--;
+                completed.put(result.from(), result);
+                if (advance(run, completed)) {
+                    saveCheckpoint(run);
+                }
+            }
+            finish(run, SaleReconciliationDTO.Status.COMPLETED, null);
+            LOG.info(
+                "Reconciled {} Sale totals: {} mismatched, {} repaired",
+                run.getScanned(),
+                run.getMismatched(),
+                run.getRepaired()
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(run, SaleReconciliationDTO.Status.INTERRUPTED, null);
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            LOG.error("Reconciliation {} of the Sale totals failed at id {}", run.getId(), run.getCheckpointId(), cause);
+            finish(run, SaleReconciliationDTO.Status.FAILED, String.valueOf(cause.getMessage()));
+        } finally {
+            scanners.shutdownNow();
+            current.compareAndSet(run, null);
+            if (run.getMode() == SaleReconciliationDTO.Mode.REPAIR) {
+                applicationEventPublisher.publishEvent(new EntityChangedEvent(Sale.class));
+            }
+        }
+    }
+
+    /**
+     * Move the checkpoint over the completed ranges that follow it.
+     *
+     * @return whether it moved.
+     */
+    private static boolean advance(SaleReconciliationDTO run, TreeMap<Long, RangeResult> completed) {
+        boolean advanced = false;
+        RangeResult result;
+        while ((result = completed.remove(run.getCheckpointId())) != null) {
+            synchronized (run) {
+                run.setCheckpointId(result.to());
+                run.setScanned(run.getScanned() + result.scanned());
+                run.setMismatched(run.getMismatched() + result.mismatched());
+                run.setRepaired(run.getRepaired() + result.repaired());
+                run.setUpdatedAt(Instant.now());
+            }
+            advanced = true;
+        }
+        return advanced;
+    }
+
+    /**
+     * Scan the sales with an id in {@code (from, to]}, in one transaction.
+     */
+    private RangeResult scan(SaleReconciliationDTO run, long from, long to) {
+        boolean repair = run.getMode() == SaleReconciliationDTO.Mode.REPAIR;
+        RangeScan scan = new RangeScan();
+        RangeResult result = transactionTemplate.execute(status -> {
+            jdbcTemplate.query(repair ? LOCKING_SCAN_SQL : SCAN_SQL, scan, from, to);
+            scan.endSale();
+            if (scan.mismatchCount == 0) {
+                return new RangeResult(from, to, scan.scanned, 0, 0);
+            }
+            Long[] saleIds = boxed(scan.saleIds, scan.mismatchCount);
+            Long[] computedCents = boxed(scan.computedCents, scan.mismatchCount);
+            if (repair) {
+                jdbcTemplate.update(REPAIR_SQL, statement -> {
+                    statement.setArray(1, statement.getConnection().createArrayOf("bigint", saleIds));
+                    statement.setArray(2, statement.getConnection().createArrayOf("bigint", computedCents));
+                });
+            }
+            int mismatched = jdbcTemplate.update(MISMATCH_SQL, statement -> {
+                statement.setLong(1, run.getId());
+                statement.setBoolean(2, repair);
+                statement.setArray(3, statement.getConnection().createArrayOf("bigint", saleIds));
+                statement.setArray(4, statement.getConnection().createArrayOf("bigint", boxed(scan.recordedCents, scan.mismatchCount)));
+                statement.setArray(5, statement.getConnection().createArrayOf("bigint", computedCents));
+            });
+            // a sale already recorded by an interrupted attempt of the run was counted when the run was resumed
+            return new RangeResult(from, to, scan.scanned, mismatched, repair ? mismatched : 0);
+        });
+        if (repair) {
+            for (int i = 0; i < scan.mismatchCount; i++) {
+                entityManagerFactory.getCache().evict(Sale.class, scan.saleIds[i]);
+            }
+        }
+        scannedCounter.increment(result.scanned());
+        mismatchedCounter.increment(result.mismatched());
+        repairedCounter.increment(result.repaired());
+        return result;
+    }
+
+    private void saveCheckpoint(SaleReconciliationDTO run) {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                CHECKPOINT_SQL,
+                run.getCheckpointId(),
+                run.getScanned(),
+                run.getMismatched(),
+                run.getRepaired(),
+                utc(run.getUpdatedAt()),
+                run.getId()
+            )
+        );
+    }
+
+    /**
+     * Save the outcome of a run, then free the way for the next one. The run is seen as running until then.
+     */
+    private void finish(SaleReconciliationDTO run, SaleReconciliationDTO.Status status, String error) {
+        Instant now = Instant.now();
+        Instant finishedAt = status == SaleReconciliationDTO.Status.COMPLETED ? now : null;
+        String savedError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.update(
+                    CHECKPOINT_SQL,
+                    run.getCheckpointId(),
+                    run.getScanned(),
+                    run.getMismatched(),
+                    run.getRepaired(),
+                    utc(now),
+                    run.getId()
+                );
+                jdbcTemplate.update(
+                    STATUS_SQL,
+                    status.name(),
+                    savedError,
+                    utc(now),
+                    finishedAt != null ? utc(finishedAt) : null,
+                    run.getId()
+                );
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not save the status of reconciliation {}: {}", run.getId(), e.getMessage());
+        }
+        current.compareAndSet(run, null);
+        synchronized (run) {
+            run.setStatus(status);
+            run.setError(savedError);
+            run.setUpdatedAt(now);
+            run.setFinishedAt(finishedAt);
+        }
+    }
+
+    private SaleReconciliationDTO toDto(ResultSet rs, int rowNum) throws SQLException {
+        SaleReconciliationDTO run = new SaleReconciliationDTO();
+        run.setId(rs.getLong("id"));
+        run.setMode(SaleReconciliationDTO.Mode.valueOf(rs.getString("mode")));
+        run.setStatus(SaleReconciliationDTO.Status.valueOf(rs.getString("status")));
+        run.setFromId(rs.getLong("from_id"));
+        run.setToId(rs.getLong("to_id"));
+        run.setCheckpointId(rs.getLong("checkpoint_id"));
+        run.setScanned(rs.getLong("scanned"));
+        run.setMismatched(rs.getLong("mismatched"));
+        run.setRepaired(rs.getLong("repaired"));
+        run.setStartedAt(instant(rs, "started_at"));
+        run.setUpdatedAt(instant(rs, "updated_at"));
+        run.setFinishedAt(instant(rs, "finished_at"));
+        run.setError(rs.getString("error"));
+        return run;
+    }
+
+    private static SaleReconciliationDTO copy(SaleReconciliationDTO run) {
+        SaleReconciliationDTO copy = new SaleReconciliationDTO();
+        synchronized (run) {
+            copy.setId(run.getId());
+            copy.setMode(run.getMode());
+            copy.setStatus(run.getStatus());
+            copy.setFromId(run.getFromId());
+            copy.setToId(run.getToId());
+            copy.setCheckpointId(run.getCheckpointId());
+            copy.setScanned(run.getScanned());
+            copy.setMismatched(run.getMismatched());
+            copy.setRepaired(run.getRepaired());
+            copy.setStartedAt(run.getStartedAt());
+            copy.setUpdatedAt(run.getUpdatedAt());
+            copy.setFinishedAt(run.getFinishedAt());
+            copy.setError(run.getError());
+        }
+        return copy;
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+
+    private static Long[] boxed(long[] values, int count) {
+        Long[] boxed = new Long[count];
+        for (int i = 0; i < count; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        coordinator.shutdownNow();
+        // let an interrupted run save its checkpoint and status
+        coordinator.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private record RangeResult(long from, long to, long scanned, long mismatched, long repaired) {}
+
+    /**
+     * Sums the lines of the scanned sales, which come ordered by sale, and keeps the sales whose total differs.
+     */
+    private static final class RangeScan implements RowCallbackHandler {
+
+        private long scanned;
+
+        private long saleId = Long.MIN_VALUE;
+
+        private long recordedTotal;
+
+        private long computedTotal;
+
+        private int mismatchCount;
+
+        private long[] saleIds = new long[16];
+
+        private long[] recordedCents = new long[16];
+
+        private long[] computedCents = new long[16];
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != saleId) {
+                endSale();
+                saleId = id;
+                recordedTotal = rs.getLong(2);
+                computedTotal = 0;
+                scanned++;
+            }
+            long subtotal = rs.getLong(3);
+            if (!rs.wasNull()) {
+                computedTotal = PricingEngine.addLine(computedTotal, subtotal);
+            }
+        }
+
+        void endSale() {
+            if (saleId == Long.MIN_VALUE || recordedTotal == computedTotal) {
+                return;
+            }
+            if (mismatchCount == saleIds.length) {
+                saleIds = Arrays.copyOf(saleIds, mismatchCount * 2);
+                recordedCents = Arrays.copyOf(recordedCents, mismatchCount * 2);
+                computedCents = Arrays.copyOf(computedCents, mismatchCount * 2);
+            }
+            saleIds[mismatchCount] = saleId;
+            recordedCents[mismatchCount] = recordedTotal;
+            computedCents[mismatchCount] = computedTotal;
+            mismatchCount++;
+            saleId = Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Money arithmetic in cents, and the reconciliation of the sale totals with their lines.
+ */
+package com.sales.system.service.pricing;
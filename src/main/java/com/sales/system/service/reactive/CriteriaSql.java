@@ -0,0 +1,160 @@
+package com.sales.system.service.reactive;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.r2dbc.core.DatabaseClient;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * The SQL conditions of a criteria, with their named parameters.
+ * <p>
+ * The filters are translated as {@link tech.jhipster.service.QueryService} does: {@code equals}, then {@code in}, are
+ * used alone when set, and all the other set operations must apply.
+ */
+final class CriteriaSql {
+
+    private final List<String> conditions = new ArrayList<>();
+
+    private final Map<String, Object> parameters;
+
+    CriteriaSql() {
+        this(new LinkedHashMap<>());
+    }
+
+    private CriteriaSql(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+
+    CriteriaSql filter(Filter<?> filter, String column) {
+        if (filter != null && !equalsOrIn(filter, column)) {
+            others(filter, column, true);
+        }
+        return this;
+    }
+
+    <T extends Comparable<? super T>> CriteriaSql range(RangeFilter<T> filter, String column) {
+        if (filter == null || equalsOrIn(filter, column)) {
+            return this;
+        }
+        others(filter, column, true);
+        if (filter.getGreaterThan() != null) {
+            conditions.add(column + " > " + bind(filter.getGreaterThan()));
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            conditions.add(column + " >= " + bind(filter.getGreaterThanOrEqual()));
+        }
+        if (filter.getLessThan() != null) {
+            conditions.add(column + " < " + bind(filter.getLessThan()));
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            conditions.add(column + " <= " + bind(filter.getLessThanOrEqual()));
+        }
+        return this;
+    }
+
+    CriteriaSql string(StringFilter filter, String column) {
+        if (filter == null || equalsOrIn(filter, column)) {
+            return this;
+        }
+        if (filter.getContains() != null) {
+            conditions.add("upper(" + column + ") like " + bind("%" + filter.getContains().toUpperCase() + "%"));
+        }
+        if (filter.getDoesNotContain() != null) {
+            conditions.add("upper(" + column + ") not like " + bind("%" + filter.getDoesNotContain().toUpperCase() + "%"));
+        }
+        others(filter, column, true);
+        return this;
+    }
+
+    /**
+     * Filter on the ids of the rows of a one-to-many relationship, with {@code exists} subqueries rather than a join
+     * that would repeat the filtered rows.
+     *
+     * @param filter the filter of the related ids.
+     * @param subquery the subquery of the related rows of the filtered row.
+     * @param column the related id column of the subquery.
+     * @return this.
+     */
+    CriteriaSql exists(Filter<?> filter, String subquery, String column) {
+        if (filter == null) {
+            return this;
+        }
+        CriteriaSql related = new CriteriaSql(parameters);
+        if (!related.equalsOrIn(filter, column)) {
+            related.others(filter, column, false);
+        }
+        if (Boolean.FALSE.equals(filter.getSpecified())) {
+            conditions.add("not exists (" + subquery + ")");
+        }
+        if (!related.conditions.isEmpty() || Boolean.TRUE.equals(filter.getSpecified())) {
+            conditions.add("exists (" + subquery + related.conditions.stream().map(" and "::concat).reduce("", String::concat) + ")");
+        }
+        return this;
+    }
+
+    CriteriaSql and(String column, String operator, Object value) {
+        conditions.add(column + " " + operator + " " + bind(value));
+        return this;
+    }
+
+    String where() {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    String bind(Object value) {
+        String name = "p" + parameters.size();
+        // the timestamps are stored in UTC, without time zone
+        parameters.put(name, value instanceof Instant instant ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : value);
+        return ":" + name;
+    }
+
+    DatabaseClient.GenericExecuteSpec bindTo(DatabaseClient.GenericExecuteSpec spec) {
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec;
+    }
+
+    private boolean equalsOrIn(Filter<?> filter, String column) {
+        if (filter.getEquals() != null) {
+            conditions.add(column + " = " + bind(filter.getEquals()));
+            return true;
+        }
+        if (filter.getIn() != null) {
+            conditions.add(in(column, filter.getIn()));
+            return true;
+        }
+        return false;
+    }
+
+    private void others(Filter<?> filter, String column, boolean specified) {
+        if (specified && filter.getSpecified() != null) {
+            conditions.add(column + (filter.getSpecified() ? " is not null" : " is null"));
+        }
+        if (filter.getNotEquals() != null) {
+            conditions.add(column + " <> " + bind(filter.getNotEquals()));
+        }
+        if (filter.getNotIn() != null) {
+            conditions.add("not " + in(column, filter.getNotIn()));
+        }
+    }
+
+    private String in(String column, Collection<?> values) {
+        if (values.isEmpty()) {
+            return "(false)";
+        }
+        List<String> names = new ArrayList<>(values.size());
+        for (Object value : values) {
+            names.add(bind(value));
+        }
+        return "(" + column + " in (" + String.join(", ", names) + "))";
+    }
+}
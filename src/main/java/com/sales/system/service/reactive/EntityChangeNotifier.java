@@ -0,0 +1,62 @@
+package com.sales.system.service.reactive;
+
+import com.sales.system.service.EntityChangedEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Versions of the rows of each entity, incremented when an {@link EntityChangedEvent} is committed, so that the long
+ * polls wait for a change without holding a thread nor a connection.
+ * <p>
+ * Only the changes made by this instance are seen: the polls of a change made by another one return when they time out.
+ */
+@Component
+public class EntityChangeNotifier {
+
+    private final Map<Class<?>, Versions> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Return the current version of the rows of an entity.
+     *
+     * @param entityType the entity.
+     * @return the version.
+     */
+    public long version(Class<?> entityType) {
+        return versions(entityType).version;
+    }
+
+    /**
+     * Wait for the rows of an entity to change.
+     *
+     * @param entityType the entity.
+     * @param version the version last seen.
+     * @return a {@link Mono} completing with the first version newer than the given one.
+     */
+    public Mono<Long> changedAfter(Class<?> entityType, long version) {
+        return versions(entityType).sink.asFlux().filter(changed -> changed > version).next();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Versions changed = versions(event.entityType());
+        synchronized (changed) {
+            changed.version++;
+            changed.sink.tryEmitNext(changed.version);
+        }
+    }
+
+    private Versions versions(Class<?> entityType) {
+        return versions.computeIfAbsent(entityType, type -> new Versions());
+    }
+
+    private static final class Versions {
+
+        private final Sinks.Many<Long> sink = Sinks.many().replay().latestOrDefault(0L);
+
+        private volatile long version;
+    }
+}
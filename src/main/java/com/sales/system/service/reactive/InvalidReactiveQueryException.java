@@ -0,0 +1,13 @@
+package com.sales.system.service.reactive;
+
+/**
+ * Thrown when a query of the reactive read API cannot be run, such as when it sorts on an unknown property.
+ */
+public class InvalidReactiveQueryException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidReactiveQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,144 @@
+package com.sales.system.service.reactive;
+
+import io.r2dbc.spi.Readable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.jhipster.service.Criteria;
+
+/**
+ * Base of the services executing criteria queries through R2DBC: the rows are read as they are requested, without
+ * holding a thread for the duration of the query.
+ *
+ * @param <CRITERIA> the criteria of the entity.
+ * @param <DTO> the DTO of the entity.
+ */
+public abstract class ReactiveQueryService<CRITERIA extends Criteria, DTO> {
+
+    private final DatabaseClient databaseClient;
+
+    private final EntityChangeNotifier entityChangeNotifier;
+
+    private final Class<?> entityType;
+
+    private final String select;
+
+    private final String count;
+
+    private final String idColumn;
+
+    private final Map<String, String> sortColumns;
+
+    /**
+     * @param select the select of the rows, to which the conditions are appended.
+     * @param count the count of the rows, to which the conditions are appended.
+     * @param idColumn the id column, the last sort column of every query.
+     * @param sortColumns the columns of the sortable properties.
+     */
+    protected ReactiveQueryService(
+        DatabaseClient databaseClient,
+        EntityChangeNotifier entityChangeNotifier,
+        Class<?> entityType,
+        String select,
+        String count,
+        String idColumn,
+        Map<String, String> sortColumns
+    ) {
+        this.databaseClient = databaseClient;
+        this.entityChangeNotifier = entityChangeNotifier;
+        this.entityType = entityType;
+        this.select = select;
+        this.count = count;
+        this.idColumn = idColumn;
+        this.sortColumns = sortColumns;
+    }
+
+    /**
+     * Return the matching DTOs, streamed from the database as they are requested.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned, or an unpaged {@link Pageable} for all the matches.
+     * @return the matching entities.
+     */
+    public Flux<DTO> findByCriteria(CRITERIA criteria, Pageable page) {
+        CriteriaSql sql = createSql(criteria);
+        StringBuilder query = new StringBuilder(select).append(sql.where()).append(orderBy(page.getSort()));
+        if (page.isPaged()) {
+            query.append(" limit ").append(sql.bind(page.getPageSize())).append(" offset ").append(sql.bind(page.getOffset()));
+        }
+        return sql.bindTo(databaseClient.sql(query.toString())).map(this::toDto).all();
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    public Mono<Long> countByCriteria(CRITERIA criteria) {
+        CriteriaSql sql = createSql(criteria);
+        return sql.bindTo(databaseClient.sql(count + sql.where())).map(row -> row.get(0, Long.class)).one();
+    }
+
+    /**
+     * Long poll the matching entities created after a given one: return them as soon as there are some, or wait for the
+     * entity rows to change, at most until the timeout.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id after which the entities are returned.
+     * @param limit The maximum number of returned entities.
+     * @param timeout The maximum wait.
+     * @return the matching entities, by id, or an empty list when none was created before the timeout.
+     */
+    public Mono<List<DTO>> poll(CRITERIA criteria, long afterId, int limit, Duration timeout) {
+        Mono<List<DTO>> attempt = Mono.defer(() -> {
+            long version = entityChangeNotifier.version(entityType);
+            CriteriaSql sql = createSql(criteria).and(idColumn, ">", afterId);
+            String query = select + sql.where() + " order by " + idColumn + " limit " + sql.bind(limit);
+            return sql
+                .bindTo(databaseClient.sql(query))
+                .map(this::toDto)
+                .all()
+                .collectList()
+                .filter(found -> !found.isEmpty())
+                // the rows changed during the query are seen at once, the version being newer
+                .switchIfEmpty(entityChangeNotifier.changedAfter(entityType, version).then(Mono.empty()));
+        });
+        return attempt.repeatWhenEmpty(changes -> changes).timeout(timeout, Mono.just(List.of()));
+    }
+
+    /**
+     * Convert a criteria to its SQL conditions.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the conditions.
+     */
+    protected abstract CriteriaSql createSql(CRITERIA criteria);
+
+    /**
+     * Read a row of the select.
+     * @param row the row.
+     * @return its DTO.
+     */
+    protected abstract DTO toDto(Readable row);
+
+    private String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = sortColumns.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidReactiveQueryException("Cannot sort by " + order.getProperty());
+            }
+            orders.add(column + (order.isAscending() ? " asc" : " desc"));
+            byId |= column.equals(idColumn);
+        }
+        if (!byId) {
+            // a total order, so that the pages neither repeat nor skip rows
+            orders.add(idColumn + " asc");
+        }
+        return " order by " + String.join(", ", orders);
+    }
+}
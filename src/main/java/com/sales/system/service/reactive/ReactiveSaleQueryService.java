@@ -0,0 +1,93 @@
+package com.sales.system.service.reactive;
+
+import com.sales.system.domain.Sale;
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.dto.ClientDTO;
+import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SellerDTO;
+import io.r2dbc.spi.Readable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for executing complex queries for {@link Sale} entities in the database, through R2DBC.
+ * The main input is a {@link SaleCriteria}, with the same meaning as in {@link com.sales.system.service.SaleQueryService}:
+ * the {@code transactionsId} filter matches each sale once, as with {@code distinct}.
+ */
+@Service
+public class ReactiveSaleQueryService extends ReactiveQueryService<SaleCriteria, SaleDTO> {
+
+    private static final String SELECT_SQL =
+        "select s.id, s.creation_date, s.total, s.client_id, c.name as client_name, s.seller_id, " +
+        "e.employee_code as seller_employee_code from sale s " +
+        "left join client c on c.id = s.client_id left join seller e on e.id = s.seller_id";
+
+    private static final String COUNT_SQL = "select count(*) from sale s";
+
+    private static final String TRANSACTIONS_SQL = "select 1 from sale_transaction st where st.sale_id = s.id";
+
+    public ReactiveSaleQueryService(DatabaseClient databaseClient, EntityChangeNotifier entityChangeNotifier) {
+        super(
+            databaseClient,
+            entityChangeNotifier,
+            Sale.class,
+            SELECT_SQL,
+            COUNT_SQL,
+            "s.id",
+            Map.of(
+                "id",
+                "s.id",
+                "creationDate",
+                "s.creation_date",
+                "total",
+                "s.total",
+                "client.id",
+                "s.client_id",
+                "seller.id",
+                "s.seller_id"
+            )
+        );
+    }
+
+    @Override
+    protected CriteriaSql createSql(SaleCriteria criteria) {
+        CriteriaSql sql = new CriteriaSql();
+        if (criteria != null) {
+            sql
+                .range(criteria.getId(), "s.id")
+                .range(criteria.getCreationDate(), "s.creation_date")
+                .range(criteria.getTotal(), "s.total")
+                .exists(criteria.getTransactionsId(), TRANSACTIONS_SQL, "st.id")
+                .filter(criteria.getClientId(), "s.client_id")
+                .filter(criteria.getSellerId(), "s.seller_id");
+        }
+        return sql;
+    }
+
+    @Override
+    protected SaleDTO toDto(Readable row) {
+        SaleDTO sale = new SaleDTO();
+        sale.setId(row.get("id", Long.class));
+        sale.setCreationDate(row.get("creation_date", LocalDateTime.class).toInstant(ZoneOffset.UTC));
+        sale.setTotal(row.get("total", BigDecimal.class));
+        Long clientId = row.get("client_id", Long.class);
+        if (clientId != null) {
+            ClientDTO client = new ClientDTO();
+            client.setId(clientId);
+            client.setName(row.get("client_name", String.class));
+            sale.setClient(client);
+        }
+        Long sellerId = row.get("seller_id", Long.class);
+        if (sellerId != null) {
+            SellerDTO seller = new SellerDTO();
+            seller.setId(sellerId);
+            seller.setEmployeeCode(row.get("seller_employee_code", String.class));
+            sale.setSeller(seller);
+        }
+        return sale;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sales.system.service.reactive;
+
+import com.sales.system.domain.TransactionLog;
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import com.sales.system.service.dto.TransactionLogDTO;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for executing complex queries for {@link TransactionLog} entities in the database, through R2DBC.
+ * The main input is a {@link TransactionLogCriteria}, with the same meaning as in
+ * {@link com.sales.system.service.TransactionLogQueryService}. Like the exports, it only reads the transaction logs
+ * still in the database, not the archived ones.
+ */
+@Service
+public class ReactiveTransactionLogQueryService extends ReactiveQueryService<TransactionLogCriteria, TransactionLogDTO> {
+
+    private static final String SELECT_SQL =
+        "select t.id, t.timestamp, t.operation_type, t.field_changed, t.sale_transaction_id from transaction_log t";
+
+    private static final String COUNT_SQL = "select count(*) from transaction_log t";
+
+    public ReactiveTransactionLogQueryService(DatabaseClient databaseClient, EntityChangeNotifier entityChangeNotifier) {
+        super(
+            databaseClient,
+            entityChangeNotifier,
+            TransactionLog.class,
+            SELECT_SQL,
+            COUNT_SQL,
+            "t.id",
+            Map.of(
+                "id",
+                "t.id",
+                "timestamp",
+                "t.timestamp",
+                "operationType",
+                "t.operation_type",
+                "fieldChanged",
+                "t.field_changed",
+                "modifiedBy",
+                "t.modified_by",
+                "saleTransaction.id",
+                "t.sale_transaction_id",
+                "saleTransactionId",
+                "t.sale_transaction_id"
+            )
+        );
+    }
+
+    @Override
+    protected CriteriaSql createSql(TransactionLogCriteria criteria) {
+        CriteriaSql sql = new CriteriaSql();
+        if (criteria != null) {
+            sql
+                .range(criteria.getId(), "t.id")
+                .range(criteria.getTimestamp(), "t.timestamp")
+                .string(criteria.getOperationType(), "t.operation_type")
+                .string(criteria.getFieldChanged(), "t.field_changed")
+                .string(criteria.getModifiedBy(), "t.modified_by")
+                .filter(criteria.getSaleTransactionId(), "t.sale_transaction_id");
+        }
+        return sql;
+    }
+
+    @Override
+    protected TransactionLogDTO toDto(Readable row) {
+        TransactionLogDTO transactionLog = new TransactionLogDTO();
+        transactionLog.setId(row.get("id", Long.class));
+        transactionLog.setTimestamp(row.get("timestamp", LocalDateTime.class).toInstant(ZoneOffset.UTC));
+        transactionLog.setOperationType(row.get("operation_type", String.class));
+        transactionLog.setFieldChanged(row.get("field_changed", String.class));
+        transactionLog.setSaleTransactionId(row.get("sale_transaction_id", Long.class));
+        return transactionLog;
+    }
+}
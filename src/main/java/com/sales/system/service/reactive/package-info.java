@@ -0,0 +1,4 @@
+/**
+ * Non-blocking reads of the sales and transaction logs, through R2DBC.
+ */
+package com.sales.system.service.reactive;
@@ -0,0 +1,98 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.service.analytics.Dimension;
+import com.sales.system.service.analytics.SalesAnalyticsQuery;
+import com.sales.system.service.analytics.SalesAnalyticsService;
+import com.sales.system.service.dto.SalesAnalyticsResultDTO;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the sales analytics.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsResource.class);
+
+    private static final String ENTITY_NAME = "analytics";
+
+    private static final int DEFAULT_LIMIT = 1000;
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsResource(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    /**
+     * {@code GET  /analytics/sales} : aggregate the sales lines by group.
+     * <p>
+     * The answer is computed on an in-memory snapshot of the sales, which lags behind the database by up to
+     * {@code application.analytics.refresh-interval-ms} for new sales.
+     *
+     * @param groupBy the dimensions to group by, among {@code seller}, {@code client}, {@code product}, {@code category}
+     * and {@code day}; none for a grand total.
+     * @param sellerIds the sellers to keep, all if empty.
+     * @param clientIds the clients to keep, all if empty.
+     * @param productIds the products to keep, all if empty.
+     * @param categories the product categories to keep, all if empty.
+     * @param from the first day to keep (UTC).
+     * @param to the last day to keep (UTC).
+     * @param limit the maximum number of groups returned, with the highest revenue first.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the groups in body,
+     * or with status {@code 503 (Service Unavailable)} while the sales are still being loaded.
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<SalesAnalyticsResultDTO> aggregateSales(
+        @RequestParam(name = "groupBy", required = false) List<String> groupBy,
+        @RequestParam(name = "sellerId", required = false) Set<Long> sellerIds,
+        @RequestParam(name = "clientId", required = false) Set<Long> clientIds,
+        @RequestParam(name = "productId", required = false) Set<Long> productIds,
+        @RequestParam(name = "category", required = false) Set<String> categories,
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(name = "limit", defaultValue = "" + DEFAULT_LIMIT) int limit
+    ) {
+        LOG.debug("REST request to aggregate Sales by {}", groupBy);
+        if (limit < 0) {
+            throw new BadRequestAlertException("The limit cannot be negative", ENTITY_NAME, "invalidlimit");
+        }
+        SalesAnalyticsQuery query = new SalesAnalyticsQuery(
+            parseDimensions(groupBy),
+            sellerIds,
+            clientIds,
+            productIds,
+            categories,
+            from,
+            to,
+            limit
+        );
+        return ResponseEntity.ok().body(salesAnalyticsService.aggregate(query));
+    }
+
+    private static List<Dimension> parseDimensions(List<String> groupBy) {
+        Set<Dimension> dimensions = new LinkedHashSet<>();
+        if (groupBy != null) {
+            for (String name : groupBy) {
+                try {
+                    dimensions.add(Dimension.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new BadRequestAlertException("Invalid group-by dimension: " + name, ENTITY_NAME, "invalidgroupby");
+                }
+            }
+        }
+        return new ArrayList<>(dimensions);
+    }
+}
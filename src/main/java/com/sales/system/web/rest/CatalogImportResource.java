@@ -0,0 +1,70 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.security.AuthoritiesConstants;
+import com.sales.system.service.catalog.CatalogImportService;
+import com.sales.system.service.dto.CatalogImportReportDTO;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the CSV imports of the products, clients and sellers.
+ */
+@RestController
+@RequestMapping("/api/admin/catalog-imports")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class CatalogImportResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogImportResource.class);
+
+    private static final String ENTITY_NAME = "catalogImport";
+
+    private final CatalogImportService catalogImportService;
+
+    public CatalogImportResource(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    /**
+     * {@code POST  /admin/catalog-imports/:catalog} : insert or update products, clients or sellers from a CSV file.
+     * <p>
+     * The request body is the file, with a header; it may be gzip-compressed, in which case the request must carry
+     * {@code Content-Encoding: gzip}. The valid rows are imported and the others are listed in the report.
+     *
+     * @param catalog {@code products}, {@code clients} or {@code sellers}.
+     * @param dryRun whether to only validate the file and report what the import would do.
+     * @param request the HTTP request, whose body is read as a stream.
+     * @return the report, with status {@code 200 (OK)},
+     * or with status {@code 400 (Bad Request)} if the header or the CSV syntax is invalid.
+     */
+    @PostMapping(value = "/{catalog}", consumes = { "text/csv", "text/plain", "application/octet-stream" })
+    public CatalogImportReportDTO importCatalog(
+        @PathVariable("catalog") String catalog,
+        @RequestParam(name = "dryRun", defaultValue = "false") boolean dryRun,
+        HttpServletRequest request
+    ) throws IOException, SQLException {
+        LOG.debug("REST request to import {} from CSV, dry run: {}", catalog, dryRun);
+        CatalogImportService.Catalog parsed = parseCatalog(catalog);
+        boolean gzip = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream input = gzip ? new GZIPInputStream(request.getInputStream(), 64 * 1024) : request.getInputStream()) {
+            return catalogImportService.importCsv(parsed, input, dryRun);
+        }
+    }
+
+    private static CatalogImportService.Catalog parseCatalog(String catalog) {
+        try {
+            return CatalogImportService.Catalog.valueOf(catalog.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid catalog: " + catalog, ENTITY_NAME, "invalidcatalog");
+        }
+    }
+}
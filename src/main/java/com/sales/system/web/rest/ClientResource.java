@@ -1,11 +1,19 @@
 package com.sales.system.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sales.system.domain.Client;
 import com.sales.system.repository.ClientRepository;
 import com.sales.system.service.ClientQueryService;
 import com.sales.system.service.ClientService;
+import com.sales.system.service.EntityTagService;
+import com.sales.system.service.KeysetPage;
+import com.sales.system.service.TotalCount;
 import com.sales.system.service.criteria.ClientCriteria;
 import com.sales.system.service.dto.ClientDTO;
 import com.sales.system.web.rest.errors.BadRequestAlertException;
+import com.sales.system.web.rest.util.EntityVersionUtil;
+import com.sales.system.web.rest.util.KeysetPaginationUtil;
+import com.sales.system.web.rest.util.TotalCountPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -18,9 +26,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -46,10 +56,18 @@ public class ClientResource {
 
     private final ClientQueryService clientQueryService;
 
-    public ClientResource(ClientService clientService, ClientRepository clientRepository, ClientQueryService clientQueryService) {
+    private final EntityTagService entityTagService;
+
+    public ClientResource(
+        ClientService clientService,
+        ClientRepository clientRepository,
+        ClientQueryService clientQueryService,
+        EntityTagService entityTagService
+    ) {
         this.clientService = clientService;
         this.clientRepository = clientRepository;
         this.clientQueryService = clientQueryService;
+        this.entityTagService = entityTagService;
     }
 
     /**
@@ -76,15 +94,18 @@ public class ClientResource {
      *
      * @param id the id of the clientDTO to save.
      * @param clientDTO the clientDTO to update.
+     * @param ifMatch the entity tag of the client, if the clientDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated clientDTO,
      * or with status {@code 400 (Bad Request)} if the clientDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the client was updated since,
      * or with status {@code 500 (Internal Server Error)} if the clientDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ClientDTO> updateClient(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody ClientDTO clientDTO
+        @Valid @RequestBody ClientDTO clientDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Client : {}, {}", id, clientDTO);
         if (clientDTO.getId() == null) {
@@ -93,12 +114,11 @@ public class ClientResource {
         if (!Objects.equals(id, clientDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        clientDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, clientDTO.getVersion(), ENTITY_NAME));
 
-        if (!clientRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        clientDTO = clientService.update(clientDTO);
+        clientDTO = clientService
+            .update(clientDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, clientDTO.getId().toString()))
             .body(clientDTO);
@@ -109,16 +129,18 @@ public class ClientResource {
      *
      * @param id the id of the clientDTO to save.
      * @param clientDTO the clientDTO to update.
+     * @param ifMatch the entity tag of the client, if the clientDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated clientDTO,
      * or with status {@code 400 (Bad Request)} if the clientDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the clientDTO is not found,
+     * or with status {@code 409 (Conflict)} if the client was updated since,
      * or with status {@code 500 (Internal Server Error)} if the clientDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/{id}", consumes = "application/json")
     public ResponseEntity<ClientDTO> partialUpdateClient(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody ClientDTO clientDTO
+        @NotNull @RequestBody ClientDTO clientDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Client partially : {}, {}", id, clientDTO);
         if (clientDTO.getId() == null) {
@@ -127,17 +149,47 @@ public class ClientResource {
         if (!Objects.equals(id, clientDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        clientDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, clientDTO.getVersion(), ENTITY_NAME));
+
+        ClientDTO result = clientService
+            .partialUpdate(clientDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        if (!clientRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, clientDTO.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code PATCH  /clients/:id} : Applies a JSON merge patch (RFC 7396) to an existing client: the members of the
+     * patch replace the fields of the same name, and the {@code null} ones clear them.
+     *
+     * @param id the id of the client to patch.
+     * @param patch the merge patch, whose {@code version}, if any, is the one the client was read at.
+     * @param ifMatch the entity tag of the client, if the patch has no version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched clientDTO,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid, or the client is not found,
+     * or with status {@code 409 (Conflict)} if the client was updated since.
+     */
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<ClientDTO> mergePatchClient(
+        @PathVariable(value = "id") final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        LOG.debug("REST request to merge patch Client : {}, {}", id, patch);
+        if (patch.hasNonNull("id") && patch.get("id").asLong() != id) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        patch = EntityVersionUtil.resolveVersion(ifMatch, patch, ENTITY_NAME);
 
-        Optional<ClientDTO> result = clientService.partialUpdate(clientDTO);
+        ClientDTO result = clientService
+            .mergePatch(id, patch)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, clientDTO.getId().toString())
-        );
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
     }
 
     /**
@@ -145,17 +197,47 @@ public class ClientResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor if present, switches to keyset pagination: empty for the first page, then the cursor of the {@code next} link.
+     * @param count how the {@code X-Total-Count} header is produced: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of clients in body.
      */
     @GetMapping("")
     public ResponseEntity<List<ClientDTO>> getAllClients(
         ClientCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count,
+        WebRequest request
     ) {
         LOG.debug("REST request to get Clients by criteria: {}", criteria);
+        if (request.checkNotModified(entityTagService.collectionTag(Client.class))) {
+            return null;
+        }
+        if (cursor != null) {
+            KeysetPage<ClientDTO> keysetPage = clientQueryService.findByCriteria(criteria, cursor, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keysetPage
+            );
+            return ResponseEntity.ok().headers(headers).body(keysetPage.content());
+        }
+
+        TotalCount.Mode countMode = TotalCountPaginationUtil.parseMode(count);
+        if (countMode != TotalCount.Mode.EXACT) {
+            Slice<ClientDTO> slice = clientQueryService.findSliceByCriteria(criteria, pageable);
+            TotalCount total = countMode == TotalCount.Mode.NONE ? null : clientQueryService.countByCriteria(criteria, countMode);
+            HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                total
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
 
         Page<ClientDTO> page = clientQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.add(TotalCountPaginationUtil.HEADER_TOTAL_COUNT_MODE, "exact");
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -163,23 +245,34 @@ public class ClientResource {
      * {@code GET  /clients/count} : count all the clients.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param count how the count is produced: {@code exact} (default), {@code cached} or {@code estimated}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, with the mode that produced it
+     * in the {@code X-Total-Count-Mode} header.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countClients(ClientCriteria criteria) {
+    public ResponseEntity<Long> countClients(
+        ClientCriteria criteria,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to count Clients by criteria: {}", criteria);
-        return ResponseEntity.ok().body(clientQueryService.countByCriteria(criteria));
+        TotalCount total = clientQueryService.countByCriteria(criteria, TotalCountPaginationUtil.parseMode(count));
+        return ResponseEntity.ok().headers(TotalCountPaginationUtil.generateTotalCountModeHttpHeaders(total.mode())).body(total.value());
     }
 
     /**
      * {@code GET  /clients/:id} : get the "id" client.
      *
      * @param id the id of the clientDTO to retrieve.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the clientDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ClientDTO> getClient(@PathVariable("id") Long id) {
+    public ResponseEntity<ClientDTO> getClient(@PathVariable("id") Long id, WebRequest request) {
         LOG.debug("REST request to get Client : {}", id);
+        Optional<String> entityTag = clientRepository.findEntityTagById(id);
+        if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+            return null;
+        }
         Optional<ClientDTO> clientDTO = clientService.findOne(id);
         return ResponseUtil.wrapOrNotFound(clientDTO);
     }
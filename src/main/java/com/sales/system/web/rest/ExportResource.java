@@ -0,0 +1,112 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.service.SalesExportService;
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the full exports of {@link com.sales.system.domain.Sale} and {@link com.sales.system.domain.TransactionLog}.
+ * <p>
+ * The rows are written to the response while they are read from the database, in the request thread, so an export is
+ * not bound by the asynchronous request timeout. The response is gzip-compressed when the client accepts it.
+ */
+@RestController
+@RequestMapping("/api")
+public class ExportResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportResource.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SalesExportService salesExportService;
+
+    public ExportResource(SalesExportService salesExportService) {
+        this.salesExportService = salesExportService;
+    }
+
+    /**
+     * {@code GET  /sales/export} : export all the sales matching the criteria, with their transactions.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param format {@code csv}, with one row per transaction, or {@code ndjson}, with one sale per line.
+     * @param request the HTTP request.
+     * @param response the HTTP response, with status {@code 200 (OK)} and the sales in body,
+     * or with status {@code 400 (Bad Request)} if the format is unknown.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/sales/export")
+    public void exportSales(
+        SaleCriteria criteria,
+        @RequestParam(name = "format", defaultValue = "csv") String format,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        LOG.debug("REST request to export Sales by criteria: {}", criteria);
+        SalesExportService.Format exportFormat = parseFormat(format, "sale");
+        try (OutputStream output = open(request, response, exportFormat, "sales")) {
+            salesExportService.exportSales(criteria, exportFormat, output);
+        }
+    }
+
+    /**
+     * {@code GET  /transaction-logs/export} : export all the transaction logs matching the criteria.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param format {@code csv} or {@code ndjson}.
+     * @param request the HTTP request.
+     * @param response the HTTP response, with status {@code 200 (OK)} and the transaction logs in body,
+     * or with status {@code 400 (Bad Request)} if the format is unknown.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/transaction-logs/export")
+    public void exportTransactionLogs(
+        TransactionLogCriteria criteria,
+        @RequestParam(name = "format", defaultValue = "csv") String format,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        LOG.debug("REST request to export TransactionLogs by criteria: {}", criteria);
+        SalesExportService.Format exportFormat = parseFormat(format, "transactionLog");
+        try (OutputStream output = open(request, response, exportFormat, "transaction-logs")) {
+            salesExportService.exportTransactionLogs(criteria, exportFormat, output);
+        }
+    }
+
+    private static OutputStream open(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        SalesExportService.Format format,
+        String fileName
+    ) throws IOException {
+        response.setContentType(format.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + format.extension() + "\"");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            // with a Content-Encoding already set, the server compression leaves the response alone
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+    }
+
+    private static SalesExportService.Format parseFormat(String format, String entityName) {
+        try {
+            return SalesExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid export format: " + format, entityName, "invalidformat");
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.sales.system.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sales.system.domain.Product;
 import com.sales.system.repository.ProductRepository;
+import com.sales.system.service.EntityTagService;
+import com.sales.system.service.KeysetPage;
 import com.sales.system.service.ProductQueryService;
 import com.sales.system.service.ProductService;
+import com.sales.system.service.TotalCount;
 import com.sales.system.service.criteria.ProductCriteria;
 import com.sales.system.service.dto.ProductDTO;
 import com.sales.system.web.rest.errors.BadRequestAlertException;
+import com.sales.system.web.rest.util.EntityVersionUtil;
+import com.sales.system.web.rest.util.KeysetPaginationUtil;
+import com.sales.system.web.rest.util.TotalCountPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -18,9 +26,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -46,10 +56,18 @@ public class ProductResource {
 
     private final ProductQueryService productQueryService;
 
-    public ProductResource(ProductService productService, ProductRepository productRepository, ProductQueryService productQueryService) {
+    private final EntityTagService entityTagService;
+
+    public ProductResource(
+        ProductService productService,
+        ProductRepository productRepository,
+        ProductQueryService productQueryService,
+        EntityTagService entityTagService
+    ) {
         this.productService = productService;
         this.productRepository = productRepository;
         this.productQueryService = productQueryService;
+        this.entityTagService = entityTagService;
     }
 
     /**
@@ -76,15 +94,18 @@ public class ProductResource {
      *
      * @param id the id of the productDTO to save.
      * @param productDTO the productDTO to update.
+     * @param ifMatch the entity tag of the product, if the productDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productDTO,
      * or with status {@code 400 (Bad Request)} if the productDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the product was updated since,
      * or with status {@code 500 (Internal Server Error)} if the productDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody ProductDTO productDTO
+        @Valid @RequestBody ProductDTO productDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Product : {}, {}", id, productDTO);
         if (productDTO.getId() == null) {
@@ -93,12 +114,11 @@ public class ProductResource {
         if (!Objects.equals(id, productDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        productDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, productDTO.getVersion(), ENTITY_NAME));
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        productDTO = productService.update(productDTO);
+        productDTO = productService
+            .update(productDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, productDTO.getId().toString()))
             .body(productDTO);
@@ -109,16 +129,18 @@ public class ProductResource {
      *
      * @param id the id of the productDTO to save.
      * @param productDTO the productDTO to update.
+     * @param ifMatch the entity tag of the product, if the productDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productDTO,
      * or with status {@code 400 (Bad Request)} if the productDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the productDTO is not found,
+     * or with status {@code 409 (Conflict)} if the product was updated since,
      * or with status {@code 500 (Internal Server Error)} if the productDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/{id}", consumes = "application/json")
     public ResponseEntity<ProductDTO> partialUpdateProduct(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody ProductDTO productDTO
+        @NotNull @RequestBody ProductDTO productDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Product partially : {}, {}", id, productDTO);
         if (productDTO.getId() == null) {
@@ -127,17 +149,47 @@ public class ProductResource {
         if (!Objects.equals(id, productDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        productDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, productDTO.getVersion(), ENTITY_NAME));
+
+        ProductDTO result = productService
+            .partialUpdate(productDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, productDTO.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code PATCH  /products/:id} : Applies a JSON merge patch (RFC 7396) to an existing product: the members of the
+     * patch replace the fields of the same name, and the {@code null} ones clear them.
+     *
+     * @param id the id of the product to patch.
+     * @param patch the merge patch, whose {@code version}, if any, is the one the product was read at.
+     * @param ifMatch the entity tag of the product, if the patch has no version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched productDTO,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid, or the product is not found,
+     * or with status {@code 409 (Conflict)} if the product was updated since.
+     */
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<ProductDTO> mergePatchProduct(
+        @PathVariable(value = "id") final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        LOG.debug("REST request to merge patch Product : {}, {}", id, patch);
+        if (patch.hasNonNull("id") && patch.get("id").asLong() != id) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        patch = EntityVersionUtil.resolveVersion(ifMatch, patch, ENTITY_NAME);
 
-        Optional<ProductDTO> result = productService.partialUpdate(productDTO);
+        ProductDTO result = productService
+            .mergePatch(id, patch)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, productDTO.getId().toString())
-        );
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
     }
 
     /**
@@ -145,17 +197,47 @@ public class ProductResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor if present, switches to keyset pagination: empty for the first page, then the cursor of the {@code next} link.
+     * @param count how the {@code X-Total-Count} header is produced: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
      */
     @GetMapping("")
     public ResponseEntity<List<ProductDTO>> getAllProducts(
         ProductCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count,
+        WebRequest request
     ) {
         LOG.debug("REST request to get Products by criteria: {}", criteria);
+        if (request.checkNotModified(entityTagService.collectionTag(Product.class))) {
+            return null;
+        }
+        if (cursor != null) {
+            KeysetPage<ProductDTO> keysetPage = productQueryService.findByCriteria(criteria, cursor, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keysetPage
+            );
+            return ResponseEntity.ok().headers(headers).body(keysetPage.content());
+        }
+
+        TotalCount.Mode countMode = TotalCountPaginationUtil.parseMode(count);
+        if (countMode != TotalCount.Mode.EXACT) {
+            Slice<ProductDTO> slice = productQueryService.findSliceByCriteria(criteria, pageable);
+            TotalCount total = countMode == TotalCount.Mode.NONE ? null : productQueryService.countByCriteria(criteria, countMode);
+            HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                total
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
 
         Page<ProductDTO> page = productQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.add(TotalCountPaginationUtil.HEADER_TOTAL_COUNT_MODE, "exact");
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -163,23 +245,34 @@ public class ProductResource {
      * {@code GET  /products/count} : count all the products.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param count how the count is produced: {@code exact} (default), {@code cached} or {@code estimated}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, with the mode that produced it
+     * in the {@code X-Total-Count-Mode} header.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countProducts(ProductCriteria criteria) {
+    public ResponseEntity<Long> countProducts(
+        ProductCriteria criteria,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to count Products by criteria: {}", criteria);
-        return ResponseEntity.ok().body(productQueryService.countByCriteria(criteria));
+        TotalCount total = productQueryService.countByCriteria(criteria, TotalCountPaginationUtil.parseMode(count));
+        return ResponseEntity.ok().headers(TotalCountPaginationUtil.generateTotalCountModeHttpHeaders(total.mode())).body(total.value());
     }
 
     /**
      * {@code GET  /products/:id} : get the "id" product.
      *
      * @param id the id of the productDTO to retrieve.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the productDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProduct(@PathVariable("id") Long id) {
+    public ResponseEntity<ProductDTO> getProduct(@PathVariable("id") Long id, WebRequest request) {
         LOG.debug("REST request to get Product : {}", id);
+        Optional<String> entityTag = productRepository.findEntityTagById(id);
+        if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+            return null;
+        }
         Optional<ProductDTO> productDTO = productService.findOne(id);
         return ResponseUtil.wrapOrNotFound(productDTO);
     }
@@ -0,0 +1,99 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.reactive.ReactiveSaleQueryService;
+import java.time.Duration;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for reading {@link com.sales.system.domain.Sale} without blocking a thread per request: the queries
+ * run on the R2DBC connection pool and the responses are written as the rows arrive.
+ */
+@RestController
+@RequestMapping("/api/reactive/sales")
+public class ReactiveSaleResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveSaleResource.class);
+
+    private static final int MAX_POLL_LIMIT = 1000;
+
+    private static final long MAX_POLL_TIMEOUT_SECONDS = 120;
+
+    private final ReactiveSaleQueryService reactiveSaleQueryService;
+
+    public ReactiveSaleResource(ReactiveSaleQueryService reactiveSaleQueryService) {
+        this.reactiveSaleQueryService = reactiveSaleQueryService;
+    }
+
+    /**
+     * {@code GET  /reactive/sales} : stream all the matching sales, as newline delimited JSON.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param sort the sort of the sales.
+     * @return the {@link Flux} of the sales, read from the database as fast as the client reads them.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SaleDTO> streamSales(SaleCriteria criteria, Sort sort) {
+        LOG.debug("REST request to stream Sales by criteria: {}", criteria);
+        return reactiveSaleQueryService.findByCriteria(criteria, Pageable.unpaged(sort));
+    }
+
+    /**
+     * {@code GET  /reactive/sales} : get a page of the matching sales.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @return the {@link Flux} of the sales of the page.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<SaleDTO> getAllSales(SaleCriteria criteria, @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get Sales by criteria: {}", criteria);
+        return reactiveSaleQueryService.findByCriteria(criteria, pageable);
+    }
+
+    /**
+     * {@code GET  /reactive/sales/count} : count all the matching sales.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link Mono} of the count.
+     */
+    @GetMapping("/count")
+    public Mono<Long> countSales(SaleCriteria criteria) {
+        LOG.debug("REST request to count Sales by criteria: {}", criteria);
+        return reactiveSaleQueryService.countByCriteria(criteria);
+    }
+
+    /**
+     * {@code GET  /reactive/sales/poll} : long poll the matching sales created after a given one.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param afterId the id of the last sale already received.
+     * @param limit the maximum number of sales, at most 1000.
+     * @param timeout the maximum wait in seconds, at most 120.
+     * @return the {@link Mono} of the sales by id, as soon as there are some, or of an empty list on timeout.
+     */
+    @GetMapping("/poll")
+    public Mono<List<SaleDTO>> pollSales(
+        SaleCriteria criteria,
+        @RequestParam("afterId") long afterId,
+        @RequestParam(name = "limit", defaultValue = "100") int limit,
+        @RequestParam(name = "timeout", defaultValue = "30") long timeout
+    ) {
+        LOG.debug("REST request to poll Sales after {} by criteria: {}", afterId, criteria);
+        return reactiveSaleQueryService.poll(
+            criteria,
+            afterId,
+            Math.max(1, Math.min(limit, MAX_POLL_LIMIT)),
+            Duration.ofSeconds(Math.max(0, Math.min(timeout, MAX_POLL_TIMEOUT_SECONDS)))
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import com.sales.system.service.dto.TransactionLogDTO;
+import com.sales.system.service.reactive.ReactiveTransactionLogQueryService;
+import java.time.Duration;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for reading {@link com.sales.system.domain.TransactionLog} without blocking a thread per request: the
+ * queries run on the R2DBC connection pool and the responses are written as the rows arrive. The archived transaction
+ * logs are not read.
+ */
+@RestController
+@RequestMapping("/api/reactive/transaction-logs")
+public class ReactiveTransactionLogResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveTransactionLogResource.class);
+
+    private static final int MAX_POLL_LIMIT = 1000;
+
+    private static final long MAX_POLL_TIMEOUT_SECONDS = 120;
+
+    private final ReactiveTransactionLogQueryService reactiveTransactionLogQueryService;
+
+    public ReactiveTransactionLogResource(ReactiveTransactionLogQueryService reactiveTransactionLogQueryService) {
+        this.reactiveTransactionLogQueryService = reactiveTransactionLogQueryService;
+    }
+
+    /**
+     * {@code GET  /reactive/transaction-logs} : stream all the matching transaction logs, as newline delimited JSON.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param sort the sort of the transaction logs.
+     * @return the {@link Flux} of the transaction logs, read from the database as fast as the client reads them.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionLogDTO> streamTransactionLogs(TransactionLogCriteria criteria, Sort sort) {
+        LOG.debug("REST request to stream TransactionLogs by criteria: {}", criteria);
+        return reactiveTransactionLogQueryService.findByCriteria(criteria, Pageable.unpaged(sort));
+    }
+
+    /**
+     * {@code GET  /reactive/transaction-logs} : get a page of the matching transaction logs.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @return the {@link Flux} of the transaction logs of the page.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<TransactionLogDTO> getAllTransactionLogs(
+        TransactionLogCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get TransactionLogs by criteria: {}", criteria);
+        return reactiveTransactionLogQueryService.findByCriteria(criteria, pageable);
+    }
+
+    /**
+     * {@code GET  /reactive/transaction-logs/count} : count all the matching transaction logs.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link Mono} of the count.
+     */
+    @GetMapping("/count")
+    public Mono<Long> countTransactionLogs(TransactionLogCriteria criteria) {
+        LOG.debug("REST request to count TransactionLogs by criteria: {}", criteria);
+        return reactiveTransactionLogQueryService.countByCriteria(criteria);
+    }
+
+    /**
+     * {@code GET  /reactive/transaction-logs/poll} : long poll the matching transaction logs created after a given one.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param afterId the id of the last transaction log already received.
+     * @param limit the maximum number of transaction logs, at most 1000.
+     * @param timeout the maximum wait in seconds, at most 120.
+     * @return the {@link Mono} of the transaction logs by id, as soon as there are some, or of an empty list on timeout.
+     */
+    @GetMapping("/poll")
+    public Mono<List<TransactionLogDTO>> pollTransactionLogs(
+        TransactionLogCriteria criteria,
+        @RequestParam("afterId") long afterId,
+        @RequestParam(name = "limit", defaultValue = "100") int limit,
+        @RequestParam(name = "timeout", defaultValue = "30") long timeout
+    ) {
+        LOG.debug("REST request to poll TransactionLogs after {} by criteria: {}", afterId, criteria);
+        return reactiveTransactionLogQueryService.poll(
+            criteria,
+            afterId,
+            Math.max(1, Math.min(limit, MAX_POLL_LIMIT)),
+            Duration.ofSeconds(Math.max(0, Math.min(timeout, MAX_POLL_TIMEOUT_SECONDS)))
+        );
+    }
+}
@@ -0,0 +1,110 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.security.AuthoritiesConstants;
+import com.sales.system.service.SalesRollupService;
+import com.sales.system.service.dto.SalesRollupDTO;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the sales reports, served from the daily sales rollups.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportResource.class);
+
+    private static final String ENTITY_NAME = "report";
+
+    private final SalesRollupService salesRollupService;
+
+    public ReportResource(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    /**
+     * {@code GET  /reports/sales/:dimension} : report the sales by day or month and seller, product or client.
+     *
+     * @param dimension {@code sellers}, {@code products} or {@code clients}.
+     * @param from the first day to report (UTC).
+     * @param to the last day to report (UTC).
+     * @param granularity {@code day} or {@code month}.
+     * @param id the seller, product or client to report, all if missing.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rows in body, ordered by period and id.
+     */
+    @GetMapping("/sales/{dimension}")
+    public ResponseEntity<List<SalesRollupDTO>> reportSales(
+        @PathVariable("dimension") String dimension,
+        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(name = "granularity", defaultValue = "day") String granularity,
+        @RequestParam(name = "id", required = false) Long id
+    ) {
+        LOG.debug("REST request to report Sales by {} from {} to {}", dimension, from, to);
+        if (from.isAfter(to)) {
+            throw new BadRequestAlertException("The range ends before it starts", ENTITY_NAME, "invalidrange");
+        }
+        return ResponseEntity.ok().body(salesRollupService.report(parseRollup(dimension), parseGranularity(granularity), from, to, id));
+    }
+
+    /**
+     * {@code POST  /reports/rollups/rebuild} : rebuild the sales rollups of a range of days from the sales.
+     *
+     * @param from the first day to rebuild, from the first sale if missing.
+     * @param to the last day to rebuild, until the last sale if missing.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of rows written to each rollup in body.
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<SalesRollupService.Rollup, Integer>> rebuildRollups(
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LOG.debug("REST request to rebuild the sales rollups from {} to {}", from, to);
+        return ResponseEntity.ok().body(salesRollupService.rebuild(from, to));
+    }
+
+    /**
+     * {@code GET  /reports/rollups/reconcile} : compare the sales rollups of a range of days with the sales.
+     *
+     * @param from the first day to compare, from the first sale if missing.
+     * @param to the last day to compare, until the last sale if missing.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of mismatching rows of each rollup in body.
+     */
+    @GetMapping("/rollups/reconcile")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<SalesRollupService.Rollup, Long>> reconcileRollups(
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LOG.debug("REST request to reconcile the sales rollups from {} to {}", from, to);
+        return ResponseEntity.ok().body(salesRollupService.reconcile(from, to));
+    }
+
+    private static SalesRollupService.Rollup parseRollup(String dimension) {
+        return switch (dimension) {
+            case "sellers" -> SalesRollupService.Rollup.SELLER;
+            case "products" -> SalesRollupService.Rollup.PRODUCT;
+            case "clients" -> SalesRollupService.Rollup.CLIENT;
+            default -> throw new BadRequestAlertException("Invalid report dimension: " + dimension, ENTITY_NAME, "invaliddimension");
+        };
+    }
+
+    private static SalesRollupService.Granularity parseGranularity(String granularity) {
+        try {
+            return SalesRollupService.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid report granularity: " + granularity, ENTITY_NAME, "invalidgranularity");
+        }
+    }
+}
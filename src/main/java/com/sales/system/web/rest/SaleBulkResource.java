@@ -0,0 +1,113 @@
+package com.sales.system.web.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sales.system.service.SaleBulkDeleteService;
+import com.sales.system.service.SaleIngestService;
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.dto.SaleBulkDeleteResultDTO;
+import com.sales.system.service.dto.SaleIngestResultDTO;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for bulk operations on {@link com.sales.system.domain.Sale}.
+ */
+@RestController
+@RequestMapping("/api/sales/bulk")
+public class SaleBulkResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SaleBulkResource.class);
+
+    private static final String ENTITY_NAME = "sale";
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final SaleIngestService saleIngestService;
+
+    private final SaleBulkDeleteService saleBulkDeleteService;
+
+    private final ObjectWriter writer;
+
+    public SaleBulkResource(SaleIngestService saleIngestService, SaleBulkDeleteService saleBulkDeleteService, ObjectMapper objectMapper) {
+        this.saleIngestService = saleIngestService;
+        this.saleBulkDeleteService = saleBulkDeleteService;
+        this.writer = objectMapper.writerFor(SaleIngestResultDTO.class).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * {@code POST  /sales/bulk} : Create sales, with their transactions, from an NDJSON stream.
+     * <p>
+     * Each request line is a sale with a nested {@code transactions} array. The body may be gzip-compressed,
+     * in which case the request must carry {@code Content-Encoding: gzip}.
+     *
+     * @param request the HTTP request, whose body is read as a stream.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and an NDJSON stream with one
+     * {@link SaleIngestResultDTO} per input line.
+     */
+    @PostMapping(value = "", consumes = { NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE }, produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> ingestSales(HttpServletRequest request) {
+        LOG.debug("REST request to bulk ingest Sales");
+        boolean gzip = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        StreamingResponseBody body = output -> {
+            try (InputStream input = gzip ? new GZIPInputStream(request.getInputStream(), 64 * 1024) : request.getInputStream()) {
+                saleIngestService.ingest(input, result -> write(output, result));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            output.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * {@code POST  /sales/bulk/delete} : Delete sales, with their transactions.
+     *
+     * @param ids the ids of the sales to delete; the unknown ones are ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the summary of the delete in body.
+     */
+    @PostMapping("/delete")
+    public ResponseEntity<SaleBulkDeleteResultDTO> deleteSales(@RequestBody List<Long> ids) {
+        LOG.debug("REST request to bulk delete {} Sales", ids.size());
+        return ResponseEntity.ok(saleBulkDeleteService.deleteSales(ids));
+    }
+
+    /**
+     * {@code DELETE  /sales/bulk} : Delete the sales matching the criteria, with their transactions.
+     *
+     * @param criteria the criteria which the deleted sales match, at least one of them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the summary of the delete in body,
+     * or with status {@code 400 (Bad Request)} if there is no criteria.
+     */
+    @DeleteMapping("")
+    public ResponseEntity<SaleBulkDeleteResultDTO> deleteSalesByCriteria(SaleCriteria criteria) {
+        LOG.debug("REST request to bulk delete Sales by criteria: {}", criteria);
+        if (criteria == null || criteria.equals(new SaleCriteria())) {
+            throw new BadRequestAlertException("A bulk delete needs at least one criteria", ENTITY_NAME, "criteriaempty");
+        }
+        return ResponseEntity.ok(saleBulkDeleteService.deleteSales(criteria));
+    }
+
+    private void write(OutputStream output, SaleIngestResultDTO result) {
+        try {
+            output.write(writer.writeValueAsBytes(result));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.sales.system.web.rest;
+
+import com.sales.system.security.AuthoritiesConstants;
+import com.sales.system.service.dto.SaleReconciliationDTO;
+import com.sales.system.service.dto.SaleReconciliationMismatchDTO;
+import com.sales.system.service.pricing.SaleTotalReconciliationService;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the reconciliations of the sale totals with their lines.
+ */
+@RestController
+@RequestMapping("/api/admin/sale-reconciliations")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class SaleReconciliationResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SaleReconciliationResource.class);
+
+    private static final String ENTITY_NAME = "saleReconciliation";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final SaleTotalReconciliationService saleTotalReconciliationService;
+
+    public SaleReconciliationResource(SaleTotalReconciliationService saleTotalReconciliationService) {
+        this.saleTotalReconciliationService = saleTotalReconciliationService;
+    }
+
+    /**
+     * {@code POST  /admin/sale-reconciliations} : start a reconciliation of all the sales, in the background.
+     *
+     * @param mode {@code report} to only record the sales whose total does not match their lines, {@code repair} to also fix them.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the run in body,
+     * or with status {@code 400 (Bad Request)} if a run is already in progress.
+     */
+    @PostMapping("")
+    public ResponseEntity<SaleReconciliationDTO> startReconciliation(@RequestParam(name = "mode", defaultValue = "report") String mode) {
+        LOG.debug("REST request to start a {} reconciliation of the Sale totals", mode);
+        SaleReconciliationDTO run = running(saleTotalReconciliationService.start(parseMode(mode)));
+        return ResponseEntity.accepted().location(URI.create("/api/admin/sale-reconciliations/" + run.getId())).body(run);
+    }
+
+    /**
+     * {@code POST  /admin/sale-reconciliations/:id/resume} : resume an unfinished reconciliation from its checkpoint.
+     *
+     * @param id the id of the run to resume.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the run in body,
+     * or with status {@code 400 (Bad Request)} if it is completed or a run is already in progress,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<SaleReconciliationDTO> resumeReconciliation(@PathVariable("id") Long id) {
+        LOG.debug("REST request to resume the reconciliation of the Sale totals : {}", id);
+        Optional<SaleReconciliationDTO> existing = saleTotalReconciliationService.findOne(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (existing.get().getStatus() == SaleReconciliationDTO.Status.COMPLETED) {
+            throw new BadRequestAlertException("The reconciliation is completed", ENTITY_NAME, "completed");
+        }
+        return ResponseEntity.accepted().body(running(saleTotalReconciliationService.resume(id)));
+    }
+
+    /**
+     * {@code GET  /admin/sale-reconciliations} : get the latest reconciliations.
+     *
+     * @param size the number of runs.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the runs in body, the latest first.
+     */
+    @GetMapping("")
+    public List<SaleReconciliationDTO> getReconciliations(@RequestParam(name = "size", defaultValue = "20") int size) {
+        LOG.debug("REST request to get the latest reconciliations of the Sale totals");
+        return saleTotalReconciliationService.findLatest(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * {@code GET  /admin/sale-reconciliations/:id} : get a reconciliation and its progress.
+     *
+     * @param id the id of the run.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the run in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<SaleReconciliationDTO> getReconciliation(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the reconciliation of the Sale totals : {}", id);
+        return ResponseUtil.wrapOrNotFound(saleTotalReconciliationService.findOne(id));
+    }
+
+    /**
+     * {@code GET  /admin/sale-reconciliations/:id/mismatches} : get the sales found by a reconciliation.
+     *
+     * @param id the id of the run.
+     * @param afterSaleId the last sale id of the previous page, to get the next one.
+     * @param size the number of sales.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the sales in body, by increasing id.
+     */
+    @GetMapping("/{id}/mismatches")
+    public List<SaleReconciliationMismatchDTO> getMismatches(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "afterSaleId", required = false) Long afterSaleId,
+        @RequestParam(name = "size", defaultValue = "100") int size
+    ) {
+        LOG.debug("REST request to get the mismatches of the reconciliation of the Sale totals : {}", id);
+        return saleTotalReconciliationService.findMismatches(id, afterSaleId, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    private static SaleReconciliationDTO running(Optional<SaleReconciliationDTO> run) {
+        return run.orElseThrow(() -> new BadRequestAlertException("A reconciliation is already running", ENTITY_NAME, "running"));
+    }
+
+    private static SaleReconciliationDTO.Mode parseMode(String mode) {
+        try {
+            return SaleReconciliationDTO.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid reconciliation mode: " + mode, ENTITY_NAME, "invalidmode");
+        }
+    }
+}
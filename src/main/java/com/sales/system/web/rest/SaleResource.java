@@ -1,26 +1,42 @@
 package com.sales.system.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sales.system.domain.Sale;
 import com.sales.system.repository.SaleRepository;
+import com.sales.system.service.EntityTagService;
+import com.sales.system.service.KeysetPage;
+import com.sales.system.service.SaleInclude;
 import com.sales.system.service.SaleQueryService;
 import com.sales.system.service.SaleService;
+import com.sales.system.service.TotalCount;
 import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.dto.CheckoutDTO;
 import com.sales.system.service.dto.SaleDTO;
+import com.sales.system.service.dto.SaleReceiptDTO;
 import com.sales.system.web.rest.errors.BadRequestAlertException;
+import com.sales.system.web.rest.util.EntityVersionUtil;
+import com.sales.system.web.rest.util.KeysetPaginationUtil;
+import com.sales.system.web.rest.util.TotalCountPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -37,6 +53,8 @@ public class SaleResource {
 
     private static final String ENTITY_NAME = "sale";
 
+    private static final String INCLUDE_PARAM = "include";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,10 +64,18 @@ public class SaleResource {
 
     private final SaleQueryService saleQueryService;
 
-    public SaleResource(SaleService saleService, SaleRepository saleRepository, SaleQueryService saleQueryService) {
+    private final EntityTagService entityTagService;
+
+    public SaleResource(
+        SaleService saleService,
+        SaleRepository saleRepository,
+        SaleQueryService saleQueryService,
+        EntityTagService entityTagService
+    ) {
         this.saleService = saleService;
         this.saleRepository = saleRepository;
         this.saleQueryService = saleQueryService;
+        this.entityTagService = entityTagService;
     }
 
     /**
@@ -71,20 +97,39 @@ public class SaleResource {
             .body(saleDTO);
     }
 
+    /**
+     * {@code POST  /sales/checkout} : Create a new sale with all its transactions in one call.
+     *
+     * @param checkoutDTO the sale header and its lines.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the receipt, with server-computed subtotals and total.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/checkout")
+    public ResponseEntity<SaleReceiptDTO> checkout(@Valid @RequestBody CheckoutDTO checkoutDTO) throws URISyntaxException {
+        LOG.debug("REST request to checkout Sale : {}", checkoutDTO);
+        SaleReceiptDTO receipt = saleService.checkout(checkoutDTO);
+        return ResponseEntity.created(new URI("/api/sales/" + receipt.getSale().getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, receipt.getSale().getId().toString()))
+            .body(receipt);
+    }
+
     /**
      * {@code PUT  /sales/:id} : Updates an existing sale.
      *
      * @param id the id of the saleDTO to save.
      * @param saleDTO the saleDTO to update.
+     * @param ifMatch the entity tag of the sale, if the saleDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleDTO,
      * or with status {@code 400 (Bad Request)} if the saleDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the sale was updated since,
      * or with status {@code 500 (Internal Server Error)} if the saleDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SaleDTO> updateSale(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody SaleDTO saleDTO
+        @Valid @RequestBody SaleDTO saleDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Sale : {}, {}", id, saleDTO);
         if (saleDTO.getId() == null) {
@@ -93,12 +138,11 @@ public class SaleResource {
         if (!Objects.equals(id, saleDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        saleDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, saleDTO.getVersion(), ENTITY_NAME));
 
-        if (!saleRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        saleDTO = saleService.update(saleDTO);
+        saleDTO = saleService
+            .update(saleDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleDTO.getId().toString()))
             .body(saleDTO);
@@ -109,16 +153,18 @@ public class SaleResource {
      *
      * @param id the id of the saleDTO to save.
      * @param saleDTO the saleDTO to update.
+     * @param ifMatch the entity tag of the sale, if the saleDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleDTO,
      * or with status {@code 400 (Bad Request)} if the saleDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the saleDTO is not found,
+     * or with status {@code 409 (Conflict)} if the sale was updated since,
      * or with status {@code 500 (Internal Server Error)} if the saleDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/{id}", consumes = "application/json")
     public ResponseEntity<SaleDTO> partialUpdateSale(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody SaleDTO saleDTO
+        @NotNull @RequestBody SaleDTO saleDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Sale partially : {}, {}", id, saleDTO);
         if (saleDTO.getId() == null) {
@@ -127,17 +173,47 @@ public class SaleResource {
         if (!Objects.equals(id, saleDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        saleDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, saleDTO.getVersion(), ENTITY_NAME));
+
+        SaleDTO result = saleService
+            .partialUpdate(saleDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        if (!saleRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleDTO.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code PATCH  /sales/:id} : Applies a JSON merge patch (RFC 7396) to an existing sale: the members of the
+     * patch replace the fields of the same name, and the {@code null} ones clear them.
+     *
+     * @param id the id of the sale to patch.
+     * @param patch the merge patch, whose {@code version}, if any, is the one the sale was read at.
+     * @param ifMatch the entity tag of the sale, if the patch has no version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched saleDTO,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid, or the sale is not found,
+     * or with status {@code 409 (Conflict)} if the sale was updated since.
+     */
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<SaleDTO> mergePatchSale(
+        @PathVariable(value = "id") final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        LOG.debug("REST request to merge patch Sale : {}, {}", id, patch);
+        if (patch.hasNonNull("id") && patch.get("id").asLong() != id) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        patch = EntityVersionUtil.resolveVersion(ifMatch, patch, ENTITY_NAME);
 
-        Optional<SaleDTO> result = saleService.partialUpdate(saleDTO);
+        SaleDTO result = saleService
+            .mergePatch(id, patch)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleDTO.getId().toString())
-        );
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
     }
 
     /**
@@ -145,42 +221,95 @@ public class SaleResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor if present, switches to keyset pagination: empty for the first page, then the cursor of the {@code next} link.
+     * @param count how the {@code X-Total-Count} header is produced: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}.
+     * @param include the relationships added to each sale: {@code transactions}, and {@code product} for their whole products.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sales in body.
      */
     @GetMapping("")
     public ResponseEntity<List<SaleDTO>> getAllSales(
         SaleCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count,
+        @RequestParam(name = INCLUDE_PARAM, required = false) String include,
+        WebRequest request
     ) {
         LOG.debug("REST request to get Sales by criteria: {}", criteria);
+        Set<SaleInclude> includes = parseIncludes(include);
+        if (request.checkNotModified(entityTagService.collectionTag(Sale.class))) {
+            return null;
+        }
+        if (cursor != null) {
+            KeysetPage<SaleDTO> keysetPage = saleQueryService.findByCriteria(criteria, cursor, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keysetPage
+            );
+            return ResponseEntity.ok().headers(headers).body(saleService.include(keysetPage.content(), includes));
+        }
+
+        TotalCount.Mode countMode = TotalCountPaginationUtil.parseMode(count);
+        if (countMode != TotalCount.Mode.EXACT) {
+            Slice<SaleDTO> slice = saleQueryService.findSliceByCriteria(criteria, pageable);
+            TotalCount total = countMode == TotalCount.Mode.NONE ? null : saleQueryService.countByCriteria(criteria, countMode);
+            HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                total
+            );
+            return ResponseEntity.ok().headers(headers).body(saleService.include(slice.getContent(), includes));
+        }
 
         Page<SaleDTO> page = saleQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        headers.add(TotalCountPaginationUtil.HEADER_TOTAL_COUNT_MODE, "exact");
+        return ResponseEntity.ok().headers(headers).body(saleService.include(page.getContent(), includes));
     }
 
     /**
      * {@code GET  /sales/count} : count all the sales.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param count how the count is produced: {@code exact} (default), {@code cached} or {@code estimated}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, with the mode that produced it
+     * in the {@code X-Total-Count-Mode} header.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countSales(SaleCriteria criteria) {
+    public ResponseEntity<Long> countSales(
+        SaleCriteria criteria,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to count Sales by criteria: {}", criteria);
-        return ResponseEntity.ok().body(saleQueryService.countByCriteria(criteria));
+        TotalCount total = saleQueryService.countByCriteria(criteria, TotalCountPaginationUtil.parseMode(count));
+        return ResponseEntity.ok().headers(TotalCountPaginationUtil.generateTotalCountModeHttpHeaders(total.mode())).body(total.value());
     }
 
     /**
      * {@code GET  /sales/:id} : get the "id" sale.
      *
      * @param id the id of the saleDTO to retrieve.
+     * @param include the relationships added to the sale: {@code transactions}, and {@code product} for their whole products.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches;
+     * the responses including relationships are not tagged.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saleDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SaleDTO> getSale(@PathVariable("id") Long id) {
+    public ResponseEntity<SaleDTO> getSale(
+        @PathVariable("id") Long id,
+        @RequestParam(name = INCLUDE_PARAM, required = false) String include,
+        WebRequest request
+    ) {
         LOG.debug("REST request to get Sale : {}", id);
-        Optional<SaleDTO> saleDTO = saleService.findOne(id);
+        Set<SaleInclude> includes = parseIncludes(include);
+        if (includes.isEmpty()) {
+            Optional<String> entityTag = saleRepository.findEntityTagById(id);
+            if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+                return null;
+            }
+        }
+        Optional<SaleDTO> saleDTO = saleService.findOne(id).map(sale -> saleService.include(List.of(sale), includes).get(0));
         return ResponseUtil.wrapOrNotFound(saleDTO);
     }
 
@@ -198,4 +327,25 @@ public class SaleResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Parse the comma separated relationships of the {@code include} parameter.
+     */
+    private static Set<SaleInclude> parseIncludes(String include) {
+        Set<SaleInclude> includes = EnumSet.noneOf(SaleInclude.class);
+        if (include == null || include.isBlank()) {
+            return includes;
+        }
+        for (String value : include.split(",")) {
+            switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "transactions" -> includes.add(SaleInclude.TRANSACTIONS);
+                case "product", "transactions.product" -> {
+                    includes.add(SaleInclude.TRANSACTIONS);
+                    includes.add(SaleInclude.PRODUCT);
+                }
+                default -> throw new BadRequestAlertException("Invalid include: " + value, ENTITY_NAME, "invalidinclude");
+            }
+        }
+        return includes;
+    }
 }
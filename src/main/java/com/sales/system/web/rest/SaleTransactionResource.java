@@ -1,9 +1,15 @@
 package com.sales.system.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sales.system.domain.SaleTransaction;
 import com.sales.system.repository.SaleTransactionRepository;
+import com.sales.system.service.EntityTagService;
+import com.sales.system.service.SaleBulkDeleteService;
 import com.sales.system.service.SaleTransactionService;
+import com.sales.system.service.dto.SaleBulkDeleteResultDTO;
 import com.sales.system.service.dto.SaleTransactionDTO;
 import com.sales.system.web.rest.errors.BadRequestAlertException;
+import com.sales.system.web.rest.util.EntityVersionUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -19,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -42,9 +49,20 @@ public class SaleTransactionResource {
 
     private final SaleTransactionRepository saleTransactionRepository;
 
-    public SaleTransactionResource(SaleTransactionService saleTransactionService, SaleTransactionRepository saleTransactionRepository) {
+    private final EntityTagService entityTagService;
+
+    private final SaleBulkDeleteService saleBulkDeleteService;
+
+    public SaleTransactionResource(
+        SaleTransactionService saleTransactionService,
+        SaleTransactionRepository saleTransactionRepository,
+        EntityTagService entityTagService,
+        SaleBulkDeleteService saleBulkDeleteService
+    ) {
         this.saleTransactionService = saleTransactionService;
         this.saleTransactionRepository = saleTransactionRepository;
+        this.entityTagService = entityTagService;
+        this.saleBulkDeleteService = saleBulkDeleteService;
     }
 
     /**
@@ -72,15 +90,18 @@ public class SaleTransactionResource {
      *
      * @param id the id of the saleTransactionDTO to save.
      * @param saleTransactionDTO the saleTransactionDTO to update.
+     * @param ifMatch the entity tag of the saleTransaction, if the saleTransactionDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleTransactionDTO,
      * or with status {@code 400 (Bad Request)} if the saleTransactionDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the saleTransaction was updated since,
      * or with status {@code 500 (Internal Server Error)} if the saleTransactionDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SaleTransactionDTO> updateSaleTransaction(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody SaleTransactionDTO saleTransactionDTO
+        @Valid @RequestBody SaleTransactionDTO saleTransactionDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update SaleTransaction : {}, {}", id, saleTransactionDTO);
         if (saleTransactionDTO.getId() == null) {
@@ -89,12 +110,11 @@ public class SaleTransactionResource {
         if (!Objects.equals(id, saleTransactionDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        saleTransactionDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, saleTransactionDTO.getVersion(), ENTITY_NAME));
 
-        if (!saleTransactionRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        saleTransactionDTO = saleTransactionService.update(saleTransactionDTO);
+        saleTransactionDTO = saleTransactionService
+            .update(saleTransactionDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleTransactionDTO.getId().toString()))
             .body(saleTransactionDTO);
@@ -105,16 +125,18 @@ public class SaleTransactionResource {
      *
      * @param id the id of the saleTransactionDTO to save.
      * @param saleTransactionDTO the saleTransactionDTO to update.
+     * @param ifMatch the entity tag of the saleTransaction, if the saleTransactionDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleTransactionDTO,
      * or with status {@code 400 (Bad Request)} if the saleTransactionDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the saleTransactionDTO is not found,
+     * or with status {@code 409 (Conflict)} if the saleTransaction was updated since,
      * or with status {@code 500 (Internal Server Error)} if the saleTransactionDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/{id}", consumes = "application/json")
     public ResponseEntity<SaleTransactionDTO> partialUpdateSaleTransaction(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody SaleTransactionDTO saleTransactionDTO
+        @NotNull @RequestBody SaleTransactionDTO saleTransactionDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update SaleTransaction partially : {}, {}", id, saleTransactionDTO);
         if (saleTransactionDTO.getId() == null) {
@@ -123,17 +145,47 @@ public class SaleTransactionResource {
         if (!Objects.equals(id, saleTransactionDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        saleTransactionDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, saleTransactionDTO.getVersion(), ENTITY_NAME));
+
+        SaleTransactionDTO result = saleTransactionService
+            .partialUpdate(saleTransactionDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        if (!saleTransactionRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleTransactionDTO.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code PATCH  /sale-transactions/:id} : Applies a JSON merge patch (RFC 7396) to an existing saleTransaction: the members of the
+     * patch replace the fields of the same name, and the {@code null} ones clear them.
+     *
+     * @param id the id of the saleTransaction to patch.
+     * @param patch the merge patch, whose {@code version}, if any, is the one the saleTransaction was read at.
+     * @param ifMatch the entity tag of the saleTransaction, if the patch has no version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched saleTransactionDTO,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid, or the saleTransaction is not found,
+     * or with status {@code 409 (Conflict)} if the saleTransaction was updated since.
+     */
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<SaleTransactionDTO> mergePatchSaleTransaction(
+        @PathVariable(value = "id") final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        LOG.debug("REST request to merge patch SaleTransaction : {}, {}", id, patch);
+        if (patch.hasNonNull("id") && patch.get("id").asLong() != id) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        patch = EntityVersionUtil.resolveVersion(ifMatch, patch, ENTITY_NAME);
 
-        Optional<SaleTransactionDTO> result = saleTransactionService.partialUpdate(saleTransactionDTO);
+        SaleTransactionDTO result = saleTransactionService
+            .mergePatch(id, patch)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleTransactionDTO.getId().toString())
-        );
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
     }
 
     /**
@@ -141,14 +193,19 @@ public class SaleTransactionResource {
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of saleTransactions in body.
      */
     @GetMapping("")
     public ResponseEntity<List<SaleTransactionDTO>> getAllSaleTransactions(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        WebRequest request
     ) {
         LOG.debug("REST request to get a page of SaleTransactions");
+        if (request.checkNotModified(entityTagService.collectionTag(SaleTransaction.class))) {
+            return null;
+        }
         Page<SaleTransactionDTO> page;
         if (eagerload) {
             page = saleTransactionService.findAllWithEagerRelationships(pageable);
@@ -163,11 +220,16 @@ public class SaleTransactionResource {
      * {@code GET  /sale-transactions/:id} : get the "id" saleTransaction.
      *
      * @param id the id of the saleTransactionDTO to retrieve.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saleTransactionDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SaleTransactionDTO> getSaleTransaction(@PathVariable("id") Long id) {
+    public ResponseEntity<SaleTransactionDTO> getSaleTransaction(@PathVariable("id") Long id, WebRequest request) {
         LOG.debug("REST request to get SaleTransaction : {}", id);
+        Optional<String> entityTag = saleTransactionRepository.findEntityTagById(id);
+        if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+            return null;
+        }
         Optional<SaleTransactionDTO> saleTransactionDTO = saleTransactionService.findOne(id);
         return ResponseUtil.wrapOrNotFound(saleTransactionDTO);
     }
@@ -186,4 +248,16 @@ public class SaleTransactionResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code POST  /sale-transactions/bulk/delete} : Delete saleTransactions.
+     *
+     * @param ids the ids of the saleTransactions to delete; the unknown ones are ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the summary of the delete in body.
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<SaleBulkDeleteResultDTO> deleteSaleTransactions(@RequestBody List<Long> ids) {
+        LOG.debug("REST request to bulk delete {} SaleTransactions", ids.size());
+        return ResponseEntity.ok(saleBulkDeleteService.deleteSaleTransactions(ids));
+    }
 }
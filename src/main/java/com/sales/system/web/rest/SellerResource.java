@@ -1,11 +1,19 @@
 package com.sales.system.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sales.system.domain.Seller;
 import com.sales.system.repository.SellerRepository;
+import com.sales.system.service.EntityTagService;
+import com.sales.system.service.KeysetPage;
 import com.sales.system.service.SellerQueryService;
 import com.sales.system.service.SellerService;
+import com.sales.system.service.TotalCount;
 import com.sales.system.service.criteria.SellerCriteria;
 import com.sales.system.service.dto.SellerDTO;
 import com.sales.system.web.rest.errors.BadRequestAlertException;
+import com.sales.system.web.rest.util.EntityVersionUtil;
+import com.sales.system.web.rest.util.KeysetPaginationUtil;
+import com.sales.system.web.rest.util.TotalCountPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -18,9 +26,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -46,10 +56,18 @@ public class SellerResource {
 
     private final SellerQueryService sellerQueryService;
 
-    public SellerResource(SellerService sellerService, SellerRepository sellerRepository, SellerQueryService sellerQueryService) {
+    private final EntityTagService entityTagService;
+
+    public SellerResource(
+        SellerService sellerService,
+        SellerRepository sellerRepository,
+        SellerQueryService sellerQueryService,
+        EntityTagService entityTagService
+    ) {
         this.sellerService = sellerService;
         this.sellerRepository = sellerRepository;
         this.sellerQueryService = sellerQueryService;
+        this.entityTagService = entityTagService;
     }
 
     /**
@@ -76,15 +94,18 @@ public class SellerResource {
      *
      * @param id the id of the sellerDTO to save.
      * @param sellerDTO the sellerDTO to update.
+     * @param ifMatch the entity tag of the seller, if the sellerDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated sellerDTO,
      * or with status {@code 400 (Bad Request)} if the sellerDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the seller was updated since,
      * or with status {@code 500 (Internal Server Error)} if the sellerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SellerDTO> updateSeller(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody SellerDTO sellerDTO
+        @Valid @RequestBody SellerDTO sellerDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Seller : {}, {}", id, sellerDTO);
         if (sellerDTO.getId() == null) {
@@ -93,12 +114,11 @@ public class SellerResource {
         if (!Objects.equals(id, sellerDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        sellerDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, sellerDTO.getVersion(), ENTITY_NAME));
 
-        if (!sellerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        sellerDTO = sellerService.update(sellerDTO);
+        sellerDTO = sellerService
+            .update(sellerDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, sellerDTO.getId().toString()))
             .body(sellerDTO);
@@ -109,16 +129,18 @@ public class SellerResource {
      *
      * @param id the id of the sellerDTO to save.
      * @param sellerDTO the sellerDTO to update.
+     * @param ifMatch the entity tag of the seller, if the sellerDTO has no version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated sellerDTO,
      * or with status {@code 400 (Bad Request)} if the sellerDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the sellerDTO is not found,
+     * or with status {@code 409 (Conflict)} if the seller was updated since,
      * or with status {@code 500 (Internal Server Error)} if the sellerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/{id}", consumes = "application/json")
     public ResponseEntity<SellerDTO> partialUpdateSeller(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody SellerDTO sellerDTO
+        @NotNull @RequestBody SellerDTO sellerDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Seller partially : {}, {}", id, sellerDTO);
         if (sellerDTO.getId() == null) {
@@ -127,17 +149,47 @@ public class SellerResource {
         if (!Objects.equals(id, sellerDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        sellerDTO.setVersion(EntityVersionUtil.resolveVersion(ifMatch, sellerDTO.getVersion(), ENTITY_NAME));
+
+        SellerDTO result = sellerService
+            .partialUpdate(sellerDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        if (!sellerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, sellerDTO.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code PATCH  /sellers/:id} : Applies a JSON merge patch (RFC 7396) to an existing seller: the members of the
+     * patch replace the fields of the same name, and the {@code null} ones clear them.
+     *
+     * @param id the id of the seller to patch.
+     * @param patch the merge patch, whose {@code version}, if any, is the one the seller was read at.
+     * @param ifMatch the entity tag of the seller, if the patch has no version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched sellerDTO,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid, or the seller is not found,
+     * or with status {@code 409 (Conflict)} if the seller was updated since.
+     */
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public ResponseEntity<SellerDTO> mergePatchSeller(
+        @PathVariable(value = "id") final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        LOG.debug("REST request to merge patch Seller : {}, {}", id, patch);
+        if (patch.hasNonNull("id") && patch.get("id").asLong() != id) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        patch = EntityVersionUtil.resolveVersion(ifMatch, patch, ENTITY_NAME);
 
-        Optional<SellerDTO> result = sellerService.partialUpdate(sellerDTO);
+        SellerDTO result = sellerService
+            .mergePatch(id, patch)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, sellerDTO.getId().toString())
-        );
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
     }
 
     /**
@@ -145,17 +197,47 @@ public class SellerResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor if present, switches to keyset pagination: empty for the first page, then the cursor of the {@code next} link.
+     * @param count how the {@code X-Total-Count} header is produced: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sellers in body.
      */
     @GetMapping("")
     public ResponseEntity<List<SellerDTO>> getAllSellers(
         SellerCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count,
+        WebRequest request
     ) {
         LOG.debug("REST request to get Sellers by criteria: {}", criteria);
+        if (request.checkNotModified(entityTagService.collectionTag(Seller.class))) {
+            return null;
+        }
+        if (cursor != null) {
+            KeysetPage<SellerDTO> keysetPage = sellerQueryService.findByCriteria(criteria, cursor, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keysetPage
+            );
+            return ResponseEntity.ok().headers(headers).body(keysetPage.content());
+        }
+
+        TotalCount.Mode countMode = TotalCountPaginationUtil.parseMode(count);
+        if (countMode != TotalCount.Mode.EXACT) {
+            Slice<SellerDTO> slice = sellerQueryService.findSliceByCriteria(criteria, pageable);
+            TotalCount total = countMode == TotalCount.Mode.NONE ? null : sellerQueryService.countByCriteria(criteria, countMode);
+            HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                total
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
 
         Page<SellerDTO> page = sellerQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.add(TotalCountPaginationUtil.HEADER_TOTAL_COUNT_MODE, "exact");
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -163,23 +245,34 @@ public class SellerResource {
      * {@code GET  /sellers/count} : count all the sellers.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param count how the count is produced: {@code exact} (default), {@code cached} or {@code estimated}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, with the mode that produced it
+     * in the {@code X-Total-Count-Mode} header.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countSellers(SellerCriteria criteria) {
+    public ResponseEntity<Long> countSellers(
+        SellerCriteria criteria,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to count Sellers by criteria: {}", criteria);
-        return ResponseEntity.ok().body(sellerQueryService.countByCriteria(criteria));
+        TotalCount total = sellerQueryService.countByCriteria(criteria, TotalCountPaginationUtil.parseMode(count));
+        return ResponseEntity.ok().headers(TotalCountPaginationUtil.generateTotalCountModeHttpHeaders(total.mode())).body(total.value());
     }
 
     /**
      * {@code GET  /sellers/:id} : get the "id" seller.
      *
      * @param id the id of the sellerDTO to retrieve.
+     * @param request the request, answered with status {@code 304 (Not Modified)} when its {@code If-None-Match} header matches.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the sellerDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SellerDTO> getSeller(@PathVariable("id") Long id) {
+    public ResponseEntity<SellerDTO> getSeller(@PathVariable("id") Long id, WebRequest request) {
         LOG.debug("REST request to get Seller : {}", id);
+        Optional<String> entityTag = sellerRepository.findEntityTagById(id);
+        if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+            return null;
+        }
         Optional<SellerDTO> sellerDTO = sellerService.findOne(id);
         return ResponseUtil.wrapOrNotFound(sellerDTO);
     }
@@ -1,11 +1,15 @@
 package com.sales.system.web.rest;
 
 import com.sales.system.repository.TransactionLogRepository;
+import com.sales.system.service.KeysetPage;
+import com.sales.system.service.TotalCount;
 import com.sales.system.service.TransactionLogQueryService;
 import com.sales.system.service.TransactionLogService;
 import com.sales.system.service.criteria.TransactionLogCriteria;
 import com.sales.system.service.dto.TransactionLogDTO;
 import com.sales.system.web.rest.errors.BadRequestAlertException;
+import com.sales.system.web.rest.util.KeysetPaginationUtil;
+import com.sales.system.web.rest.util.TotalCountPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -18,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -150,17 +155,42 @@ public class TransactionLogResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor if present, switches to keyset pagination: empty for the first page, then the cursor of the {@code next} link.
+     * @param count how the {@code X-Total-Count} header is produced: {@code exact} (default), {@code cached}, {@code estimated} or {@code none}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of transactionLogs in body.
      */
     @GetMapping("")
     public ResponseEntity<List<TransactionLogDTO>> getAllTransactionLogs(
         TransactionLogCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count
     ) {
         LOG.debug("REST request to get TransactionLogs by criteria: {}", criteria);
+        if (cursor != null) {
+            KeysetPage<TransactionLogDTO> keysetPage = transactionLogQueryService.findByCriteria(criteria, cursor, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keysetPage
+            );
+            return ResponseEntity.ok().headers(headers).body(keysetPage.content());
+        }
+
+        TotalCount.Mode countMode = TotalCountPaginationUtil.parseMode(count);
+        if (countMode != TotalCount.Mode.EXACT) {
+            Slice<TransactionLogDTO> slice = transactionLogQueryService.findSliceByCriteria(criteria, pageable);
+            TotalCount total = countMode == TotalCount.Mode.NONE ? null : transactionLogQueryService.countByCriteria(criteria, countMode);
+            HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                total
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
 
         Page<TransactionLogDTO> page = transactionLogQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.add(TotalCountPaginationUtil.HEADER_TOTAL_COUNT_MODE, "exact");
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -168,12 +198,18 @@ public class TransactionLogResource {
      * {@code GET  /transaction-logs/count} : count all the transactionLogs.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param count how the count is produced: {@code exact} (default), {@code cached} or {@code estimated}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, with the mode that produced it
+     * in the {@code X-Total-Count-Mode} header.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countTransactionLogs(TransactionLogCriteria criteria) {
+    public ResponseEntity<Long> countTransactionLogs(
+        TransactionLogCriteria criteria,
+        @RequestParam(name = TotalCountPaginationUtil.COUNT_PARAM, required = false) String count
+    ) {
         LOG.debug("REST request to count TransactionLogs by criteria: {}", criteria);
-        return ResponseEntity.ok().body(transactionLogQueryService.countByCriteria(criteria));
+        TotalCount total = transactionLogQueryService.countByCriteria(criteria, TotalCountPaginationUtil.parseMode(count));
+        return ResponseEntity.ok().headers(TotalCountPaginationUtil.generateTotalCountModeHttpHeaders(total.mode())).body(total.value());
     }
 
     /**
@@ -3,6 +3,7 @@ package com.sales.system.web.rest.errors;
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -94,6 +95,25 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         ) return (ProblemDetailWithCause) new EmailAlreadyUsedException().getBody();
         if (ex instanceof com.sales.system.service.InvalidPasswordException) return (ProblemDetailWithCause) new InvalidPasswordException()
             .getBody();
+        if (ex instanceof com.sales.system.service.InvalidCursorException) return (ProblemDetailWithCause) new BadRequestAlertException(
+            ex.getMessage(),
+            "pagination",
+            "invalidcursor"
+        ).getBody();
+        if (
+            ex instanceof com.sales.system.service.analytics.InvalidAnalyticsQueryException
+        ) return (ProblemDetailWithCause) new BadRequestAlertException(ex.getMessage(), "analytics", "invalidquery").getBody();
+        if (
+            ex instanceof com.sales.system.service.catalog.InvalidCatalogImportException
+        ) return (ProblemDetailWithCause) new BadRequestAlertException(ex.getMessage(), "catalogImport", "invalidfile").getBody();
+        if (
+            ex instanceof com.sales.system.service.reactive.InvalidReactiveQueryException
+        ) return (ProblemDetailWithCause) new BadRequestAlertException(ex.getMessage(), "reactive", "invalidquery").getBody();
+        if (ex instanceof com.sales.system.service.InvalidMergePatchException) return (ProblemDetailWithCause) new BadRequestAlertException(
+            ex.getMessage(),
+            "mergePatch",
+            "invalidpatch"
+        ).getBody();
 
         if (
             ex instanceof ErrorResponseException exp && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause
@@ -131,6 +151,11 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
             (problemProperties == null || !problemProperties.containsKey(FIELD_ERRORS_KEY))
         ) problem.setProperty(FIELD_ERRORS_KEY, getFieldErrors(fieldException));
 
+        if (
+            (err instanceof ConstraintViolationException violationException) &&
+            (problemProperties == null || !problemProperties.containsKey(FIELD_ERRORS_KEY))
+        ) problem.setProperty(FIELD_ERRORS_KEY, getFieldErrors(violationException));
+
         problem.setCause(buildCause(err.getCause(), request).orElse(null));
 
         return problem;
@@ -155,6 +180,20 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
             .toList();
     }
 
+    private List<FieldErrorVM> getFieldErrors(ConstraintViolationException ex) {
+        return ex
+            .getConstraintViolations()
+            .stream()
+            .map(v ->
+                new FieldErrorVM(
+                    StringUtils.uncapitalize(v.getRootBeanClass().getSimpleName()).replaceFirst("DTO$", ""),
+                    v.getPropertyPath().toString(),
+                    v.getMessage()
+                )
+            )
+            .toList();
+    }
+
     private String extractTitleForResponseStatus(Throwable err, int statusCode) {
         ResponseStatus specialStatus = extractResponseStatus(err);
         return specialStatus == null ? HttpStatus.valueOf(statusCode).getReasonPhrase() : specialStatus.reason();
@@ -185,11 +224,12 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
     private URI getMappedType(Throwable err) {
         if (err instanceof MethodArgumentNotValidException) return ErrorConstants.CONSTRAINT_VIOLATION_TYPE;
+        if (err instanceof ConstraintViolationException) return ErrorConstants.CONSTRAINT_VIOLATION_TYPE;
         return ErrorConstants.DEFAULT_TYPE;
     }
 
     private String getMappedMessageKey(Throwable err) {
-        if (err instanceof MethodArgumentNotValidException) {
+        if (err instanceof MethodArgumentNotValidException || err instanceof ConstraintViolationException) {
             return ErrorConstants.ERR_VALIDATION;
         } else if (err instanceof ConcurrencyFailureException || err.getCause() instanceof ConcurrencyFailureException) {
             return ErrorConstants.ERR_CONCURRENCY_FAILURE;
@@ -199,6 +239,7 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
     private String getCustomizedTitle(Throwable err) {
         if (err instanceof MethodArgumentNotValidException) return "Method argument not valid";
+        if (err instanceof ConstraintViolationException) return "Constraint violation";
         return null;
     }
 
@@ -217,6 +258,8 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof AccessDeniedException) return HttpStatus.FORBIDDEN;
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof BadCredentialsException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof ConstraintViolationException) return HttpStatus.BAD_REQUEST;
+        if (err instanceof com.sales.system.service.analytics.AnalyticsNotReadyException) return HttpStatus.SERVICE_UNAVAILABLE;
         return null;
     }
 
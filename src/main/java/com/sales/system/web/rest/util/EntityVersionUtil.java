@@ -0,0 +1,80 @@
+package com.sales.system.web.rest.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Utility class for the optimistic locking of the updates of the versioned entities.
+ * <p>
+ * A {@code PUT} or {@code PATCH} tells the version the entity was read at either in its body, as the {@code version}
+ * field, or in its {@code If-Match} header, as the entity tag of the {@code GET} of the entity, which starts with its
+ * version, followed by the versions of the related entities it shows, if any. The update then fails if the entity was
+ * changed since. An update telling neither, as the clients predating the versions do, or with {@code If-Match: *},
+ * updates the entity whatever its version.
+ */
+public final class EntityVersionUtil {
+
+    private static final String VERSION = "version";
+
+    private static final String ANY = "*";
+
+    private EntityVersionUtil() {}
+
+    /**
+     * Return the version an update applies to.
+     *
+     * @param ifMatch the {@code If-Match} header, or {@code null}.
+     * @param version the version of the body, or {@code null}.
+     * @param entityName the name of the entity, for the errors.
+     * @return the version, or {@code null} if neither the header nor the body tells it, or for {@code If-Match: *}
+     * without a version in the body.
+     * @throws BadRequestAlertException if the header is not the entity tag of a version, or not the one of the body.
+     */
+    public static Long resolveVersion(String ifMatch, Long version, String entityName) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return version;
+        }
+        String tag = ifMatch.trim();
+        if (ANY.equals(tag)) {
+            return version;
+        }
+        Long matched = parseEntityTag(tag, entityName);
+        if (version != null && !version.equals(matched)) {
+            throw new BadRequestAlertException("The If-Match header is not the version of the body", entityName, "versionmismatch");
+        }
+        return matched;
+    }
+
+    /**
+     * Return a merge patch with the version it applies to.
+     *
+     * @param ifMatch the {@code If-Match} header, or {@code null}.
+     * @param patch the merge patch, whose {@code version} member, if any, is the version.
+     * @param entityName the name of the entity, for the errors.
+     * @return the patch, with the version of the header as its {@code version} member if it has none.
+     * @see #resolveVersion(String, Long, String)
+     */
+    public static JsonNode resolveVersion(String ifMatch, JsonNode patch, String entityName) {
+        Long version = patch.hasNonNull(VERSION) ? patch.get(VERSION).asLong() : null;
+        Long resolved = resolveVersion(ifMatch, version, entityName);
+        if (version == null && resolved != null && patch instanceof ObjectNode object) {
+            object.put(VERSION, resolved);
+        }
+        return patch;
+    }
+
+    private static Long parseEntityTag(String tag, String entityName) {
+        String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+        if (opaque.length() > 2 && opaque.startsWith("\"") && opaque.endsWith("\"")) {
+            try {
+                String versions = opaque.substring(1, opaque.length() - 1);
+                int related = versions.indexOf('-');
+                return Long.valueOf(related < 0 ? versions : versions.substring(0, related));
+            } catch (NumberFormatException e) {
+                // not the tag of a version
+            }
+        }
+        throw new BadRequestAlertException("The If-Match header is not the entity tag of a version: " + tag, entityName, "invalidifmatch");
+    }
+}
@@ -0,0 +1,37 @@
+package com.sales.system.web.rest.util;
+
+import com.sales.system.service.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Pagination uses the same principles as the <a href="https://docs.github.com/rest/guides/using-pagination-in-the-rest-api">GitHub API</a>,
+ * with a {@code cursor} query parameter instead of a page number. No {@code X-Total-Count} header is sent.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate the {@code Link} header pointing to the next page, if there is one.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param page the page that is returned.
+     * @param <T> the type of the page content.
+     * @return the HTTP headers.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, KeysetPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            String next = uriBuilder.replaceQueryParam("page").replaceQueryParam(CURSOR_PARAM, page.nextCursor()).toUriString();
+            headers.add(HttpHeaders.LINK, String.format(HEADER_LINK_FORMAT, next, "next"));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sales.system.web.rest.util;
+
+import com.sales.system.service.TotalCount;
+import com.sales.system.web.rest.errors.BadRequestAlertException;
+import java.util.Locale;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for handling pagination with a total count that is not necessarily exact.
+ * <p>
+ * The {@code count} query parameter selects the {@link TotalCount.Mode}: {@code exact} (the default), {@code cached},
+ * {@code estimated} or {@code none}. The mode that actually produced the {@code X-Total-Count} header is sent in the
+ * {@code X-Total-Count-Mode} header; with {@code none} there is no {@code X-Total-Count}, and no {@code last} link.
+ */
+public final class TotalCountPaginationUtil {
+
+    public static final String COUNT_PARAM = "count";
+
+    public static final String HEADER_TOTAL_COUNT_MODE = "X-Total-Count-Mode";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private TotalCountPaginationUtil() {}
+
+    /**
+     * Parse the {@code count} query parameter.
+     *
+     * @param count the parameter value, or {@code null}.
+     * @return the requested mode, {@link TotalCount.Mode#EXACT} if none is requested.
+     * @throws BadRequestAlertException if the value is not a mode.
+     */
+    public static TotalCount.Mode parseMode(String count) {
+        if (count == null || count.isEmpty()) {
+            return TotalCount.Mode.EXACT;
+        }
+        try {
+            return TotalCount.Mode.valueOf(count.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid count mode: " + count, "pagination", "invalidcountmode");
+        }
+    }
+
+    /**
+     * Generate the pagination headers of a slice.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the slice that is returned.
+     * @param total the total count, or {@code null} when it was not requested.
+     * @param <T> the type of the slice content.
+     * @return the HTTP headers.
+     */
+    public static <T> HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, TotalCount total) {
+        if (total != null) {
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+                uriBuilder,
+                new PageImpl<>(slice.getContent(), slice.getPageable(), total.value())
+            );
+            headers.add(HEADER_TOTAL_COUNT_MODE, modeHeaderValue(total.mode()));
+            return headers;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        headers.add(HEADER_TOTAL_COUNT_MODE, modeHeaderValue(TotalCount.Mode.NONE));
+        return headers;
+    }
+
+    /**
+     * Generate the headers stating how a total count was produced.
+     *
+     * @param mode the mode that produced the count.
+     * @return the HTTP headers.
+     */
+    public static HttpHeaders generateTotalCountModeHttpHeaders(TotalCount.Mode mode) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_TOTAL_COUNT_MODE, modeHeaderValue(mode));
+        return headers;
+    }
+
+    private static String modeHeaderValue(TotalCount.Mode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return String.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
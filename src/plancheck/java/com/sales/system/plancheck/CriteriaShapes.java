@@ -0,0 +1,200 @@
+package com.sales.system.plancheck;
+
+import com.sales.system.service.ClientQueryService;
+import com.sales.system.service.ProductQueryService;
+import com.sales.system.service.SaleQueryService;
+import com.sales.system.service.SellerQueryService;
+import com.sales.system.service.TransactionLogQueryService;
+import com.sales.system.service.criteria.ClientCriteria;
+import com.sales.system.service.criteria.ProductCriteria;
+import com.sales.system.service.criteria.SaleCriteria;
+import com.sales.system.service.criteria.SellerCriteria;
+import com.sales.system.service.criteria.TransactionLogCriteria;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The filter shapes of the criteria, as the REST resources receive them, with values taken from the generated dataset.
+ * <p>
+ * A shape runs the page and the count of its criteria through the query service. Only the filters that should be
+ * served by an index are listed: the {@code contains} filters of the strings and the ranges of the totals are
+ * sequential scans by design.
+ */
+final class CriteriaShapes {
+
+    /**
+     * A named filter shape.
+     */
+    record Shape(String name, Runnable query) {}
+
+    private static final int PAGE_SIZE = 20;
+
+    private CriteriaShapes() {}
+
+    static List<Shape> of(ApplicationContext context, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        Samples samples = transactionTemplate.execute(status -> Samples.read(jdbcTemplate));
+        SaleQueryService sales = context.getBean(SaleQueryService.class);
+        TransactionLogQueryService transactionLogs = context.getBean(TransactionLogQueryService.class);
+        ProductQueryService products = context.getBean(ProductQueryService.class);
+        ClientQueryService clients = context.getBean(ClientQueryService.class);
+        SellerQueryService sellers = context.getBean(SellerQueryService.class);
+        Pageable byId = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        Pageable newestSales = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "creationDate"));
+        Pageable newestLogs = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "timestamp"));
+        Pageable byName = PageRequest.of(0, PAGE_SIZE, Sort.by("name"));
+
+        List<Shape> shapes = new ArrayList<>();
+
+        SaleCriteria saleById = new SaleCriteria();
+        saleById.id().setIn(List.of(samples.saleId, samples.saleId + 1, samples.saleId + 2));
+        shapes.add(shape("sale id.in", saleById, byId, sales::findByCriteria, sales::countByCriteria));
+
+        SaleCriteria saleByClient = new SaleCriteria();
+        saleByClient.clientId().setEquals(samples.clientId);
+        shapes.add(shape("sale clientId.equals", saleByClient, byId, sales::findByCriteria, sales::countByCriteria));
+        shapes.add(shape("sale clientId.equals, newest first", saleByClient, newestSales, sales::findByCriteria, sales::countByCriteria));
+
+        SaleCriteria saleByClientInMonth = new SaleCriteria();
+        saleByClientInMonth.clientId().setEquals(samples.clientId);
+        saleByClientInMonth.creationDate().setGreaterThanOrEqual(samples.month).setLessThan(samples.month.plus(30, ChronoUnit.DAYS));
+        shapes.add(
+            shape("sale clientId.equals, creationDate month", saleByClientInMonth, byId, sales::findByCriteria, sales::countByCriteria)
+        );
+
+        SaleCriteria saleBySellerInDay = new SaleCriteria();
+        saleBySellerInDay.sellerId().setEquals(samples.sellerId);
+        saleBySellerInDay.creationDate().setGreaterThanOrEqual(samples.day).setLessThan(samples.day.plus(1, ChronoUnit.DAYS));
+        shapes.add(
+            shape("sale sellerId.equals, creationDate day", saleBySellerInDay, newestSales, sales::findByCriteria, sales::countByCriteria)
+        );
+
+        SaleCriteria saleInDay = new SaleCriteria();
+        saleInDay.creationDate().setGreaterThanOrEqual(samples.day).setLessThan(samples.day.plus(1, ChronoUnit.DAYS));
+        shapes.add(shape("sale creationDate day", saleInDay, byId, sales::findByCriteria, sales::countByCriteria));
+
+        SaleCriteria saleByTransaction = new SaleCriteria();
+        saleByTransaction.transactionsId().setEquals(samples.saleTransactionId);
+        shapes.add(shape("sale transactionsId.equals", saleByTransaction, byId, sales::findByCriteria, sales::countByCriteria));
+
+        TransactionLogCriteria logBySaleTransaction = new TransactionLogCriteria();
+        logBySaleTransaction.saleTransactionId().setEquals(samples.saleTransactionId);
+        shapes.add(
+            shape(
+                "transactionLog saleTransactionId.equals, newest first",
+                logBySaleTransaction,
+                newestLogs,
+                transactionLogs::findByCriteria,
+                transactionLogs::countByCriteria
+            )
+        );
+
+        TransactionLogCriteria logInHour = new TransactionLogCriteria();
+        logInHour.timestamp().setGreaterThanOrEqual(samples.hour).setLessThan(samples.hour.plus(1, ChronoUnit.HOURS));
+        shapes.add(
+            shape("transactionLog timestamp hour", logInHour, byId, transactionLogs::findByCriteria, transactionLogs::countByCriteria)
+        );
+
+        TransactionLogCriteria logOfTypeInHour = new TransactionLogCriteria();
+        logOfTypeInHour.timestamp().setGreaterThanOrEqual(samples.hour).setLessThan(samples.hour.plus(1, ChronoUnit.HOURS));
+        logOfTypeInHour.operationType().setEquals(samples.operationType);
+        shapes.add(
+            shape(
+                "transactionLog timestamp hour, operationType.equals",
+                logOfTypeInHour,
+                newestLogs,
+                transactionLogs::findByCriteria,
+                transactionLogs::countByCriteria
+            )
+        );
+
+        ProductCriteria productByCategory = new ProductCriteria();
+        productByCategory.category().setEquals(samples.category);
+        shapes.add(shape("product category.equals", productByCategory, byName, products::findByCriteria, products::countByCriteria));
+
+        ClientCriteria clientByLastName = new ClientCriteria();
+        clientByLastName.lastName().setEquals(samples.lastName);
+        shapes.add(shape("client lastName.equals", clientByLastName, byName, clients::findByCriteria, clients::countByCriteria));
+
+        ClientCriteria clientByMobile = new ClientCriteria();
+        clientByMobile.mobile().setEquals(samples.mobile);
+        shapes.add(shape("client mobile.equals", clientByMobile, byId, clients::findByCriteria, clients::countByCriteria));
+
+        SellerCriteria sellerByEmployeeCode = new SellerCriteria();
+        sellerByEmployeeCode.employeeCode().setEquals(samples.employeeCode);
+        shapes.add(shape("seller employeeCode.equals", sellerByEmployeeCode, byId, sellers::findByCriteria, sellers::countByCriteria));
+
+        return shapes;
+    }
+
+    private static <C> Shape shape(String name, C criteria, Pageable page, BiFunction<C, Pageable, ?> find, Function<C, ?> count) {
+        return new Shape(name, () -> {
+            find.apply(criteria, page);
+            count.apply(criteria);
+        });
+    }
+
+    /**
+     * Filter values of typical selectivity: those of a sale in the middle of the generated ones.
+     */
+    private record Samples(
+        long saleId,
+        long clientId,
+        long sellerId,
+        long saleTransactionId,
+        Instant month,
+        Instant day,
+        Instant hour,
+        String operationType,
+        String category,
+        String lastName,
+        String mobile,
+        String employeeCode
+    ) {
+        static Samples read(JdbcTemplate jdbcTemplate) {
+            return jdbcTemplate.queryForObject(
+                """
+                select s.id, s.client_id, s.seller_id, s.creation_date, st.id, l.operation_type, p.category, c.last_name, c.mobile,
+                    e.employee_code
+                from sale s
+                join sale_transaction st on st.sale_id = s.id
+                join transaction_log l on l.sale_transaction_id = st.id
+                join product p on p.id = st.product_id
+                join client c on c.id = s.client_id
+                join seller e on e.id = s.seller_id
+                where s.id >= (select (min(id) + max(id)) / 2 from sale)
+                order by s.id
+                limit 1
+                """,
+                (resultSet, row) -> {
+                    Instant creationDate = resultSet.getObject(4, LocalDateTime.class).toInstant(ZoneOffset.UTC);
+                    return new Samples(
+                        resultSet.getLong(1),
+                        resultSet.getLong(2),
+                        resultSet.getLong(3),
+                        resultSet.getLong(5),
+                        creationDate.truncatedTo(ChronoUnit.DAYS).minus(15, ChronoUnit.DAYS),
+                        creationDate.truncatedTo(ChronoUnit.DAYS),
+                        creationDate.truncatedTo(ChronoUnit.HOURS),
+                        resultSet.getString(6),
+                        resultSet.getString(7),
+                        resultSet.getString(8),
+                        resultSet.getString(9),
+                        resultSet.getString(10)
+                    );
+                }
+            );
+        }
+    }
+}
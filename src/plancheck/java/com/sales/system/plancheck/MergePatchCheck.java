@@ -0,0 +1,141 @@
+package com.sales.system.plancheck;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sales.system.service.TransactionLogWriter;
+import com.sales.system.web.rest.SaleTransactionResource;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Statement count check of the merge patch of a saleTransaction.
+ * <p>
+ * A merge patch changing the quantity of a saleTransaction is run through its REST resource, then the audit entries are
+ * flushed, while every statement is recorded, the selects included: each kind of statement must be run exactly as many
+ * times as {@link #BUDGET budgeted}, and none else. The saleTransaction must be written by a single {@code update}, of
+ * the changed columns only, its generated version being read back by the update itself. The second-level cache is
+ * cleared beforehand, so that the saleTransaction is loaded, whatever the checks run before.
+ */
+final class MergePatchCheck {
+
+    private static final String SAMPLE_SQL =
+        "select id, quantity, version from sale_transaction where id >= (select (min(id) + max(id)) / 2 from sale_transaction) " +
+        "order by id limit 1";
+
+    private static final String UPDATE_PREFIX = "update sale_transaction ";
+
+    /**
+     * The statements expected of the patch, by the prefix they start with, the first matching one counting.
+     */
+    private static final Map<String, Integer> BUDGET = budget(
+        // the lock of the sale, before the rollup deltas are subtracted, then added
+        "select s.id from sale s ",
+        2,
+        // any other select: the saleTransaction, joined with its product and sale, and the client and seller of the sale
+        "select ",
+        1,
+        // the deltas of the three rollups, subtracted then added
+        "insert into sales_rollup_",
+        6,
+        UPDATE_PREFIX,
+        1,
+        "insert into transaction_log ",
+        1
+    );
+
+    /**
+     * The outcome of the check: the recorded statements, and the failures, if any.
+     */
+    record Result(List<StatementRecorder.Statement> statements, List<String> failures) {}
+
+    private MergePatchCheck() {}
+
+    static Result run(
+        ApplicationContext context,
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        StatementRecorder recorder
+    ) {
+        ObjectNode patch = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject(SAMPLE_SQL, (resultSet, row) -> {
+                ObjectNode node = context.getBean(ObjectMapper.class).createObjectNode();
+                node.put("quantity", resultSet.getInt("quantity") + 1);
+                node.put("version", resultSet.getLong("version"));
+                node.put("id", resultSet.getLong("id"));
+                return node;
+            })
+        );
+        long id = patch.remove("id").asLong();
+        SaleTransactionResource resource = context.getBean(SaleTransactionResource.class);
+        TransactionLogWriter transactionLogWriter = context.getBean(TransactionLogWriter.class);
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        List<StatementRecorder.Statement> statements = recorder.record(() -> {
+            resource.mergePatchSaleTransaction(id, patch, null);
+            // in write-behind mode, the audit entry is written by the flusher once the patch is committed
+            transactionLogWriter.flush();
+        });
+
+        List<String> failures = new ArrayList<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        BUDGET.keySet().forEach(prefix -> counts.put(prefix, 0));
+        int others = 0;
+        for (StatementRecorder.Statement statement : statements) {
+            String prefix = prefix(sql(statement));
+            if (prefix != null) {
+                counts.merge(prefix, 1, Integer::sum);
+            } else {
+                others++;
+            }
+        }
+        BUDGET.forEach((prefix, budgeted) -> {
+            int count = counts.get(prefix);
+            if (count != budgeted) {
+                failures.add(count + " statements starting with \"" + prefix.trim() + "\" instead of " + budgeted);
+            }
+        });
+        if (others > 0) {
+            failures.add(others + " statements beyond the budgeted ones");
+        }
+        statements
+            .stream()
+            .map(MergePatchCheck::sql)
+            .filter(sql -> sql.startsWith(UPDATE_PREFIX))
+            .filter(update -> !writesOnly(update, List.of("quantity", "subtotal")))
+            .findFirst()
+            .ifPresent(update -> failures.add("sale_transaction updated beyond the quantity and the subtotal"));
+        return new Result(statements, failures);
+    }
+
+    private static Map<String, Integer> budget(Object... prefixesAndCounts) {
+        Map<String, Integer> budget = new LinkedHashMap<>();
+        for (int i = 0; i < prefixesAndCounts.length; i += 2) {
+            budget.put((String) prefixesAndCounts[i], (Integer) prefixesAndCounts[i + 1]);
+        }
+        return budget;
+    }
+
+    private static String sql(StatementRecorder.Statement statement) {
+        return statement.sql().stripLeading().toLowerCase(Locale.ROOT);
+    }
+
+    private static String prefix(String sql) {
+        return BUDGET.keySet().stream().filter(sql::startsWith).findFirst().orElse(null);
+    }
+
+    private static boolean writesOnly(String update, List<String> columns) {
+        String assignments = update.substring(update.indexOf(" set ") + 5, update.indexOf(" where "));
+        for (String assignment : assignments.split(",")) {
+            if (!columns.contains(assignment.substring(0, assignment.indexOf('=')).trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package com.sales.system.plancheck;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sales.system.SalesSystemApp;
+import com.sales.system.config.ApplicationProperties;
+import com.sales.system.service.datagen.SalesDataGenerator;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Query plan regression check of the criteria filters.
+ * <p>
+ * The application is booted in this JVM, with the {@code dev} profile on an embedded PostgreSQL, and a dataset is
+ * generated by the {@link SalesDataGenerator}, which analyzes the tables. Then every {@link CriteriaShapes shape} is
+ * run through its query service while its queries are recorded, and each of them is explained with the same
+ * parameters: a sequential scan of a table of at least {@code min-rows} rows is reported, along with the query and its
+ * plan, and makes the check exit with a non-zero status. See {@link PlanCheckOptions} for the options.
+ * <p>
+ * Last, every statement of a saleTransaction merge patch, the selects included, is counted by the
+ * {@link MergePatchCheck}, which fails the check the same way.
+ */
+public final class PlanCheck {
+
+    private PlanCheck() {}
+
+    public static void main(String[] args) throws Exception {
+        PlanCheckOptions options = PlanCheckOptions.parse(args);
+        StatementRecorder recorder = new StatementRecorder();
+        List<QueryPlanChecker.Violation> violations = new ArrayList<>();
+        List<String> mergePatchFailures = new ArrayList<>();
+        try (EmbeddedPostgres database = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext application = boot(database, recorder);
+            try {
+                SalesDataGenerator.Result result = application.getBean(SalesDataGenerator.class).generate(dataGenerator(options));
+                System.out.printf(
+                    "Generated %d sales, %d saleTransactions and %d transaction logs in %d ms%n%n",
+                    result.sales(),
+                    result.saleTransactions(),
+                    result.transactionLogs(),
+                    result.millis()
+                );
+
+                JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+                TransactionTemplate transactionTemplate = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+                QueryPlanChecker checker = new QueryPlanChecker(
+                    jdbcTemplate,
+                    transactionTemplate,
+                    application.getBean(ObjectMapper.class),
+                    options.minRows()
+                );
+                for (CriteriaShapes.Shape shape : CriteriaShapes.of(application, jdbcTemplate, transactionTemplate)) {
+                    List<StatementRecorder.Statement> statements = recorder
+                        .record(shape.query())
+                        .stream()
+                        .filter(statement -> !statement.update())
+                        .toList();
+                    List<QueryPlanChecker.Violation> shapeViolations = new ArrayList<>();
+                    for (StatementRecorder.Statement statement : statements) {
+                        shapeViolations.addAll(checker.check(statement));
+                    }
+                    System.out.printf(
+                        "%-60s %d queries, %s%n",
+                        shape.name(),
+                        statements.size(),
+                        shapeViolations.isEmpty() ? "ok" : shapeViolations.size() + " sequential scans"
+                    );
+                    violations.addAll(shapeViolations);
+                }
+
+                MergePatchCheck.Result mergePatch = MergePatchCheck.run(application, jdbcTemplate, transactionTemplate, recorder);
+                System.out.printf(
+                    "%-60s %d statements, %s%n",
+                    "saleTransaction merge patch",
+                    mergePatch.statements().size(),
+                    mergePatch.failures().isEmpty() ? "ok" : String.join(", ", mergePatch.failures())
+                );
+                mergePatchFailures.addAll(mergePatch.failures());
+                if (!mergePatch.failures().isEmpty()) {
+                    mergePatch.statements().forEach(statement -> System.out.println(statement.sql()));
+                }
+            } finally {
+                SpringApplication.exit(application);
+            }
+        }
+
+        for (QueryPlanChecker.Violation violation : violations) {
+            System.out.printf(
+                "%nSequential scan of %s (%d rows) in:%n%s%nparameters: %s%n%s%n",
+                violation.relation(),
+                violation.rows(),
+                violation.statement().sql(),
+                violation.statement().parameters().stream().map(parameter -> parameter.arguments()[1]).toList(),
+                violation.plan()
+            );
+        }
+        if (!violations.isEmpty()) {
+            System.out.printf("%n%d sequential scans of tables of at least %d rows%n", violations.size(), options.minRows());
+        }
+        if (!mergePatchFailures.isEmpty()) {
+            System.out.printf("%nUnexpected statements of the saleTransaction merge patch: %s%n", String.join(", ", mergePatchFailures));
+        }
+        if (!violations.isEmpty() || !mergePatchFailures.isEmpty()) {
+            System.exit(1);
+        }
+        System.out.printf("%nNo sequential scan of tables of at least %d rows%n", options.minRows());
+    }
+
+    private static ApplicationProperties.DataGenerator dataGenerator(PlanCheckOptions options) {
+        ApplicationProperties.DataGenerator dataGenerator = new ApplicationProperties.DataGenerator();
+        dataGenerator.setSeed(options.seed());
+        dataGenerator.setProducts(options.products());
+        dataGenerator.setClients(options.clients());
+        dataGenerator.setSellers(options.sellers());
+        dataGenerator.setSales(options.sales());
+        dataGenerator.setDays(options.days());
+        // the recorder hides the pool size from the generator: leave connections for the rest of the application
+        dataGenerator.setParallelism(4);
+        return dataGenerator;
+    }
+
+    private static ConfigurableApplicationContext boot(EmbeddedPostgres database, StatementRecorder recorder) {
+        // command line arguments, as they must override the dev profile configuration; the archive is left empty
+        String[] arguments = {
+            "--spring.datasource.url=jdbc:postgresql://localhost:" + database.getPort() + "/postgres?reWriteBatchedInserts=true",
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=",
+            "--server.port=0",
+            "--application.liquibase.async-start=false",
+            "--application.archive.after-days=0",
+            "--application.archive.directory=target/plancheck/archive",
+            "--spring.devtools.restart.enabled=false",
+            "--logging.level.ROOT=WARN",
+            "--logging.level.tech.jhipster=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.com.sales.system=INFO",
+        };
+        return new SpringApplicationBuilder(SalesSystemApp.class)
+            .profiles("dev")
+            .initializers(context -> context.getBeanFactory().addBeanPostProcessor(recorder))
+            .run(arguments);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sales.system.plancheck;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the {@link PlanCheck}, given as {@code key=value} arguments.
+ * <ul>
+ * <li>{@code products}, {@code clients}, {@code sellers}, {@code sales}: sizes of the generated dataset (default
+ * {@code 20000}, {@code 100000}, {@code 500} and {@code 300000}).</li>
+ * <li>{@code days}: number of days the sales are spread over (default {@code 365}).</li>
+ * <li>{@code seed}: seed of the generated dataset (default {@code 42}).</li>
+ * <li>{@code min-rows}: estimated rows from which a sequential scan of a table is a regression (default {@code 10000}).</li>
+ * </ul>
+ */
+public record PlanCheckOptions(int products, int clients, int sellers, long sales, int days, long seed, long minRows) {
+    public static PlanCheckOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        PlanCheckOptions options = new PlanCheckOptions(
+            Integer.parseInt(values.getOrDefault("products", "20000")),
+            Integer.parseInt(values.getOrDefault("clients", "100000")),
+            Integer.parseInt(values.getOrDefault("sellers", "500")),
+            Long.parseLong(values.getOrDefault("sales", "300000")),
+            Integer.parseInt(values.getOrDefault("days", "365")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Long.parseLong(values.getOrDefault("min-rows", "10000"))
+        );
+        values.keySet().removeAll(List.of("products", "clients", "sellers", "sales", "days", "seed", "min-rows"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+}
@@ -0,0 +1,106 @@
+package com.sales.system.plancheck;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Explains the recorded queries, and finds the sequential scans of the tables with at least a given number of rows.
+ * <p>
+ * The queries are explained, not run, with the parameters they were executed with: the plans are the ones the
+ * planner chose for these values, with the table statistics at hand.
+ */
+final class QueryPlanChecker {
+
+    private static final String RELTUPLES_SQL = "select coalesce(max(reltuples), 0)::bigint from pg_class where oid = to_regclass(?)";
+
+    /**
+     * A sequential scan of a large table in the plan of a query.
+     */
+    record Violation(String relation, long rows, StatementRecorder.Statement statement, String plan) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final long minRows;
+
+    private final Map<String, Long> rows = new HashMap<>();
+
+    QueryPlanChecker(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper, long minRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.minRows = minRows;
+    }
+
+    /**
+     * Explain a query.
+     *
+     * @param statement the query.
+     * @return the sequential scans of large tables in its plan.
+     */
+    List<Violation> check(StatementRecorder.Statement statement) {
+        String plan = explain(statement);
+        List<String> relations = new ArrayList<>();
+        try {
+            sequentialScans(objectMapper.readTree(plan).path(0).path("Plan"), relations);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected plan: " + plan, e);
+        }
+        List<Violation> violations = new ArrayList<>();
+        for (String relation : relations) {
+            long relationRows = rows.computeIfAbsent(relation, this::estimatedRows);
+            if (relationRows >= minRows) {
+                violations.add(new Violation(relation, relationRows, statement, plan));
+            }
+        }
+        return violations;
+    }
+
+    private String explain(StatementRecorder.Statement statement) {
+        return transactionTemplate.execute(status ->
+            jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> {
+                    try (PreparedStatement explain = connection.prepareStatement("explain (format json) " + statement.sql())) {
+                        for (StatementRecorder.Parameter parameter : statement.parameters()) {
+                            parameter.setter().invoke(explain, parameter.arguments());
+                        }
+                        try (ResultSet resultSet = explain.executeQuery()) {
+                            resultSet.next();
+                            return resultSet.getString(1);
+                        }
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        throw new IllegalStateException("Could not bind the parameters of " + statement.sql(), e);
+                    }
+                }
+            )
+        );
+    }
+
+    private static void sequentialScans(JsonNode node, List<String> relations) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            sequentialScans(child, relations);
+        }
+    }
+
+    private long estimatedRows(String relation) {
+        Long estimate = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(RELTUPLES_SQL, Long.class, relation));
+        return estimate != null ? estimate : 0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.sales.system.plancheck;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Records the statements, with their parameters, that the application runs through its {@link DataSource}.
+ * <p>
+ * The data source bean is wrapped in a proxy handing out proxied connections, whose prepared statements keep the
+ * parameters set on them; while an action runs in {@link #record(Runnable)}, every executed statement is recorded: the
+ * queries, so that they can be replayed with {@code explain}, and the updates, so that they can be counted. The plain
+ * statements, run without parameters, are recorded as well, so that none escapes the counts. A JDBC batch is recorded
+ * once, with the parameters of its last row, as it is sent in a single round trip.
+ */
+final class StatementRecorder implements BeanPostProcessor {
+
+    /**
+     * A parameter of a recorded statement: the {@link PreparedStatement} setter called, and its arguments.
+     */
+    record Parameter(Method setter, Object[] arguments) {}
+
+    /**
+     * A recorded statement: a query, or an update if {@code update} is set, whatever the {@code execute} method it was
+     * run with: Hibernate runs its updates with {@code execute}.
+     */
+    record Statement(String sql, List<Parameter> parameters, boolean update) {}
+
+    private volatile List<Statement> recording;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, dataSource, (method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection connection ? proxyConnection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    /**
+     * Run an action, and return the statements it executed.
+     *
+     * @param action the action.
+     * @return the executed statements, in order.
+     */
+    synchronized List<Statement> record(Runnable action) {
+        List<Statement> statements = new ArrayList<>();
+        recording = statements;
+        try {
+            action.run();
+        } finally {
+            recording = null;
+        }
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    private Connection proxyConnection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return proxyStatement(statement, (String) args[0]);
+            }
+            if (result instanceof java.sql.Statement statement && method.getName().equals("createStatement")) {
+                return proxyPlainStatement(statement);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement proxyStatement(PreparedStatement statement, String sql) {
+        Map<Integer, Parameter> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, statement, (method, args) -> {
+            if (isSetter(method, args)) {
+                parameters.put((Integer) args[0], new Parameter(method, args.clone()));
+            } else if (method.getName().equals("clearParameters")) {
+                parameters.clear();
+            } else if (method.getName().startsWith("execute") && args == null) {
+                add(new Statement(sql, List.copyOf(parameters.values()), !isQuery(sql)));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private java.sql.Statement proxyPlainStatement(java.sql.Statement statement) {
+        return proxy(java.sql.Statement.class, statement, (method, args) -> {
+            if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                add(new Statement(sql, List.of(), !isQuery(sql)));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private void add(Statement statement) {
+        List<Statement> statements = recording;
+        if (statements != null) {
+            synchronized (statements) {
+                statements.add(statement);
+            }
+        }
+    }
+
+    private static boolean isQuery(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private static boolean isSetter(Method method, Object[] args) {
+        return (
+            method.getDeclaringClass() == PreparedStatement.class &&
+            method.getName().startsWith("set") &&
+            args != null &&
+            args.length >= 2 &&
+            args[0] instanceof Integer
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(method, args);
+        return type.cast(Proxy.newProxyInstance(target.getClass().getClassLoader(), new Class<?>[] { type }, invocationHandler));
+    }
+}
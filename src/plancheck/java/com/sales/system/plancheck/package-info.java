@@ -0,0 +1,5 @@
+/**
+ * Query plan regression check of the criteria filters, and statement count check of the merge patch, on a generated
+ * dataset.
+ */
+package com.sales.system.plancheck;